@@ -140,6 +140,9 @@ public class ReferenceValueReplacer {
                 nativeNode.getTypeMap(),
                 nativeNode.getColumnNames(),
                 newQueryString,
+                nativeNode.getParameters().stream()
+                        .map(c -> (DBConstant) transformTerm(c, referenceToInputMap))
+                        .collect(ImmutableCollectors.toList()),
                 nativeNode.getVariableNullability());
     }
 }
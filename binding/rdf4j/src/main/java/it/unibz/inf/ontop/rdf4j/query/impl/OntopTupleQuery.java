@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.rdf4j.query.impl;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.query.RDF4JQueryFactory;
 import it.unibz.inf.ontop.query.SelectQuery;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 
@@ -31,6 +32,21 @@ public class OntopTupleQuery extends AbstractOntopQuery<ParsedTupleQuery> implem
 
     @Override
 	public TupleQueryResult evaluate() throws QueryEvaluationException {
+		TupleResultSet res = evaluateIntoResultSet();
+		try {
+			List<String> signature = res.getSignature();
+			return new OntopTupleQueryResult(res, signature);
+		}
+		catch (OntopConnectionException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	/**
+	 * Returns the Ontop result set, without converting its bindings into RDF4J values.
+	 * For serializing the results directly. The result set must be closed by the caller.
+	 */
+	public TupleResultSet evaluateIntoResultSet() throws QueryEvaluationException {
 		long start = System.currentTimeMillis();
 
 		try {
@@ -52,8 +68,7 @@ public class OntopTupleQuery extends AbstractOntopQuery<ParsedTupleQuery> implem
 				}
 			}
 
-			List<String> signature = res.getSignature();
-			return new OntopTupleQueryResult(res, signature);
+			return res;
 		}
 		catch (QueryEvaluationException e) {
 			throw e;
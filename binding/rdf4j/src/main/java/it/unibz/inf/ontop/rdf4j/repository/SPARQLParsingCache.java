@@ -0,0 +1,43 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+
+import javax.annotation.Nullable;
+
+/**
+ * Parsed SPARQL queries, keyed by the query string and the base IRI.
+ *
+ * Shared by the connections of the same repository. Thread-safe.
+ */
+public interface SPARQLParsingCache {
+
+    /**
+     * Returns a fresh copy of the parsed query, which can be freely modified by the caller
+     */
+    ParsedQuery parse(String queryString, @Nullable String baseIRI) throws MalformedQueryException;
+
+    Statistics getStatistics();
+
+    void clear();
+
+
+    interface Statistics {
+
+        long getHits();
+
+        long getMisses();
+
+        /**
+         * Evictions due to the maximal size or to the expiration
+         */
+        long getEvictions();
+
+        /**
+         * 1.0 if no query has been parsed yet
+         */
+        double getHitRate();
+
+        long getSize();
+    }
+}
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.rdf4j.repository.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -15,7 +16,9 @@ import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.rdf4j.query.impl.*;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import it.unibz.inf.ontop.rdf4j.repository.SPARQLParsingCache;
 
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
@@ -23,6 +26,12 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.SimpleNamespace;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.ProjectionElemList;
+import org.eclipse.rdf4j.query.algebra.Slice;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.parser.*;
 import org.eclipse.rdf4j.queryrender.RenderUtils;
 import org.eclipse.rdf4j.repository.Repository;
@@ -42,10 +51,21 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
 
     private static final String READ_ONLY_MESSAGE = "Ontop is a read-only system";
     private static final Logger LOGGER = LoggerFactory.getLogger(OntopRepositoryConnectionImpl.class);
+
+    private static final String SUBJECT_VARIABLE = "s";
+    private static final String PREDICATE_VARIABLE = "p";
+    private static final String OBJECT_VARIABLE = "o";
+    // Only used for logging and as cache keys (together with the bindings)
+    private static final String TRIPLE_PATTERN_CONSTRUCT_STRING = "CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }";
+    private static final String TRIPLE_PATTERN_ASK_STRING = "ASK { ?s ?p ?o }";
+
     private final OntopRepository repository;
     private final OntopConnection ontopConnection;
     private final RDF4JQueryFactory inputQueryFactory;
+    private final SPARQLParsingCache parsingCache;
     private final OntopSystemSettings settings;
+    // Called once, when the connection is closed
+    private final Runnable closingCallback;
     private boolean isOpen;
     private boolean isActive;
     private final RDFParser rdfParser;
@@ -53,11 +73,14 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
 
 
     OntopRepositoryConnectionImpl(OntopRepository rep, OntopConnection connection,
-                                  RDF4JQueryFactory inputQueryFactory, OntopSystemSettings settings) {
+                                  RDF4JQueryFactory inputQueryFactory, SPARQLParsingCache parsingCache,
+                                  OntopSystemSettings settings, Runnable closingCallback) {
         this.repository = rep;
         this.ontopConnection = connection;
         this.inputQueryFactory = inputQueryFactory;
+        this.parsingCache = parsingCache;
         this.settings = settings;
+        this.closingCallback = closingCallback;
         this.isOpen = true;
         this.isActive = false;
         this.rdfParser = Rio.createParser(RDFFormat.RDFXML, this.repository.getValueFactory());
@@ -127,11 +150,15 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         //Closes the connection, freeing resources.
         //If the connection is not in autoCommit mode,
         //all non-committed operations will be lost.
+        boolean wasOpen = isOpen;
         isOpen = false;
         try {
             ontopConnection.close();
         } catch (Exception e) {
             throw new RepositoryException(e);
+        } finally {
+            if (wasOpen)
+                closingCallback.run();
         }
     }
 
@@ -230,30 +257,72 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         //Gets all statements with a specific subject,
         //predicate and/or object from the repository.
         //The result is optionally restricted to the specified set of named contexts.
+        if (!isDefaultGraph(contexts))
+            return new RepositoryResult<>(new CloseableIteratorIteration<>());
 
-        //construct query for it
-        StringBuilder queryString = new StringBuilder("CONSTRUCT {");
+        try {
+            GraphQuery query = isBindable(subj, pred, obj)
+                    ? bindTriplePattern(new OntopGraphQuery(TRIPLE_PATTERN_CONSTRUCT_STRING, createTriplePatternConstructQuery(),
+                            null, ontopConnection, ImmutableMultimap.of(), inputQueryFactory, settings), subj, pred, obj)
+                    : prepareGraphQuery(QueryLanguage.SPARQL, renderTriplePatternConstructQuery(subj, pred, obj));
+            return new RepositoryResult<>(new GraphQueryResultIteration(query.evaluate()));
+        } catch (MalformedQueryException | QueryEvaluationException e) {
+            throw new RepositoryException(e);
+        }
+    }
 
-        StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
+    private static boolean isDefaultGraph(Resource... contexts) {
+        return contexts.length == 0 || contexts[0] == null;
+    }
 
-        spo = pred == null ? spo.append(" ?p ") : RenderUtils.toSPARQL(pred, spo);
+    /**
+     * Blank nodes cannot be passed as bindings
+     */
+    private static boolean isBindable(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) {
+        return (subj == null || subj.isIRI()) && (obj == null || obj.isIRI() || obj.isLiteral());
+    }
 
-        spo = obj == null ? spo.append(" ?o ") : RenderUtils.toSPARQL(obj, spo);
+    /**
+     * The triple pattern is built directly in the RDF4J algebra (no parsing).
+     * Its bound positions are given as bindings, so that patterns of the same shape
+     * share the same query and can benefit from the query caches.
+     */
+    private static StatementPattern createTriplePattern() {
+        return new StatementPattern(new Var(SUBJECT_VARIABLE), new Var(PREDICATE_VARIABLE), new Var(OBJECT_VARIABLE));
+    }
 
-        queryString.append(spo).append("} WHERE {").append(spo).append("}");
+    private static ParsedGraphQuery createTriplePatternConstructQuery() {
+        ProjectionElemList constructTemplate = new ProjectionElemList(
+                new ProjectionElem(SUBJECT_VARIABLE, "subject"),
+                new ProjectionElem(PREDICATE_VARIABLE, "predicate"),
+                new ProjectionElem(OBJECT_VARIABLE, "object"));
+        return new ParsedGraphQuery(new Projection(createTriplePattern(), constructTemplate), ImmutableMap.of());
+    }
 
-        //execute construct query
-        try {
-            if (contexts.length == 0 || (contexts.length > 0 && contexts[0] == null)) {
-                GraphQuery query = prepareGraphQuery(QueryLanguage.SPARQL,
-                        queryString.toString());
-                GraphQueryResult result = query.evaluate();
-                return new RepositoryResult<>(new CloseableIteratorIteration<>(result.iterator()));
-            }
-            return new RepositoryResult<>(new CloseableIteratorIteration<>());
-        } catch (MalformedQueryException | QueryEvaluationException e) {
-            throw new RepositoryException(e);
-        }
+    /**
+     * Only looks for one triple (LIMIT 1)
+     */
+    private static ParsedBooleanQuery createTriplePatternAskQuery() {
+        return new ParsedBooleanQuery(new Slice(createTriplePattern(), 0, 1));
+    }
+
+    private static <Q extends Query> Q bindTriplePattern(Q query, Resource subj, org.eclipse.rdf4j.model.IRI pred,
+                                                         Value obj) {
+        if (subj != null)
+            query.setBinding(SUBJECT_VARIABLE, subj);
+        if (pred != null)
+            query.setBinding(PREDICATE_VARIABLE, pred);
+        if (obj != null)
+            query.setBinding(OBJECT_VARIABLE, obj);
+        return query;
+    }
+
+    private static String renderTriplePatternConstructQuery(Resource subj, org.eclipse.rdf4j.model.IRI pred, Value obj) {
+        StringBuilder spo = subj == null ? new StringBuilder("?s ") : RenderUtils.toSPARQL(subj, new StringBuilder());
+        spo = pred == null ? spo.append(" ?p ") : RenderUtils.toSPARQL(pred, spo);
+        spo = obj == null ? spo.append(" ?o ") : RenderUtils.toSPARQL(obj, spo);
+
+        return "CONSTRUCT {" + spo + "} WHERE {" + spo + "}";
     }
 
     @Override
@@ -276,8 +345,21 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
                                 boolean includeInferred, Resource... contexts) throws RepositoryException {
         //Checks whether the repository contains statements with a specific subject,
         //predicate and/or object, optionally in the specified contexts.
-        try (RepositoryResult<Statement> stIter = getStatements(subj, pred, obj, includeInferred, contexts)) {
-            return stIter.hasNext();
+        if (!isDefaultGraph(contexts))
+            return false;
+
+        if (!isBindable(subj, pred, obj)) {
+            try (RepositoryResult<Statement> stIter = getStatements(subj, pred, obj, includeInferred, contexts)) {
+                return stIter.hasNext();
+            }
+        }
+
+        try {
+            return bindTriplePattern(new OntopBooleanQuery(TRIPLE_PATTERN_ASK_STRING, createTriplePatternAskQuery(),
+                    null, ontopConnection, ImmutableMultimap.of(), inputQueryFactory, settings), subj, pred, obj)
+                    .evaluate();
+        } catch (QueryEvaluationException e) {
+            throw new RepositoryException(e);
         }
     }
 
@@ -328,7 +410,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedBooleanQuery q = (ParsedBooleanQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedBooleanQuery q = (ParsedBooleanQuery) parsingCache.parse(queryString, safeBaseIRI);
         return new OntopBooleanQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
@@ -356,7 +438,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedGraphQuery q = (ParsedGraphQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedGraphQuery q = (ParsedGraphQuery) parsingCache.parse(queryString, safeBaseIRI);
         return new OntopGraphQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
@@ -392,7 +474,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected! ");
 
         long beforeParsing = System.currentTimeMillis();
-        ParsedQuery q = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+        ParsedQuery q = parsingCache.parse(queryString, baseIRI);
         LOGGER.debug(String.format("Parsing time: %d ms", System.currentTimeMillis() - beforeParsing));
 
         // TODO: why no getSafeBaseIri?
@@ -431,7 +513,7 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
             throw new MalformedQueryException("SPARQL query expected!");
 
         String safeBaseIRI = getSafeBaseIri(baseIRI);
-        ParsedTupleQuery q = (ParsedTupleQuery) QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, safeBaseIRI);
+        ParsedTupleQuery q = (ParsedTupleQuery) parsingCache.parse(queryString, safeBaseIRI);
         return new OntopTupleQuery(queryString, q, safeBaseIRI, ontopConnection, httpHeaders, inputQueryFactory, settings);
     }
 
@@ -636,4 +718,49 @@ public class OntopRepositoryConnectionImpl implements OntopRepositoryConnection
         }
     }
 
+
+
+    /**
+     * Closes the query result (and therefore releases the DB resources) when the repository result is closed
+     */
+    private static class GraphQueryResultIteration implements CloseableIteration<Statement, RepositoryException> {
+
+        private final GraphQueryResult result;
+
+        GraphQueryResultIteration(GraphQueryResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public boolean hasNext() throws RepositoryException {
+            try {
+                return result.hasNext();
+            } catch (QueryEvaluationException e) {
+                throw new RepositoryException(e);
+            }
+        }
+
+        @Override
+        public Statement next() throws RepositoryException {
+            try {
+                return result.next();
+            } catch (QueryEvaluationException e) {
+                throw new RepositoryException(e);
+            }
+        }
+
+        @Override
+        public void remove() throws RepositoryException {
+            throw new RepositoryException(READ_ONLY_MESSAGE);
+        }
+
+        @Override
+        public void close() throws RepositoryException {
+            try {
+                result.close();
+            } catch (QueryEvaluationException e) {
+                throw new RepositoryException(e);
+            }
+        }
+    }
 }
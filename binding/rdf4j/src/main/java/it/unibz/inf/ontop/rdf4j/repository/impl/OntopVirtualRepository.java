@@ -4,11 +4,13 @@ import com.google.inject.Injector;
 import it.unibz.inf.ontop.answering.OntopQueryEngine;
 import it.unibz.inf.ontop.answering.cache.HTTPCacheHeaders;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.query.RDF4JQueryFactory;
 import it.unibz.inf.ontop.injection.OntopSystemConfiguration;
 import it.unibz.inf.ontop.injection.OntopSystemSettings;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import it.unibz.inf.ontop.rdf4j.repository.SPARQLParsingCache;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.repository.RepositoryException;
@@ -18,20 +20,26 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class OntopVirtualRepository extends AbstractRepository implements OntopRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(OntopVirtualRepository.class);
     private final OntopSystemSettings settings;
 
-    // Temporary (dropped after initialization)
-    @Nullable
+    // Kept for reloading the specification
     private final OntopSystemConfiguration configuration;
 
+    // Replaced by reload()
     @Nullable
-    private OntopQueryEngine queryEngine;
+    private volatile LoadedEngine loadedEngine;
+    // Replaced engines still used by some connections
+    private final Set<LoadedEngine> retiredEngines = ConcurrentHashMap.newKeySet();
     private final RDF4JQueryFactory inputQueryFactory;
     private final HTTPCacheHeaders cacheHeaders;
+    // Shared by the connections
+    private final SPARQLParsingCache parsingCache;
 
     public OntopVirtualRepository(OntopSystemConfiguration configuration) {
         this.configuration = configuration;
@@ -39,6 +47,7 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
         inputQueryFactory = injector.getInstance(RDF4JQueryFactory.class);
         cacheHeaders = injector.getInstance(HTTPCacheHeaders.class);
         settings = configuration.getSettings();
+        parsingCache = new SPARQLParsingCacheImpl(settings);
     }
 
     /**
@@ -53,14 +62,33 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
             init();
         }
 
+        LoadedEngine engine = acquireEngine();
         try {
-            return new OntopRepositoryConnectionImpl(this, getOntopConnection(), inputQueryFactory, settings);
+            return new OntopRepositoryConnectionImpl(this, engine.getConnection(), inputQueryFactory, parsingCache,
+                    settings, () -> releaseEngine(engine));
         } catch (Exception e) {
+            releaseEngine(engine);
             logger.error("Error creating repo connection: " + e.getMessage());
             throw new RepositoryException(e);
         }
     }
 
+    /**
+     * The engine may have been replaced (and retired) concurrently
+     */
+    private LoadedEngine acquireEngine() {
+        while (true) {
+            LoadedEngine engine = loadedEngine;
+            if (engine.acquire())
+                return engine;
+        }
+    }
+
+    private void releaseEngine(LoadedEngine engine) {
+        if (engine.release())
+            closeRetiredEngine(engine);
+    }
+
 
     /**
      * This method leads to the reasoner being initialized (connecting to the database,
@@ -68,27 +96,66 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
      */
     @Override
     protected void initializeInternal() throws RepositoryException {
+        loadedEngine = loadEngine();
+        logger.info("Ontop virtual repository initialized successfully!");
+    }
+
+    /**
+     * Reloads the specification (mapping, ontology, DB metadata, etc.) from the configuration
+     * and replaces the query engine, without interrupting the service.
+     *
+     * The new engine is built while the current one keeps answering the queries.
+     * The connections opened before the replacement remain on the previous engine,
+     * which is closed once the last of them is closed.
+     * The new engine starts with an empty query cache.
+     *
+     * If the new specification cannot be loaded, the current engine is kept.
+     */
+    public synchronized void reload() throws RepositoryException {
+        if (!isInitialized()) {
+            init();
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        LoadedEngine newEngine = loadEngine();
+        LoadedEngine previousEngine = loadedEngine;
+        loadedEngine = newEngine;
+        logger.info("Ontop virtual repository reloaded in {} ms", System.currentTimeMillis() - start);
+
+        retiredEngines.add(previousEngine);
+        if (previousEngine.retire())
+            closeRetiredEngine(previousEngine);
+    }
+
+    private LoadedEngine loadEngine() throws RepositoryException {
         try {
-            queryEngine = configuration.loadQueryEngine();
+            OntopQueryEngine queryEngine = configuration.loadQueryEngine();
             queryEngine.connect();
-            logger.info("Ontop virtual repository initialized successfully!");
+            return new LoadedEngine(queryEngine);
         } catch (Exception e) {
             throw new RepositoryException(e);
         }
     }
 
-    /**
-     * Returns a connection which can be used to run queries over the repository
-     * Before this method can be used, initialize() must be called once.
-     */
-    private OntopConnection getOntopConnection() throws RepositoryException {
+    private void closeRetiredEngine(LoadedEngine engine) {
+        retiredEngines.remove(engine);
+        if (!engine.markClosed())
+            return;
         try {
-            return queryEngine.getConnection();
+            engine.queryEngine.close();
         } catch (Exception e) {
-            throw new RepositoryException(e);
+            logger.warn("Error while closing a replaced query engine: " + e.getMessage());
         }
     }
 
+    /**
+     * Number of replaced engines that are not closed yet (some of their connections are still open)
+     */
+    int getRetiredEngineCount() {
+        return retiredEngines.size();
+    }
+
     @Override
     public boolean isWritable() throws RepositoryException {
         return false;
@@ -96,8 +163,13 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
 
     @Override
     protected void shutDownInternal() throws RepositoryException {
+        // The connections still using a replaced engine are not waited for
+        for (LoadedEngine engine : retiredEngines)
+            closeRetiredEngine(engine);
+
         try {
-            queryEngine.close();
+            if (loadedEngine.markClosed())
+                loadedEngine.queryEngine.close();
         } catch (Exception e) {
             throw new RepositoryException(e);
         }
@@ -129,13 +201,77 @@ public class OntopVirtualRepository extends AbstractRepository implements OntopR
         return cacheHeaders;
     }
 
+    public SPARQLParsingCache getSPARQLParsingCache() {
+        return parsingCache;
+    }
+
     /**
      * Useful for the endpoints: allows to share the same query engine for the SPARQL and the predefined query endpoints
+     *
+     * NB: the returned engine is the current one, it is closed after a reload
      */
     public OntopQueryEngine getOntopEngine() {
         if (!isInitialized()) {
             init();
         }
-        return queryEngine;
+        return loadedEngine.queryEngine;
+    }
+
+
+    /**
+     * Query engine with the number of repository connections using it.
+     *
+     * Once retired (i.e. replaced), it does not accept new connections
+     * and must be closed after the last one.
+     */
+    private static class LoadedEngine {
+        private final OntopQueryEngine queryEngine;
+        private int openConnections = 0;
+        private boolean isRetired = false;
+        private boolean isClosed = false;
+
+        private LoadedEngine(OntopQueryEngine queryEngine) {
+            this.queryEngine = queryEngine;
+        }
+
+        OntopConnection getConnection() throws OntopConnectionException {
+            return queryEngine.getConnection();
+        }
+
+        /**
+         * Returns false if retired
+         */
+        synchronized boolean acquire() {
+            if (isRetired)
+                return false;
+            openConnections++;
+            return true;
+        }
+
+        /**
+         * Returns true if the engine must now be closed
+         */
+        synchronized boolean release() {
+            openConnections--;
+            return isRetired && openConnections == 0;
+        }
+
+        /**
+         * Returns true if the engine must now be closed
+         */
+        synchronized boolean retire() {
+            isRetired = true;
+            return openConnections == 0;
+        }
+
+        /**
+         * Returns false if already closed
+         */
+        synchronized boolean markClosed() {
+            if (isClosed)
+                return false;
+            isClosed = true;
+            return true;
+        }
     }
 }
@@ -0,0 +1,160 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+import it.unibz.inf.ontop.rdf4j.repository.SPARQLParsingCache;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.*;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RDF4J algebra is mutable (e.g. parent pointers are updated when the query is translated),
+ * so the cached parsed queries are never handed out: callers receive a deep copy of their tuple expression.
+ *
+ * Malformed queries are not cached.
+ */
+public class SPARQLParsingCacheImpl implements SPARQLParsingCache {
+
+    // Null if disabled
+    @Nullable
+    private final Cache<Key, ParsedQuery> cache;
+
+    public SPARQLParsingCacheImpl(OntopSystemSettings settings) {
+        long maxSize = settings.getSPARQLParsingCacheMaxSize();
+        if (maxSize > 0) {
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .recordStats();
+            long expireAfterAccess = settings.getSPARQLParsingCacheExpireAfterAccess();
+            if (expireAfterAccess > 0)
+                builder.expireAfterAccess(expireAfterAccess, TimeUnit.SECONDS);
+            cache = builder.build();
+        }
+        else
+            cache = null;
+    }
+
+    @Override
+    public ParsedQuery parse(String queryString, @Nullable String baseIRI) throws MalformedQueryException {
+        if (cache == null)
+            return QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+
+        Key key = new Key(queryString, baseIRI);
+        ParsedQuery parsedQuery = cache.getIfPresent(key);
+        if (parsedQuery == null) {
+            parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, queryString, baseIRI);
+            // Copied before being shared, as the caller may modify the original concurrently
+            cache.put(key, copy(parsedQuery));
+            return parsedQuery;
+        }
+        return copy(parsedQuery);
+    }
+
+    private static ParsedQuery copy(ParsedQuery query) {
+        String sourceString = query.getSourceString();
+        TupleExpr tupleExpr = query.getTupleExpr().clone();
+
+        ParsedQuery copy;
+        if (query instanceof ParsedTupleQuery)
+            copy = new ParsedTupleQuery(sourceString, tupleExpr);
+        else if (query instanceof ParsedBooleanQuery)
+            copy = new ParsedBooleanQuery(sourceString, tupleExpr);
+        else if (query instanceof ParsedDescribeQuery)
+            copy = new ParsedDescribeQuery(sourceString, tupleExpr, ((ParsedGraphQuery) query).getQueryNamespaces());
+        else if (query instanceof ParsedGraphQuery)
+            copy = new ParsedGraphQuery(sourceString, tupleExpr, ((ParsedGraphQuery) query).getQueryNamespaces());
+        else
+            throw new MinorOntopInternalBugException("Unexpected parsed query: " + query.getClass());
+
+        copy.setDataset(query.getDataset());
+        return copy;
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return cache == null
+                ? new StatisticsImpl(new CacheStats(0, 0, 0, 0, 0, 0), 0)
+                : new StatisticsImpl(cache.stats(), cache.size());
+    }
+
+    @Override
+    public void clear() {
+        if (cache != null)
+            cache.invalidateAll();
+    }
+
+
+    private static class Key {
+        private final String queryString;
+        @Nullable
+        private final String baseIRI;
+
+        private Key(String queryString, @Nullable String baseIRI) {
+            this.queryString = queryString;
+            this.baseIRI = baseIRI;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return queryString.equals(key.queryString) && Objects.equals(baseIRI, key.baseIRI);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(queryString, baseIRI);
+        }
+    }
+
+
+    private static class StatisticsImpl implements Statistics {
+        private final CacheStats stats;
+        private final long size;
+
+        private StatisticsImpl(CacheStats stats, long size) {
+            this.stats = stats;
+            this.size = size;
+        }
+
+        @Override
+        public long getHits() {
+            return stats.hitCount();
+        }
+
+        @Override
+        public long getMisses() {
+            return stats.missCount();
+        }
+
+        @Override
+        public long getEvictions() {
+            return stats.evictionCount();
+        }
+
+        @Override
+        public double getHitRate() {
+            return stats.hitRate();
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+                    + ", hitRate=" + String.format("%.3f", getHitRate()) + ", size=" + size;
+        }
+    }
+}
@@ -3,10 +3,17 @@ package it.unibz.inf.ontop.rdf4j.repository;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.connection.DBConnector;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.*;
 import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -132,6 +139,27 @@ public class AbstractRDF4JTest {
         return REPO_CONNECTION.reformulateIntoNativeQuery(queryString);
     }
 
+    protected ImmutableMap<String, QueryTemplateCache.Statistics> getQueryTemplateCacheStatistics() {
+        return ((OntopVirtualRepository) REPO_CONNECTION.getRepository()).getOntopEngine()
+                .getQueryReformulator()
+                .getQueryTemplateCacheStatistics();
+    }
+
+    protected QueryExecutor.Statistics getQueryExecutorStatistics() {
+        return ((OntopVirtualRepository) REPO_CONNECTION.getRepository()).getOntopEngine()
+                .getQueryExecutorStatistics();
+    }
+
+    protected DBConnector.Statistics getDBConnectorStatistics() {
+        return ((OntopVirtualRepository) REPO_CONNECTION.getRepository()).getOntopEngine()
+                .getDBConnectorStatistics();
+    }
+
+    protected SPARQLParsingCache.Statistics getSPARQLParsingCacheStatistics() {
+        return ((OntopVirtualRepository) REPO_CONNECTION.getRepository()).getSPARQLParsingCache()
+                .getStatistics();
+    }
+
     protected ImmutableList<String> runQuery(String queryString) {
         return runQuery(queryString, new MapBindingSet());
     }
@@ -218,6 +246,20 @@ public class AbstractRDF4JTest {
         return count;
     }
 
+    protected ImmutableSet<Statement> getStatements(@Nullable Resource subject, @Nullable IRI predicate,
+                                                    @Nullable Value object) {
+        ImmutableSet.Builder<Statement> statementBuilder = ImmutableSet.builder();
+        try (RepositoryResult<Statement> result = REPO_CONNECTION.getStatements(subject, predicate, object, true)) {
+            while (result.hasNext())
+                statementBuilder.add(result.next());
+        }
+        return statementBuilder.build();
+    }
+
+    protected boolean hasStatement(@Nullable Resource subject, @Nullable IRI predicate, @Nullable Value object) {
+        return REPO_CONNECTION.hasStatement(subject, predicate, object, true);
+    }
+
     protected TupleQueryResult evaluate(String queryString) {
         TupleQuery query = REPO_CONNECTION.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
         return query.evaluate();
@@ -0,0 +1,70 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DescribeBatchTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTY_FILE = "/employee/describe-batch.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTY_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testSameAsConstruct() {
+        String describeQuery = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "DESCRIBE ?p\n" +
+                "WHERE {\n" +
+                "  ?p a :Employee .\n" +
+                "}";
+        String constructQuery = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "CONSTRUCT { ?p ?x ?y }\n" +
+                "WHERE {\n" +
+                "  ?p a :Employee ; ?x ?y .\n" +
+                "}";
+
+        ImmutableSet<Statement> expectedGraph = evaluateAndCollect(constructQuery);
+        assertTrue(expectedGraph.size() > 0);
+        runGraphQueryAndCompare(describeQuery, expectedGraph);
+    }
+
+    @Test
+    public void testMaxResources() {
+        String query = "DESCRIBE ?s\n" +
+                "WHERE {\n" +
+                "  ?s ?p ?o .\n" +
+                "}";
+
+        ImmutableSet<Resource> subjects = evaluateAndCollect(query).stream()
+                .map(Statement::getSubject)
+                .collect(ImmutableSet.toImmutableSet());
+        assertEquals(3, subjects.size());
+    }
+
+    private ImmutableSet<Statement> evaluateAndCollect(String query) {
+        try (GraphQueryResult result = evaluateGraph(query)) {
+            return result.stream()
+                    .collect(ImmutableSet.toImmutableSet());
+        }
+    }
+}
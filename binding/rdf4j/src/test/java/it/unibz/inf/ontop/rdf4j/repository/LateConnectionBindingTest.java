@@ -0,0 +1,58 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.DBConnector;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LateConnectionBindingTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTY_FILE = "/employee/late-connection-binding.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTY_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testConnectionsReleased() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  <http://employee.example.org/data/person/1> :firstName ?v .\n" +
+                "}";
+        for (int i = 0; i < 3; i++)
+            runQueryAndCompare(query, ImmutableList.of("Roger"));
+
+        DBConnector.Statistics statistics = getDBConnectorStatistics();
+        assertEquals(0, statistics.getHeldConnections());
+        assertTrue(statistics.getAcquiredConnections() >= 3);
+    }
+
+    @Test
+    public void testConstruct() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "CONSTRUCT {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}\n" +
+                "WHERE {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}";
+        assertTrue(runGraphQueryAndCount(query) > 0);
+        assertEquals(0, getDBConnectorStatistics().getHeldConnections());
+    }
+}
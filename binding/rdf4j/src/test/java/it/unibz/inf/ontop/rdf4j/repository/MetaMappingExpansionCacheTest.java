@@ -0,0 +1,128 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * The classes are given by a column of the DB: a row inserted after the first startup
+ * is only expanded when the expansion queries are run again.
+ */
+public class MetaMappingExpansionCacheTest {
+
+    private static final String QUERY = "SELECT DISTINCT ?c WHERE { ?x a ?c }";
+
+    private Connection sqlConnection;
+    private String jdbcUrl;
+    private Path mappingFile;
+    private Path cacheFile;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            st.executeUpdate("CREATE TABLE \"item\" (\"id\" INT PRIMARY KEY, \"class\" VARCHAR(100) NOT NULL);\n" +
+                    "INSERT INTO \"item\" VALUES (1, 'http://example.org/voc#A');");
+        }
+
+        mappingFile = Files.createTempFile("meta-mapping", ".obda");
+        Files.writeString(mappingFile, "[PrefixDeclaration]\n" +
+                ":\t\thttp://example.org/\n" +
+                "\n" +
+                "[MappingDeclaration] @collection [[\n" +
+                "mappingId\tMAPID-item\n" +
+                "target\t\t:item/{\"id\"} a <{\"class\"}> .\n" +
+                "source\t\tSELECT * FROM \"item\"\n" +
+                "]]\n");
+
+        // Created by the first startup
+        cacheFile = Files.createTempFile("meta-mapping-cache", ".json");
+        Files.delete(cacheFile);
+    }
+
+    @After
+    public void tearDown() throws SQLException, IOException {
+        sqlConnection.close();
+        Files.deleteIfExists(mappingFile);
+        Files.deleteIfExists(cacheFile);
+    }
+
+    @Test
+    public void testSecondStartupRunsNoQuery() throws SQLException {
+        assertEquals(ImmutableSet.of("http://example.org/voc#A"), getClasses(false));
+        assertTrue(Files.exists(cacheFile));
+
+        insertItemOfClassB();
+
+        // The values are read from the cache: B is not expanded
+        assertEquals(ImmutableSet.of("http://example.org/voc#A"), getClasses(false));
+    }
+
+    @Test
+    public void testRefresh() throws SQLException {
+        assertEquals(ImmutableSet.of("http://example.org/voc#A"), getClasses(false));
+
+        insertItemOfClassB();
+
+        assertEquals(ImmutableSet.of("http://example.org/voc#A", "http://example.org/voc#B"), getClasses(true));
+        // The refreshed values are now in the cache
+        assertEquals(ImmutableSet.of("http://example.org/voc#A", "http://example.org/voc#B"), getClasses(false));
+    }
+
+    private void insertItemOfClassB() throws SQLException {
+        try (Statement st = sqlConnection.createStatement()) {
+            st.executeUpdate("INSERT INTO \"item\" VALUES (2, 'http://example.org/voc#B');");
+        }
+    }
+
+    /**
+     * Starts a new repository, which expands the meta-mapping
+     */
+    private ImmutableSet<String> getClasses(boolean refreshCache) {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_CACHE_FILE, cacheFile.toString());
+        properties.setProperty(OntopMappingSQLSettings.REFRESH_META_MAPPING_EXPANSION_CACHE, String.valueOf(refreshCache));
+
+        OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(mappingFile.toString())
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .properties(properties)
+                .enableTestMode()
+                .build();
+
+        Repository repository = OntopRepository.defaultRepository(configuration);
+        repository.init();
+        try (RepositoryConnection connection = repository.getConnection();
+             TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            ImmutableSet.Builder<String> classes = ImmutableSet.builder();
+            while (result.hasNext())
+                classes.add(result.next().getValue("c").stringValue());
+            return classes.build();
+        }
+        finally {
+            repository.shutDown();
+        }
+    }
+}
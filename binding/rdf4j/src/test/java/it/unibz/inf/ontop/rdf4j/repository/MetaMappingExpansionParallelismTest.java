@@ -0,0 +1,176 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.exception.MetaMappingExpansionException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.spec.OBDASpecInput;
+import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
+import it.unibz.inf.ontop.spec.mapping.MappingExtractor;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Several class meta-mappings, whose expansion queries run concurrently.
+ * The first one reads a view that is slow to evaluate, so its query completes last.
+ */
+public class MetaMappingExpansionParallelismTest {
+
+    private static final int TABLE_COUNT = 5;
+    private static final int CLASSES_PER_TABLE = 3;
+    private static final String ITEM = "http://example.org/Item";
+
+    private Connection sqlConnection;
+    private String jdbcUrl;
+    private Path mappingFile;
+
+    /**
+     * Called by the slow view
+     */
+    public static boolean pause(int milliseconds) throws InterruptedException {
+        Thread.sleep(milliseconds);
+        return true;
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            for (int t = 1; t <= TABLE_COUNT; t++) {
+                st.executeUpdate("CREATE TABLE \"t" + t + "_data\" (\"id\" INT PRIMARY KEY, \"cls\" VARCHAR(100) NOT NULL)");
+                for (int c = 1; c <= CLASSES_PER_TABLE; c++)
+                    st.executeUpdate("INSERT INTO \"t" + t + "_data\" VALUES (" + c + ", '" + getClassIRI(t, c) + "')");
+            }
+            st.executeUpdate("CREATE ALIAS PAUSE FOR '" + MetaMappingExpansionParallelismTest.class.getName() + ".pause'");
+            st.executeUpdate("CREATE VIEW \"t1\" AS SELECT \"id\", \"cls\" FROM \"t1_data\" WHERE PAUSE(200)");
+            for (int t = 2; t <= TABLE_COUNT; t++)
+                st.executeUpdate("CREATE VIEW \"t" + t + "\" AS SELECT \"id\", \"cls\" FROM \"t" + t + "_data\"");
+            // The conversion fails when the view is evaluated (not when it is created)
+            st.executeUpdate("CREATE VIEW \"broken\" AS SELECT \"id\", CAST(\"cls\" AS INT) AS \"cls\" FROM \"t3_data\"");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException, IOException {
+        sqlConnection.close();
+        if (mappingFile != null)
+            Files.deleteIfExists(mappingFile);
+    }
+
+    @Test(timeout = 60000)
+    public void testExpansionOrder() throws Exception {
+        writeMapping(ImmutableList.of("t1", "t2", "t3", "t4", "t5"));
+
+        ImmutableList<String> sequentialClasses = extractClasses(1);
+        ImmutableList<String> concurrentClasses = extractClasses(4);
+
+        // The assertion without meta-mapping first, then the expansions in the order of the mapping
+        ImmutableList.Builder<String> expectedTablesBuilder = ImmutableList.<String>builder().add(ITEM);
+        for (int t = 1; t <= TABLE_COUNT; t++)
+            for (int c = 1; c <= CLASSES_PER_TABLE; c++)
+                expectedTablesBuilder.add("http://example.org/t" + t);
+        ImmutableList<String> expectedTables = expectedTablesBuilder.build();
+        assertEquals(expectedTables, getTables(sequentialClasses));
+        assertEquals(expectedTables, getTables(concurrentClasses));
+
+        assertEquals(sequentialClasses, concurrentClasses);
+    }
+
+    @Test(timeout = 60000)
+    public void testSQLExceptionPropagated() throws Exception {
+        writeMapping(ImmutableList.of("t1", "t2", "broken", "t4", "t5"));
+
+        MetaMappingExpansionException e = assertThrows(MetaMappingExpansionException.class, () -> extractClasses(4));
+        assertTrue(e.getCause() instanceof SQLException);
+    }
+
+    /**
+     * The failing query is the last one submitted
+     */
+    @Test(timeout = 60000)
+    public void testSQLExceptionPropagatedForLastQuery() throws Exception {
+        writeMapping(ImmutableList.of("t1", "t2", "t3", "t4", "broken"));
+
+        MetaMappingExpansionException e = assertThrows(MetaMappingExpansionException.class, () -> extractClasses(3));
+        assertTrue(e.getCause() instanceof SQLException);
+    }
+
+    /**
+     * One class meta-mapping per view, plus a regular class assertion in the middle
+     */
+    private void writeMapping(ImmutableList<String> views) throws IOException {
+        StringBuilder mapping = new StringBuilder("[PrefixDeclaration]\n" +
+                ":\t\thttp://example.org/\n" +
+                "\n" +
+                "[MappingDeclaration] @collection [[\n");
+        for (int i = 0; i < views.size(); i++) {
+            mapping.append("mappingId\tMAPID-").append(views.get(i)).append("\n")
+                    .append("target\t\t:item/{\"id\"} a <{\"cls\"}> .\n")
+                    .append("source\t\tSELECT * FROM \"").append(views.get(i)).append("\"\n\n");
+            if (i == 1)
+                mapping.append("mappingId\tMAPID-item\n")
+                        .append("target\t\t:item/{\"id\"} a :Item .\n")
+                        .append("source\t\tSELECT * FROM \"t1_data\"\n\n");
+        }
+        mapping.append("]]\n");
+
+        mappingFile = Files.createTempFile("meta-mappings", ".obda");
+        Files.writeString(mappingFile, mapping.toString());
+    }
+
+    /**
+     * Classes of the mapping assertions, in the order of the extracted mapping.
+     * Extracted directly, as the order of the assertions is lost in the saturated mapping.
+     */
+    private ImmutableList<String> extractClasses(int parallelism) throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_PARALLELISM, String.valueOf(parallelism));
+
+        OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(mappingFile.toString())
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .properties(properties)
+                .enableTestMode()
+                .build();
+
+        MappingExtractor extractor = configuration.getInjector().getInstance(MappingExtractor.class);
+        ImmutableList<MappingAssertion> mapping = extractor.extract(configuration.loadProvidedPPMapping(),
+                        OBDASpecInput.defaultBuilder().build(), Optional.empty())
+                .getMapping();
+
+        return mapping.stream()
+                .map(a -> a.getIndex().getIri().getIRIString())
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * http://example.org/t{table}#C{class}
+     */
+    private static String getClassIRI(int table, int cls) {
+        return "http://example.org/t" + table + "#C" + cls;
+    }
+
+    private static ImmutableList<String> getTables(ImmutableList<String> classes) {
+        return classes.stream()
+                .map(c -> c.contains("#") ? c.substring(0, c.indexOf('#')) : c)
+                .collect(ImmutableCollectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PreparedStatementReuseTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTY_FILE = "/employee/prepared-statements.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTY_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testRepeatedQuery() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  <http://employee.example.org/data/person/1> :firstName ?v .\n" +
+                "}";
+        for (int i = 0; i < 3; i++)
+            runQueryAndCompare(query, ImmutableList.of("Roger"));
+    }
+
+    /**
+     * Same native query, with different parameters
+     */
+    @Test
+    public void testParameterizedConstant() {
+        String query1 = getFirstNameQuery("http://employee.example.org/data/person/1");
+        String query2 = getFirstNameQuery("http://employee.example.org/data/person/2");
+
+        String sql = reformulateIntoNativeQuery(query1);
+        assertTrue(sql, sql.contains("?"));
+        assertEquals(sql, reformulateIntoNativeQuery(query2));
+
+        for (int i = 0; i < 2; i++) {
+            runQueryAndCompare(query1, ImmutableList.of("Roger"));
+            runQueryAndCompare(query2, ImmutableList.of("Anna"));
+        }
+    }
+
+    @Test
+    public void testConstruct() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "CONSTRUCT {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}\n" +
+                "WHERE {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}";
+        for (int i = 0; i < 2; i++)
+            assertTrue(runGraphQueryAndCount(query) > 0);
+    }
+
+    private static String getFirstNameQuery(String personIRI) {
+        return "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  <" + personIRI + "> :firstName ?v .\n" +
+                "}";
+    }
+}
@@ -0,0 +1,47 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QueryExecutorTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTY_FILE = "/employee/query-executor.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTY_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testSingleThread() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  <http://employee.example.org/data/person/1> :firstName ?v .\n" +
+                "}";
+        for (int i = 0; i < 3; i++)
+            runQueryAndCompare(query, ImmutableList.of("Roger"));
+
+        QueryExecutor.Statistics statistics = getQueryExecutorStatistics();
+        assertEquals(0, statistics.getActiveExecutions());
+        assertEquals(0, statistics.getQueueDepth());
+        assertEquals(0, statistics.getRejectedExecutions());
+        assertTrue(statistics.getCompletedExecutions() >= 3);
+    }
+}
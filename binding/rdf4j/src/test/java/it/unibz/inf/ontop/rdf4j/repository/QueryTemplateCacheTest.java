@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+
+public class QueryTemplateCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+    private static final String PROPERTY_FILE = "/employee/query-template-cache.properties";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE, null, PROPERTY_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testRebinding() {
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/1>"), ImmutableList.of("Roger"));
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/2>"), ImmutableList.of("Anna"));
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/3>"), ImmutableList.of());
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/2>"), ImmutableList.of("Anna"));
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/1>"), ImmutableList.of("Roger"));
+
+        // Matches another IRI template (only mapped in a named graph): must not be re-bound
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/company2/staff/2>"), ImmutableList.of());
+        // Not an integer
+        runQueryAndCompare(firstNameQuery("<http://employee.example.org/data/person/a>"), ImmutableList.of());
+
+        ImmutableMap<String, QueryTemplateCache.Statistics> statistics = getQueryTemplateCacheStatistics();
+        assertEquals(1, statistics.size());
+        QueryTemplateCache.Statistics templateStatistics = statistics.values().iterator().next();
+        // person/3 (person/1 and person/2 are then in the regular query cache)
+        assertEquals(1, templateStatistics.getHits());
+        // company2/staff/2 and person/a
+        assertEquals(2, templateStatistics.getBindFailures());
+    }
+
+    private static String firstNameQuery(String subject) {
+        return "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  " + subject + " :firstName ?v .\n" +
+                "}";
+    }
+}
@@ -0,0 +1,62 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SPARQLParsingCacheTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testRepeatedQuery() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "SELECT ?v\n" +
+                "WHERE {\n" +
+                "  <http://employee.example.org/data/person/1> :firstName ?v .\n" +
+                "}";
+        SPARQLParsingCache.Statistics initialStatistics = getSPARQLParsingCacheStatistics();
+        for (int i = 0; i < 3; i++)
+            runQueryAndCompare(query, ImmutableList.of("Roger"));
+
+        SPARQLParsingCache.Statistics statistics = getSPARQLParsingCacheStatistics();
+        assertEquals(1, statistics.getMisses() - initialStatistics.getMisses());
+        assertEquals(2, statistics.getHits() - initialStatistics.getHits());
+    }
+
+    /**
+     * The translation of CONSTRUCT queries modifies the parsed query: the cached one must not be affected
+     */
+    @Test
+    public void testRepeatedConstruct() {
+        String query = "PREFIX : <http://employee.example.org/voc#>\n" +
+                "CONSTRUCT {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}\n" +
+                "WHERE {\n" +
+                "  ?p :firstName ?v .\n" +
+                "}";
+        int count = runGraphQueryAndCount(query);
+        assertTrue(count > 0);
+        assertEquals(count, runGraphQueryAndCount(query));
+        assertTrue(getSPARQLParsingCacheStatistics().getHits() > 0);
+    }
+}
@@ -0,0 +1,63 @@
+package it.unibz.inf.ontop.rdf4j.repository;
+
+import com.google.common.collect.ImmutableSet;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class TriplePatternTest extends AbstractRDF4JTest {
+
+    private static final String OBDA_FILE = "/employee/employee.obda";
+    private static final String SQL_SCRIPT = "/employee/employee.sql";
+
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+    private static final IRI PERSON_1 = VALUE_FACTORY.createIRI("http://employee.example.org/data/person/1");
+    private static final IRI FIRST_NAME = VALUE_FACTORY.createIRI("http://employee.example.org/voc#firstName");
+    private static final IRI EMPLOYEE = VALUE_FACTORY.createIRI("http://employee.example.org/voc#Employee");
+
+    @BeforeClass
+    public static void before() throws IOException, SQLException {
+        initOBDA(SQL_SCRIPT, OBDA_FILE);
+    }
+
+    @AfterClass
+    public static void after() throws SQLException {
+        release();
+    }
+
+    @Test
+    public void testBoundSubjectAndPredicate() {
+        ImmutableSet<Statement> statements = getStatements(PERSON_1, FIRST_NAME, null);
+        assertEquals(ImmutableSet.of(VALUE_FACTORY.createStatement(PERSON_1, FIRST_NAME,
+                VALUE_FACTORY.createLiteral("Roger"))), statements);
+    }
+
+    @Test
+    public void testBoundObject() {
+        ImmutableSet<Statement> statements = getStatements(null, FIRST_NAME, VALUE_FACTORY.createLiteral("Roger"));
+        assertEquals(ImmutableSet.of(VALUE_FACTORY.createStatement(PERSON_1, FIRST_NAME,
+                VALUE_FACTORY.createLiteral("Roger"))), statements);
+    }
+
+    @Test
+    public void testClass() {
+        assertTrue(getStatements(null, RDF.TYPE, EMPLOYEE).size() >= 2);
+    }
+
+    @Test
+    public void testHasStatement() {
+        assertTrue(hasStatement(PERSON_1, FIRST_NAME, VALUE_FACTORY.createLiteral("Roger")));
+        assertTrue(hasStatement(null, RDF.TYPE, EMPLOYEE));
+        assertFalse(hasStatement(PERSON_1, FIRST_NAME, VALUE_FACTORY.createLiteral("Anna")));
+    }
+}
@@ -0,0 +1,170 @@
+package it.unibz.inf.ontop.rdf4j.repository.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
+import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * The mapping file is rewritten between the reloads
+ */
+public class OntopVirtualRepositoryReloadTest {
+
+    private static final String QUERY = "PREFIX : <http://person.example.org/voc#>\n" +
+            "SELECT ?v\n" +
+            "WHERE {\n" +
+            "  <http://person.example.org/data/person/1> :name ?v .\n" +
+            "}";
+
+    private Connection sqlConnection;
+    private Path mappingFile;
+    private OntopVirtualRepository repository;
+
+    @Before
+    public void setUp() throws SQLException, IOException {
+        String jdbcUrl = "jdbc:h2:mem:" + UUID.randomUUID();
+        sqlConnection = DriverManager.getConnection(jdbcUrl, "sa", "");
+        try (Statement st = sqlConnection.createStatement()) {
+            st.executeUpdate("CREATE TABLE \"person\" (\"id\" INT PRIMARY KEY, \"name\" VARCHAR(100), \"nickname\" VARCHAR(100));\n" +
+                    "INSERT INTO \"person\" VALUES (1, 'Roger', 'Rog');");
+        }
+
+        mappingFile = Files.createTempFile("reload", ".obda");
+        writeMapping("name");
+
+        OntopSQLOWLAPIConfiguration configuration = OntopSQLOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(mappingFile.toString())
+                .jdbcUrl(jdbcUrl)
+                .jdbcUser("sa")
+                .jdbcPassword("")
+                .enableTestMode()
+                .build();
+
+        repository = OntopRepository.defaultRepository(configuration);
+        repository.init();
+    }
+
+    @After
+    public void tearDown() throws SQLException, IOException {
+        repository.shutDown();
+        sqlConnection.close();
+        Files.deleteIfExists(mappingFile);
+    }
+
+    @Test
+    public void testReloadWithOpenConnection() throws IOException {
+        OntopQueryEngine previousEngine = repository.getOntopEngine();
+        OntopRepositoryConnection previousConnection = repository.getConnection();
+        assertEquals(ImmutableList.of("Roger"), runQuery(previousConnection));
+
+        writeMapping("nickname");
+        repository.reload();
+
+        assertNotSame(previousEngine, repository.getOntopEngine());
+        assertEquals(1, repository.getRetiredEngineCount());
+
+        // Still on the previous engine
+        assertEquals(ImmutableList.of("Roger"), runQuery(previousConnection));
+
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            assertEquals(ImmutableList.of("Rog"), runQuery(connection));
+        }
+
+        previousConnection.close();
+        assertEquals(0, repository.getRetiredEngineCount());
+    }
+
+    @Test
+    public void testReloadWithoutOpenConnection() throws IOException {
+        writeMapping("nickname");
+        repository.reload();
+
+        assertEquals(0, repository.getRetiredEngineCount());
+    }
+
+    @Test
+    public void testFailedReload() throws IOException {
+        OntopQueryEngine engine = repository.getOntopEngine();
+
+        Files.writeString(mappingFile, "[MappingDeclaration] @collection [[\nnot a mapping");
+        assertThrows(RepositoryException.class, () -> repository.reload());
+
+        assertSame(engine, repository.getOntopEngine());
+        assertEquals(0, repository.getRetiredEngineCount());
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            assertEquals(ImmutableList.of("Roger"), runQuery(connection));
+        }
+    }
+
+    /**
+     * The same query must not be answered from the query cache of the previous engine
+     */
+    @Test
+    public void testNewEngineStartsWithEmptyCache() throws IOException {
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            assertEquals(ImmutableList.of("Roger"), runQuery(connection));
+            assertEquals(ImmutableList.of("Roger"), runQuery(connection));
+        }
+
+        writeMapping("nickname");
+        repository.reload();
+
+        try (OntopRepositoryConnection connection = repository.getConnection()) {
+            assertEquals(ImmutableList.of("Rog"), runQuery(connection));
+        }
+    }
+
+    @Test
+    public void testShutDownClosesRetiredEngines() throws IOException {
+        OntopRepositoryConnection previousConnection = repository.getConnection();
+
+        writeMapping("nickname");
+        repository.reload();
+        assertEquals(1, repository.getRetiredEngineCount());
+
+        repository.shutDown();
+        assertEquals(0, repository.getRetiredEngineCount());
+
+        // Releasing the connection afterwards does not close the engine again
+        previousConnection.close();
+    }
+
+    private void writeMapping(String column) throws IOException {
+        Files.writeString(mappingFile, "[PrefixDeclaration]\n" +
+                ":\t\thttp://person.example.org/voc#\n" +
+                "data:\t\thttp://person.example.org/data/\n" +
+                "\n" +
+                "[MappingDeclaration] @collection [[\n" +
+                "mappingId\tMAPID-person\n" +
+                "target\t\tdata:person/{\"id\"} :name {\"" + column + "\"} .\n" +
+                "source\t\tSELECT * FROM \"person\"\n" +
+                "]]\n");
+    }
+
+    private static ImmutableList<String> runQuery(OntopRepositoryConnection connection) {
+        ImmutableList.Builder<String> values = ImmutableList.builder();
+        try (TupleQueryResult result = connection.prepareTupleQuery(QueryLanguage.SPARQL, QUERY).evaluate()) {
+            while (result.hasNext())
+                values.add(result.next().getValue("v").stringValue());
+        }
+        return values.build();
+    }
+}
@@ -46,11 +46,7 @@ public class Ontop {
                         OntopBootstrap.class,
                         OntopValidate.class,
                         OntopEndpoint.class,
-                        OntopExtractDBMetadata.class,
-                        /**
-                         * hidden commands
-                         */
-                        OntopCompile.class
+                        OntopExtractDBMetadata.class
                 );
 
 
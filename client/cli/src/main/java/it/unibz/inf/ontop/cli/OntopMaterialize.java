@@ -6,6 +6,7 @@ import com.github.rvesse.airline.annotations.Option;
 import com.github.rvesse.airline.annotations.OptionType;
 import com.github.rvesse.airline.annotations.restrictions.AllowedEnumValues;
 import com.github.rvesse.airline.parser.errors.ParseArgumentsIllegalValueException;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.exception.InvalidOntopConfigurationException;
 import it.unibz.inf.ontop.exception.OBDASpecificationException;
@@ -14,6 +15,7 @@ import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration.Builder;
 import it.unibz.inf.ontop.injection.impl.OntopModelConfigurationImpl;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.rdf4j.materialization.RDF4JMaterializer;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.rio.RDFHandler;
@@ -27,7 +29,9 @@ import java.nio.file.Paths;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -88,6 +92,11 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
             description = "All the SQL results of one big query will be stored in memory. Not recommended. Default: false.")
     private boolean noStream = false;
 
+    @Option(type = OptionType.COMMAND, name = {"--threads"}, title = "number of threads",
+            description = "Number of classes/properties materialized concurrently, each one over its own DB connection. " +
+                    "Should not exceed the size of the connection pool (jdbc.pool.maxSize). Default: 1.")
+    private int threads = 1;
+
     public OntopMaterialize() {
     }
 
@@ -110,6 +119,8 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
             return RDF4JMaterializer.defaultMaterializer(
                     configurationBuilder.build(),
                     MaterializationParams.defaultBuilder()
+                            // With separate files, the predicates are processed concurrently but one at a time per file
+                            .parallelism(separate ? 1 : threads)
                             .build()
             );
         } catch (OBDASpecificationException e) {
@@ -146,12 +157,22 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
     }
 
     private void runWithSeparateFiles(RDF4JMaterializer materializer) {
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.max(threads, 1));
         try {
             validateBaseDirectory();
-            materializeClassesByFile(materializer);
-            materializePropertiesByFile(materializer);
+            ImmutableList<Callable<Void>> tasks = Stream.concat(
+                    createSerializationTasks(materializer, materializer.getClasses(), PredicateType.CLASS),
+                    createSerializationTasks(materializer, materializer.getProperties(), PredicateType.PROPERTY))
+                    .collect(ImmutableCollectors.toList());
+
+            for (Future<Void> future : executorService.invokeAll(tasks))
+                future.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            executorService.shutdownNow();
         }
     }
 
@@ -175,23 +196,18 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
         }
     }
 
-    private void materializeClassesByFile(RDF4JMaterializer materializer) throws Exception {
-        ImmutableSet<IRI> classes = materializer.getClasses();
-        int total = classes.size();
+    private Stream<Callable<Void>> createSerializationTasks(RDF4JMaterializer materializer,
+                                                           ImmutableSet<IRI> predicates, PredicateType predicateType) {
+        int total = predicates.size();
         AtomicInteger i = new AtomicInteger();
-        for (IRI c : classes) {
-            serializePredicate(materializer, c, PredicateType.CLASS, i.incrementAndGet(), total);
-        }
-    }
-
-    private void materializePropertiesByFile(RDF4JMaterializer materializer) throws Exception {
-        ImmutableSet<IRI> properties = materializer.getProperties();
-
-        int total = properties.size();
-        AtomicInteger i = new AtomicInteger();
-        for (IRI p : properties) {
-            serializePredicate(materializer, p, PredicateType.PROPERTY, i.incrementAndGet(), total);
-        }
+        return predicates.stream()
+                .map(p -> {
+                    int index = i.incrementAndGet();
+                    return () -> {
+                        serializePredicate(materializer, p, predicateType, index, total);
+                        return null;
+                    };
+                });
     }
 
     /**
@@ -203,7 +219,6 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
 
 
         System.err.println(String.format("Materializing %s (%d/%d)", predicateIRI, index, total));
-        System.err.println("Starts writing triples into files.");
 
         long tripleCount = 0;
         int fileCount = 0;
@@ -224,14 +239,13 @@ public class OntopMaterialize extends OntopMappingOntologyRelatedCommand {
             fileCount++;
         }
 
-        if (outputFile != null)
-            System.out.println("NR of TRIPLES: " + tripleCount);
-
         final long endTime = System.currentTimeMillis();
         final long time = endTime - startTime;
 
+        // Single line, as the predicates may be materialized concurrently
         if (outputFile != null)
-            System.out.println("Elapsed time to materialize: " + time + " {ms}");
+            System.out.println(String.format("%s: NR of TRIPLES: %d, elapsed time to materialize: %d {ms} (%d triples/s)",
+                    predicateIRI, tripleCount, time, time == 0 ? tripleCount : tripleCount * 1000 / time));
     }
 
     // We need direct access to the writer to close it (cannot be done via the RDFHandler)
@@ -0,0 +1,105 @@
+package it.unibz.inf.ontop.cli;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The mapping is a copy of the book example that is modified while the endpoint is running
+ */
+public class OntopEndpointReloadTest {
+
+    @ClassRule
+    public static ExternalResource h2Connection = new H2ExternalResourceForBookExample();
+    private static final String PORT = "29835";
+    private static final Path ORIGINAL_MAPPING_FILE = Paths.get("src/test/resources/books/exampleBooks.obda");
+    private static final Path MAPPING_FILE = Paths.get("src/test/resources/output/reload/exampleBooks.obda");
+
+    private static final String AUDIO_BOOK_FILTER = "where \"bk_type\"='A'";
+
+    @BeforeClass
+    public static void setupEndpoint() throws IOException {
+        Files.createDirectories(MAPPING_FILE.getParent());
+        Files.copy(ORIGINAL_MAPPING_FILE, MAPPING_FILE, StandardCopyOption.REPLACE_EXISTING);
+
+        Ontop.main("endpoint", "-m", MAPPING_FILE.toString(),
+                "-p", "src/test/resources/books/exampleBooks.properties",
+                "--dev",
+                "--port=" + PORT);
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        writeMapping(AUDIO_BOOK_FILTER);
+        assertEquals(HttpStatus.SC_OK, postReload());
+        int audioBookCount = countAudioBooks();
+
+        writeMapping("where 1 = 0");
+        assertEquals(HttpStatus.SC_OK, postReload());
+        assertEquals(0, countAudioBooks());
+
+        writeMapping(AUDIO_BOOK_FILTER);
+        assertEquals(HttpStatus.SC_OK, postReload());
+        assertEquals(audioBookCount, countAudioBooks());
+    }
+
+    @Test
+    public void testFailedReload() throws IOException {
+        int audioBookCount = countAudioBooks();
+
+        Files.writeString(MAPPING_FILE, "[MappingDeclaration] @collection [[\nnot a mapping");
+        assertEquals(HttpStatus.SC_INTERNAL_SERVER_ERROR, postReload());
+
+        // The previous specification remains in use
+        assertEquals(audioBookCount, countAudioBooks());
+
+        writeMapping(AUDIO_BOOK_FILTER);
+        assertEquals(HttpStatus.SC_OK, postReload());
+    }
+
+    private static void writeMapping(String audioBookFilter) throws IOException {
+        Files.writeString(MAPPING_FILE, Files.readString(ORIGINAL_MAPPING_FILE)
+                .replace(AUDIO_BOOK_FILTER, audioBookFilter));
+    }
+
+    private static int postReload() throws IOException {
+        HttpResponse httpResponse = HttpClientBuilder.create().build()
+                .execute(new HttpPost("http://localhost:" + PORT + "/ontop/reload"));
+        return httpResponse.getStatusLine().getStatusCode();
+    }
+
+    private static int countAudioBooks() {
+        Repository repo = new SPARQLRepository("http://localhost:" + PORT + "/sparql");
+        repo.init();
+
+        try (RepositoryConnection conn = repo.getConnection()) {
+            String queryString = "PREFIX : <http://meraka/moss/exampleBooks.owl#>\n" +
+                    "SELECT (COUNT(DISTINCT ?x) AS ?c)\n" +
+                    "WHERE { ?x a :AudioBook }";
+
+            TupleQuery tupleQuery = conn.prepareTupleQuery(QueryLanguage.SPARQL, queryString);
+            try (TupleQueryResult result = tupleQuery.evaluate()) {
+                return Integer.parseInt(result.next().getValue("c").stringValue());
+            }
+        }
+    }
+}
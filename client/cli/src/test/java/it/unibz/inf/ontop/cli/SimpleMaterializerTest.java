@@ -1,5 +1,8 @@
 package it.unibz.inf.ontop.cli;
 
+import org.apache.commons.io.FileUtils;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,16 +12,20 @@ import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class SimpleMaterializerTest {
 
@@ -99,6 +106,19 @@ public class SimpleMaterializerTest {
         assertEquals(2, numOfAnnotationAssertions(outFile));
     }
 
+    @Test
+    public void runMaterializationWithReasoningInParallel() throws Exception {
+        String outFile = "src/test/resources/output/simplemapping_materialzed_with_reasoning_parallel.rdf";
+        String ontoFile = "src/test/resources/test/simplemapping.owl";
+        String mappingFile = "src/test/resources/test/simplemapping.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile,
+                "-o", outFile, "-p", propertiesFile, "--threads", "3");
+        assertEquals(5, numOfClassAssertions(outFile));
+        assertEquals(0, numOfObjectPropertyAssertions(outFile));
+        assertEquals(2, numOfAnnotationAssertions(outFile));
+    }
+
     @Test
     public void runMaterializationWithoutReasoning() throws Exception {
         String outFile = "src/test/resources/output/simplemapping_materialzed_no_reasoning.rdf";
@@ -213,4 +233,45 @@ public class SimpleMaterializerTest {
                 "-o", outFile, "-p", propertiesFile, "--separate-files");
     }
 
+    @Test
+    public void runMaterializationWithReasoningTrig_multi_files_in_parallel() throws Exception {
+        String sequentialDir = "src/test/resources/output/separate-sequential/";
+        String parallelDir = "src/test/resources/output/separate-parallel/";
+        String ontoFile = "src/test/resources/test/simplemapping.owl";
+        String mappingFile = "src/test/resources/test/simplemapping_named.obda";
+        String propertiesFile = "src/test/resources/test/simplemapping.properties";
+        recreateDirectory(sequentialDir);
+        recreateDirectory(parallelDir);
+
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile, "-f", "trig",
+                "-o", sequentialDir, "-p", propertiesFile, "--separate-files");
+        Ontop.main("materialize", "-m", mappingFile, "-t", ontoFile, "-f", "trig",
+                "-o", parallelDir, "-p", propertiesFile, "--separate-files", "--threads", "3");
+
+        Map<String, Integer> sequentialCounts = numOfStatementsPerFile(sequentialDir);
+        Map<String, Integer> parallelCounts = numOfStatementsPerFile(parallelDir);
+        // One file per class/property (:A, :B, :C, :P, rdfs:label and rdfs:comment), each with at least one triple
+        assertEquals(6, parallelCounts.size());
+        assertTrue(parallelCounts.values().stream().allMatch(c -> c > 0));
+        assertEquals(sequentialCounts, parallelCounts);
+    }
+
+    private static void recreateDirectory(String directory) throws IOException {
+        File file = new File(directory);
+        FileUtils.deleteDirectory(file);
+        Files.createDirectories(file.toPath());
+    }
+
+    private static Map<String, Integer> numOfStatementsPerFile(String directory) throws IOException {
+        Map<String, Integer> counts = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(directory), "*.trig")) {
+            for (Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    counts.put(file.getFileName().toString(), Rio.parse(in, "", RDFFormat.TRIG).size());
+                }
+            }
+        }
+        return counts;
+    }
+
 }
@@ -0,0 +1,486 @@
+package it.unibz.inf.ontop.endpoint.processor;
+
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.RDFLiteralConstant;
+import it.unibz.inf.ontop.model.type.LanguageTag;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.rdf.api.IRI;
+import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes SELECT results in the SPARQL 1.1 JSON, CSV and TSV formats directly from the Ontop result set,
+ * without converting the bindings into RDF4J values.
+ * The output is the same as the one of the RDF4J writers (with their default settings).
+ *
+ * The output is UTF-8-encoded into a buffer taken from a shared pool. The buffer is written to the output stream
+ * (and the latter flushed) each time it is full, so that the results are streamed to the client in chunks.
+ *
+ * Thread-safe.
+ */
+public class DirectTupleResultSerializer {
+
+    public enum Format { JSON, CSV, TSV }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int POOL_CAPACITY = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // Datatype IRI -> datatype if numeric (see normalizeNumber())
+    private static final Map<String, Optional<org.eclipse.rdf4j.model.IRI>> NUMERIC_DATATYPES = new ConcurrentHashMap<>();
+    private static final ImmutableSet<org.eclipse.rdf4j.model.IRI> TSV_NUMERIC_DATATYPES = ImmutableSet.of(
+            org.eclipse.rdf4j.model.vocabulary.XSD.INTEGER,
+            org.eclipse.rdf4j.model.vocabulary.XSD.DECIMAL,
+            org.eclipse.rdf4j.model.vocabulary.XSD.DOUBLE);
+
+    private final BlockingQueue<byte[]> bufferPool = new ArrayBlockingQueue<>(POOL_CAPACITY);
+
+    /**
+     * Does not close the result set
+     */
+    public Statistics serialize(TupleResultSet resultSet, Format format, OutputStream outputStream)
+            throws IOException, OntopConnectionException, OntopResultConversionException {
+        byte[] buffer = bufferPool.poll();
+        if (buffer == null)
+            buffer = new byte[BUFFER_SIZE];
+        try {
+            ChunkedWriter writer = new ChunkedWriter(buffer, outputStream);
+            List<String> variables = resultSet.getSignature();
+            long rows;
+            switch (format) {
+                case JSON:
+                    rows = writeJSON(resultSet, variables, writer);
+                    break;
+                case CSV:
+                    rows = writeSeparatedValues(resultSet, variables, writer, ',', "\r\n", false);
+                    break;
+                case TSV:
+                    rows = writeSeparatedValues(resultSet, variables, writer, '\t', "\n", true);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported format: " + format);
+            }
+            writer.flush();
+            return new Statistics(rows, writer.getByteCount());
+        }
+        finally {
+            // dropped if the pool is full
+            bufferPool.offer(buffer);
+        }
+    }
+
+    /**
+     * Same layout as the RDF4J writer (pretty-printed by Jackson)
+     */
+    private static long writeJSON(TupleResultSet resultSet, List<String> variables, ChunkedWriter writer)
+            throws IOException, OntopConnectionException, OntopResultConversionException {
+        writer.append("{\n  \"head\" : {\n    \"vars\" : [");
+        for (int i = 0; i < variables.size(); i++) {
+            writer.append(i == 0 ? "\n      " : ",\n      ");
+            writeJSONString(variables.get(i), writer);
+        }
+        writer.append(variables.isEmpty() ? " ]" : "\n    ]");
+        writer.append("\n  },\n  \"results\" : {\n    \"bindings\" : [");
+
+        long rows = 0;
+        while (resultSet.hasNext()) {
+            OntopBindingSet bindingSet = resultSet.next();
+            writer.append(rows++ == 0 ? "\n      {" : ",\n      {");
+            boolean isFirst = true;
+            for (OntopBinding binding : bindingSet.getBindings()) {
+                RDFConstant value = binding.getValue();
+                if (value == null)
+                    continue;
+                writer.append(isFirst ? "\n        " : ",\n        ");
+                isFirst = false;
+                writeJSONString(binding.getName(), writer);
+                writer.append(" : ");
+                writeJSONTerm(value, writer);
+            }
+            writer.append(isFirst ? " }" : "\n      }");
+        }
+        writer.append(rows == 0 ? " ]" : "\n    ]");
+        writer.append("\n  }\n}");
+        return rows;
+    }
+
+    /**
+     * The datatype or the language tag comes first, as in the RDF4J writer
+     */
+    private static void writeJSONTerm(RDFConstant value, ChunkedWriter writer) throws IOException {
+        if (value instanceof IRIConstant) {
+            writer.append("{\n          \"type\" : \"uri\",\n          \"value\" : ");
+            writeJSONString(((IRIConstant) value).getIRI().getIRIString(), writer);
+        }
+        else if (value instanceof BNode) {
+            writer.append("{\n          \"type\" : \"bnode\",\n          \"value\" : ");
+            writeJSONString(((BNode) value).getLabel(), writer);
+        }
+        else {
+            RDFLiteralConstant literal = (RDFLiteralConstant) value;
+            writer.append("{\n          ");
+            RDFDatatype datatype = literal.getType();
+            Optional<LanguageTag> languageTag = datatype.getLanguageTag();
+            if (languageTag.isPresent()) {
+                writer.append("\"xml:lang\" : ");
+                writeJSONString(languageTag.get().getFullString(), writer);
+                writer.append(",\n          ");
+            }
+            // Simple literals (RDF 1.1)
+            else if (!datatype.getIRI().equals(XSD.STRING)) {
+                writer.append("\"datatype\" : ");
+                writeJSONString(datatype.getIRI().getIRIString(), writer);
+                writer.append(",\n          ");
+            }
+            writer.append("\"type\" : \"literal\",\n          \"value\" : ");
+            writeJSONString(literal.getValue(), writer);
+        }
+        writer.append("\n        }");
+    }
+
+    private static void writeJSONString(String string, ChunkedWriter writer) throws IOException {
+        writer.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.append("\\\"");
+                    break;
+                case '\\':
+                    writer.append("\\\\");
+                    break;
+                case '\n':
+                    writer.append("\\n");
+                    break;
+                case '\r':
+                    writer.append("\\r");
+                    break;
+                case '\t':
+                    writer.append("\\t");
+                    break;
+                case '\b':
+                    writer.append("\\b");
+                    break;
+                case '\f':
+                    writer.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20)
+                        writeUnicodeEscape(c, writer);
+                    else
+                        writer.append(c);
+            }
+        }
+        writer.append('"');
+    }
+
+    private static void writeUnicodeEscape(char c, ChunkedWriter writer) throws IOException {
+        writer.append("\\u");
+        for (int shift = 12; shift >= 0; shift -= 4)
+            writer.append(HEX_DIGITS[(c >> shift) & 0xF]);
+    }
+
+    /**
+     * CSV: plain values (lexical forms, no datatype nor language tag), quoted when needed.
+     * TSV: values in the Turtle syntax, with the variables prefixed by '?' in the header.
+     */
+    private static long writeSeparatedValues(TupleResultSet resultSet, List<String> variables, ChunkedWriter writer,
+                                             char separator, String lineEnd, boolean isTSV)
+            throws IOException, OntopConnectionException, OntopResultConversionException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            if (i > 0)
+                writer.append(separator);
+            if (isTSV)
+                writer.append('?');
+            writer.append(variables.get(i));
+            columns.put(variables.get(i), i);
+        }
+        writer.append(lineEnd);
+
+        RDFConstant[] row = new RDFConstant[variables.size()];
+        long rows = 0;
+        while (resultSet.hasNext()) {
+            OntopBindingSet bindingSet = resultSet.next();
+            Arrays.fill(row, null);
+            for (OntopBinding binding : bindingSet.getBindings()) {
+                Integer column = columns.get(binding.getName());
+                if (column != null)
+                    row[column] = binding.getValue();
+            }
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0)
+                    writer.append(separator);
+                if (row[i] == null)
+                    continue;
+                if (isTSV)
+                    writeTSVTerm(row[i], writer);
+                else
+                    writeCSVTerm(row[i], writer);
+            }
+            writer.append(lineEnd);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * As the RDF4J writer, only the literals are escaped (IRIs are only quoted when containing a comma)
+     */
+    private static void writeCSVTerm(RDFConstant value, ChunkedWriter writer) throws IOException {
+        if (value instanceof IRIConstant) {
+            String iri = ((IRIConstant) value).getIRI().getIRIString();
+            boolean isQuoted = iri.indexOf(',') >= 0;
+            if (isQuoted)
+                writer.append('"');
+            writer.append(iri);
+            if (isQuoted)
+                writer.append('"');
+            return;
+        }
+        if (value instanceof BNode) {
+            writer.append("_:");
+            writer.append(((BNode) value).getLabel());
+            return;
+        }
+
+        RDFLiteralConstant literal = (RDFLiteralConstant) value;
+        Optional<String> number = normalizeNumber(literal, false);
+        if (number.isPresent()) {
+            writer.append(number.get());
+            return;
+        }
+
+        String string = literal.getValue();
+        if (string.indexOf('"') < 0 && string.indexOf(',') < 0 && string.indexOf('\n') < 0 && string.indexOf('\r') < 0) {
+            writer.append(string);
+            return;
+        }
+        writer.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"')
+                writer.append('"');
+            writer.append(c);
+        }
+        writer.append('"');
+    }
+
+    private static void writeTSVTerm(RDFConstant value, ChunkedWriter writer) throws IOException {
+        if (value instanceof IRIConstant) {
+            writer.append('<');
+            writer.append(((IRIConstant) value).getIRI().getIRIString());
+            writer.append('>');
+        }
+        else if (value instanceof BNode) {
+            writer.append("_:");
+            writer.append(((BNode) value).getLabel());
+        }
+        else {
+            RDFLiteralConstant literal = (RDFLiteralConstant) value;
+            RDFDatatype datatype = literal.getType();
+            IRI datatypeIRI = datatype.getIRI();
+            // Abbreviated syntax of Turtle, as the RDF4J writer
+            Optional<String> number = normalizeNumber(literal, true);
+            if (number.isPresent()) {
+                writer.append(number.get());
+                return;
+            }
+            writer.append('"');
+            for (int i = 0; i < literal.getValue().length(); i++) {
+                char c = literal.getValue().charAt(i);
+                switch (c) {
+                    case '"':
+                        writer.append("\\\"");
+                        break;
+                    case '\\':
+                        writer.append("\\\\");
+                        break;
+                    case '\n':
+                        writer.append("\\n");
+                        break;
+                    case '\r':
+                        writer.append("\\r");
+                        break;
+                    case '\t':
+                        writer.append("\\t");
+                        break;
+                    default:
+                        writer.append(c);
+                }
+            }
+            writer.append('"');
+            Optional<LanguageTag> languageTag = datatype.getLanguageTag();
+            if (languageTag.isPresent()) {
+                writer.append('@');
+                writer.append(languageTag.get().getFullString());
+            }
+            else if (!datatypeIRI.equals(XSD.STRING)) {
+                writer.append("^^<");
+                writer.append(datatypeIRI.getIRIString());
+                writer.append('>');
+            }
+        }
+    }
+
+    /**
+     * Canonical form of the numeric literals that the RDF4J writers do not quote:
+     * xsd:integer, xsd:decimal and xsd:double for TSV (abbreviated Turtle syntax),
+     * plus the types derived from xsd:integer for CSV.
+     *
+     * Empty if the literal is not such a number or if its lexical form is invalid.
+     */
+    private static Optional<String> normalizeNumber(RDFLiteralConstant literal, boolean isTSV) {
+        Optional<org.eclipse.rdf4j.model.IRI> datatype = NUMERIC_DATATYPES.computeIfAbsent(
+                literal.getType().getIRI().getIRIString(), DirectTupleResultSerializer::toNumericDatatype);
+        if (datatype.isEmpty() || (isTSV && !TSV_NUMERIC_DATATYPES.contains(datatype.get())))
+            return Optional.empty();
+        try {
+            return Optional.of(XMLDatatypeUtil.normalize(literal.getValue(), datatype.get()));
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<org.eclipse.rdf4j.model.IRI> toNumericDatatype(String iri) {
+        org.eclipse.rdf4j.model.IRI datatype = SimpleValueFactory.getInstance().createIRI(iri);
+        return (XMLDatatypeUtil.isIntegerDatatype(datatype) || XMLDatatypeUtil.isDecimalDatatype(datatype)
+                || org.eclipse.rdf4j.model.vocabulary.XSD.DOUBLE.equals(datatype))
+                ? Optional.of(datatype)
+                : Optional.empty();
+    }
+
+
+    public static class Statistics {
+        private final long rowCount;
+        private final long byteCount;
+
+        private Statistics(long rowCount, long byteCount) {
+            this.rowCount = rowCount;
+            this.byteCount = byteCount;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+    }
+
+
+    /**
+     * Encodes the characters in UTF-8 into the buffer, which is written to the output stream when full.
+     *
+     * Unpaired surrogates are replaced by '?' (as by the JDK encoder used by the RDF4J writers).
+     */
+    private static class ChunkedWriter {
+        private final byte[] buffer;
+        private final OutputStream outputStream;
+        private int position = 0;
+        private long byteCount = 0;
+        // Waiting for the low surrogate (0 if none)
+        private char highSurrogate = 0;
+
+        private ChunkedWriter(byte[] buffer, OutputStream outputStream) {
+            this.buffer = buffer;
+            this.outputStream = outputStream;
+        }
+
+        void append(String string) throws IOException {
+            for (int i = 0; i < string.length(); i++)
+                append(string.charAt(i));
+        }
+
+        void append(char c) throws IOException {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    appendCodePoint(Character.toCodePoint(high, c));
+                    return;
+                }
+                put((byte) '?');
+            }
+
+            if (c < 0x80)
+                put((byte) c);
+            else if (Character.isHighSurrogate(c))
+                highSurrogate = c;
+            else if (Character.isLowSurrogate(c))
+                put((byte) '?');
+            else
+                appendCodePoint(c);
+        }
+
+        private void appendCodePoint(int codePoint) throws IOException {
+            if (codePoint < 0x80) {
+                put((byte) codePoint);
+            }
+            else if (codePoint < 0x800) {
+                put((byte) (0xC0 | (codePoint >> 6)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else if (codePoint < 0x10000) {
+                put((byte) (0xE0 | (codePoint >> 12)));
+                put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+            else {
+                put((byte) (0xF0 | (codePoint >> 18)));
+                put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                put((byte) (0x80 | (codePoint & 0x3F)));
+            }
+        }
+
+        private void put(byte b) throws IOException {
+            if (position == buffer.length)
+                writeBuffer();
+            buffer[position++] = b;
+        }
+
+        private void writeBuffer() throws IOException {
+            if (position > 0) {
+                outputStream.write(buffer, 0, position);
+                byteCount += position;
+                position = 0;
+            }
+        }
+
+        /**
+         * At the end of the output
+         */
+        void flush() throws IOException {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                put((byte) '?');
+            }
+            writeBuffer();
+            outputStream.flush();
+        }
+
+        long getByteCount() {
+            return byteCount + position;
+        }
+    }
+}
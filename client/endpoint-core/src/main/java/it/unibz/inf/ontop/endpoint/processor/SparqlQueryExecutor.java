@@ -2,6 +2,11 @@ package it.unibz.inf.ontop.endpoint.processor;
 
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Maps;
+import it.unibz.inf.ontop.endpoint.processor.DirectTupleResultSerializer.Format;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopTupleQuery;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepository;
 import it.unibz.inf.ontop.rdf4j.repository.OntopRepositoryConnection;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
@@ -23,6 +28,8 @@ import org.eclipse.rdf4j.rio.rdfxml.RDFXMLWriter;
 import org.eclipse.rdf4j.rio.turtle.TurtleWriter;
 import org.eclipse.rdf4j.rio.ntriples.NTriplesWriter;
 import org.eclipse.rdf4j.rio.nquads.NQuadsWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -37,10 +44,14 @@ public class SparqlQueryExecutor {
     private static final int NOT_ACCEPTABLE = 406;
     private static final int NOT_IMPLEMENTED = 501;
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparqlQueryExecutor.class);
+
     private final OntopRepository repository;
+    private final DirectTupleResultSerializer tupleResultSerializer;
 
     public SparqlQueryExecutor(OntopRepository repository) {
         this.repository = repository;
+        this.tupleResultSerializer = new DirectTupleResultSerializer();
     }
 
     public void executeQuery(HttpServletRequest request, String accept, String query,
@@ -58,16 +69,25 @@ public class SparqlQueryExecutor {
 
                 if ("*/*".equals(accept) || accept.contains("json")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+json;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsJSONWriter(bao), response);
+                    if (selectQuery instanceof OntopTupleQuery)
+                        serializeSelectQuery((OntopTupleQuery) selectQuery, Format.JSON, bao, response);
+                    else
+                        evaluateSelectQuery(selectQuery, new SPARQLResultsJSONWriter(bao), response);
                 } else if (accept.contains("xml")) {
                     response.setHeader(CONTENT_TYPE, "application/sparql-results+xml;charset=UTF-8");
                     evaluateSelectQuery(selectQuery, new SPARQLResultsXMLWriter(bao), response);
                 } else if (accept.contains("csv")) {
                     response.setHeader(CONTENT_TYPE, "text/sparql-results+csv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsCSVWriter(bao), response);
+                    if (selectQuery instanceof OntopTupleQuery)
+                        serializeSelectQuery((OntopTupleQuery) selectQuery, Format.CSV, bao, response);
+                    else
+                        evaluateSelectQuery(selectQuery, new SPARQLResultsCSVWriter(bao), response);
                 } else if (accept.contains("tsv") || accept.contains("text/tab-separated-values")) {
                     response.setHeader(CONTENT_TYPE, "text/sparql-results+tsv;charset=UTF-8");
-                    evaluateSelectQuery(selectQuery, new SPARQLResultsTSVWriter(bao), response);
+                    if (selectQuery instanceof OntopTupleQuery)
+                        serializeSelectQuery((OntopTupleQuery) selectQuery, Format.TSV, bao, response);
+                    else
+                        evaluateSelectQuery(selectQuery, new SPARQLResultsTSVWriter(bao), response);
                 } else {
                     response.setStatus(NOT_ACCEPTABLE);
                 }
@@ -147,6 +167,23 @@ public class SparqlQueryExecutor {
         selectQuery.evaluate(writer);
 
     }
+
+    /**
+     * Bypasses the conversion of the bindings into RDF4J values (XML results are still produced by RDF4J)
+     */
+    private void serializeSelectQuery(OntopTupleQuery selectQuery, Format format, OutputStream outputStream,
+                                      HttpServletResponse response) throws IOException {
+        addCacheHeaders(response);
+        long start = System.currentTimeMillis();
+        try (TupleResultSet resultSet = selectQuery.evaluateIntoResultSet()) {
+            DirectTupleResultSerializer.Statistics statistics = tupleResultSerializer.serialize(resultSet, format, outputStream);
+            LOGGER.debug("{} results: {} rows ({} bytes) serialized in {} ms", format,
+                    statistics.getRowCount(), statistics.getByteCount(), System.currentTimeMillis() - start);
+        }
+        catch (OntopConnectionException | OntopResultConversionException e) {
+            throw new QueryEvaluationException(e);
+        }
+    }
     private void evaluateGraphQuery(GraphQuery graphQuery, RDFWriter writer, HttpServletResponse response) {
         addCacheHeaders(response);
         graphQuery.evaluate(writer);
@@ -0,0 +1,287 @@
+package it.unibz.inf.ontop.endpoint.processor;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.query.resultset.impl.OntopBindingImpl;
+import it.unibz.inf.ontop.rdf4j.query.impl.OntopRDF4JBindingSet;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
+import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter;
+import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The output must be the same, byte for byte, as the one of the RDF4J writers
+ */
+public class DirectTupleResultSerializerTest {
+
+    private static final TermFactory TERM_FACTORY = OntopModelConfiguration.defaultBuilder().build().getTermFactory();
+
+    private static final ImmutableList<String> VARIABLES = ImmutableList.of("x", "y", "z");
+
+    @Test
+    public void testIRIsAndBNodes() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(TERM_FACTORY.getConstantIRI("http://example.org/a"),
+                        TERM_FACTORY.getConstantBNode("b0"),
+                        TERM_FACTORY.getConstantIRI("http://example.org/a,b?c=\"d\"")),
+                row(TERM_FACTORY.getConstantBNode("node,1"), null, null)));
+    }
+
+    @Test
+    public void testEscaping() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(string("quote \" and backslash \\"),
+                        string("new\nline\r and\ttab"),
+                        string("comma, \u0001 control \b\f chars / and \u007F")),
+                row(string(""), string("plain"), string("\"\""))));
+    }
+
+    @Test
+    public void testLanguageTagsAndDatatypes() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(TERM_FACTORY.getRDFLiteralConstant("chat", "fr"),
+                        TERM_FACTORY.getRDFLiteralConstant("colour", "en-GB"),
+                        TERM_FACTORY.getRDFLiteralConstant("2020-01-01", XSD.DATE)),
+                row(TERM_FACTORY.getRDFLiteralConstant("true", XSD.BOOLEAN),
+                        TERM_FACTORY.getRDFLiteralConstant("a \"b\"", XSD.ANYURI),
+                        TERM_FACTORY.getRDFLiteralConstant("1.5", XSD.FLOAT))));
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(TERM_FACTORY.getRDFLiteralConstant("042", XSD.INTEGER),
+                        TERM_FACTORY.getRDFLiteralConstant("+1.50", XSD.DECIMAL),
+                        TERM_FACTORY.getRDFLiteralConstant("100", XSD.DOUBLE)),
+                row(TERM_FACTORY.getRDFLiteralConstant("007", XSD.LONG),
+                        TERM_FACTORY.getRDFLiteralConstant("-0", XSD.INT),
+                        TERM_FACTORY.getRDFLiteralConstant("1e3", XSD.DOUBLE)),
+                row(TERM_FACTORY.getRDFLiteralConstant("not a number", XSD.INTEGER),
+                        TERM_FACTORY.getRDFLiteralConstant("1,5", XSD.DECIMAL),
+                        TERM_FACTORY.getRDFLiteralConstant("INF", XSD.DOUBLE))));
+    }
+
+    @Test
+    public void testUnboundValues() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(null, string("y only"), null),
+                row(null, null, null),
+                row(string("x only"), null, null)));
+    }
+
+    @Test
+    public void testNonBMPCharacters() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(string("😀 smile"),
+                        TERM_FACTORY.getRDFLiteralConstant("𝔄, \"𝔅\"", "en"),
+                        TERM_FACTORY.getConstantIRI("http://example.org/😀"))));
+    }
+
+    /**
+     * Replaced by '?'
+     */
+    @Test
+    public void testUnpairedSurrogates() throws Exception {
+        assertSameOutput(ImmutableList.of(
+                row(string("high \uD83D alone"), string("low \uDE00 alone"), string("\uD83D😀")),
+                row(string("ends with \uD83D"), string("\uDE00\uD83D"), null)));
+    }
+
+    /**
+     * The characters are split across several buffers
+     */
+    @Test
+    public void testLargeResult() throws Exception {
+        assertSameOutput(IntStream.range(0, 5000)
+                .mapToObj(i -> row(string("😀 row \"" + i + "\""),
+                        TERM_FACTORY.getRDFLiteralConstant(String.valueOf(i), XSD.INTEGER),
+                        i % 2 == 0 ? null : TERM_FACTORY.getConstantIRI("http://example.org/" + i)))
+                .collect(ImmutableList.toImmutableList()));
+    }
+
+    @Test
+    public void testNoResult() throws Exception {
+        assertSameOutput(ImmutableList.of());
+    }
+
+    @Test
+    public void testNoVariable() throws Exception {
+        for (DirectTupleResultSerializer.Format format : DirectTupleResultSerializer.Format.values()) {
+            ImmutableList<OntopBindingSet> rows = ImmutableList.of(new TestBindingSet(ImmutableList.of()));
+            assertArrayEquals(format.toString(), serializeWithRDF4J(ImmutableList.of(), rows, format),
+                    serialize(ImmutableList.of(), rows, format));
+        }
+    }
+
+    private static void assertSameOutput(ImmutableList<OntopBindingSet> rows) throws Exception {
+        for (DirectTupleResultSerializer.Format format : DirectTupleResultSerializer.Format.values()) {
+            byte[] expected = serializeWithRDF4J(VARIABLES, rows, format);
+            byte[] actual = serialize(VARIABLES, rows, format);
+            // First as strings, for readable failures
+            assertEquals(format.toString(), new String(expected, StandardCharsets.UTF_8),
+                    new String(actual, StandardCharsets.UTF_8));
+            assertArrayEquals(format.toString(), expected, actual);
+        }
+    }
+
+    private static byte[] serialize(ImmutableList<String> variables, ImmutableList<OntopBindingSet> rows,
+                                    DirectTupleResultSerializer.Format format) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DirectTupleResultSerializer.Statistics statistics = new DirectTupleResultSerializer()
+                .serialize(new TestTupleResultSet(variables, rows), format, outputStream);
+        assertEquals(rows.size(), statistics.getRowCount());
+        assertEquals(outputStream.size(), statistics.getByteCount());
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] serializeWithRDF4J(ImmutableList<String> variables, ImmutableList<OntopBindingSet> rows,
+                                             DirectTupleResultSerializer.Format format) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TupleQueryResultWriter writer;
+        switch (format) {
+            case JSON:
+                writer = new SPARQLResultsJSONWriter(outputStream);
+                break;
+            case CSV:
+                writer = new SPARQLResultsCSVWriter(outputStream);
+                break;
+            case TSV:
+                writer = new SPARQLResultsTSVWriter(outputStream);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        writer.startQueryResult(variables);
+        for (OntopBindingSet row : rows)
+            writer.handleSolution(new OntopRDF4JBindingSet(row));
+        writer.endQueryResult();
+        return outputStream.toByteArray();
+    }
+
+    private static RDFConstant string(String value) {
+        return TERM_FACTORY.getRDFLiteralConstant(value, XSD.STRING);
+    }
+
+    /**
+     * Values of x, y and z (null if unbound)
+     */
+    private static OntopBindingSet row(@Nullable RDFConstant x, @Nullable RDFConstant y, @Nullable RDFConstant z) {
+        RDFConstant[] values = { x, y, z };
+        return new TestBindingSet(IntStream.range(0, VARIABLES.size())
+                .filter(i -> values[i] != null)
+                .mapToObj(i -> new OntopBindingImpl(TERM_FACTORY.getVariable(VARIABLES.get(i)), values[i]))
+                .collect(ImmutableList.toImmutableList()));
+    }
+
+
+    /**
+     * Only contains the bound variables, as the binding sets of Ontop
+     */
+    private static class TestBindingSet implements OntopBindingSet {
+        private final ImmutableList<OntopBinding> bindings;
+        private final Map<String, OntopBinding> bindingMap;
+
+        TestBindingSet(ImmutableList<OntopBinding> bindings) {
+            this.bindings = bindings;
+            this.bindingMap = bindings.stream()
+                    .collect(Collectors.toMap(OntopBinding::getName, Function.identity()));
+        }
+
+        @Override
+        public Iterator<OntopBinding> iterator() {
+            return bindings.iterator();
+        }
+
+        @Override
+        public OntopBinding[] getBindings() {
+            return bindings.toArray(new OntopBinding[0]);
+        }
+
+        @Override
+        public String[] getBindingNames() {
+            return bindings.stream()
+                    .map(OntopBinding::getName)
+                    .toArray(String[]::new);
+        }
+
+        @Nullable
+        @Override
+        public RDFConstant getConstant(String name) {
+            OntopBinding binding = bindingMap.get(name);
+            return binding == null ? null : binding.getValue();
+        }
+
+        @Nullable
+        @Override
+        public OntopBinding getBinding(String name) {
+            return bindingMap.get(name);
+        }
+
+        @Override
+        public boolean hasBinding(String bindingName) {
+            return bindingMap.containsKey(bindingName);
+        }
+
+        @Override
+        public String getRowUUIDStr() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestTupleResultSet implements TupleResultSet {
+        private final ImmutableList<String> variables;
+        private final Iterator<OntopBindingSet> iterator;
+
+        TestTupleResultSet(ImmutableList<String> variables, ImmutableList<OntopBindingSet> rows) {
+            this.variables = variables;
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return variables.size();
+        }
+
+        @Override
+        public List<String> getSignature() {
+            return variables;
+        }
+
+        @Override
+        public boolean isConnectionAlive() {
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public OntopBindingSet next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
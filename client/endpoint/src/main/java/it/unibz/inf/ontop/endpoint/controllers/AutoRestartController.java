@@ -1,8 +1,11 @@
 package it.unibz.inf.ontop.endpoint.controllers;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.endpoint.OntopEndpointApplication;
+import it.unibz.inf.ontop.rdf4j.repository.impl.OntopVirtualRepository;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +17,9 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 
 @RestController
@@ -23,11 +28,19 @@ public class AutoRestartController {
 
     private static final Logger log = LoggerFactory.getLogger(AutoRestartController.class);
 
+    private final OntopVirtualRepository repository;
+    // The predefined query engine is bound to the query engine created at startup
+    private final boolean isReloadSupported;
+
     @Autowired
     public AutoRestartController(@Value("${mapping}") String mappingFile,
                                  @Value("${properties:#{null}}") String propertiesFile,
                                  @Value("${ontology:#{null}}") String owlFile,
-                                 @Value("${portal:#{null}}") String portalFile) {
+                                 @Value("${portal:#{null}}") String portalFile,
+                                 @Value("${predefined-config:#{null}}") String predefinedConfigFile,
+                                 OntopVirtualRepository repository) {
+        this.repository = repository;
+        this.isReloadSupported = predefinedConfigFile == null;
         registerFileWatcher(mappingFile, owlFile, propertiesFile, portalFile);
     }
 
@@ -36,15 +49,33 @@ public class AutoRestartController {
         OntopEndpointApplication.restart();
     }
 
+    /**
+     * Reloads the mapping and the ontology without restarting the endpoint
+     * (the queries being evaluated are not interrupted).
+     * Falls back to a restart when predefined queries are enabled.
+     */
+    @PostMapping("/ontop/reload")
+    public void reload() {
+        if (isReloadSupported)
+            repository.reload();
+        else
+            OntopEndpointApplication.restart();
+    }
+
     private void registerFileWatcher(String mappingFile, @Nullable String owlFile, @Nullable String propertiesFile, @Nullable String portalFile) {
         FileSystem fileSystem = FileSystems.getDefault();
 
         ImmutableList<Path> filesToWatch = Stream.of(mappingFile, owlFile, propertiesFile, portalFile)
                 .filter(Objects::nonNull)
-                .map(f -> new File(f).getAbsolutePath())
-                .map(s -> fileSystem.getPath(s))
+                .map(f -> toPath(fileSystem, f))
                 .collect(ImmutableCollectors.toList());
 
+        // Changes in the other files (properties, portal) require a restart
+        ImmutableSet<Path> reloadableFiles = Stream.of(mappingFile, owlFile)
+                .filter(Objects::nonNull)
+                .map(f -> toPath(fileSystem, f))
+                .collect(ImmutableCollectors.toSet());
+
         // this code assumes that the input files are under the same directory
         final Path parentDirectoryPath = filesToWatch.get(0).getParent();
 
@@ -54,6 +85,8 @@ public class AutoRestartController {
                 final WatchKey watchKey = parentDirectoryPath.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY);
                 while (true) {
                     final WatchKey wk = watchService.take();
+                    // Editors often trigger several events for one change
+                    Set<Path> changedFiles = new HashSet<>();
                     for (WatchEvent<?> event : wk.pollEvents()) {
                         //we only register "ENTRY_MODIFY" so the context is always a Path.
                         final Path localChanged = ((Path) event.context());
@@ -62,7 +95,22 @@ public class AutoRestartController {
                         // so we build it in another way...
                         final Path changed = Paths.get(parentDirectoryPath.toString(), localChanged.toString()).toAbsolutePath();
                         System.out.println(changed + " changed detected!");
-                        if (filesToWatch.stream().anyMatch(changed::endsWith)) {
+                        filesToWatch.stream()
+                                .filter(changed::endsWith)
+                                .forEach(changedFiles::add);
+                    }
+                    if (!changedFiles.isEmpty()) {
+                        if (isReloadSupported && reloadableFiles.containsAll(changedFiles)) {
+                            log.info("RELOADING Ontop!");
+                            try {
+                                repository.reload();
+                            }
+                            catch (RepositoryException e) {
+                                // The previous specification remains in use
+                                log.error("Reloading failed: " + e.getMessage());
+                            }
+                        }
+                        else {
                             log.info("RESTARTING Ontop!");
                             OntopEndpointApplication.restart();
                         }
@@ -80,5 +128,9 @@ public class AutoRestartController {
         }).start();
     }
 
+    private static Path toPath(FileSystem fileSystem, String file) {
+        return fileSystem.getPath(new File(file).getAbsolutePath());
+    }
+
 
 }
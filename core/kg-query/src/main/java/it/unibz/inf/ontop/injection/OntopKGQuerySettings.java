@@ -1,5 +1,7 @@
 package it.unibz.inf.ontop.injection;
 
+import java.util.Optional;
+
 public interface OntopKGQuerySettings extends OntopOBDASettings, OntopOptimizationSettings {
 
     /**
@@ -9,8 +11,24 @@ public interface OntopKGQuerySettings extends OntopOBDASettings, OntopOptimizati
      */
     boolean isFixedObjectIncludedInDescribe();
 
+    /**
+     * Number of resources described by the same query (grouped in a VALUES block)
+     * while answering a DESCRIBE query.
+     *
+     * 1 means one query per resource.
+     */
+    int getDescribeBatchSize();
+
+    /**
+     * Maximal number of resources described while answering a DESCRIBE query.
+     * The other resources are ignored.
+     */
+    Optional<Integer> getMaxDescribedResources();
+
     boolean isCustomSPARQLFunctionRegistrationEnabled();
 
     String INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE = "ontop.includeFixedObjectPositionInDescribe";
+    String DESCRIBE_BATCH_SIZE = "ontop.describe.batchSize";
+    String MAX_DESCRIBED_RESOURCES = "ontop.describe.maxResources";
     String REGISTER_CUSTON_SPARQL_AGGREGATE_FUNCTIONS = "ontop.registerCustomSPARQLAggregateFunctions";
 }
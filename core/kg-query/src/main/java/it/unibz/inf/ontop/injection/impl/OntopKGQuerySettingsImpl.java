@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.injection.impl;
 import it.unibz.inf.ontop.injection.OntopKGQuerySettings;
 import it.unibz.inf.ontop.injection.OntopOptimizationSettings;
 
+import java.util.Optional;
 import java.util.Properties;
 
 public class OntopKGQuerySettingsImpl extends OntopOBDASettingsImpl implements OntopKGQuerySettings {
@@ -31,6 +32,16 @@ public class OntopKGQuerySettingsImpl extends OntopOBDASettingsImpl implements O
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
     }
 
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
+    @Override
+    public Optional<Integer> getMaxDescribedResources() {
+        return getInteger(MAX_DESCRIBED_RESOURCES);
+    }
+
     @Override
     public boolean isCustomSPARQLFunctionRegistrationEnabled() {
         return getRequiredBoolean(REGISTER_CUSTON_SPARQL_AGGREGATE_FUNCTIONS);
@@ -4,6 +4,8 @@ import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.rdf.api.IRI;
 
+import java.util.Optional;
+
 public interface DescribeQuery extends GraphSPARQLQuery {
 
     /**
@@ -15,8 +17,16 @@ public interface DescribeQuery extends GraphSPARQLQuery {
 
     /**
      * Restriction: description of blank nodes is not supported.
+     *
+     * Resources may be grouped (VALUES block) so as to be described by the same query.
+     * The order of the resources is preserved across the queries.
      */
     ImmutableCollection<ConstructQuery> computeConstructQueries(ImmutableSet<IRI> resourcesToDescribe);
 
+    /**
+     * Beyond, the other resources are ignored
+     */
+    Optional<Integer> getMaxResourcesToDescribe();
+
 
 }
@@ -3,6 +3,8 @@ package it.unibz.inf.ontop.query.impl;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Streams;
 import it.unibz.inf.ontop.query.ConstructQuery;
 import it.unibz.inf.ontop.query.ConstructTemplate;
 import it.unibz.inf.ontop.query.RDF4JDescribeQuery;
@@ -16,10 +18,12 @@ import org.apache.commons.rdf.api.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.algebra.*;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -38,18 +42,25 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
 
     // True if the pattern "?s ?p <describedIRI>" should also be considered while answering a DESCRIBE query.
     private final boolean isFixedObjectIncludedInDescribe;
+    // Number of resources described by the same CONSTRUCT query
+    private final int batchSize;
+    private final Optional<Integer> maxResourcesToDescribe;
 
     RDF4JDescribeQueryImpl(ParsedQuery originalParsedQuery, String queryString, BindingSet bindings,
-                           boolean isFixedObjectIncludedInDescribe) {
+                           boolean isFixedObjectIncludedInDescribe, int batchSize,
+                           Optional<Integer> maxResourcesToDescribe) {
         this.originalParsedQuery = originalParsedQuery;
         this.queryString = queryString;
         this.bindings = bindings;
         this.isFixedObjectIncludedInDescribe = isFixedObjectIncludedInDescribe;
+        this.batchSize = batchSize;
+        this.maxResourcesToDescribe = maxResourcesToDescribe;
     }
 
     @Override
     public RDF4JDescribeQuery newBindings(BindingSet newBindings) {
-        return new RDF4JDescribeQueryImpl(originalParsedQuery, getOriginalString(), newBindings, isFixedObjectIncludedInDescribe);
+        return new RDF4JDescribeQueryImpl(originalParsedQuery, getOriginalString(), newBindings,
+                isFixedObjectIncludedInDescribe, batchSize, maxResourcesToDescribe);
     }
 
     @Override
@@ -86,6 +97,17 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
 
     @Override
     public ImmutableCollection<ConstructQuery> computeConstructQueries(ImmutableSet<IRI> resourcesToDescribe) {
+        return (batchSize > 1)
+                ? computeBatchedConstructQueries(resourcesToDescribe)
+                : computeConstructQueryPerResource(resourcesToDescribe);
+    }
+
+    @Override
+    public Optional<Integer> getMaxResourcesToDescribe() {
+        return maxResourcesToDescribe;
+    }
+
+    private ImmutableList<ConstructQuery> computeConstructQueryPerResource(ImmutableSet<IRI> resourcesToDescribe) {
         ConstructQuerySplit split = createConstructionQuerySplit(isFixedObjectIncludedInDescribe);
         SimpleValueFactory valueFactory = SimpleValueFactory.getInstance();
 
@@ -95,6 +117,34 @@ class RDF4JDescribeQueryImpl implements RDF4JDescribeQuery {
                 .collect(ImmutableCollectors.toList());
     }
 
+    /**
+     * One query per batch of resources, the resources being provided by a VALUES block
+     */
+    private ImmutableList<ConstructQuery> computeBatchedConstructQueries(ImmutableSet<IRI> resourcesToDescribe) {
+        ConstructTemplate constructTemplate = new RDF4JConstructTemplate(
+                createNewProjection(isFixedObjectIncludedInDescribe), null);
+
+        return Streams.stream(Iterables.partition(resourcesToDescribe, batchSize))
+                .map(batch -> new RDF4JConstructQueryImpl(
+                        new ConstructQuerySplit(constructTemplate, new ParsedTupleQuery(
+                                new Join(createValuesBlock(batch), createSPPOUnion(isFixedObjectIncludedInDescribe)))),
+                        "# Construct for describing " + batch,
+                        EmptyBindingSet.getInstance()))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    private static BindingSetAssignment createValuesBlock(List<IRI> resources) {
+        SimpleValueFactory valueFactory = SimpleValueFactory.getInstance();
+        ImmutableList<String> bindingNames = ImmutableList.of(DESCRIBE_VARIABLE);
+
+        BindingSetAssignment valuesBlock = new BindingSetAssignment();
+        valuesBlock.setBindingNames(ImmutableSet.copyOf(bindingNames));
+        valuesBlock.setBindingSets(resources.stream()
+                .map(d -> new ListBindingSet(bindingNames, valueFactory.createIRI(d.getIRIString())))
+                .collect(ImmutableCollectors.toList()));
+        return valuesBlock;
+    }
+
     private static ConstructQuerySplit createConstructionQuerySplit(boolean isFixedObjectIncludedInDescribe) {
         ParsedTupleQuery selectQuery = new ParsedTupleQuery(createSPPOUnion(isFixedObjectIncludedInDescribe));
 
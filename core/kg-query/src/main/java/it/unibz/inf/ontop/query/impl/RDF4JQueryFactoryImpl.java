@@ -33,7 +33,8 @@ public class RDF4JQueryFactoryImpl implements RDF4JQueryFactory {
 
     @Override
     public RDF4JDescribeQuery createDescribeQuery(String queryString, ParsedDescribeQuery parsedQuery, BindingSet bindings) {
-        return new RDF4JDescribeQueryImpl(parsedQuery, queryString, bindings, settings.isFixedObjectIncludedInDescribe());
+        return new RDF4JDescribeQueryImpl(parsedQuery, queryString, bindings, settings.isFixedObjectIncludedInDescribe(),
+                settings.getDescribeBatchSize(), settings.getMaxDescribedResources());
     }
 
     @Override
@@ -25,7 +25,13 @@ import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import org.apache.commons.rdf.api.IRI;
+
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * See {@link QueryUnfolder.Factory} for creating a new instance.
@@ -39,6 +45,13 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
     private final UnionBasedQueryMerger queryMerger;
     private final CoreUtilsFactory coreUtilsFactory;
 
+    // Shared by all the queries (the mapping is immutable)
+    private final Map<RDFAtomPredicate, IndexedDefinition> starDefinitions = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, IndexedDefinition> starClassDefinitions = new ConcurrentHashMap<>();
+    // Only for constant subjects and objects
+    private final Map<RDFAtomPredicate, Map<IRI, IndexedDefinition>> propertyDefinitions = new ConcurrentHashMap<>();
+    private final Map<RDFAtomPredicate, Map<IRI, IndexedDefinition>> classDefinitions = new ConcurrentHashMap<>();
+
     /**
      * See {@link QueryUnfolder.Factory#create(Mapping)}
      */
@@ -79,28 +92,41 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
 
         private Optional<IQ> getDefinition(RDFAtomPredicate predicate,
                                            ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            VariableOrGroundTerm subject = predicate.getSubject(arguments);
+            VariableOrGroundTerm object = predicate.getObject(arguments);
             return predicate.getPropertyIRI(arguments)
                     .map(i -> i.equals(RDF.TYPE)
                             ? getRDFClassDefinition(predicate, arguments)
-                            : mapping.getRDFPropertyDefinition(predicate, i))
-                    .orElseGet(() -> getStarDefinition(predicate));
+                            : getRDFPropertyDefinition(predicate, i, subject, object))
+                    .orElseGet(() -> starDefinitions.computeIfAbsent(predicate,
+                                    p -> createIndexedDefinition(p, mapping.getQueries(p)))
+                            .getDefinition(subject, object));
         }
 
         private Optional<IQ> getRDFClassDefinition(RDFAtomPredicate predicate,
                                                    ImmutableList<? extends VariableOrGroundTerm> arguments) {
+            VariableOrGroundTerm subject = predicate.getSubject(arguments);
+            VariableOrGroundTerm object = predicate.getObject(arguments);
             return predicate.getClassIRI(arguments)
-                    .map(i -> mapping.getRDFClassDefinition(predicate, i))
-                    .orElseGet(() -> getStarClassDefinition(predicate));
-        }
-
-        private Optional<IQ> getStarClassDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getRDFClasses(predicate).stream()
-                    .flatMap(i -> mapping.getRDFClassDefinition(predicate, i).stream())
-                    .collect(ImmutableCollectors.toList()));
+                    .map(i -> (subject instanceof IRIConstant)
+                            ? getIndexedDefinition(classDefinitions, predicate, i,
+                                    p -> mapping.getRDFClassDefinition(p, i))
+                                    .getDefinition(subject, object)
+                            : mapping.getRDFClassDefinition(predicate, i))
+                    .orElseGet(() -> starClassDefinitions.computeIfAbsent(predicate,
+                                    p -> createIndexedDefinition(p, mapping.getRDFClasses(p).stream()
+                                            .flatMap(i -> mapping.getRDFClassDefinition(p, i).stream())
+                                            .collect(ImmutableCollectors.toList())))
+                            .getDefinition(subject, object));
         }
 
-        private Optional<IQ> getStarDefinition(RDFAtomPredicate predicate) {
-            return queryMerger.mergeDefinitions(mapping.getQueries(predicate));
+        private Optional<IQ> getRDFPropertyDefinition(RDFAtomPredicate predicate, IRI propertyIRI,
+                                                      VariableOrGroundTerm subject, VariableOrGroundTerm object) {
+            return ((subject instanceof IRIConstant) || (object instanceof IRIConstant))
+                    ? getIndexedDefinition(propertyDefinitions, predicate, propertyIRI,
+                            p -> mapping.getRDFPropertyDefinition(p, propertyIRI))
+                            .getDefinition(subject, object)
+                    : mapping.getRDFPropertyDefinition(predicate, propertyIRI);
         }
 
         @Override
@@ -108,4 +134,16 @@ public class BasicQueryUnfolder extends AbstractIntensionalQueryMerger implement
             return iqFactory.createEmptyNode(dataNode.getVariables());
         }
     }
+
+    private IndexedDefinition getIndexedDefinition(Map<RDFAtomPredicate, Map<IRI, IndexedDefinition>> definitionMap,
+                                                   RDFAtomPredicate predicate, IRI iri,
+                                                   Function<RDFAtomPredicate, Optional<IQ>> definitionProvider) {
+        return definitionMap.computeIfAbsent(predicate, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(iri, i -> createIndexedDefinition(predicate,
+                        definitionProvider.apply(predicate).stream().collect(ImmutableCollectors.toList())));
+    }
+
+    private IndexedDefinition createIndexedDefinition(RDFAtomPredicate predicate, Collection<IQ> definitions) {
+        return new IndexedDefinition(ImmutableList.copyOf(definitions), predicate, queryMerger, iqFactory);
+    }
 }
@@ -0,0 +1,59 @@
+package it.unibz.inf.ontop.query.unfolding.impl;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes values by IRI prefix (e.g. the constant prefix of an IRI template).
+ *
+ * Given an IRI, returns in one pass the values of all the prefixes of the IRI.
+ * Entries can also be registered as exact (e.g. constant IRIs): they are only returned for the same IRI.
+ *
+ * Not thread-safe while being populated. Safe to share once populated and published.
+ */
+class IRIPrefixTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    void putPrefix(String prefix, T value) {
+        getOrCreateNode(prefix).prefixValues.add(value);
+    }
+
+    void putExact(String iri, T value) {
+        getOrCreateNode(iri).exactValues.add(value);
+    }
+
+    ImmutableSet<T> getMatches(String iri) {
+        ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+        Node<T> node = root;
+        int length = iri.length();
+        for (int i = 0; i < length; i++) {
+            builder.addAll(node.prefixValues);
+            node = node.children.get(iri.charAt(i));
+            if (node == null)
+                return builder.build();
+        }
+        builder.addAll(node.prefixValues);
+        builder.addAll(node.exactValues);
+        return builder.build();
+    }
+
+    private Node<T> getOrCreateNode(String key) {
+        Node<T> node = root;
+        int length = key.length();
+        for (int i = 0; i < length; i++)
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+        return node;
+    }
+
+
+    private static class Node<T> {
+        private final Map<Character, Node<T>> children = new HashMap<>();
+        private final List<T> prefixValues = new ArrayList<>();
+        private final List<T> exactValues = new ArrayList<>();
+    }
+}
@@ -0,0 +1,210 @@
+package it.unibz.inf.ontop.query.unfolding.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.ObjectRDFType;
+import it.unibz.inf.ontop.model.type.RDFDatatype;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Definition of an RDF atom (a property, a class, or a "star" pattern), shared by all the queries.
+ *
+ * The definitions are split into branches (the children of their top union), which are indexed
+ * by the IRI template (or constant IRI) of their subject and object, using {@link IRIPrefixTrie}s.
+ * For a constant subject and/or object, only the branches that may produce them are merged,
+ * before any IQ is built. The definitions of the most recently used subsets are cached.
+ *
+ * The index is built lazily. Thread-safe.
+ */
+class IndexedDefinition {
+
+    // Per definition (the number of subsets of branches is exponential)
+    private static final int SUBSET_DEFINITION_CACHE_SIZE = 64;
+
+    private final ImmutableList<IQ> definitions;
+    private final RDFAtomPredicate predicate;
+    private final UnionBasedQueryMerger queryMerger;
+    private final IntermediateQueryFactory iqFactory;
+
+    private final LoadingCache<ImmutableSet<Integer>, Optional<IQ>> subsetDefinitions;
+
+    // Lazily initialized
+    @Nullable
+    private Optional<IQ> mergedDefinition;
+    @Nullable
+    private Index index;
+
+    IndexedDefinition(ImmutableList<IQ> definitions, RDFAtomPredicate predicate, UnionBasedQueryMerger queryMerger,
+                      IntermediateQueryFactory iqFactory) {
+        this.definitions = definitions;
+        this.predicate = predicate;
+        this.queryMerger = queryMerger;
+        this.iqFactory = iqFactory;
+        this.subsetDefinitions = CacheBuilder.newBuilder()
+                .maximumSize(SUBSET_DEFINITION_CACHE_SIZE)
+                .build(CacheLoader.from(this::mergeBranches));
+    }
+
+    synchronized Optional<IQ> getDefinition() {
+        if (mergedDefinition == null)
+            mergedDefinition = queryMerger.mergeDefinitions(definitions);
+        return mergedDefinition;
+    }
+
+    /**
+     * Only considers the branches that may produce the constant subject and object (if any)
+     */
+    Optional<IQ> getDefinition(VariableOrGroundTerm subject, VariableOrGroundTerm object) {
+        if (!(subject instanceof IRIConstant) && !(object instanceof IRIConstant))
+            return getDefinition();
+
+        Index index = getIndex();
+        ImmutableSet<Integer> compatibleBranches = Sets.intersection(
+                        index.subjectIndex.getCompatibleBranches(subject),
+                        index.objectIndex.getCompatibleBranches(object))
+                .immutableCopy();
+
+        if (compatibleBranches.size() == index.branches.size())
+            return getDefinition();
+
+        return subsetDefinitions.getUnchecked(compatibleBranches);
+    }
+
+    private Optional<IQ> mergeBranches(ImmutableSet<Integer> branchIndexes) {
+        ImmutableList<IQ> branches = getIndex().branches;
+        return queryMerger.mergeDefinitions(branchIndexes.stream()
+                .sorted()
+                .map(branches::get)
+                .collect(ImmutableCollectors.toList()));
+    }
+
+    private synchronized Index getIndex() {
+        if (index == null)
+            index = new Index(definitions.stream()
+                    .flatMap(d -> extractBranches(d.getTree())
+                            .map(t -> iqFactory.createIQ(d.getProjectionAtom(), t)))
+                    .collect(ImmutableCollectors.toList()));
+        return index;
+    }
+
+    private static Stream<IQTree> extractBranches(IQTree tree) {
+        return (tree.getRootNode() instanceof UnionNode)
+                ? tree.getChildren().stream()
+                : Stream.of(tree);
+    }
+
+
+    private class Index {
+        private final ImmutableList<IQ> branches;
+        private final PositionIndex subjectIndex;
+        private final PositionIndex objectIndex;
+
+        private Index(ImmutableList<IQ> branches) {
+            this.branches = branches;
+            this.subjectIndex = new PositionIndex(branches.size());
+            this.objectIndex = new PositionIndex(branches.size());
+
+            for (int i = 0; i < branches.size(); i++) {
+                IQ branch = branches.get(i);
+                DistinctVariableOnlyDataAtom projectionAtom = branch.getProjectionAtom();
+                subjectIndex.add(i, branch.getTree(), predicate.getSubject(projectionAtom.getArguments()));
+                objectIndex.add(i, branch.getTree(), predicate.getObject(projectionAtom.getArguments()));
+            }
+        }
+    }
+
+    /**
+     * Indexes the branches for a position (subject or object)
+     */
+    private static class PositionIndex {
+        private final int branchCount;
+        private final IRIPrefixTrie<Integer> trie = new IRIPrefixTrie<>();
+        // Branches for which the position is not known to be a particular IRI template or IRI constant
+        private final Set<Integer> unconstrainedBranches = new HashSet<>();
+
+        private PositionIndex(int branchCount) {
+            this.branchCount = branchCount;
+        }
+
+        private void add(int branchIndex, IQTree branch, Variable variable) {
+            if (!(branch.getRootNode() instanceof ConstructionNode)) {
+                unconstrainedBranches.add(branchIndex);
+                return;
+            }
+
+            ImmutableTerm term = ((ConstructionNode) branch.getRootNode()).getSubstitution().get(variable);
+            if (!(term instanceof ImmutableFunctionalTerm)
+                    || !(((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol)) {
+                unconstrainedBranches.add(branchIndex);
+                return;
+            }
+
+            ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+            ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+            if (!(typeTerm instanceof RDFTermTypeConstant)) {
+                unconstrainedBranches.add(branchIndex);
+                return;
+            }
+            RDFTermType type = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+            // Blank nodes and literals: cannot produce an IRI
+            if (((type instanceof ObjectRDFType) && ((ObjectRDFType) type).isBlankNode())
+                    || ((type instanceof RDFDatatype) && !type.isAbstract()))
+                return;
+            if (!(type instanceof ObjectRDFType)) {
+                unconstrainedBranches.add(branchIndex);
+                return;
+            }
+
+            ImmutableTerm lexicalTerm = rdfTerm.getTerm(0);
+            if (lexicalTerm instanceof DBConstant) {
+                trie.putExact(((DBConstant) lexicalTerm).getValue(), branchIndex);
+                return;
+            }
+
+            Optional<String> prefix = Optional.of(lexicalTerm)
+                    .filter(t -> t instanceof ImmutableFunctionalTerm)
+                    .map(t -> ((ImmutableFunctionalTerm) t).getFunctionSymbol())
+                    .filter(f -> f instanceof ObjectStringTemplateFunctionSymbol)
+                    .flatMap(f -> ((ObjectStringTemplateFunctionSymbol) f).getTemplateComponents().stream().findFirst())
+                    .filter(c -> !c.isColumnNameReference())
+                    .map(Template.Component::getComponent)
+                    .filter(p -> !p.isEmpty());
+
+            if (prefix.isPresent())
+                trie.putPrefix(prefix.get(), branchIndex);
+            else
+                unconstrainedBranches.add(branchIndex);
+        }
+
+        private Set<Integer> getCompatibleBranches(VariableOrGroundTerm term) {
+            if (!(term instanceof IRIConstant))
+                return IntStream.range(0, branchCount).boxed()
+                        .collect(ImmutableCollectors.toSet());
+
+            return Sets.union(unconstrainedBranches,
+                    trie.getMatches(((IRIConstant) term).getIRI().getIRIString()));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package it.unibz.inf.ontop.query.unfolding.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class IRIPrefixTrieTest {
+
+    private static IRIPrefixTrie<Integer> createTrie() {
+        IRIPrefixTrie<Integer> trie = new IRIPrefixTrie<>();
+        trie.putPrefix("http://example.org/", 1);
+        trie.putPrefix("http://example.org/person/", 2);
+        trie.putPrefix("http://example.org/person/", 3);
+        trie.putExact("http://example.org/person", 4);
+        trie.putExact("http://example.org/person/1", 5);
+        return trie;
+    }
+
+    @Test
+    public void testAllPrefixes() {
+        assertEquals(ImmutableSet.of(1, 2, 3), createTrie().getMatches("http://example.org/person/2"));
+    }
+
+    @Test
+    public void testExactAndPrefixes() {
+        assertEquals(ImmutableSet.of(1, 2, 3, 5), createTrie().getMatches("http://example.org/person/1"));
+    }
+
+    @Test
+    public void testExactIsNotAPrefix() {
+        assertEquals(ImmutableSet.of(1, 4), createTrie().getMatches("http://example.org/person"));
+        assertEquals(ImmutableSet.of(1), createTrie().getMatches("http://example.org/persons"));
+    }
+
+    @Test
+    public void testShorterThanPrefixes() {
+        assertEquals(ImmutableSet.of(), createTrie().getMatches("http://example.org"));
+        assertEquals(ImmutableSet.of(), createTrie().getMatches(""));
+    }
+
+    @Test
+    public void testNoMatch() {
+        assertEquals(ImmutableSet.of(), createTrie().getMatches("http://other.org/person/1"));
+    }
+
+    @Test
+    public void testEmptyPrefix() {
+        IRIPrefixTrie<Integer> trie = createTrie();
+        trie.putPrefix("", 0);
+        assertEquals(ImmutableSet.of(0), trie.getMatches("http://other.org/"));
+        assertEquals(ImmutableSet.of(0, 1), trie.getMatches("http://example.org/company/1"));
+    }
+}
@@ -0,0 +1,172 @@
+package it.unibz.inf.ontop.query.unfolding.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.injection.OntopOptimizationConfiguration;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.UnionNode;
+import it.unibz.inf.ontop.iq.tools.UnionBasedQueryMerger;
+import it.unibz.inf.ontop.model.atom.AtomFactory;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Definition of a property with 3 branches:
+ *   0. subject person/{}, literal object
+ *   1. subject company/{}, object company/{}
+ *   2. subject without IRI template, literal object
+ */
+public class IndexedDefinitionTest {
+
+    private static final IntermediateQueryFactory IQ_FACTORY;
+    private static final TermFactory TERM_FACTORY;
+    private static final AtomFactory ATOM_FACTORY;
+    private static final SubstitutionFactory SUBSTITUTION_FACTORY;
+    private static final TypeFactory TYPE_FACTORY;
+    private static final UnionBasedQueryMerger QUERY_MERGER;
+    private static final RelationDefinition TABLE;
+
+    static {
+        Injector injector = OntopOptimizationConfiguration.defaultBuilder()
+                .enableTestMode()
+                .build()
+                .getInjector();
+        IQ_FACTORY = injector.getInstance(IntermediateQueryFactory.class);
+        TERM_FACTORY = injector.getInstance(TermFactory.class);
+        ATOM_FACTORY = injector.getInstance(AtomFactory.class);
+        SUBSTITUTION_FACTORY = injector.getInstance(SubstitutionFactory.class);
+        TYPE_FACTORY = injector.getInstance(TypeFactory.class);
+        QUERY_MERGER = injector.getInstance(UnionBasedQueryMerger.class);
+
+        OfflineMetadataProviderBuilder builder = new OfflineMetadataProviderBuilder(
+                injector.getInstance(CoreSingletons.class));
+        DBTermType stringType = builder.getDBTypeFactory().getDBStringType();
+        TABLE = builder.createDatabaseRelation("TABLE1",
+                "a", stringType, false,
+                "b", stringType, false);
+    }
+
+    private static final Variable S = TERM_FACTORY.getVariable("s");
+    private static final Variable P = TERM_FACTORY.getVariable("p");
+    private static final Variable O = TERM_FACTORY.getVariable("o");
+    private static final DistinctVariableOnlyDataAtom PROJECTION_ATOM = ATOM_FACTORY.getDistinctTripleAtom(S, P, O);
+    private static final IRIConstant PROPERTY = TERM_FACTORY.getConstantIRI("http://example.org/voc#p");
+
+    private static final IQTree PERSON_BRANCH = createBranch(0,
+            createIRITemplateTerm("http://example.org/person/", 0),
+            createLiteralTerm(0));
+    private static final IQTree COMPANY_BRANCH = createBranch(1,
+            createIRITemplateTerm("http://example.org/company/", 1),
+            TERM_FACTORY.getIRIFunctionalTerm(Template.builder()
+                    .addSeparator("http://example.org/company/")
+                    .addColumn()
+                    .build(), ImmutableList.of(TERM_FACTORY.getVariable("b1"))));
+    private static final IQTree UNCONSTRAINED_BRANCH = createBranch(2,
+            TERM_FACTORY.getIRIFunctionalTerm(TERM_FACTORY.getVariable("a2")),
+            createLiteralTerm(2));
+
+    @Test
+    public void testNoConstant() {
+        IndexedDefinition definition = createDefinition();
+        assertSame(definition.getDefinition().get(), definition.getDefinition(S, O).get());
+    }
+
+    @Test
+    public void testConstantSubject() {
+        IQ iq = createDefinition().getDefinition(iri("http://example.org/company/3"), O).get();
+
+        IQTree tree = iq.getTree();
+        assertTrue(tree.getRootNode() instanceof UnionNode);
+        assertEquals(2, tree.getChildren().size());
+        assertEquals(COMPANY_BRANCH, tree.getChildren().get(0));
+    }
+
+    @Test
+    public void testConstantSubjectAndObject() {
+        Optional<IQ> iq = createDefinition().getDefinition(iri("http://example.org/company/3"),
+                iri("http://example.org/company/4"));
+
+        assertEquals(Optional.of(IQ_FACTORY.createIQ(PROJECTION_ATOM, COMPANY_BRANCH)), iq);
+    }
+
+    @Test
+    public void testConstantObjectOnly() {
+        Optional<IQ> iq = createDefinition().getDefinition(S, iri("http://example.org/company/4"));
+
+        assertEquals(Optional.of(IQ_FACTORY.createIQ(PROJECTION_ATOM, COMPANY_BRANCH)), iq);
+    }
+
+    @Test
+    public void testNoCompatibleBranch() {
+        assertEquals(Optional.empty(),
+                createDefinition().getDefinition(S, iri("http://other.org/x")));
+    }
+
+    @Test
+    public void testConstantSubjectAndLiteralObject() {
+        IQ iq = createDefinition().getDefinition(iri("http://example.org/person/1"),
+                TERM_FACTORY.getRDFLiteralConstant("x", TYPE_FACTORY.getXsdStringDatatype())).get();
+
+        IQTree tree = iq.getTree();
+        assertTrue(tree.getRootNode() instanceof UnionNode);
+        assertEquals(2, tree.getChildren().size());
+        assertEquals(PERSON_BRANCH, tree.getChildren().get(0));
+    }
+
+    @Test
+    public void testSubsetCached() {
+        IndexedDefinition definition = createDefinition();
+        IQ iq1 = definition.getDefinition(iri("http://example.org/company/3"), O).get();
+        IQ iq2 = definition.getDefinition(iri("http://example.org/company/5"), O).get();
+        assertSame(iq1, iq2);
+    }
+
+    private static IndexedDefinition createDefinition() {
+        IQ iq = IQ_FACTORY.createIQ(PROJECTION_ATOM,
+                IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(PROJECTION_ATOM.getVariables()),
+                        ImmutableList.of(PERSON_BRANCH, COMPANY_BRANCH, UNCONSTRAINED_BRANCH)));
+        return new IndexedDefinition(ImmutableList.of(iq), (RDFAtomPredicate) PROJECTION_ATOM.getPredicate(),
+                QUERY_MERGER, IQ_FACTORY);
+    }
+
+    private static IQTree createBranch(int index, ImmutableTerm subject, ImmutableTerm object) {
+        Variable a = TERM_FACTORY.getVariable("a" + index);
+        Variable b = TERM_FACTORY.getVariable("b" + index);
+        return IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createConstructionNode(PROJECTION_ATOM.getVariables(),
+                        SUBSTITUTION_FACTORY.getSubstitution(S, subject, P, PROPERTY, O, object)),
+                IQ_FACTORY.createExtensionalDataNode(TABLE, ImmutableMap.of(0, a, 1, b)));
+    }
+
+    private static ImmutableFunctionalTerm createIRITemplateTerm(String prefix, int index) {
+        return TERM_FACTORY.getIRIFunctionalTerm(Template.builder()
+                .addSeparator(prefix)
+                .addColumn()
+                .build(), ImmutableList.of(TERM_FACTORY.getVariable("a" + index)));
+    }
+
+    private static ImmutableFunctionalTerm createLiteralTerm(int index) {
+        return TERM_FACTORY.getRDFLiteralFunctionalTerm(TERM_FACTORY.getVariable("b" + index),
+                TYPE_FACTORY.getXsdStringDatatype());
+    }
+
+    private static IRIConstant iri(String iri) {
+        return TERM_FACTORY.getConstantIRI(iri);
+    }
+}
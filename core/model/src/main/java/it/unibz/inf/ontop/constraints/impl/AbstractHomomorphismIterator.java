@@ -2,45 +2,106 @@ package it.unibz.inf.ontop.constraints.impl;
 
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
 import it.unibz.inf.ontop.constraints.Homomorphism;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
 import java.util.*;
 
+/**
+ * Backtracking search of the homomorphisms from a list of atoms to a collection of atoms.
+ *
+ * The target atoms are indexed by predicate, and the candidates of each source atom are restricted
+ * to the target atoms with the same ground arguments. The source atoms are matched most-constrained-first:
+ * the atom with the fewest candidates, preferring atoms sharing a variable with the atoms already matched.
+ *
+ * The search state consists of a position in the candidate list of each source atom (no copy of the target atoms).
+ */
 public abstract class AbstractHomomorphismIterator<S, T> implements Iterator<Homomorphism> {
 
-    private final ListIterator<S> iterator;
-    private final Deque<State> stack; // the current state is at the top
+    // in the matching order
+    private final ImmutableList<S> atoms;
+    private final ImmutableList<ImmutableList<T>> candidates;
+
+    // homomorphisms[d]: homomorphism before matching atoms[d]
+    private final Homomorphism[] homomorphisms;
+    // nextChoices[d]: position of the next candidate of atoms[d]
+    private final int[] nextChoices;
+    private int depth; // -1 means the search is over
 
     private boolean movedToNext;
     private Homomorphism next; // null means reached the end
 
-    private final ImmutableCollection<T> to;
-
     public AbstractHomomorphismIterator(Homomorphism baseHomomorphism, ImmutableList<S> from, ImmutableCollection<T> to) {
-        this.iterator = from.listIterator();
-        this.stack = new ArrayDeque<>(from.size());
-        this.to = to;
-        if (iterator.hasNext()) {
-            movedToNext = false;
-            stack.push(new State(iterator.next(), baseHomomorphism));
-        }
-        else {
+        ImmutableListMultimap<Object, T> index = Multimaps.index(to, this::getTargetPredicate);
+        ImmutableList<ImmutableList<T>> fromCandidates = from.stream()
+                .map(s -> index.get(getSourcePredicate(s)).stream()
+                        .filter(t -> haveCompatibleGroundArguments(s, t))
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableList<Integer> order = computeMatchingOrder(from, fromCandidates);
+        this.atoms = order.stream()
+                .map(from::get)
+                .collect(ImmutableCollectors.toList());
+        this.candidates = order.stream()
+                .map(fromCandidates::get)
+                .collect(ImmutableCollectors.toList());
+
+        this.homomorphisms = new Homomorphism[atoms.size()];
+        this.nextChoices = new int[atoms.size()];
+        if (atoms.isEmpty()) {
             movedToNext = true;
             next = baseHomomorphism;
+            depth = -1;
+        }
+        else if (candidates.stream().anyMatch(List::isEmpty)) {
+            // some atom cannot be matched
+            movedToNext = true;
+            next = null;
+            depth = -1;
+        }
+        else {
+            movedToNext = false;
+            homomorphisms[0] = baseHomomorphism;
+            depth = 0;
         }
     }
 
+    /**
+     * Greedy: the atom with the fewest candidates among the atoms sharing a variable with the atoms already
+     * selected (if any), the first one in the input order in case of ties.
+     */
+    private ImmutableList<Integer> computeMatchingOrder(ImmutableList<S> from, ImmutableList<ImmutableList<T>> fromCandidates) {
+        List<ImmutableSet<Variable>> variables = from.stream()
+                .map(this::getVariables)
+                .collect(ImmutableCollectors.toList());
 
-    private final class State {
-        final Homomorphism homomorphism;
-        final Queue<T> remainingChoices;
-        final S atom;
-
-        State(S atom, Homomorphism homomorphism) {
-            this.atom = atom;
-            this.homomorphism = homomorphism;
-            this.remainingChoices = new ArrayDeque<>(to);
+        Set<Variable> selectedVariables = new HashSet<>();
+        boolean[] isSelected = new boolean[from.size()];
+        ImmutableList.Builder<Integer> builder = ImmutableList.builder();
+        for (int k = 0; k < from.size(); k++) {
+            int best = -1;
+            boolean bestIsConnected = false;
+            for (int i = 0; i < from.size(); i++) {
+                if (isSelected[i])
+                    continue;
+                boolean isConnected = variables.get(i).stream().anyMatch(selectedVariables::contains);
+                if (best < 0
+                        || (isConnected && !bestIsConnected)
+                        || (isConnected == bestIsConnected && fromCandidates.get(i).size() < fromCandidates.get(best).size())) {
+                    best = i;
+                    bestIsConnected = isConnected;
+                }
+            }
+            isSelected[best] = true;
+            selectedVariables.addAll(variables.get(best));
+            builder.add(best);
         }
+        return builder.build();
     }
 
     @Override
@@ -61,33 +122,47 @@ public abstract class AbstractHomomorphismIterator<S, T> implements Iterator<Hom
     }
 
     private Homomorphism shift() {
-        while (!stack.isEmpty()) {
-            State state = stack.peek();
-            T candidateAtom = state.remainingChoices.poll();
-            if (candidateAtom != null) {
-                if (equalPredicates(state.atom, candidateAtom)) {
-                    Homomorphism.Builder builder = state.homomorphism.builder();
-                    extendHomomorphism(builder, state.atom, candidateAtom);
-                    if (builder.isValid()) {
-                        Homomorphism homomorphism = builder.build();
-                        if (iterator.hasNext()) {
-                            stack.push(new State(iterator.next(), homomorphism));
-                        }
-                        else { // reached the last atom
-                            return homomorphism;
-                        }
+        while (depth >= 0) {
+            ImmutableList<T> choices = candidates.get(depth);
+            int choice = nextChoices[depth];
+            if (choice < choices.size()) {
+                nextChoices[depth] = choice + 1;
+                Homomorphism.Builder builder = homomorphisms[depth].builder();
+                extendHomomorphism(builder, atoms.get(depth), choices.get(choice));
+                if (builder.isValid()) {
+                    Homomorphism homomorphism = builder.build();
+                    if (depth + 1 < atoms.size()) {
+                        depth++;
+                        homomorphisms[depth] = homomorphism;
+                        nextChoices[depth] = 0;
+                    }
+                    else { // reached the last atom
+                        return homomorphism;
                     }
                 }
             }
             else {  // backtracking: move back
-                stack.pop();
-                iterator.previous();
+                homomorphisms[depth] = null;
+                depth--;
             }
         }
         return null; // checked all possible homomorphism candidates but found no match
     }
 
-    abstract boolean equalPredicates(S s, T t);
+    /**
+     * Atoms can only be mapped to atoms with an equal predicate
+     */
+    abstract Object getSourcePredicate(S s);
+
+    abstract Object getTargetPredicate(T t);
+
+    /**
+     * Necessary condition for the existence of an extension: the ground arguments of s are equal
+     * to the corresponding arguments of t
+     */
+    abstract boolean haveCompatibleGroundArguments(S s, T t);
+
+    abstract ImmutableSet<Variable> getVariables(S s);
 
     abstract void extendHomomorphism(Homomorphism.Builder builder, S s, T t);
 }
@@ -2,8 +2,11 @@ package it.unibz.inf.ontop.constraints.impl;
 
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.constraints.Homomorphism;
 import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 
 import java.util.*;
@@ -14,8 +17,27 @@ public class ExtensionalDataNodeHomomorphismIteratorImpl extends AbstractHomomor
     }
 
     @Override
-    boolean equalPredicates(ExtensionalDataNode from, ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode to) {
-        return from.getRelationDefinition().equals(to.getRelationDefinition());
+    Object getSourcePredicate(ExtensionalDataNode from) {
+        return from.getRelationDefinition();
+    }
+
+    @Override
+    Object getTargetPredicate(ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode to) {
+        return to.getRelationDefinition();
+    }
+
+    @Override
+    boolean haveCompatibleGroundArguments(ExtensionalDataNode from, ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode to) {
+        // a missing argument would be a labelled null, which never matches a ground term
+        for (Map.Entry<Integer, ? extends VariableOrGroundTerm> e : from.getArgumentMap().entrySet())
+            if (e.getValue() instanceof GroundTerm && !to.findArgument(e.getKey()).filter(e.getValue()::equals).isPresent())
+                return false;
+        return true;
+    }
+
+    @Override
+    ImmutableSet<Variable> getVariables(ExtensionalDataNode from) {
+        return from.getVariables();
     }
 
     @Override
@@ -25,5 +47,3 @@ public class ExtensionalDataNodeHomomorphismIteratorImpl extends AbstractHomomor
                 return;
     }
 }
-
-
@@ -114,6 +114,14 @@ public class ExtensionalDataNodeListContainmentCheck {
             return argumentMap.computeIfAbsent(index, i -> variableGenerator.generateNewVariable());
         }
 
+        /**
+         * Unlike getArgument, does not create a labelled null for a missing argument
+         * (and so does not change the hash code of the node)
+         */
+        public Optional<VariableOrGroundTerm> findArgument(int index) {
+            return Optional.ofNullable(argumentMap.get(index));
+        }
+
         @Override
         public boolean equals(Object o) {
             if (o instanceof ChasedExtensionalDataNode) {
@@ -2,20 +2,46 @@ package it.unibz.inf.ontop.constraints.impl;
 
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.constraints.Homomorphism;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.DataAtom;
-
-import java.util.*;
+import it.unibz.inf.ontop.model.term.GroundTerm;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 
 public class HomomorphismIteratorImpl<P extends AtomPredicate> extends AbstractHomomorphismIterator<DataAtom<P>, DataAtom<P>> {
 
     public HomomorphismIteratorImpl(Homomorphism baseHomomorphism, ImmutableList<DataAtom<P>> from, ImmutableCollection<DataAtom<P>> to) {
         super(baseHomomorphism, from, to);
     }
+
+    @Override
+    Object getSourcePredicate(DataAtom<P> from) {
+        return from.getPredicate();
+    }
+
+    @Override
+    Object getTargetPredicate(DataAtom<P> to) {
+        return to.getPredicate();
+    }
+
+    @Override
+    boolean haveCompatibleGroundArguments(DataAtom<P> from, DataAtom<P> to) {
+        ImmutableList<? extends VariableOrGroundTerm> fromArguments = from.getArguments();
+        ImmutableList<? extends VariableOrGroundTerm> toArguments = to.getArguments();
+        if (fromArguments.size() != toArguments.size())
+            return false;
+
+        for (int i = 0; i < fromArguments.size(); i++)
+            if (fromArguments.get(i) instanceof GroundTerm && !fromArguments.get(i).equals(toArguments.get(i)))
+                return false;
+        return true;
+    }
+
     @Override
-    boolean equalPredicates(DataAtom<P> from, DataAtom<P> to) {
-        return from.getPredicate().equals(to.getPredicate());
+    ImmutableSet<Variable> getVariables(DataAtom<P> from) {
+        return from.getVariables();
     }
 
     @Override
@@ -1,5 +1,8 @@
 package it.unibz.inf.ontop.constraints.impl;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.*;
 import it.unibz.inf.ontop.constraints.*;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
@@ -9,7 +12,10 @@ import java.util.*;
 
 public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> implements ImmutableCQContainmentCheck<P> {
 
-    private final Map<ImmutableCollection<DataAtom<P>>, ImmutableCollection<DataAtom<P>>> chaseCache = new HashMap<>();
+    private static final long CHASE_CACHE_SIZE = 10000;
+
+    // Thread-safe (the containment check can be shared by the parallel mapping stages)
+    private final LoadingCache<ImmutableCollection<DataAtom<P>>, ImmutableCollection<DataAtom<P>>> chaseCache;
 
     private final HomomorphismFactory homomorphismFactory;
     private final LinearInclusionDependencies<P> dependencies;
@@ -17,6 +23,9 @@ public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> imple
     ImmutableCQContainmentCheckUnderLIDs(HomomorphismFactory homomorphismFactory, LinearInclusionDependencies<P> dependencies) {
         this.homomorphismFactory = homomorphismFactory;
         this.dependencies = dependencies;
+        this.chaseCache = CacheBuilder.newBuilder()
+                .maximumSize(CHASE_CACHE_SIZE)
+                .build(CacheLoader.from(dependencies::chaseAllAtoms));
     }
 
     @Override
@@ -42,6 +51,6 @@ public class ImmutableCQContainmentCheckUnderLIDs<P extends AtomPredicate> imple
 
     @Override
     public ImmutableCollection<DataAtom<P>> chaseAllAtoms(ImmutableCollection<DataAtom<P>> dataAtoms) {
-        return chaseCache.computeIfAbsent(dataAtoms, dependencies::chaseAllAtoms);
+        return chaseCache.getUnchecked(dataAtoms);
     }
 }
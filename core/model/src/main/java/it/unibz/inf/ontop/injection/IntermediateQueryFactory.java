@@ -76,6 +76,15 @@ public interface IntermediateQueryFactory {
                                 @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
                                 String nativeQueryString, VariableNullability variableNullability);
 
+    /**
+     * The parameters are the values of the placeholders ("?") of the native query string, in their order of appearance
+     */
+    NativeNode createNativeNode(ImmutableSortedSet<Variable> variables,
+                                @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                                @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                                String nativeQueryString, ImmutableList<DBConstant> parameters,
+                                VariableNullability variableNullability);
+
     TrueNode createTrueNode();
 
     DistinctNode createDistinctNode();
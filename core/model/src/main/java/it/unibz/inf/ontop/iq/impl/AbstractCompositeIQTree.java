@@ -27,6 +27,12 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
     private final ConcreteIQTreeCache treeCache;
     private static final String TAB_STR = "   ";
 
+    /*
+     * Structural hash, computed once out of the (already computed) hashes of the root node and of the children.
+     * Cheap rejection of unequal trees (e.g. when checking whether an optimization has reached a fixed point).
+     */
+    private final int hashCode;
+
     /*
      * LAZY
      */
@@ -62,6 +68,7 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
         if (!(treeCache instanceof ConcreteIQTreeCache))
             throw new IllegalArgumentException("Was expecting the tree cache to be instance of ConcreteIQTreeCache");
         this.treeCache = (ConcreteIQTreeCache) treeCache;
+        this.hashCode = 31 * rootNode.hashCode() + children.hashCode();
         // To be computed on-demand
         knownVariables = null;
         hasBeenSuccessfullyValidate = false;
@@ -134,12 +141,13 @@ public abstract class AbstractCompositeIQTree<N extends QueryNode> implements Co
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AbstractCompositeIQTree<?> other = (AbstractCompositeIQTree<?>) o;
-        return rootNode.equals(other.rootNode) && children.equals(other.children);
+        return hashCode == other.hashCode
+                && rootNode.equals(other.rootNode) && children.equals(other.children);
     }
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return hashCode;
     }
 
     protected Optional<Substitution<? extends VariableOrGroundTerm>> normalizeDescendingSubstitution(
@@ -14,6 +14,7 @@ import it.unibz.inf.ontop.utils.CoreUtilsFactory;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import javax.annotation.Nullable;
+import java.util.Objects;
 
 public class IQImpl implements IQ {
 
@@ -102,6 +103,6 @@ public class IQImpl implements IQ {
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return Objects.hash(projectionAtom, tree);
     }
 }
@@ -110,9 +110,7 @@ public class QueryNodeRenamer implements HomogeneousQueryNodeTransformer {
 
     @Override
     public ValuesNode transform(ValuesNode valuesNode) throws QueryNodeTransformationException {
-        return iqFactory.createValuesNode(
-                substitutionFactory.apply(renamingSubstitution, valuesNode.getOrderedVariables()),
-                valuesNode.getValues());
+        return valuesNode.rename(renamingSubstitution);
     }
 
     @Override
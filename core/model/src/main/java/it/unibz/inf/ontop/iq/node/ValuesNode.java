@@ -28,6 +28,30 @@ public interface ValuesNode extends LeafIQTree {
 
     Stream<Constant> getValueStream(Variable variable);
 
+    /**
+     * Cheaper than getValues().size()
+     */
+    int getRowCount();
+
+    /**
+     * Keeps all the rows (including the duplicates) for the given variables, in the given order.
+     * Cheaper than building a new node from getValues().
+     *
+     * The variables must be projected by this node.
+     */
+    ValuesNode project(ImmutableList<Variable> orderedVariables);
+
+    /**
+     * Renames the variables without touching the rows (cheaper than building a new node from getValues()).
+     */
+    ValuesNode rename(InjectiveSubstitution<Variable> renamingSubstitution);
+
+    /**
+     * Removes the duplicate rows, keeping the first occurrences in their order.
+     * Cheaper than building a new node from getValues().
+     */
+    ValuesNode distinct();
+
     @Override
     ValuesNode acceptNodeTransformer(HomogeneousQueryNodeTransformer transformer)
             throws QueryNodeTransformationException;
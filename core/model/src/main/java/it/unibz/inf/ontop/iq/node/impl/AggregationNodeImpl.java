@@ -35,6 +35,8 @@ public class AggregationNodeImpl extends ExtendedProjectionNodeImpl implements A
     private final ImmutableSet<Variable> groupingVariables;
     private final Substitution<ImmutableFunctionalTerm> substitution;
     private final ImmutableSet<Variable> childVariables;
+    // Precomputed, as the substitution may be large
+    private final int hashCode;
 
     private final AggregationNormalizer aggregationNormalizer;
 
@@ -52,6 +54,7 @@ public class AggregationNodeImpl extends ExtendedProjectionNodeImpl implements A
         this.aggregationNormalizer = aggregationNormalizer;
         this.projectedVariables = Sets.union(groupingVariables, substitution.getDomain()).immutableCopy();
         this.childVariables = iqTreeTools.extractChildVariables(groupingVariables, substitution);
+        this.hashCode = Objects.hash(groupingVariables, substitution);
 
         if (settings.isTestModeEnabled())
             validateNode();
@@ -227,7 +230,8 @@ public class AggregationNodeImpl extends ExtendedProjectionNodeImpl implements A
         if (this == o) return true;
         if (o instanceof AggregationNodeImpl) {
             AggregationNodeImpl that = (AggregationNodeImpl) o;
-            return groupingVariables.equals(that.groupingVariables) && substitution.equals(that.substitution);
+            return hashCode == that.hashCode
+                    && groupingVariables.equals(that.groupingVariables) && substitution.equals(that.substitution);
         }
         return false;
     }
@@ -239,7 +243,7 @@ public class AggregationNodeImpl extends ExtendedProjectionNodeImpl implements A
 
     @Override
     public int hashCode() {
-        return Objects.hash(groupingVariables, substitution);
+        return hashCode;
     }
 
     @Override
@@ -42,6 +42,8 @@ public class ConstructionNodeImpl extends ExtendedProjectionNodeImpl implements
     private final ImmutableSet<Variable> projectedVariables;
     private final Substitution<ImmutableTerm> substitution;
     private final ImmutableSet<Variable> childVariables;
+    // Precomputed, as the substitution may be large
+    private final int hashCode;
 
     private final ConstructionSubstitutionNormalizer substitutionNormalizer;
     private final NotRequiredVariableRemover notRequiredVariableRemover;
@@ -65,6 +67,7 @@ public class ConstructionNodeImpl extends ExtendedProjectionNodeImpl implements
                         Sets.union(this.projectedVariables, this.substitution.getRangeVariables()),
                         this.substitution.getDomain())
                 .immutableCopy();
+        this.hashCode = Objects.hash(this.projectedVariables, this.substitution);
 
         if (settings.isTestModeEnabled())
             validateNode();
@@ -453,14 +456,15 @@ public class ConstructionNodeImpl extends ExtendedProjectionNodeImpl implements
         if (this == o) return true;
         if (o instanceof ConstructionNodeImpl) {
             ConstructionNodeImpl that = (ConstructionNodeImpl) o;
-            return projectedVariables.equals(that.projectedVariables) && substitution.equals(that.substitution);
+            return hashCode == that.hashCode
+                    && projectedVariables.equals(that.projectedVariables) && substitution.equals(that.substitution);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(projectedVariables, substitution);
+        return hashCode;
     }
 
     @Override
@@ -45,6 +45,7 @@ public class ExtensionalDataNodeImpl extends LeafIQTreeImpl implements Extension
 
     private final RelationDefinition relationDefinition;
     private final ImmutableMap<Integer, ? extends VariableOrGroundTerm> argumentMap;
+    private final int hashCode;
 
     // LAZY
     @Nullable
@@ -98,6 +99,7 @@ public class ExtensionalDataNodeImpl extends LeafIQTreeImpl implements Extension
         this.coreUtilsFactory = coreUtilsFactory;
         this.relationDefinition = relationDefinition;
         this.argumentMap = argumentMap;
+        this.hashCode = Objects.hash(relationDefinition, argumentMap);
         this.variableNullability = variableNullability;
         this.substitutionFactory = substitutionFactory;
         this.queryTransformerFactory = queryTransformerFactory;
@@ -293,14 +295,15 @@ public class ExtensionalDataNodeImpl extends LeafIQTreeImpl implements Extension
         if (this == o) return true;
         if (o instanceof ExtensionalDataNodeImpl) {
             ExtensionalDataNodeImpl that = (ExtensionalDataNodeImpl) o;
-            return relationDefinition.equals(that.relationDefinition) && argumentMap.equals(that.argumentMap);
+            return hashCode == that.hashCode
+                    && relationDefinition.equals(that.relationDefinition) && argumentMap.equals(that.argumentMap);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(relationDefinition, argumentMap);
+        return hashCode;
     }
 
     @Override
@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.iq.node.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
@@ -21,6 +22,7 @@ import it.unibz.inf.ontop.iq.transform.IQTreeExtendedTransformer;
 import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
 import it.unibz.inf.ontop.iq.transform.node.HomogeneousQueryNodeTransformer;
 import it.unibz.inf.ontop.iq.visit.IQVisitor;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.model.type.DBTermType;
@@ -34,9 +36,11 @@ import java.util.Objects;
 public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
 
     private static final String NATIVE_STRING = "NATIVE ";
+    private static final String PARAMETERS_STRING = "PARAMETERS ";
 
     private final ImmutableMap<Variable, DBTermType> variableTypeMap;
     private final String nativeQueryString;
+    private final ImmutableList<DBConstant> parameters;
     private final VariableNullability variableNullability;
     private final ImmutableSortedSet<Variable> variables;
     private final ImmutableMap<Variable, QuotedID> columnNames;
@@ -49,9 +53,23 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
                            @Assisted VariableNullability variableNullability,
                            IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
                            OntopModelSettings settings) {
+        this(variables, variableTypeMap, columnNames, nativeQueryString, ImmutableList.of(), variableNullability,
+                iqTreeTools, iqFactory, settings);
+    }
+
+    @AssistedInject
+    private NativeNodeImpl(@Assisted ImmutableSortedSet<Variable> variables,
+                           @Assisted("variableTypeMap") ImmutableMap<Variable, DBTermType> variableTypeMap,
+                           @Assisted("columnNames") ImmutableMap<Variable, QuotedID> columnNames,
+                           @Assisted String nativeQueryString,
+                           @Assisted ImmutableList<DBConstant> parameters,
+                           @Assisted VariableNullability variableNullability,
+                           IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory,
+                           OntopModelSettings settings) {
         super(iqTreeTools, iqFactory);
         this.variables = variables;
         this.nativeQueryString = nativeQueryString;
+        this.parameters = parameters;
         this.variableNullability = variableNullability;
         this.variableTypeMap = variableTypeMap;
         this.columnNames = columnNames;
@@ -73,6 +91,11 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
         return nativeQueryString;
     }
 
+    @Override
+    public ImmutableList<DBConstant> getParameters() {
+        return parameters;
+    }
+
     @Override
     public void acceptVisitor(QueryNodeVisitor visitor) {
         throw new UnsupportedOperationException("Should NativeNode support visitors?");
@@ -103,14 +126,15 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
         if (this == o) return true;
         if (o instanceof NativeNodeImpl) {
             NativeNodeImpl that = (NativeNodeImpl) o;
-            return nativeQueryString.equals(that.nativeQueryString) && variables.equals(that.variables);
+            return nativeQueryString.equals(that.nativeQueryString) && parameters.equals(that.parameters)
+                    && variables.equals(that.variables);
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(nativeQueryString, variables);
+        return Objects.hash(nativeQueryString, parameters, variables);
     }
 
     @Override
@@ -200,6 +224,7 @@ public class NativeNodeImpl extends LeafIQTreeImpl implements NativeNode {
 
     @Override
     public String toString() {
-        return NATIVE_STRING + variables + "\n" + nativeQueryString;
+        return NATIVE_STRING + variables + "\n" + nativeQueryString
+                + (parameters.isEmpty() ? "" : "\n" + PARAMETERS_STRING + parameters);
     }
 }
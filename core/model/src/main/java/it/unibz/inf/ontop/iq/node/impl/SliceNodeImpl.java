@@ -212,7 +212,7 @@ public class SliceNodeImpl extends QueryModifierNodeImpl implements SliceNode {
         if (tree instanceof TrueNode)
             return Optional.of(1);
         if (tree instanceof ValuesNode)
-            return Optional.of(((ValuesNode) tree).getValues().size());
+            return Optional.of(((ValuesNode) tree).getRowCount());
 
         QueryNode rootNode = tree.getRootNode();
         if (rootNode instanceof ConstructionNode)
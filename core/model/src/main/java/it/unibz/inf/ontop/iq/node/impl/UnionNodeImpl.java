@@ -873,38 +873,31 @@ public class UnionNodeImpl extends CompositeQueryNodeImpl implements UnionNode {
         throw new MinorOntopInternalBugException("Unexpected child: " + child);
     }
 
+    /**
+     * The columns are reordered before building the rows
+     */
     private Stream<ImmutableList<Constant>> extractValuesFromValuesNode(ValuesNode valuesNode, ImmutableList<Variable> outputOrderedVariables) {
-        ImmutableList<Variable> nodeOrderedVariables = valuesNode.getOrderedVariables();
-        if (nodeOrderedVariables.equals(outputOrderedVariables))
-            return valuesNode.getValues().stream();
-
-        ImmutableList<Integer> indexes = outputOrderedVariables.stream()
-                .map(nodeOrderedVariables::indexOf)
-                .collect(ImmutableCollectors.toList());
-
-        return valuesNode.getValues().stream()
-                .map(vs -> indexes.stream()
-                        .map(vs::get)
-                        .collect(ImmutableCollectors.toList()));
+        return valuesNode.project(outputOrderedVariables).getValues().stream();
     }
 
+    /**
+     * The variables missing in the values node are defined by the substitution
+     */
     private Stream<ImmutableList<Constant>> extractValuesFromValuesNode(ValuesNode valuesNode,
                                                                         ImmutableList<Variable> outputOrderedVariables,
                                                                         Substitution<ImmutableTerm> substitution) {
-        ImmutableList<Variable> nodeOrderedVariables = valuesNode.getOrderedVariables();
-        ImmutableMap<Variable, Integer> indexMap = outputOrderedVariables.stream()
-                .collect(ImmutableCollectors.toMap(
-                        v -> v,
-                        nodeOrderedVariables::indexOf));
-
-        return valuesNode.getValues().stream()
-                .map(vs -> outputOrderedVariables.stream()
-                        .map(v -> {
-                            int index = indexMap.get(v);
-                            return index == -1
-                                    ? (Constant) substitution.get(v)
-                                    : vs.get(index);
-                        })
-                        .collect(ImmutableCollectors.toList()));
+        ImmutableSet<Variable> nodeVariables = valuesNode.getVariables();
+
+        return extractValuesFromValuesNode(valuesNode, outputOrderedVariables.stream()
+                        .filter(nodeVariables::contains)
+                        .collect(ImmutableCollectors.toList()))
+                .map(vs -> {
+                    Iterator<Constant> nodeValues = vs.iterator();
+                    return outputOrderedVariables.stream()
+                            .map(v -> nodeVariables.contains(v)
+                                    ? nodeValues.next()
+                                    : (Constant) substitution.get(v))
+                            .collect(ImmutableCollectors.toList());
+                });
     }
 }
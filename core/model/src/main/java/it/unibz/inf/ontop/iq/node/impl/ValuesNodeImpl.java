@@ -1,6 +1,7 @@
 package it.unibz.inf.ontop.iq.node.impl;
 
 import com.google.common.collect.*;
+import com.google.common.primitives.Ints;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -30,8 +31,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import javax.annotation.Nullable;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -44,7 +44,9 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     private final ImmutableList<Variable> orderedVariables;
     // The variables consistent with all interfaces, as unordered set.
     private final ImmutableSet<Variable> projectedVariables;
-    private final ImmutableList<ImmutableMap<Variable, Constant>> valueMaps;
+    // Column-wise storage (shared by the nodes derived from this one when the rows are kept)
+    private final ImmutableMap<Variable, ValuesColumn> columns;
+    private final int rowCount;
 
     private final CoreUtilsFactory coreUtilsFactory;
     private final SubstitutionFactory substitutionFactory;
@@ -63,6 +65,9 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     // LAZY
     private ImmutableSet<ImmutableSet<Variable>> uniqueConstraints;
 
+    // LAZY (only built on demand, the rows are not stored as maps)
+    private ImmutableList<ImmutableMap<Variable, Constant>> valueMaps;
+
 
     @AssistedInject
     protected ValuesNodeImpl(@Assisted("orderedVariables") ImmutableList<Variable> orderedVariables,
@@ -70,11 +75,12 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
                              IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory, CoreUtilsFactory coreUtilsFactory,
                              OntopModelSettings settings, SubstitutionFactory substitutionFactory, TermFactory termFactory) {
         this(ImmutableSet.copyOf(orderedVariables),
-                values.stream()
-                        .map(tuple -> IntStream.range(0, orderedVariables.size())
-                                .mapToObj(i -> Maps.immutableEntry(orderedVariables.get(i), tuple.get(i)))
-                                .collect(ImmutableCollectors.toMap()))
-                        .collect(ImmutableCollectors.toList()),
+                IntStream.range(0, orderedVariables.size())
+                        .boxed()
+                        .collect(ImmutableCollectors.toMap(
+                                orderedVariables::get,
+                                i -> ValuesColumn.encode(values.stream().map(tuple -> tuple.get(i)), values.size()))),
+                values.size(), null,
                 iqTreeTools, iqFactory, coreUtilsFactory, settings, substitutionFactory, termFactory);
     }
 
@@ -83,12 +89,17 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
                              @Assisted("valueMaps") ImmutableList<ImmutableMap<Variable, Constant>> valueMaps,
                              IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory, CoreUtilsFactory coreUtilsFactory,
                              OntopModelSettings settings, SubstitutionFactory substitutionFactory, TermFactory termFactory) {
-        this(projectedVariables, valueMaps, null, iqTreeTools, iqFactory, coreUtilsFactory, settings,
-                substitutionFactory, termFactory);
+        this(projectedVariables,
+                projectedVariables.stream()
+                        .collect(ImmutableCollectors.toMap(
+                                v -> v,
+                                v -> ValuesColumn.encode(valueMaps.stream().map(tuple -> tuple.get(v)), valueMaps.size()))),
+                valueMaps.size(), null,
+                iqTreeTools, iqFactory, coreUtilsFactory, settings, substitutionFactory, termFactory);
     }
 
     private ValuesNodeImpl(ImmutableSet<Variable> projectedVariables,
-                           ImmutableList<ImmutableMap<Variable, Constant>> valueMaps,
+                           ImmutableMap<Variable, ValuesColumn> columns, int rowCount,
                            @Nullable ImmutableSet<ImmutableSet<Variable>> uniqueConstraints,
                            IQTreeTools iqTreeTools, IntermediateQueryFactory iqFactory, CoreUtilsFactory coreUtilsFactory,
                            OntopModelSettings settings, SubstitutionFactory substitutionFactory, TermFactory termFactory) {
@@ -96,7 +107,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
         this.projectedVariables = projectedVariables;
         this.orderedVariables = ImmutableList.copyOf(projectedVariables);
-        this.valueMaps = valueMaps;
+        this.columns = columns;
+        this.rowCount = rowCount;
         this.coreUtilsFactory = coreUtilsFactory;
         this.substitutionFactory = substitutionFactory;
         this.termFactory = termFactory;
@@ -107,20 +119,135 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
             validate();
     }
 
+    /**
+     * The unique constraints are not inherited (they are inferred again if needed)
+     */
+    private ValuesNodeImpl createValuesNode(ImmutableSet<Variable> projectedVariables,
+                                            ImmutableMap<Variable, ValuesColumn> columns, int rowCount) {
+        return new ValuesNodeImpl(projectedVariables, columns, rowCount, null, iqTreeTools, iqFactory,
+                coreUtilsFactory, settings, substitutionFactory, termFactory);
+    }
+
+    /**
+     * Keeps the given rows (in the given order) for the given variables
+     */
+    private ValuesNodeImpl selectRows(ImmutableSet<Variable> newVariables, int[] rows) {
+        boolean allRows = rows.length == rowCount;
+        ImmutableMap<Variable, ValuesColumn> newColumns = newVariables.stream()
+                .collect(ImmutableCollectors.toMap(
+                        v -> v,
+                        v -> allRows ? columns.get(v) : columns.get(v).select(rows)));
+        return createValuesNode(newVariables, newColumns, rows.length);
+    }
+
+    private ImmutableList<Constant> getRow(int row) {
+        return orderedVariables.stream()
+                .map(v -> columns.get(v).get(row))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Codes of the values of the row, for comparing rows (the dictionaries are the same)
+     */
+    private List<Integer> getRowCodes(int row) {
+        int[] codes = new int[orderedVariables.size()];
+        for (int i = 0; i < codes.length; i++)
+            codes[i] = columns.get(orderedVariables.get(i)).getCode(row);
+        return Ints.asList(codes);
+    }
+
     @Override
     public ImmutableList<ImmutableList<Constant>> getValues() {
-        return valueMaps.stream()
-                .map(tuple -> orderedVariables.stream()
-                        .map(tuple::get)
-                        .collect(ImmutableCollectors.toList()))
+        return IntStream.range(0, rowCount)
+                .mapToObj(this::getRow)
                 .collect(ImmutableCollectors.toList());
     }
 
     @Override
     public ImmutableList<ImmutableMap<Variable, Constant>> getValueMaps() {
+        if (valueMaps == null) {
+            valueMaps = IntStream.range(0, rowCount)
+                    .mapToObj(i -> orderedVariables.stream()
+                            .collect(ImmutableCollectors.toMap(v -> v, v -> columns.get(v).get(i))))
+                    .collect(ImmutableCollectors.toList());
+        }
         return valueMaps;
     }
 
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Column-wise: the columns are shared
+     */
+    @Override
+    public ValuesNodeImpl project(ImmutableList<Variable> newOrderedVariables) {
+        if (newOrderedVariables.equals(orderedVariables))
+            return this;
+
+        ImmutableSet<Variable> newVariables = ImmutableSet.copyOf(newOrderedVariables);
+        if (newVariables.size() != newOrderedVariables.size() || !projectedVariables.containsAll(newVariables))
+            throw new IllegalArgumentException("Distinct variables of " + projectedVariables + " were expected: "
+                    + newOrderedVariables);
+
+        return createValuesNode(newVariables,
+                newVariables.stream()
+                        .collect(ImmutableCollectors.toMap(v -> v, columns::get)),
+                rowCount);
+    }
+
+    /**
+     * Column-wise: the columns are shared.
+     * The unique constraints are preserved by the renaming.
+     */
+    @Override
+    public ValuesNodeImpl rename(InjectiveSubstitution<Variable> renamingSubstitution) {
+        // NB: compared as lists, as the renaming may permute the variables
+        ImmutableList<Variable> newOrderedVariables = substitutionFactory.apply(renamingSubstitution, orderedVariables);
+        if (newOrderedVariables.equals(orderedVariables))
+            return this;
+
+        ImmutableSet<Variable> newVariables = ImmutableSet.copyOf(newOrderedVariables);
+
+        var newUniqueConstraints = uniqueConstraints == null
+                ? null
+                : uniqueConstraints.stream()
+                .map(s -> substitutionFactory.apply(renamingSubstitution, s))
+                .collect(ImmutableCollectors.toSet());
+
+        var newColumns = columns.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        e -> substitutionFactory.apply(renamingSubstitution, e.getKey()),
+                        Map.Entry::getValue));
+
+        return new ValuesNodeImpl(newVariables, newColumns, rowCount, newUniqueConstraints, iqTreeTools, iqFactory,
+                coreUtilsFactory, settings, substitutionFactory, termFactory);
+    }
+
+    /**
+     * Column-wise: the rows are compared by their codes
+     */
+    @Override
+    public ValuesNodeImpl distinct() {
+        if (Boolean.TRUE.equals(isDistinct))
+            return this;
+
+        Set<List<Integer>> distinctRows = new HashSet<>();
+        int[] rows = IntStream.range(0, rowCount)
+                .filter(row -> distinctRows.add(getRowCodes(row)))
+                .toArray();
+
+        if (rows.length == rowCount) {
+            isDistinct = true;
+            return this;
+        }
+        ValuesNodeImpl newValuesNode = selectRows(projectedVariables, rows);
+        newValuesNode.isDistinct = true;
+        return newValuesNode;
+    }
+
     @Override
     public IQTree normalizeForOptimization(VariableGenerator variableGenerator) {
         if (isNormalized)
@@ -138,10 +265,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     private Optional<ConstructionAndValues> liftSingleValueVariables() {
 
         ImmutableSet<Variable> singleValueVariables = projectedVariables.stream()
-                .filter(v -> 1 == getValueStream(v)
-                        .unordered()
-                        .distinct()
-                        .count())
+                .filter(v -> columns.get(v).getDictionary().size() == 1)
                 .collect(ImmutableCollectors.toSet());
 
         if (!singleValueVariables.isEmpty()) {
@@ -149,20 +273,14 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
             Substitution<ImmutableTerm> substitutions = singleValueVariables.stream()
                     .collect(substitutionFactory.toSubstitution(
                             v -> v,
-                            v -> valueMaps.get(0).get(v)));
+                            v -> columns.get(v).getDictionary().get(0)));
 
             ConstructionNode constructionNode = iqFactory.createConstructionNode(projectedVariables, substitutions);
 
             // Create the ValueNode
             ImmutableSet<Variable> multiValueVariables = Sets.difference(projectedVariables, singleValueVariables).immutableCopy();
 
-            ImmutableList<ImmutableMap<Variable, Constant>> newValuesNodeValues = valueMaps.stream()
-                    .map(tuple -> tuple.entrySet().stream()
-                            .filter(e -> multiValueVariables.contains(e.getKey()))
-                            .collect(ImmutableCollectors.toMap()))
-                    .collect(ImmutableCollectors.toList());
-
-            ValuesNode valuesNode = iqFactory.createValuesNode(multiValueVariables, newValuesNodeValues);
+            ValuesNode valuesNode = selectRows(multiValueVariables, IntStream.range(0, rowCount).toArray());
 
             return Optional.of(new ConstructionAndValues(constructionNode, valuesNode));
         }
@@ -170,10 +288,10 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     }
 
     private LeafIQTree furtherNormalize(ValuesNode valuesNode) {
-        if (valuesNode.getValues().isEmpty()) {
+        if (valuesNode.getRowCount() == 0) {
             return iqFactory.createEmptyNode(valuesNode.getVariables());
         }
-        if ((valuesNode.getVariables().isEmpty()) && (valuesNode.getValues().size() == 1)) {
+        if ((valuesNode.getVariables().isEmpty()) && (valuesNode.getRowCount() == 1)) {
             return iqFactory.createTrueNode();
         }
         if (valuesNode == this) {
@@ -188,8 +306,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
         if (!projectedVariables.contains(variable))
             return Stream.empty();
 
-        return valueMaps.stream()
-                .map(t -> t.get(variable));
+        return columns.get(variable).stream();
     }
 
     @Override
@@ -222,7 +339,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
         if (this == o) return true;
         if (o instanceof ValuesNodeImpl) {
             ValuesNodeImpl that = (ValuesNodeImpl) o;
-            return projectedVariables.equals(that.projectedVariables) && valueMaps.equals(that.valueMaps);
+            return projectedVariables.equals(that.projectedVariables) && rowCount == that.rowCount
+                    && columns.equals(that.columns);
         }
         return false;
     }
@@ -234,7 +352,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
     @Override
     public int hashCode() {
-        return Objects.hash(projectedVariables, valueMaps);
+        return Objects.hash(projectedVariables, columns, rowCount);
     }
 
     @Override
@@ -258,26 +376,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     }
 
     @Override
-    public ValuesNode applyFreshRenaming(InjectiveSubstitution<Variable> freshRenamingSubstitution) {
-        ImmutableSet<Variable> newVariables = substitutionFactory.apply(freshRenamingSubstitution, projectedVariables);
-
-        if (newVariables.equals(projectedVariables))
-            return this;
-
-        var newUniqueConstraints = uniqueConstraints == null
-                ? null
-                : uniqueConstraints.stream()
-                .map(s -> substitutionFactory.apply(freshRenamingSubstitution, s))
-                .collect(ImmutableCollectors.toSet());
-
-        var newValueMaps =  valueMaps.stream()
-                .map(tuple -> tuple.entrySet().stream()
-                        .map(e -> Maps.immutableEntry(substitutionFactory.apply(freshRenamingSubstitution, e.getKey()), e.getValue()))
-                        .collect(ImmutableCollectors.toMap()))
-                .collect(ImmutableCollectors.toList());
-
-        return new ValuesNodeImpl(newVariables, newValueMaps, newUniqueConstraints, iqTreeTools, iqFactory,
-                coreUtilsFactory, settings, substitutionFactory, termFactory);
+    public ValuesNodeImpl applyFreshRenaming(InjectiveSubstitution<Variable> freshRenamingSubstitution) {
+        return rename(freshRenamingSubstitution);
     }
 
     @Override
@@ -288,7 +388,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
         final ConstructionNode constructionNode;
         final FilterNode filterNode;
-        ValuesNode valuesNode = this;
+        ValuesNodeImpl valuesNode = this;
 
         Substitution<GroundFunctionalTerm> functionalSubstitutionFragment = descendingSubstitution.restrictRangeTo(GroundFunctionalTerm.class);
         if (!functionalSubstitutionFragment.isEmpty()) {
@@ -323,63 +423,73 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
                 iqFactory.createUnaryIQTree(filterNode, valuesNode));
     }
 
-    private ValuesNode substituteConstants(Substitution<Constant> substitution, ValuesNode valuesNode) {
+    /**
+     * Column-wise: the rows are selected by comparing the codes of the substituted constants
+     */
+    private ValuesNodeImpl substituteConstants(Substitution<Constant> substitution, ValuesNodeImpl valuesNode) {
 
         ImmutableSet<Variable> variables = valuesNode.getVariables();
         ImmutableSet<Variable> newProjectionVariables = Sets.difference(variables, substitution.getDomain()).immutableCopy();
         if (newProjectionVariables.size() == variables.size())
             return valuesNode;
 
-        ImmutableList<ImmutableMap<Variable, Constant>> newValues = valuesNode.getValueMaps().stream()
-                .filter(tuple -> tuple.entrySet().stream()
-                        .filter(e -> substitution.isDefining(e.getKey()))
-                        .allMatch(e -> e.getValue().equals(substitution.get(e.getKey()))))
-                .map(tuple -> tuple.entrySet().stream()
-                        .filter(e -> !substitution.isDefining(e.getKey()))
-                        .collect(ImmutableCollectors.toMap()))
+        ImmutableList<ValuesColumn> substitutedColumns = Sets.intersection(variables, substitution.getDomain()).stream()
+                .map(valuesNode.columns::get)
                 .collect(ImmutableCollectors.toList());
+        int[] codes = Sets.intersection(variables, substitution.getDomain()).stream()
+                .mapToInt(v -> valuesNode.columns.get(v).getDictionary().indexOf(substitution.get(v)))
+                .toArray();
+
+        int[] rows = Arrays.stream(codes).anyMatch(c -> c < 0)
+                ? new int[0] // a constant does not appear in its column
+                : IntStream.range(0, valuesNode.rowCount)
+                    .filter(row -> IntStream.range(0, codes.length)
+                            .allMatch(i -> substitutedColumns.get(i).getCode(row) == codes[i]))
+                    .toArray();
 
-        return iqFactory.createValuesNode(newProjectionVariables, newValues);
+        return valuesNode.selectRows(newProjectionVariables, rows);
     }
 
-    private ValuesNode substituteVariables(Substitution<Variable> variableSubstitutionFragment, ValuesNode valuesNode) {
+    private ValuesNodeImpl substituteVariables(Substitution<Variable> variableSubstitutionFragment, ValuesNodeImpl valuesNode) {
 
         ImmutableSet<Variable> variables = valuesNode.getVariables();
         ImmutableSet<Variable> newVariables = substitutionFactory.apply(variableSubstitutionFragment, variables);
         if (newVariables.equals(variables))
             return valuesNode;
 
-        ImmutableList<ImmutableMap<Variable, Constant>> newValues;
         if (newVariables.size() == variables.size()) {
-            // one-to-one substitution
-            newValues = valuesNode.getValueMaps().stream()
-                    .map(tuple -> tuple.entrySet().stream()
-                            .map(e -> Maps.immutableEntry(substitutionFactory.apply(variableSubstitutionFragment, e.getKey()), e.getValue()))
-                            .collect(ImmutableCollectors.toMap()))
-                    .collect(ImmutableCollectors.toList());
+            // one-to-one substitution: the columns are renamed
+            ImmutableMap<Variable, ValuesColumn> newColumns = variables.stream()
+                    .collect(ImmutableCollectors.toMap(
+                            v -> substitutionFactory.apply(variableSubstitutionFragment, v),
+                            valuesNode.columns::get));
+            return createValuesNode(newVariables, newColumns, valuesNode.rowCount);
         }
-        else {
-            // many-to-one substitution
-            ImmutableSet<Variable> firstFoundVariables = newVariables.stream()
-                    .map(v -> variables.stream()
-                            .filter(u -> substitutionFactory.apply(variableSubstitutionFragment, u).equals(v))
-                            .findFirst()
-                            .orElseThrow(() -> new MinorOntopInternalBugException("expected a non-empty pre-image")))
-                    .collect(ImmutableCollectors.toSet());
 
-            newValues = valuesNode.getValueMaps().stream()
-                    .filter(tuple -> tuple.entrySet().stream()
-                            .allMatch(e1 -> tuple.entrySet().stream()
-                                    .filter(e2 -> variableSubstitutionFragment.apply(e1.getKey()).equals(variableSubstitutionFragment.apply(e2.getKey())))
-                                    .allMatch(e2 -> e1.getValue().equals(e2.getValue()))))
-                    .map(tuple -> tuple.entrySet().stream()
-                            .filter(e -> firstFoundVariables.contains(e.getKey()))
-                            .map(e -> Maps.immutableEntry(substitutionFactory.apply(variableSubstitutionFragment, e.getKey()), e.getValue()))
-                            .collect(ImmutableCollectors.toMap()))
-                    .collect(ImmutableCollectors.toList());
-        }
+        // many-to-one substitution
+        ImmutableMap<Variable, ImmutableList<ValuesColumn>> preImageColumns = newVariables.stream()
+                .collect(ImmutableCollectors.toMap(
+                        v -> v,
+                        v -> variables.stream()
+                                .filter(u -> substitutionFactory.apply(variableSubstitutionFragment, u).equals(v))
+                                .map(valuesNode.columns::get)
+                                .collect(ImmutableCollectors.toList())));
+
+        // the values of the variables with the same image must be equal
+        int[] rows = IntStream.range(0, valuesNode.rowCount)
+                .filter(row -> preImageColumns.values().stream()
+                        .allMatch(cs -> cs.stream()
+                                .allMatch(c -> c.get(row).equals(cs.get(0).get(row)))))
+                .toArray();
+
+        ImmutableMap<Variable, ValuesColumn> newColumns = preImageColumns.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> rows.length == valuesNode.rowCount
+                                ? e.getValue().get(0)
+                                : e.getValue().get(0).select(rows)));
 
-        return iqFactory.createValuesNode(newVariables, newValues);
+        return createValuesNode(newVariables, newColumns, rows.length);
     }
 
     @Override
@@ -479,28 +589,37 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
                 .mapToObj(i -> variableGenerator.generateNewVariable())
                 .collect(ImmutableCollectors.toList());
 
-        ImmutableList<ImmutableMap<Variable, Constant>> newValues = valueMaps.stream()
-                .map(tuple -> Optional.of(tuple.get(variableToReplace))
-                        .filter(c -> c instanceof DBConstant)
-                        .map(c -> (DBConstant) c)
-                        .flatMap(c -> decomposer.decompose(c)
-                                .map(additionalColumns -> Streams.concat(
-                                        tuple.entrySet().stream()
-                                                .filter(e -> !e.getKey().equals(variableToReplace)),
-                                        IntStream.range(0, newVariables.size())
-                                                .mapToObj(i -> Maps.<Variable, Constant>immutableEntry(newVariables.get(i), additionalColumns.get(i))))
-                                        .collect(ImmutableCollectors.toMap()))))
-                .flatMap(Optional::stream)
+        // Each distinct value is decomposed once
+        ValuesColumn column = columns.get(variableToReplace);
+        ImmutableList<Optional<ImmutableList<DBConstant>>> decompositions = column.getDictionary().stream()
+                .map(c -> Optional.of(c)
+                        .filter(v -> v instanceof DBConstant)
+                        .map(v -> (DBConstant) v)
+                        .flatMap(decomposer::decompose))
                 .collect(ImmutableCollectors.toList());
 
-        if (newValues.isEmpty())
+        int[] rows = IntStream.range(0, rowCount)
+                .filter(row -> decompositions.get(column.getCode(row)).isPresent())
+                .toArray();
+
+        if (rows.length == 0)
             return Optional.of(iqFactory.createEmptyNode(projectedVariables));
 
         ImmutableSet<Variable> newProjectedVariables = Sets.union(
                 Sets.difference(projectedVariables, ImmutableSet.of(variableToReplace)),
                 ImmutableSet.copyOf(newVariables)).immutableCopy();
 
-        ValuesNode newValueNode = iqFactory.createValuesNode(newProjectedVariables, newValues);
+        ImmutableMap<Variable, ValuesColumn> newColumns = Stream.concat(
+                        selectRows(Sets.difference(projectedVariables, ImmutableSet.of(variableToReplace)).immutableCopy(), rows)
+                                .columns.entrySet().stream(),
+                        IntStream.range(0, newVariables.size())
+                                .mapToObj(i -> Maps.immutableEntry(newVariables.get(i), ValuesColumn.encode(
+                                        Arrays.stream(rows)
+                                                .mapToObj(row -> decompositions.get(column.getCode(row)).get().get(i)),
+                                        rows.length))))
+                .collect(ImmutableCollectors.toMap());
+
+        ValuesNode newValueNode = createValuesNode(newProjectedVariables, newColumns, rows.length);
 
         ConstructionNode constructionNode = iqFactory.createConstructionNode(
                 projectedVariables,
@@ -512,27 +631,42 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     }
 
 
+    /**
+     * The constraint is evaluated once per distinct combination of the values of its variables
+     */
     private IQTree filterValuesNodeEntries(ImmutableExpression constraint) {
         var variableNullability = getVariableNullability();
-        ImmutableList<ImmutableMap<Variable, Constant>> newValues = valueMaps.stream()
-                .filter(tuple -> !(tuple.entrySet().stream().collect(substitutionFactory.toSubstitution())
-                        .apply(constraint))
-                        .evaluate2VL(variableNullability)
-                        .isEffectiveFalse())
+        ImmutableList<Variable> constraintVariables = orderedVariables.stream()
+                .filter(constraint.getVariables()::contains)
+                .collect(ImmutableCollectors.toList());
+        ImmutableList<ValuesColumn> constraintColumns = constraintVariables.stream()
+                .map(columns::get)
                 .collect(ImmutableCollectors.toList());
 
-        return iqFactory.createValuesNode(projectedVariables, newValues);
+        Map<List<Integer>, Boolean> evaluations = new HashMap<>();
+        int[] rows = IntStream.range(0, rowCount)
+                .filter(row -> evaluations.computeIfAbsent(
+                        Ints.asList(constraintColumns.stream().mapToInt(c -> c.getCode(row)).toArray()),
+                        k -> !IntStream.range(0, constraintVariables.size()).boxed()
+                                .collect(substitutionFactory.<Constant, Integer>toSubstitution(
+                                        constraintVariables::get,
+                                        i -> constraintColumns.get(i).get(row)))
+                                .apply(constraint)
+                                .evaluate2VL(variableNullability)
+                                .isEffectiveFalse()))
+                .toArray();
+
+        return selectRows(projectedVariables, rows);
     }
 
     @Override
     public ImmutableSet<Substitution<NonVariableTerm>> getPossibleVariableDefinitions() {
         if (possibleVariableDefinitions == null) {
-            Stream<ImmutableMap<Variable, Constant>> distinctValuesStream = ((isDistinct != null) && isDistinct)
-                    ? valueMaps.stream()
-                    : valueMaps.stream().distinct();
-
-            possibleVariableDefinitions = distinctValuesStream
-                    .map(tuple -> tuple.entrySet().stream().collect(substitutionFactory.<NonVariableTerm>toSubstitution()))
+            Set<List<Integer>> distinctRows = new HashSet<>();
+            possibleVariableDefinitions = IntStream.range(0, rowCount)
+                    .filter(row -> distinctRows.add(getRowCodes(row)))
+                    .mapToObj(row -> orderedVariables.stream()
+                            .collect(substitutionFactory.<NonVariableTerm>toSubstitution(v -> columns.get(v).get(row))))
                     .collect(ImmutableCollectors.toSet());
         }
         return possibleVariableDefinitions;
@@ -546,8 +680,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
     @Override
     public boolean isDistinct() {
         if (isDistinct == null) {
-            isDistinct = (valueMaps.size() == valueMaps.stream()
-                                                .unordered()
+            isDistinct = (rowCount == IntStream.range(0, rowCount)
+                                                .mapToObj(this::getRowCodes)
                                                 .distinct()
                                                 .count()); }
         return isDistinct;
@@ -555,7 +689,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
     @Override
     public boolean isDeclaredAsEmpty() {
-        return valueMaps.isEmpty();
+        return rowCount == 0;
     }
 
     @Override
@@ -564,7 +698,7 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
         // the corresponding variable is seen as nullable.
         if (variableNullability == null) {
             ImmutableSet<ImmutableSet<Variable>> nullableGroups = orderedVariables.stream()
-                    .filter(v -> getValueStream(v)
+                    .filter(v -> columns.get(v).getDictionary().stream()
                             .anyMatch(ImmutableTerm::isNull))
                     .map(ImmutableSet::of)
                     .collect(ImmutableCollectors.toSet());
@@ -594,9 +728,8 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
      *  If there is no atomic constraints, looks if the values node is distinct
      */
     private ImmutableSet<ImmutableSet<Variable>> computeUniqueConstraints() {
-        int count = valueMaps.size();
         var atomicConstraints = getVariables().stream()
-                .filter(v -> getValueStream(v).distinct().count() == count)
+                .filter(v -> columns.get(v).getDictionary().size() == rowCount)
                 .map(ImmutableSet::of)
                 .collect(ImmutableCollectors.toSet());
 
@@ -626,9 +759,9 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
 
     @Override
     public String toString() {
-        String valuesString = valueMaps.stream()
-                .map(tuple -> orderedVariables.stream()
-                        .map(tuple::get)
+        String valuesString = IntStream.range(0, rowCount)
+                .mapToObj(this::getRow)
+                .map(tuple -> tuple.stream()
                         .map(String::valueOf)
                         .collect(Collectors.joining(","," (",")")))
                 .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
@@ -636,6 +769,91 @@ public class ValuesNodeImpl extends LeafIQTreeImpl implements ValuesNode {
         return VALUES_NODE_STR + " " + orderedVariables + valuesString;
     }
 
+    /**
+     * Dictionary-encoded values of a variable.
+     * The dictionary contains the distinct values, in the order of their first occurrence.
+     *
+     * Immutable.
+     */
+    private static final class ValuesColumn {
+        private final ImmutableList<Constant> dictionary;
+        private final int[] codes;
+
+        private ValuesColumn(ImmutableList<Constant> dictionary, int[] codes) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        static ValuesColumn encode(Stream<? extends Constant> values, int size) {
+            Map<Constant, Integer> dictionaryIndexes = new HashMap<>();
+            ImmutableList.Builder<Constant> dictionaryBuilder = ImmutableList.builder();
+            int[] codes = new int[size];
+            Iterator<? extends Constant> iterator = values.iterator();
+            for (int i = 0; i < size; i++) {
+                Constant value = iterator.next();
+                Integer code = dictionaryIndexes.get(value);
+                if (code == null) {
+                    code = dictionaryIndexes.size();
+                    dictionaryIndexes.put(value, code);
+                    dictionaryBuilder.add(value);
+                }
+                codes[i] = code;
+            }
+            return new ValuesColumn(dictionaryBuilder.build(), codes);
+        }
+
+        Constant get(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        int getCode(int row) {
+            return codes[row];
+        }
+
+        ImmutableList<Constant> getDictionary() {
+            return dictionary;
+        }
+
+        Stream<Constant> stream() {
+            return Arrays.stream(codes).mapToObj(dictionary::get);
+        }
+
+        /**
+         * The dictionary only keeps the values of the selected rows
+         */
+        ValuesColumn select(int[] rows) {
+            int[] newCodes = new int[rows.length];
+            int[] newCodeOfCode = new int[dictionary.size()];
+            Arrays.fill(newCodeOfCode, -1);
+            ImmutableList.Builder<Constant> dictionaryBuilder = ImmutableList.builder();
+            int dictionarySize = 0;
+            for (int i = 0; i < rows.length; i++) {
+                int code = codes[rows[i]];
+                if (newCodeOfCode[code] < 0) {
+                    newCodeOfCode[code] = dictionarySize++;
+                    dictionaryBuilder.add(dictionary.get(code));
+                }
+                newCodes[i] = newCodeOfCode[code];
+            }
+            return new ValuesColumn(dictionaryBuilder.build(), newCodes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o instanceof ValuesColumn) {
+                ValuesColumn that = (ValuesColumn) o;
+                return dictionary.equals(that.dictionary) && Arrays.equals(codes, that.codes);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * dictionary.hashCode() + Arrays.hashCode(codes);
+        }
+    }
+
     private static class ConstructionAndValues {
         public final ConstructionNode constructionNode;
         public final ValuesNode valuesNode;
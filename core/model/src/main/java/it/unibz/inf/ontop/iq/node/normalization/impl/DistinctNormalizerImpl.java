@@ -65,9 +65,7 @@ public class DistinctNormalizerImpl implements DistinctNormalizer {
                     (UnaryIQTree) child, variableGenerator);
         }
         else if (childRoot instanceof ValuesNode) {
-            ValuesNode valuesNode = (ValuesNode) childRoot;
-            return iqFactory.createValuesNode(valuesNode.getOrderedVariables(),
-                    valuesNode.getValues().stream().distinct().collect(ImmutableCollectors.toList()));
+            return ((ValuesNode) childRoot).distinct();
         }
         else if (childRoot instanceof UnionNode) {
             Optional<IQTree> newTree = simplifyUnion(child, distinctNode, null, null, variableGenerator);
@@ -151,13 +149,8 @@ public class DistinctNormalizerImpl implements DistinctNormalizer {
         if (unionChild.isDistinct())
             return unionChild;
 
-        if (unionChild instanceof ValuesNode) {
-            ValuesNode valuesNode = (ValuesNode) unionChild;
-            return iqFactory.createValuesNode(valuesNode.getOrderedVariables(),
-                    valuesNode.getValues().stream()
-                            .distinct()
-                            .collect(ImmutableCollectors.toList()));
-        }
+        if (unionChild instanceof ValuesNode)
+            return ((ValuesNode) unionChild).distinct();
 
         QueryNode unionChildRoot = unionChild.getRootNode();
 
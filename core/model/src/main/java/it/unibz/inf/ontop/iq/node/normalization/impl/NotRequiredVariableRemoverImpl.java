@@ -17,7 +17,6 @@ import it.unibz.inf.ontop.iq.node.normalization.NotRequiredVariableRemover;
 import it.unibz.inf.ontop.iq.request.VariableNonRequirement;
 import it.unibz.inf.ontop.iq.transform.IQTreeTransformer;
 import it.unibz.inf.ontop.iq.transform.IQTreeVisitingTransformer;
-import it.unibz.inf.ontop.model.term.Constant;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
@@ -25,7 +24,6 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import java.util.Set;
-import java.util.stream.IntStream;
 
 @Singleton
 public class NotRequiredVariableRemoverImpl implements NotRequiredVariableRemover {
@@ -113,28 +111,9 @@ public class NotRequiredVariableRemoverImpl implements NotRequiredVariableRemove
 
         @Override
         public IQTree transformValues(ValuesNode valuesNode) {
-
-            ImmutableList<Variable> orderedVariables = valuesNode.getOrderedVariables();
-            int arity = orderedVariables.size();
-
-            ImmutableList<Integer> indexesToRemove = IntStream.range(0,arity)
-                    .filter(i -> variablesToRemove.contains(orderedVariables.get(i)))
-                    .boxed()
-                    .collect(ImmutableCollectors.toList());
-
-            ImmutableList<Variable> newOrderedVariables = IntStream.range(0,arity)
-                    .filter(i -> !indexesToRemove.contains(i))
-                    .mapToObj(orderedVariables::get)
-                    .collect(ImmutableCollectors.toList());
-
-            ImmutableList<ImmutableList<Constant>> newValues = valuesNode.getValues().stream()
-                    .map(t -> IntStream.range(0, arity)
-                            .filter(i -> !indexesToRemove.contains(i))
-                            .mapToObj(t::get)
-                            .collect(ImmutableCollectors.toList()))
-                    .collect(ImmutableCollectors.toList());
-
-            return iqFactory.createValuesNode(newOrderedVariables, newValues);
+            return valuesNode.project(valuesNode.getOrderedVariables().stream()
+                    .filter(v -> !variablesToRemove.contains(v))
+                    .collect(ImmutableCollectors.toList()));
         }
 
         @Override
@@ -15,4 +15,13 @@ public interface IQTree2NativeNodeGenerator {
      */
     NativeNode generate(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes);
 
+    /**
+     * Some constants of the native query are replaced by parameter placeholders (see {@link NativeNode#getParameters()}),
+     * so that the queries only differing by these constants share the same native query string.
+     *
+     * By default, the constants are inlined.
+     */
+    default NativeNode generateWithParameters(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes) {
+        return generate(iqTree, dbParameters, tolerateUnknownTypes);
+    }
 }
@@ -144,4 +144,44 @@ public class HomomorphismTest {
         assertFalse(i.hasNext());
     }
 
+    @Test
+    public void test_ground_arguments() {
+        Homomorphism h = HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build();
+        ImmutableList<DataAtom<AtomPredicate>> from = ImmutableList.of(
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getVariable("x"), RDF_FACTORY.createIRI("http://P"),  TERM_FACTORY.getVariable("y")),
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getVariable("y"), RDF_FACTORY.createIRI("http://Q"), TERM_FACTORY.getRDFLiteralConstant("c0", XSD.STRING)));
+        ImmutableList<DataAtom<AtomPredicate>> to = ImmutableList.of(
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getRDFLiteralConstant("a", XSD.STRING),
+                        RDF_FACTORY.createIRI("http://P"),  TERM_FACTORY.getRDFLiteralConstant("b", XSD.STRING)),
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getRDFLiteralConstant("b", XSD.STRING),
+                        RDF_FACTORY.createIRI("http://Q"), TERM_FACTORY.getRDFLiteralConstant("c", XSD.STRING)),
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getRDFLiteralConstant("a0", XSD.STRING),
+                        RDF_FACTORY.createIRI("http://P"),  TERM_FACTORY.getRDFLiteralConstant("b0", XSD.STRING)),
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getRDFLiteralConstant("b0", XSD.STRING),
+                        RDF_FACTORY.createIRI("http://Q"), TERM_FACTORY.getRDFLiteralConstant("c0", XSD.STRING)));
+
+        Iterator<Homomorphism> i = HOMOMORPHISM_FACTORY.getHomomorphismIterator(h, from, to);
+        assertTrue(i.hasNext());
+        assertEquals(HOMOMORPHISM_FACTORY.getHomomorphismBuilder()
+                .extend(TERM_FACTORY.getVariable("x"), TERM_FACTORY.getRDFLiteralConstant("a0", XSD.STRING))
+                .extend(TERM_FACTORY.getVariable("y"), TERM_FACTORY.getRDFLiteralConstant("b0", XSD.STRING))
+                .build(), i.next());
+        assertFalse(i.hasNext());
+    }
+
+    @Test
+    public void test_missing_predicate() {
+        Homomorphism h = HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build();
+        ImmutableList<DataAtom<AtomPredicate>> from = ImmutableList.of(
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getVariable("x"), RDF_FACTORY.createIRI("http://P"),  TERM_FACTORY.getVariable("y")),
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getVariable("y"), RDF_FACTORY.createIRI("http://R"), TERM_FACTORY.getVariable("z")));
+        ImmutableList<DataAtom<AtomPredicate>> to = ImmutableList.of(
+                ATOM_FACTORY.getIntensionalTripleAtom(TERM_FACTORY.getRDFLiteralConstant("a", XSD.STRING),
+                        RDF_FACTORY.createIRI("http://P"),  TERM_FACTORY.getRDFLiteralConstant("b", XSD.STRING)));
+
+        Iterator<Homomorphism> i = HOMOMORPHISM_FACTORY.getHomomorphismIterator(h, from, to);
+        assertFalse(i.hasNext());
+        assertFalse(i.hasNext());
+    }
+
 }
@@ -0,0 +1,94 @@
+package it.unibz.inf.ontop.constraints.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.constraints.Homomorphism;
+import it.unibz.inf.ontop.dbschema.ForeignKeyConstraint;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.*;
+
+/**
+ * STAFF(id, store_id) with a foreign key from store_id to STORE(id, city):
+ * the chase of a STAFF atom contains a STORE atom without the city argument
+ */
+public class ExtensionalDataNodeHomomorphismTest {
+
+    private static final NamedRelationDefinition STAFF;
+    private static final NamedRelationDefinition STORE;
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType stringDBType = builder.getDBTypeFactory().getDBStringType();
+
+        STORE = builder.createDatabaseRelation("STORE",
+                "id", stringDBType, false,
+                "city", stringDBType, false);
+        STAFF = builder.createDatabaseRelation("STAFF",
+                "id", stringDBType, false,
+                "store_id", stringDBType, false);
+        ForeignKeyConstraint.of("FK_STORE", STAFF.getAttribute(2), STORE.getAttribute(1));
+    }
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final Variable Z = TERM_FACTORY.getVariable("z");
+
+    private final ExtensionalDataNodeListContainmentCheck containmentCheck =
+            new ExtensionalDataNodeListContainmentCheck(HOMOMORPHISM_FACTORY, CORE_UTILS_FACTORY);
+
+    @Test
+    public void test_ground_argument_missing_in_chase() {
+        ImmutableSet<ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode> chase =
+                containmentCheck.chase(ImmutableList.of(createExtensionalDataNode(STAFF, ImmutableList.of(X, Y))));
+        ImmutableList<ExtensionalDataNode> from = ImmutableList.of(
+                createExtensionalDataNode(STORE, ImmutableList.of(Y, TERM_FACTORY.getDBStringConstant("Bolzano"))));
+
+        Iterator<Homomorphism> i = new ExtensionalDataNodeHomomorphismIteratorImpl(
+                HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build(), from, chase);
+        assertFalse(i.hasNext());
+
+        // the chased atoms are not modified by the search
+        assertEquals(2, chase.size());
+        for (ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode node : chase)
+            assertTrue(chase.contains(node));
+    }
+
+    @Test
+    public void test_variable_argument_missing_in_chase() {
+        ImmutableSet<ExtensionalDataNodeListContainmentCheck.ChasedExtensionalDataNode> chase =
+                containmentCheck.chase(ImmutableList.of(createExtensionalDataNode(STAFF, ImmutableList.of(X, Y))));
+        ImmutableList<ExtensionalDataNode> from = ImmutableList.of(
+                createExtensionalDataNode(STORE, ImmutableList.of(Y, Z)));
+
+        Iterator<Homomorphism> i = new ExtensionalDataNodeHomomorphismIteratorImpl(
+                HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build(), from, chase);
+        assertTrue(i.hasNext());
+        Homomorphism h = i.next();
+        assertEquals(Y, h.apply(Y));
+        assertTrue(h.apply(Z) instanceof Variable);
+        assertNotEquals(X, h.apply(Z));
+        assertNotEquals(Y, h.apply(Z));
+        assertFalse(i.hasNext());
+    }
+
+    @Test
+    public void test_ground_argument_in_chase() {
+        ImmutableList<ExtensionalDataNode> nodes = ImmutableList.of(
+                createExtensionalDataNode(STAFF, ImmutableList.of(X, Y)),
+                createExtensionalDataNode(STORE, ImmutableList.of(Y, TERM_FACTORY.getDBStringConstant("Bolzano"))));
+
+        assertTrue(containmentCheck.isContainedIn(ImmutableList.of(X), nodes,
+                ImmutableList.of(X), ImmutableList.of(nodes.get(1), nodes.get(0))));
+        assertFalse(containmentCheck.isContainedIn(ImmutableList.of(X), ImmutableList.of(nodes.get(0)),
+                ImmutableList.of(X), nodes));
+    }
+}
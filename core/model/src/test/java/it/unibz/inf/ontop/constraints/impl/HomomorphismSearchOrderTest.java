@@ -0,0 +1,267 @@
+package it.unibz.inf.ontop.constraints.impl;
+
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.constraints.Homomorphism;
+import it.unibz.inf.ontop.dbschema.NamedRelationDefinition;
+import it.unibz.inf.ontop.dbschema.RelationPredicate;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.term.Constant;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.term.VariableOrGroundTerm;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.*;
+
+/**
+ * Compares the search with the in-order search it replaced (kept below as a reference), on self-joins
+ * of EMP(id, manager, dept) as found in the mapping CQs of a management hierarchy:
+ *   EMP(x0, x1, d0), EMP(x1, x2, d1), ..., EMP(x(n-1), xn, d(n-1)), EMP(xn, y, 'HR')
+ * The target contains an employee hierarchy where everybody manages everybody in the IT department.
+ *
+ * The number of attempts to extend a homomorphism is counted, as it does not depend on the machine.
+ */
+public class HomomorphismSearchOrderTest {
+
+    private static final NamedRelationDefinition EMP;
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType stringDBType = builder.getDBTypeFactory().getDBStringType();
+        EMP = builder.createDatabaseRelation("EMP",
+                "id", stringDBType, false,
+                "manager", stringDBType, false,
+                "dept", stringDBType, false);
+    }
+
+    private static final Constant IT = TERM_FACTORY.getDBStringConstant("IT");
+    private static final Constant HR = TERM_FACTORY.getDBStringConstant("HR");
+    private static final Constant BOARD = TERM_FACTORY.getDBStringConstant("board");
+
+    private static final int EMPLOYEES = 6;
+
+    /**
+     * No employee is in HR: found without any attempt, whatever the length of the chain
+     * (the in-order search would enumerate all the chains of the hierarchy, more than 10^9 attempts)
+     */
+    @Test(timeout = 2000)
+    public void test_long_chain_no_homomorphism() {
+        ImmutableList<DataAtom<RelationPredicate>> from = chain(12, HR);
+        ImmutableList<DataAtom<RelationPredicate>> to = hierarchy(Optional.empty());
+
+        CountingHomomorphismIterator i = new CountingHomomorphismIterator(from, to);
+        assertFalse(i.hasNext());
+        assertEquals(0, i.attempts);
+    }
+
+    /**
+     * Only the head of the hierarchy is in HR: the chains have to end there
+     */
+    @Test(timeout = 2000)
+    public void test_long_chain_first_homomorphism() {
+        ImmutableList<DataAtom<RelationPredicate>> from = chain(12, HR);
+        ImmutableList<DataAtom<RelationPredicate>> to = hierarchy(Optional.of(employee(0)));
+
+        CountingHomomorphismIterator i = new CountingHomomorphismIterator(from, to);
+        assertTrue(i.hasNext());
+        Homomorphism h = i.next();
+        assertEquals(employee(0), h.apply(TERM_FACTORY.getVariable("x12")));
+        // backward from the HR atom, without backtracking: at most all the target atoms for each chain atom
+        assertTrue("Attempts: " + i.attempts, i.attempts <= 1 + 12 * (EMPLOYEES * (EMPLOYEES - 1) + 1));
+    }
+
+    @Test(timeout = 20000)
+    public void test_same_homomorphisms_no_homomorphism() {
+        compareWithInOrderSearch(chain(5, HR), hierarchy(Optional.empty()), 0, 1);
+    }
+
+    @Test(timeout = 20000)
+    public void test_same_homomorphisms() {
+        // all the chains of 6 employees ending with the head: 5^5
+        // (the in-order search enumerates all the chains of 5 employees first: about 30 times more attempts)
+        compareWithInOrderSearch(chain(5, HR), hierarchy(Optional.of(employee(0))), 3125, 10);
+    }
+
+    @Test(timeout = 20000)
+    public void test_same_homomorphisms_no_constant() {
+        // no atom is more constrained than the others: the order is the input order
+        // 6 employees for x0, then 5 managers for x1, x2, x3 and y
+        compareWithInOrderSearch(chain(3, IT), hierarchy(Optional.empty()), 6 * 5 * 5 * 5 * 5, 1);
+    }
+
+    /**
+     * The search must return the same homomorphisms as the in-order search, with at least `factor` times
+     * fewer attempts
+     */
+    private static void compareWithInOrderSearch(ImmutableList<DataAtom<RelationPredicate>> from,
+                                                 ImmutableList<DataAtom<RelationPredicate>> to,
+                                                 int expectedCount, int factor) {
+        ImmutableList<Variable> variables = from.stream()
+                .flatMap(a -> a.getVariables().stream())
+                .distinct()
+                .collect(ImmutableCollectors.toList());
+
+        CountingHomomorphismIterator i = new CountingHomomorphismIterator(from, to);
+        ImmutableSet<ImmutableList<VariableOrGroundTerm>> homomorphisms = collect(i, variables);
+
+        InOrderHomomorphismIterator inOrder = new InOrderHomomorphismIterator(from, to);
+        ImmutableSet<ImmutableList<VariableOrGroundTerm>> inOrderHomomorphisms = collect(inOrder, variables);
+
+        assertEquals(expectedCount, homomorphisms.size());
+        assertEquals(inOrderHomomorphisms, homomorphisms);
+        assertTrue("Attempts: " + i.attempts + ", in order: " + inOrder.attempts,
+                (long) i.attempts * factor <= inOrder.attempts);
+    }
+
+    /**
+     * Images of the variables (Homomorphism does not define hashCode)
+     */
+    private static ImmutableSet<ImmutableList<VariableOrGroundTerm>> collect(Iterator<Homomorphism> iterator,
+                                                                           ImmutableList<Variable> variables) {
+        List<ImmutableList<VariableOrGroundTerm>> images = new ArrayList<>();
+        while (iterator.hasNext()) {
+            Homomorphism h = iterator.next();
+            images.add(variables.stream()
+                    .map(h::apply)
+                    .collect(ImmutableCollectors.toList()));
+        }
+        ImmutableSet<ImmutableList<VariableOrGroundTerm>> set = ImmutableSet.copyOf(images);
+        assertEquals("No duplicate", images.size(), set.size());
+        return set;
+    }
+
+    /**
+     * EMP(x0, x1, d0), ..., EMP(x(n-1), xn, d(n-1)), EMP(xn, y, dept)
+     */
+    private static ImmutableList<DataAtom<RelationPredicate>> chain(int n, Constant dept) {
+        return IntStream.rangeClosed(0, n)
+                .mapToObj(k -> k < n
+                        ? emp(TERM_FACTORY.getVariable("x" + k), TERM_FACTORY.getVariable("x" + (k + 1)),
+                                TERM_FACTORY.getVariable("d" + k))
+                        : emp(TERM_FACTORY.getVariable("x" + k), TERM_FACTORY.getVariable("y"), dept))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Everybody manages everybody else in IT, and the head (if any) is also in HR, managed by the board
+     * (who is not an employee)
+     */
+    private static ImmutableList<DataAtom<RelationPredicate>> hierarchy(Optional<Constant> hrHead) {
+        ImmutableList.Builder<DataAtom<RelationPredicate>> builder = ImmutableList.builder();
+        for (int i = 0; i < EMPLOYEES; i++)
+            for (int j = 0; j < EMPLOYEES; j++)
+                if (i != j)
+                    builder.add(emp(employee(i), employee(j), IT));
+        hrHead.ifPresent(e -> builder.add(emp(e, BOARD, HR)));
+        return builder.build();
+    }
+
+    private static Constant employee(int i) {
+        return TERM_FACTORY.getDBStringConstant("e" + i);
+    }
+
+    private static DataAtom<RelationPredicate> emp(VariableOrGroundTerm id, VariableOrGroundTerm manager,
+                                                   VariableOrGroundTerm dept) {
+        return ATOM_FACTORY.getDataAtom(EMP.getAtomPredicate(), id, manager, dept);
+    }
+
+
+    private static final class CountingHomomorphismIterator extends HomomorphismIteratorImpl<RelationPredicate> {
+        private int attempts = 0;
+
+        CountingHomomorphismIterator(ImmutableList<DataAtom<RelationPredicate>> from,
+                                     ImmutableCollection<DataAtom<RelationPredicate>> to) {
+            super(HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build(), from, to);
+        }
+
+        @Override
+        void extendHomomorphism(Homomorphism.Builder builder, DataAtom<RelationPredicate> from,
+                                DataAtom<RelationPredicate> to) {
+            attempts++;
+            super.extendHomomorphism(builder, from, to);
+        }
+    }
+
+    /**
+     * The search before the indexing of the target atoms: the atoms are matched in the input order,
+     * against all the target atoms
+     */
+    private static final class InOrderHomomorphismIterator implements Iterator<Homomorphism> {
+        private final ListIterator<DataAtom<RelationPredicate>> iterator;
+        private final Deque<State> stack = new ArrayDeque<>();
+        private final ImmutableCollection<DataAtom<RelationPredicate>> to;
+        private boolean movedToNext = false;
+        private Homomorphism next;
+        private long attempts = 0;
+
+        InOrderHomomorphismIterator(ImmutableList<DataAtom<RelationPredicate>> from,
+                                    ImmutableCollection<DataAtom<RelationPredicate>> to) {
+            this.iterator = from.listIterator();
+            this.to = to;
+            stack.push(new State(iterator.next(), HOMOMORPHISM_FACTORY.getHomomorphismBuilder().build()));
+        }
+
+        private final class State {
+            final Homomorphism homomorphism;
+            final Queue<DataAtom<RelationPredicate>> remainingChoices;
+            final DataAtom<RelationPredicate> atom;
+
+            State(DataAtom<RelationPredicate> atom, Homomorphism homomorphism) {
+                this.atom = atom;
+                this.homomorphism = homomorphism;
+                this.remainingChoices = new ArrayDeque<>(to);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!movedToNext) {
+                next = shift();
+                movedToNext = true;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Homomorphism next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            movedToNext = false;
+            return next;
+        }
+
+        private Homomorphism shift() {
+            while (!stack.isEmpty()) {
+                State state = stack.peek();
+                DataAtom<RelationPredicate> candidateAtom = state.remainingChoices.poll();
+                if (candidateAtom != null) {
+                    if (state.atom.getPredicate().equals(candidateAtom.getPredicate())) {
+                        attempts++;
+                        Homomorphism.Builder builder = state.homomorphism.builder();
+                        builder.extend(state.atom.getArguments(), candidateAtom.getArguments());
+                        if (builder.isValid()) {
+                            Homomorphism homomorphism = builder.build();
+                            if (iterator.hasNext())
+                                stack.push(new State(iterator.next(), homomorphism));
+                            else
+                                return homomorphism;
+                        }
+                    }
+                }
+                else {
+                    stack.pop();
+                    iterator.previous();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package it.unibz.inf.ontop.iq;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.dbschema.impl.OfflineMetadataProviderBuilder;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.model.atom.AtomPredicate;
+import it.unibz.inf.ontop.model.term.Variable;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static it.unibz.inf.ontop.OntopModelTestingTools.*;
+import static org.junit.Assert.*;
+
+/**
+ * The hashes of the trees and of the nodes are precomputed: they must remain consistent with equals()
+ * for separately built (equal but not identical) trees.
+ */
+public class StructuralHashTest {
+
+    private final static RelationDefinition TABLE2;
+    private final static AtomPredicate ANS2_PREDICATE = ATOM_FACTORY.getRDFAnswerPredicate(2);
+    private final static Variable X = TERM_FACTORY.getVariable("x");
+    private final static Variable Y = TERM_FACTORY.getVariable("y");
+    private final static Variable Z = TERM_FACTORY.getVariable("z");
+    private final static Variable W = TERM_FACTORY.getVariable("w");
+
+    static {
+        OfflineMetadataProviderBuilder builder = createMetadataProviderBuilder();
+        DBTermType integerDBType = builder.getDBTypeFactory().getDBLargeIntegerType();
+
+        TABLE2 = builder.createDatabaseRelation("TABLE2",
+                "col1", integerDBType, false,
+                "col2", integerDBType, false);
+    }
+
+    @Test
+    public void testExtensionalDataNode() {
+        ExtensionalDataNode node1 = createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y));
+        ExtensionalDataNode node2 = createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y));
+        assertNotSame(node1, node2);
+        assertEqualsWithSameHash(node1, node2);
+
+        assertNotEquals(node1, createExtensionalDataNode(TABLE2, ImmutableList.of(X, Z)));
+        assertNotEquals(node1, createExtensionalDataNode(TABLE2, ImmutableList.of(X, TERM_FACTORY.getDBIntegerConstant(1))));
+    }
+
+    @Test
+    public void testConstructionNode() {
+        ConstructionNode node1 = IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Z),
+                SUBSTITUTION_FACTORY.getSubstitution(Z, TERM_FACTORY.getDBStringConstant("a")));
+        ConstructionNode node2 = IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Z),
+                SUBSTITUTION_FACTORY.getSubstitution(Z, TERM_FACTORY.getDBStringConstant("a")));
+        assertEqualsWithSameHash(node1, node2);
+
+        assertNotEquals(node1, IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Z),
+                SUBSTITUTION_FACTORY.getSubstitution(Z, TERM_FACTORY.getDBStringConstant("b"))));
+        assertNotEquals(IQ_FACTORY.createConstructionNode(ImmutableSet.of(X)),
+                IQ_FACTORY.createConstructionNode(ImmutableSet.of(X, Y)));
+    }
+
+    @Test
+    public void testAggregationNode() {
+        AggregationNode node1 = createCountNode(false);
+        AggregationNode node2 = createCountNode(false);
+        assertEqualsWithSameHash(node1, node2);
+
+        assertNotEquals(node1, createCountNode(true));
+    }
+
+    @Test
+    public void testOrderComparator() {
+        assertEqualsWithSameHash(IQ_FACTORY.createOrderComparator(X, true), IQ_FACTORY.createOrderComparator(X, true));
+        assertNotEquals(IQ_FACTORY.createOrderComparator(X, true), IQ_FACTORY.createOrderComparator(X, false));
+    }
+
+    @Test
+    public void testCompositeTrees() {
+        IQTree tree1 = createTree(1);
+        IQTree tree2 = createTree(1);
+        assertNotSame(tree1, tree2);
+        assertEqualsWithSameHash(tree1, tree2);
+
+        // The difference is at the bottom of the tree
+        assertNotEquals(tree1, createTree(2));
+    }
+
+    @Test
+    public void testIQ() {
+        IQ query1 = IQ_FACTORY.createIQ(ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS2_PREDICATE, X, W), createTree(1));
+        IQ query2 = IQ_FACTORY.createIQ(ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS2_PREDICATE, X, W), createTree(1));
+        assertEqualsWithSameHash(query1, query2);
+    }
+
+    @Test
+    public void testTreesInHashSet() {
+        Set<IQTree> trees = new HashSet<>();
+        trees.add(createTree(1));
+        trees.add(createTree(2));
+
+        assertTrue(trees.contains(createTree(1)));
+        assertTrue(trees.contains(createTree(2)));
+        assertFalse(trees.contains(createTree(3)));
+    }
+
+    private static AggregationNode createCountNode(boolean isDistinct) {
+        return IQ_FACTORY.createAggregationNode(ImmutableSet.of(X),
+                SUBSTITUTION_FACTORY.getSubstitution(W, TERM_FACTORY.getDBCount(Y, isDistinct)));
+    }
+
+    /**
+     * ORDER BY, aggregation and union over a join of two data nodes, one of them with a constant
+     */
+    private static IQTree createTree(int constant) {
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y));
+        ExtensionalDataNode dataNode2 = createExtensionalDataNode(TABLE2,
+                ImmutableList.of(Y, TERM_FACTORY.getDBIntegerConstant(constant)));
+        ExtensionalDataNode dataNode3 = createExtensionalDataNode(TABLE2, ImmutableList.of(X, Y));
+
+        IQTree joinTree = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(dataNode1, dataNode2));
+        IQTree unionTree = IQ_FACTORY.createNaryIQTree(IQ_FACTORY.createUnionNode(ImmutableSet.of(X, Y)),
+                ImmutableList.of(joinTree, dataNode3));
+
+        IQTree aggregationTree = IQ_FACTORY.createUnaryIQTree(createCountNode(false), unionTree);
+
+        return IQ_FACTORY.createUnaryIQTree(
+                IQ_FACTORY.createOrderByNode(ImmutableList.of(IQ_FACTORY.createOrderComparator(X, true))),
+                aggregationTree);
+    }
+
+    private static void assertEqualsWithSameHash(Object o1, Object o2) {
+        assertEquals(o1, o2);
+        assertEquals(o2, o1);
+        assertEquals(o1.hashCode(), o2.hashCode());
+    }
+}
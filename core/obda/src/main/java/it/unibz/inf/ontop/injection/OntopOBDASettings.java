@@ -22,6 +22,12 @@ public interface OntopOBDASettings extends OntopModelSettings {
      */
     boolean exposeSystemTables();
 
+    /**
+     * If true, the DB metadata (columns and integrity constraints) is extracted schema by schema
+     * instead of relation by relation.
+     */
+    boolean isBulkMetadataExtractionEnabled();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +37,5 @@ public interface OntopOBDASettings extends OntopModelSettings {
     String IGNORE_INVALID_MAPPING_ENTRIES = "ontop.ignoreInvalidMappingEntries";
     String IGNORE_INVALID_LENS_ENTRIES = "ontop.ignoreInvalidLensEntries";
     String EXPOSE_SYSTEM_TABLES = "ontop.exposeSystemTables";
+    String BULK_METADATA_EXTRACTION = "ontop.bulkMetadataExtraction";
 }
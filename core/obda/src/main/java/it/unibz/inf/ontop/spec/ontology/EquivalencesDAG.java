@@ -2,6 +2,7 @@ package it.unibz.inf.ontop.spec.ontology;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
@@ -26,6 +27,21 @@ public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
 	
 	ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v);
 
+	/**
+	 * Same elements as getSub(v), without materializing them
+	 */
+	default void forEachSub(Equivalences<T> v, Consumer<? super Equivalences<T>> consumer) {
+		getSub(v).forEach(consumer);
+	}
+
+	/**
+	 * Check in the reflexive and transitive closure of the sub-description relation
+	 * @return true if v is a sub-description of w (or v = w)
+	 */
+	default boolean isSubsumedBy(Equivalences<T> v, Equivalences<T> w) {
+		return getSub(w).contains(v);
+	}
+
 	ImmutableSet<Equivalences<T>> getDirectSuper(Equivalences<T> v);
 
 	ImmutableSet<T> getSubRepresentatives(T v);
@@ -37,5 +53,12 @@ public interface EquivalencesDAG<T> extends Iterable<Equivalences<T>> {
 	 */
 	ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v);
 
+	/**
+	 * Same elements as getSuper(v), without materializing them
+	 */
+	default void forEachSuper(Equivalences<T> v, Consumer<? super Equivalences<T>> consumer) {
+		getSuper(v).forEach(consumer);
+	}
+
 	Stream<Equivalences<T>> stream();
 }
\ No newline at end of file
@@ -28,11 +28,11 @@ import it.unibz.inf.ontop.spec.ontology.EquivalencesDAG;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
-import org.jgrapht.traverse.BreadthFirstIterator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 
@@ -55,9 +55,12 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	// maps all Ts (even from the non-reduced DAG) to the vertices of the possibly reduced DAG
 	private final ImmutableMap<T, Equivalences<T>> fullVertexIndex;   
 
-	// caches
-	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new HashMap<>();
-	private final Map<Equivalences<T>, ImmutableSet<Equivalences<T>>> sub = new HashMap<>();
+	// precomputed when the DAG is created
+	private final ReachabilityIndex<Equivalences<T>> subIndex;
+	private final ReachabilityIndex<Equivalences<T>> superIndex;
+
+	// cache (thread-safe, as the DAG can be used by concurrent reformulations)
+	private final Map<Equivalences<T>, ImmutableSet<T>> subRep = new ConcurrentHashMap<>();
 
 	private DefaultDirectedGraph<T,DefaultEdge> graph; // used in tests only
 	
@@ -66,26 +69,10 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		this.dag = dag;
 		this.vertexIndex = vertexIndex;
 		this.fullVertexIndex = fullVertexIndex;
-	}
-
-	private static <T> ImmutableSet<T> immutableSetOf(BreadthFirstIterator<T, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-
-		while (iterator.hasNext()) {
-			T child = iterator.next();
-			builder.add(child);
-		}
-		return builder.build();
-	}
-
-	private static <T> ImmutableSet<T> immutableSetOfRepresentatives(BreadthFirstIterator<Equivalences<T>, DefaultEdge>  iterator) {
-		ImmutableSet.Builder<T> builder = ImmutableSet.builder();
-
-		while (iterator.hasNext()) {
-			Equivalences<T> child = iterator.next();
-			builder.add(child.getRepresentative());
-		}
-		return builder.build();
+		this.subIndex = new ReachabilityIndex<>(dag.vertexSet(),
+				v -> dag.incomingEdgesOf(v).stream().map(dag::getEdgeSource).iterator());
+		this.superIndex = new ReachabilityIndex<>(dag.vertexSet(),
+				v -> dag.outgoingEdgesOf(v).stream().map(dag::getEdgeTarget).iterator());
 	}
 
 	/** 
@@ -120,8 +107,17 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSub(Equivalences<T> v) {
-		return sub.computeIfAbsent(v,
-				n -> immutableSetOf(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		return subIndex.getReachable(v);
+	}
+
+	@Override
+	public void forEachSub(Equivalences<T> v, Consumer<? super Equivalences<T>> consumer) {
+		subIndex.forEachReachable(v, consumer);
+	}
+
+	@Override
+	public boolean isSubsumedBy(Equivalences<T> v, Equivalences<T> w) {
+		return subIndex.isReachable(w, v);
 	}
 
 	/** 
@@ -133,8 +129,12 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 		if (eq == null)
 			return ImmutableSet.of(v);
 
-		return subRep.computeIfAbsent(eq,
-				n -> immutableSetOfRepresentatives(new BreadthFirstIterator<>(new EdgeReversedGraph<>(dag), n)));
+		// representatives are not cached in the index, as they can be changed after the creation of the DAG
+		return subRep.computeIfAbsent(eq, n -> {
+			ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+			subIndex.forEachReachable(n, s -> builder.add(s.getRepresentative()));
+			return builder.build();
+		});
 	}
 	
 
@@ -154,7 +154,12 @@ public class EquivalencesDAGImpl<T> implements EquivalencesDAG<T> {
 	 */
 	@Override
 	public ImmutableSet<Equivalences<T>> getSuper(Equivalences<T> v) {
-		return immutableSetOf(new BreadthFirstIterator<>(dag, v));
+		return superIndex.getReachable(v);
+	}
+
+	@Override
+	public void forEachSuper(Equivalences<T> v, Consumer<? super Equivalences<T>> consumer) {
+		superIndex.forEachReachable(v, consumer);
 	}
 
 	@Override
@@ -0,0 +1,151 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reflexive and transitive closure of a DAG, represented by interval labeling
+ * (R. Agrawal, A. Borgida, H.V. Jagadish, Efficient management of transitive relationships
+ * in large data and knowledge bases, SIGMOD 1989).
+ *
+ * The vertices are numbered in the post-order of a depth-first traversal.
+ * Each vertex is labeled by disjoint intervals of numbers covering exactly the vertices reachable from it:
+ * the interval of its sub-tree in the spanning forest, merged with the intervals of its other successors.
+ * In class and property hierarchies, most vertices have a single interval.
+ *
+ * Immutable (and therefore thread-safe).
+ *
+ *  @param <V> vertex
+ */
+class ReachabilityIndex<V> {
+
+    private final ImmutableMap<V, Integer> postOrderNumbers;
+    // indexed by post-order number
+    private final Object[] vertices;
+    // indexed by post-order number: sorted bounds (inclusive) lower_0, upper_0, lower_1, upper_1, ...
+    private final int[][] intervals;
+
+    /**
+     * @param successors direct successors of a vertex in the DAG
+     */
+    ReachabilityIndex(Collection<V> vertexSet, Function<V, Iterator<V>> successors) {
+        int size = vertexSet.size();
+        this.vertices = new Object[size];
+        this.intervals = new int[size][];
+
+        Map<V, Integer> numbers = new HashMap<>();
+        Set<V> visited = new HashSet<>();
+        // Iterative (hierarchies can be deep)
+        Deque<Frame<V>> stack = new ArrayDeque<>();
+        int counter = 0;
+
+        for (V root : vertexSet) {
+            if (!visited.add(root))
+                continue;
+
+            stack.push(new Frame<>(root, successors.apply(root)));
+            while (!stack.isEmpty()) {
+                Frame<V> frame = stack.peek();
+                if (frame.successors.hasNext()) {
+                    V successor = frame.successors.next();
+                    if (visited.add(successor))
+                        stack.push(new Frame<>(successor, successors.apply(successor)));
+                    continue;
+                }
+
+                stack.pop();
+                int number = counter++;
+                numbers.put(frame.vertex, number);
+                vertices[number] = frame.vertex;
+                int lowest = Math.min(frame.lowest, number);
+
+                // in a DAG, all the successors are already numbered
+                List<int[]> reachable = new ArrayList<>();
+                reachable.add(new int[] { lowest, number });
+                successors.apply(frame.vertex).forEachRemaining(s -> {
+                    int[] successorIntervals = intervals[numbers.get(s)];
+                    for (int i = 0; i < successorIntervals.length; i += 2)
+                        reachable.add(new int[] { successorIntervals[i], successorIntervals[i + 1] });
+                });
+                intervals[number] = merge(reachable);
+
+                if (!stack.isEmpty()) {
+                    Frame<V> parent = stack.peek();
+                    parent.lowest = Math.min(parent.lowest, lowest);
+                }
+            }
+        }
+        this.postOrderNumbers = ImmutableMap.copyOf(numbers);
+    }
+
+    private static int[] merge(List<int[]> intervals) {
+        intervals.sort(Comparator.comparingInt(i -> i[0]));
+        int[] bounds = new int[intervals.size() * 2];
+        int length = 0;
+        for (int[] interval : intervals) {
+            // overlapping or adjacent
+            if (length > 0 && interval[0] <= bounds[length - 1] + 1)
+                bounds[length - 1] = Math.max(bounds[length - 1], interval[1]);
+            else {
+                bounds[length++] = interval[0];
+                bounds[length++] = interval[1];
+            }
+        }
+        return Arrays.copyOf(bounds, length);
+    }
+
+    /**
+     * Is target reachable from source (reflexive)?
+     */
+    boolean isReachable(V source, V target) {
+        int number = getNumber(target);
+        int[] sourceIntervals = intervals[getNumber(source)];
+        for (int i = 0; i < sourceIntervals.length && sourceIntervals[i] <= number; i += 2) {
+            if (number <= sourceIntervals[i + 1])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Allocation-free iteration over the vertices reachable from the source (including itself)
+     */
+    @SuppressWarnings("unchecked")
+    void forEachReachable(V source, Consumer<? super V> consumer) {
+        int[] sourceIntervals = intervals[getNumber(source)];
+        for (int i = 0; i < sourceIntervals.length; i += 2) {
+            for (int j = sourceIntervals[i]; j <= sourceIntervals[i + 1]; j++)
+                consumer.accept((V) vertices[j]);
+        }
+    }
+
+    ImmutableSet<V> getReachable(V source) {
+        ImmutableSet.Builder<V> builder = ImmutableSet.builder();
+        forEachReachable(source, builder::add);
+        return builder.build();
+    }
+
+    private int getNumber(V vertex) {
+        Integer number = postOrderNumbers.get(vertex);
+        if (number == null)
+            throw new IllegalArgumentException("Unknown vertex: " + vertex);
+        return number;
+    }
+
+
+    private static class Frame<V> {
+        private final V vertex;
+        private final Iterator<V> successors;
+        // lowest post-order number in the sub-tree of the spanning forest
+        private int lowest = Integer.MAX_VALUE;
+
+        private Frame(V vertex, Iterator<V> successors) {
+            this.vertex = vertex;
+            this.successors = successors;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package it.unibz.inf.ontop.spec.ontology.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReachabilityIndexTest {
+
+    /**
+     *       a
+     *      / \
+     *     b   c
+     *    / \ / \
+     *   d   e   f
+     *        \
+     *         g        h (isolated)
+     */
+    private static final ImmutableMultimap<String, String> SUCCESSORS = ImmutableMultimap.<String, String>builder()
+            .putAll("a", "b", "c")
+            .putAll("b", "d", "e")
+            .putAll("c", "e", "f")
+            .putAll("e", "g")
+            .build();
+
+    private static final ImmutableList<String> VERTICES = ImmutableList.of("a", "b", "c", "d", "e", "f", "g", "h");
+
+    @Test
+    public void testReachable() {
+        ReachabilityIndex<String> index = new ReachabilityIndex<>(VERTICES, v -> SUCCESSORS.get(v).iterator());
+
+        assertEquals(ImmutableSet.copyOf(VERTICES.subList(0, 7)), index.getReachable("a"));
+        assertEquals(ImmutableSet.of("b", "d", "e", "g"), index.getReachable("b"));
+        assertEquals(ImmutableSet.of("c", "e", "f", "g"), index.getReachable("c"));
+        assertEquals(ImmutableSet.of("e", "g"), index.getReachable("e"));
+        assertEquals(ImmutableSet.of("h"), index.getReachable("h"));
+    }
+
+    @Test
+    public void testIsReachable() {
+        ReachabilityIndex<String> index = new ReachabilityIndex<>(VERTICES, v -> SUCCESSORS.get(v).iterator());
+
+        assertTrue(index.isReachable("a", "g"));
+        assertTrue(index.isReachable("c", "g"));
+        assertTrue(index.isReachable("f", "f"));
+        assertFalse(index.isReachable("g", "a"));
+        assertFalse(index.isReachable("c", "d"));
+        assertFalse(index.isReachable("b", "f"));
+        assertFalse(index.isReachable("a", "h"));
+    }
+
+    /**
+     * The spanning forest depends on the order of the roots
+     */
+    @Test
+    public void testOtherRootOrder() {
+        ReachabilityIndex<String> index = new ReachabilityIndex<>(VERTICES.reverse(), v -> SUCCESSORS.get(v).iterator());
+
+        for (String v : VERTICES) {
+            ImmutableSet<String> reachable = index.getReachable(v);
+            for (String w : VERTICES)
+                assertEquals(reachable.contains(w), index.isReachable(v, w));
+        }
+        assertEquals(ImmutableSet.of("c", "e", "f", "g"), index.getReachable("c"));
+        assertEquals(7, index.getReachable("a").size());
+    }
+}
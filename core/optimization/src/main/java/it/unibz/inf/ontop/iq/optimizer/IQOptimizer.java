@@ -5,5 +5,10 @@ import it.unibz.inf.ontop.iq.IQ;
 @FunctionalInterface
 public interface IQOptimizer {
 
+    /**
+     * Returns the given IQ itself (same instance) when nothing has been changed.
+     *
+     * This allows the fixed-point loops to detect no-op passes without comparing the trees.
+     */
     IQ optimize(IQ query);
 }
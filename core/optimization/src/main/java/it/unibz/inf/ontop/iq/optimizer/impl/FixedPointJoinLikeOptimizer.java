@@ -1,40 +1,62 @@
 package it.unibz.inf.ontop.iq.optimizer.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.optimizer.IQOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.InnerJoinIQOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.JoinLikeOptimizer;
 import it.unibz.inf.ontop.iq.optimizer.LeftJoinIQOptimizer;
 
 
+/**
+ * Applies the inner join optimizer, the left join optimizer and the normalization in turn,
+ * until none of them changes the query.
+ *
+ * Stops as soon as all of them have been applied in a row without any change,
+ * not necessarily at the end of a round.
+ */
 @Singleton
 public class FixedPointJoinLikeOptimizer implements JoinLikeOptimizer {
 
     private static final int MAX_LOOP = 100;
-    private final InnerJoinIQOptimizer innerJoinIQOptimizer;
-    private final LeftJoinIQOptimizer leftJoinIQOptimizer;
+    private final ImmutableList<IQOptimizer> steps;
 
     @Inject
     private FixedPointJoinLikeOptimizer(InnerJoinIQOptimizer innerJoinIQOptimizer, LeftJoinIQOptimizer leftJoinIQOptimizer){
-        this.innerJoinIQOptimizer = innerJoinIQOptimizer;
-        this.leftJoinIQOptimizer = leftJoinIQOptimizer;
+        this.steps = ImmutableList.of(
+                innerJoinIQOptimizer,
+                leftJoinIQOptimizer,
+                IQ::normalizeForOptimization);
     }
 
     @Override
     public IQ optimize(IQ initialIQ) {
         // Non-final
         IQ currentIQ = initialIQ;
-        for (int i = 0; i < MAX_LOOP; i++) {
-            IQ innerJoinOptimizedIQ = innerJoinIQOptimizer.optimize(currentIQ);
-            IQ leftJoinOptimizedIQ = leftJoinIQOptimizer.optimize(innerJoinOptimizedIQ);
-            IQ optimizedIQ = leftJoinOptimizedIQ.normalizeForOptimization();
-            if (optimizedIQ.equals(currentIQ))
+        // Number of consecutive steps that did not change the query
+        int unchangedStepCount = 0;
+
+        for (int i = 0; i < MAX_LOOP * steps.size(); i++) {
+            IQ optimizedIQ = steps.get(i % steps.size()).optimize(currentIQ);
+
+            if (hasChanged(currentIQ, optimizedIQ))
+                unchangedStepCount = 0;
+            else if (++unchangedStepCount == steps.size())
                 return optimizedIQ;
-            else
-                currentIQ = optimizedIQ;
+
+            currentIQ = optimizedIQ;
         }
         throw new MinorOntopInternalBugException("MAX_LOOP reached");
     }
+
+    /**
+     * Optimizers return the same instance when they do not change the query.
+     * Equality is only tested for the other ones (cheap when the trees differ, thanks to their hashes).
+     */
+    private static boolean hasChanged(IQ previousIQ, IQ newIQ) {
+        return newIQ != previousIQ && !newIQ.equals(previousIQ);
+    }
 }
@@ -31,8 +31,7 @@ public class EmptyRowsValuesNodeTransformerImpl extends DefaultRecursiveIQTreeEx
      */
     @Override
     public IQTree transformValues(ValuesNode valuesNode, VariableGenerator variableGenerator) {
-        return valuesNode.getValues().stream()
-                .map(a -> a.size()).reduce(0, Integer::sum).equals(0)
+        return (valuesNode.getOrderedVariables().isEmpty() || valuesNode.getRowCount() == 0)
                 ? normalize(valuesNode, variableGenerator)
                 : valuesNode;
     }
@@ -41,7 +40,7 @@ public class EmptyRowsValuesNodeTransformerImpl extends DefaultRecursiveIQTreeEx
         DBConstant placeholder = new DBConstantImpl("placeholder",
                 coreSingletons.getTypeFactory().getDBTypeFactory().getDBStringType());
 
-        ImmutableList<ImmutableList<Constant>> newValues = IntStream.range(0, valuesNode.getValues().size())
+        ImmutableList<ImmutableList<Constant>> newValues = IntStream.range(0, valuesNode.getRowCount())
                         .mapToObj(i -> ImmutableList.of((Constant) placeholder))
                         .collect(ImmutableCollectors.toList());
 
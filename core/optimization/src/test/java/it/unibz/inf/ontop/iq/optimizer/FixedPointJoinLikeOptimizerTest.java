@@ -0,0 +1,84 @@
+package it.unibz.inf.ontop.iq.optimizer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.RelationDefinition;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.DistinctNode;
+import it.unibz.inf.ontop.iq.node.ExtensionalDataNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import org.junit.Test;
+
+import static it.unibz.inf.ontop.OptimizationTestingTools.*;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The loop stops after a streak of no-op steps: the result must nevertheless be a fixed point
+ */
+public class FixedPointJoinLikeOptimizerTest {
+
+    public final static RelationDefinition T1_AR3;
+
+    static {
+        OfflineMetadataProviderBuilder3 builder = createMetadataProviderBuilder();
+        T1_AR3 = builder.createRelationWithStringAttributes(1, 3, true);
+    }
+
+    @Test
+    public void testFixedPointAfterSelfJoinElimination() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, B, C);
+        IQ initialQuery = IQ_FACTORY.createIQ(projectionAtom, createDistinctJoinTree(projectionAtom));
+
+        IQ expectedQuery = createExpectedQuery(projectionAtom);
+
+        IQ optimizedQuery = JOIN_LIKE_OPTIMIZER.optimize(initialQuery);
+        assertEquals(expectedQuery, optimizedQuery);
+        assertEquals(optimizedQuery, JOIN_LIKE_OPTIMIZER.optimize(optimizedQuery));
+    }
+
+    @Test
+    public void testAlreadyOptimized() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, B, C);
+        IQ expectedQuery = createExpectedQuery(projectionAtom);
+
+        assertEquals(expectedQuery, JOIN_LIKE_OPTIMIZER.optimize(expectedQuery));
+    }
+
+    @Test
+    public void testSeparatelyBuiltEqualQueries() {
+        DistinctVariableOnlyDataAtom projectionAtom = ATOM_FACTORY.getDistinctVariableOnlyDataAtom(ANS1_AR2_PREDICATE, B, C);
+        IQ query1 = IQ_FACTORY.createIQ(projectionAtom, createDistinctJoinTree(projectionAtom));
+        IQ query2 = IQ_FACTORY.createIQ(projectionAtom, createDistinctJoinTree(projectionAtom));
+
+        assertEquals(JOIN_LIKE_OPTIMIZER.optimize(query1), JOIN_LIKE_OPTIMIZER.optimize(query2));
+    }
+
+    private static IQTree createDistinctJoinTree(DistinctVariableOnlyDataAtom projectionAtom) {
+        ExtensionalDataNode dataNode1 = createExtensionalDataNode(T1_AR3, ImmutableList.of(A, B, C));
+        ExtensionalDataNode dataNode2 = createExtensionalDataNode(T1_AR3, ImmutableList.of(D, B, C));
+
+        return IQ_FACTORY.createUnaryIQTree(IQ_FACTORY.createDistinctNode(),
+                IQ_FACTORY.createUnaryIQTree(
+                        IQ_FACTORY.createConstructionNode(projectionAtom.getVariables()),
+                        IQ_FACTORY.createNaryIQTree(
+                                IQ_FACTORY.createInnerJoinNode(),
+                                ImmutableList.of(dataNode1, dataNode2))));
+    }
+
+    private static IQ createExpectedQuery(DistinctVariableOnlyDataAtom projectionAtom) {
+        DistinctNode distinctNode = IQ_FACTORY.createDistinctNode();
+        ExtensionalDataNode newDataNode = IQ_FACTORY.createExtensionalDataNode(
+                T1_AR3, ImmutableMap.of(1, B, 2, C));
+
+        return IQ_FACTORY.createIQ(
+                projectionAtom,
+                IQ_FACTORY.createUnaryIQTree(distinctNode,
+                        IQ_FACTORY.createUnaryIQTree(
+                                IQ_FACTORY.createFilterNode(
+                                        TERM_FACTORY.getConjunction(
+                                                TERM_FACTORY.getDBIsNotNull(B),
+                                                TERM_FACTORY.getDBIsNotNull(C))),
+                                newDataNode)));
+    }
+}
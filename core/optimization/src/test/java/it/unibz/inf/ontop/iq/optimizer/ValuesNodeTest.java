@@ -20,6 +20,8 @@ import static it.unibz.inf.ontop.OptimizationTestingTools.*;
 import static it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel.LT;
 import static it.unibz.inf.ontop.model.term.functionsymbol.InequalityLabel.LTE;
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ValuesNodeTest {
 
@@ -653,6 +655,166 @@ public class ValuesNodeTest {
         assertTrue(baseTestNormalization(initialTree, expectedTree));
     }
 
+    @Test
+    public void test13propagateDownConstraintRepeatedValues() {
+        // The constraint is evaluated once per distinct value of X
+        IQTree initialTree = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY
+                .createFilterNode(TERM_FACTORY.getDBNumericInequality(LT, X, TERM_FACTORY.getDBIntegerConstant(2))), IQ_FACTORY
+                    .createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                            ImmutableList.of(ONE, TWO),
+                            ImmutableList.of(TWO, ONE),
+                            ImmutableList.of(ONE, ONE),
+                            ImmutableList.of(TWO, TWO),
+                            ImmutableList.of(ONE, TWO))));
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(IQ_FACTORY
+                .createFilterNode(TERM_FACTORY.getDBNumericInequality(LT, X, TERM_FACTORY.getDBIntegerConstant(2))), IQ_FACTORY
+                    .createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                            ImmutableList.of(ONE, TWO),
+                            ImmutableList.of(ONE, ONE),
+                            ImmutableList.of(ONE, TWO))));
+
+        assertTrue(baseTestPropagateDownConstraints(initialTree, expectedTree));
+    }
+
+    @Test
+    public void test14manyToOneSubstitutionVariable() {
+        IQTree initialTree = IQ_FACTORY
+                .createValuesNode(ImmutableList.of(X, Y, Z, W), ImmutableList.of(
+                        ImmutableList.of(ONE_STR, ONE_STR, ONE_STR, TWO_STR),
+                        ImmutableList.of(ONE_STR, TWO_STR, ONE_STR, THREE_STR),
+                        ImmutableList.of(TWO_STR, TWO_STR, TWO_STR, FOUR_STR),
+                        ImmutableList.of(THREE_STR, THREE_STR, FOUR_STR, FIVE_STR)));
+        Substitution<VariableOrGroundTerm> substitution = SUBSTITUTION_FACTORY.getSubstitution(X, Y, Z, Y);
+
+        IQTree expectedTree = IQ_FACTORY
+                .createValuesNode(ImmutableList.of(Y, W), ImmutableList.of(
+                        ImmutableList.of(ONE_STR, TWO_STR),
+                        ImmutableList.of(TWO_STR, FOUR_STR)));
+
+        assertTrue(baseTestApplyDescSubstitution(initialTree, substitution, expectedTree));
+    }
+
+    @Test
+    public void test15substitutionConstantEqualsAndHashCode() {
+        // The dictionary of the remaining column only keeps the selected values
+        IQTree initialTree = IQ_FACTORY
+                .createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                        ImmutableList.of(ONE_STR, TWO_STR),
+                        ImmutableList.of(THREE_STR, FOUR_STR),
+                        ImmutableList.of(ONE_STR, FIVE_STR),
+                        ImmutableList.of(ONE_STR, TWO_STR)));
+        IQTree resultingTree = initialTree.applyDescendingSubstitutionWithoutOptimizing(
+                SUBSTITUTION_FACTORY.getSubstitution(X, ONE_STR),
+                CORE_UTILS_FACTORY.createVariableGenerator(initialTree.getKnownVariables()));
+
+        IQTree expectedTree = IQ_FACTORY
+                .createValuesNode(ImmutableList.of(Y), ImmutableList.of(
+                        ImmutableList.of(TWO_STR),
+                        ImmutableList.of(FIVE_STR),
+                        ImmutableList.of(TWO_STR)));
+
+        assertEquals(expectedTree, resultingTree);
+        assertEquals(expectedTree.hashCode(), resultingTree.hashCode());
+        assertEquals(((ValuesNode) expectedTree).getValues(), ((ValuesNode) resultingTree).getValues());
+    }
+
+    @Test
+    public void testJoinIRITemplateStringRepeatedValues() {
+        // Each distinct value is decomposed once, the duplicates are kept
+
+        ExtensionalDataNode dataNode = IQ_FACTORY.createExtensionalDataNode(TABLE1_AR1, ImmutableMap.of(0, A));
+
+        ConstructionNode constructionNode = IQ_FACTORY.createConstructionNode(ImmutableSet.of(X),
+                SUBSTITUTION_FACTORY.getSubstitution(
+                        X, TERM_FACTORY.getIRIFunctionalTerm(
+                                Template.builder()
+                                        .addSeparator("http://localhost/thing/")
+                                        .addColumn()
+                                        .build(),
+                                ImmutableList.of(A)
+                        ).getTerm(0)));
+
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(
+                ImmutableList.of(X),
+                ImmutableList.of(
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("http://localhost/thing/1")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("http://localhost/somethingelse")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("http://localhost/thing/1")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("http://localhost/thing/2")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("http://localhost/somethingelse"))));
+
+        IQTree initialTree = IQ_FACTORY.createNaryIQTree(
+                IQ_FACTORY.createInnerJoinNode(),
+                ImmutableList.of(valuesNode, IQ_FACTORY.createUnaryIQTree(constructionNode, dataNode)));
+
+        ValuesNode newValuesNode = IQ_FACTORY.createValuesNode(
+                ImmutableList.of(A),
+                ImmutableList.of(
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("1")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("1")),
+                        ImmutableList.of(TERM_FACTORY.getDBStringConstant("2"))));
+
+        IQTree expectedTree = IQ_FACTORY.createUnaryIQTree(
+                constructionNode,
+                IQ_FACTORY.createNaryIQTree(
+                        IQ_FACTORY.createInnerJoinNode(),
+                        ImmutableList.of(newValuesNode, dataNode)));
+
+        assertTrue(baseTestNormalization(initialTree, expectedTree));
+    }
+
+    @Test
+    public void testProject() {
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(X, Y, Z), ImmutableList.of(
+                ImmutableList.of(ONE_STR, TWO_STR, THREE_STR),
+                ImmutableList.of(ONE_STR, FOUR_STR, THREE_STR)));
+
+        ValuesNode expectedNode = IQ_FACTORY.createValuesNode(ImmutableList.of(Z, X), ImmutableList.of(
+                ImmutableList.of(THREE_STR, ONE_STR),
+                ImmutableList.of(THREE_STR, ONE_STR)));
+
+        ValuesNode projectedNode = valuesNode.project(ImmutableList.of(Z, X));
+        assertEquals(expectedNode, projectedNode);
+        assertEquals(expectedNode.getOrderedVariables(), projectedNode.getOrderedVariables());
+        assertEquals(expectedNode.getValues(), projectedNode.getValues());
+    }
+
+    @Test
+    public void testRenamePermutation() {
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                ImmutableList.of(ONE_STR, TWO_STR),
+                ImmutableList.of(THREE_STR, FOUR_STR)));
+
+        ValuesNode expectedNode = IQ_FACTORY.createValuesNode(ImmutableList.of(Y, X), ImmutableList.of(
+                ImmutableList.of(ONE_STR, TWO_STR),
+                ImmutableList.of(THREE_STR, FOUR_STR)));
+
+        ValuesNode renamedNode = valuesNode.rename(SUBSTITUTION_FACTORY.getSubstitution(X, Y, Y, X).injective());
+        assertEquals(expectedNode, renamedNode);
+        assertEquals(expectedNode.getValueMaps(), renamedNode.getValueMaps());
+    }
+
+    @Test
+    public void testDistinct() {
+        ValuesNode valuesNode = IQ_FACTORY.createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                ImmutableList.of(ONE_STR, TWO_STR),
+                ImmutableList.of(THREE_STR, FOUR_STR),
+                ImmutableList.of(ONE_STR, TWO_STR),
+                ImmutableList.of(ONE_STR, FOUR_STR)));
+
+        ValuesNode expectedNode = IQ_FACTORY.createValuesNode(ImmutableList.of(X, Y), ImmutableList.of(
+                ImmutableList.of(ONE_STR, TWO_STR),
+                ImmutableList.of(THREE_STR, FOUR_STR),
+                ImmutableList.of(ONE_STR, FOUR_STR)));
+
+        ValuesNode distinctNode = valuesNode.distinct();
+        assertEquals(expectedNode, distinctNode);
+        assertEquals(expectedNode.hashCode(), distinctNode.hashCode());
+        assertTrue(distinctNode.isDistinct());
+        assertSame(distinctNode, distinctNode.distinct());
+    }
+
     private Boolean baseTestNormalization(IQTree initialTree, IQTree expectedTree) {
         System.out.println('\n' + "Tree before normalizing:");
         System.out.println(initialTree);
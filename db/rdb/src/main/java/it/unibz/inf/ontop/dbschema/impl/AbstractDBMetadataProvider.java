@@ -27,10 +27,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +46,13 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
     private final DBTypeFactory dbTypeFactory;
     private final OntopOBDASettings settings;
 
+    // bulk extraction: columns of the relations of the schemas (catalog and schema names) retrieved so far
+    private final Map<List<String>, Map<RelationID, RelationDefinition.AttributeListBuilder>> schemaAttributes = new HashMap<>();
+    // bulk extraction: relations (indexed by their canonical IDs) whose integrity constraints are yet to be inserted
+    private final Map<RelationID, NamedRelationDefinition> relationsWithoutConstraints = new LinkedHashMap<>();
+    // bulk extraction: relations whose integrity constraints have been inserted with the other relations of their schema
+    private final Set<NamedRelationDefinition> relationsWithConstraints = Collections.newSetFromMap(new IdentityHashMap<>());
+
     @FunctionalInterface
     protected interface QuotedIDFactoryFactory {
         QuotedIDFactory create(DatabaseMetaData m) throws SQLException;
@@ -146,10 +151,33 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
                     .replace("%", escape + "%");
     }
 
+    /**
+     * In the bulk mode, the columns of all the relations of the schema are retrieved
+     * together on the first access to one of them.
+     */
     @Override
     public NamedRelationDefinition getRelation(RelationID id0) throws MetadataExtractionException {
-        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
         RelationID id = getCanonicalRelationId(id0);
+        boolean isBulk = settings.isBulkMetadataExtractionEnabled() && isSchemaKnown(id);
+        try {
+            RelationDefinition.AttributeListBuilder prefetched = isBulk
+                    ? getSchemaAttributes(getRelationCatalog(id), getRelationSchema(id)).remove(id)
+                    : null;
+
+            NamedRelationDefinition relation = (prefetched != null)
+                    ? new DatabaseTableDefinition(getAllIDs(id), prefetched)
+                    : extractRelation(id);
+
+            if (isBulk)
+                relationsWithoutConstraints.put(id, relation);
+            return relation;
+        }
+        catch (SQLException e) {
+            throw new MetadataExtractionException(e);
+        }
+    }
+
+    private NamedRelationDefinition extractRelation(RelationID id) throws MetadataExtractionException, SQLException {
         try (ResultSet rs = metadata.getColumns(
                 getRelationCatalog(id), // catalog is not escaped
                 escapeRelationIdComponentPattern(getRelationSchema(id)),
@@ -163,17 +191,7 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
 
                 RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(extractedId,
                         i -> DatabaseTableDefinition.attributeListBuilder());
-
-                QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                // columnNoNulls, columnNullable, columnNullableUnknown
-                boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
-                String typeName = rs.getString("TYPE_NAME");
-                int columnSize = rs.getInt("COLUMN_SIZE");
-                DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
-
-                String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
-                        () -> rs.getInt("DECIMAL_DIGITS"));
-                builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
+                addAttribute(rs, builder);
             }
 
             if (relations.entrySet().size() == 1) {
@@ -184,9 +202,47 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
                     ? new RelationNotFoundInMetadataException(id, getRelationIDs())
                     : new MetadataExtractionException("Cannot resolve ambiguous relation id: " + id + ": " + relations.keySet());
         }
-        catch (SQLException e) {
-            throw new MetadataExtractionException(e);
+    }
+
+    private Map<RelationID, RelationDefinition.AttributeListBuilder> getSchemaAttributes(String catalog, String schema) throws SQLException {
+        List<String> key = Arrays.asList(catalog, schema);
+        Map<RelationID, RelationDefinition.AttributeListBuilder> relations = schemaAttributes.get(key);
+        if (relations != null)
+            return relations;
+
+        relations = new HashMap<>();
+        try (ResultSet rs = metadata.getColumns(catalog, escapeRelationIdComponentPattern(schema), "%", null)) {
+            while (rs.next()) {
+                RelationDefinition.AttributeListBuilder builder = relations.computeIfAbsent(
+                        getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME"),
+                        i -> DatabaseTableDefinition.attributeListBuilder());
+                addAttribute(rs, builder);
+            }
         }
+        LOGGER.debug("Retrieved the columns of {} relations in schema {}", relations.size(), key);
+        schemaAttributes.put(key, relations);
+        return relations;
+    }
+
+    /**
+     * Bulk extraction requires the schema (or the catalog) of the relation: otherwise, the whole DB would be retrieved
+     */
+    private boolean isSchemaKnown(RelationID id) {
+        return getRelationSchema(id) != null || getRelationCatalog(id) != null;
+    }
+
+    private void addAttribute(ResultSet rs, RelationDefinition.AttributeListBuilder builder) throws SQLException {
+        DBTypeFactory dbTypeFactory = dbParameters.getDBTypeFactory();
+        QuotedID attributeId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+        // columnNoNulls, columnNullable, columnNullableUnknown
+        boolean isNullable = rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls;
+        String typeName = rs.getString("TYPE_NAME");
+        int columnSize = rs.getInt("COLUMN_SIZE");
+        DBTermType termType = dbTypeFactory.getDBTermType(typeName, columnSize);
+
+        String sqlTypeName = extractSQLTypeName(typeName, rs.getInt("DATA_TYPE"), columnSize,
+                () -> rs.getInt("DECIMAL_DIGITS"));
+        builder.addAttribute(attributeId, termType, sqlTypeName, isNullable);
     }
 
     protected String extractSQLTypeName(String typeName, int jdbcType, int columnSize,
@@ -211,9 +267,24 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
     }
 
 
+    /**
+     * In the bulk mode, the integrity constraints of all the relations of the schema retrieved so far
+     * are inserted together. Each kind of constraint is retrieved by a single catalog query
+     * if the dialect provides one (see {@link #getSchemaPrimaryKeysResultSet}, {@link #getSchemaIndexInfo}
+     * and {@link #getSchemaImportedKeys}), and relation by relation otherwise.
+     */
     @Override
     public void insertIntegrityConstraints(NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException {
         try {
+            if (relationsWithConstraints.contains(relation))
+                return;
+
+            RelationID id = getCanonicalRelationId(relation.getID());
+            if (relationsWithoutConstraints.remove(id, relation)) {
+                insertSchemaIntegrityConstraints(id, relation, metadataLookup);
+                return;
+            }
+
             insertPrimaryKey(relation);
             insertUniqueAttributes(relation);
             insertForeignKeys(relation, metadataLookup);
@@ -223,6 +294,116 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         }
     }
 
+    private void insertSchemaIntegrityConstraints(RelationID id, NamedRelationDefinition relation, MetadataLookup metadataLookup) throws MetadataExtractionException, SQLException {
+        String catalog = getRelationCatalog(id), schema = getRelationSchema(id);
+
+        Map<RelationID, NamedRelationDefinition> relations = new HashMap<>();
+        relations.put(id, relation);
+        Iterator<Map.Entry<RelationID, NamedRelationDefinition>> iterator = relationsWithoutConstraints.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<RelationID, NamedRelationDefinition> e = iterator.next();
+            if (Objects.equals(catalog, getRelationCatalog(e.getKey())) && Objects.equals(schema, getRelationSchema(e.getKey()))) {
+                relations.put(e.getKey(), e.getValue());
+                iterator.remove();
+            }
+        }
+        relationsWithConstraints.addAll(relations.values());
+        LOGGER.debug("Inserting the integrity constraints of {} relations in schema {}", relations.size(), Arrays.asList(catalog, schema));
+
+        Optional<ResultSet> primaryKeys = getSchemaPrimaryKeysResultSet(catalog, schema);
+        if (primaryKeys.isPresent()) {
+            try (ResultSet rs = primaryKeys.get()) {
+                extractConstraints(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME",
+                        getExtractors(relations, PrimaryKeyExtractor::new));
+            }
+        }
+        else {
+            for (NamedRelationDefinition r : relations.values())
+                insertPrimaryKey(r);
+        }
+
+        Optional<ResultSet> indexInfo = getSchemaIndexInfo(catalog, schema);
+        if (indexInfo.isPresent()) {
+            try (ResultSet rs = indexInfo.get()) {
+                extractConstraints(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME",
+                        getExtractors(relations, UniqueConstraintExtractor::new));
+            }
+        }
+        else {
+            for (NamedRelationDefinition r : relations.values())
+                insertUniqueAttributes(r);
+        }
+
+        Optional<ResultSet> importedKeys = getSchemaImportedKeys(catalog, schema);
+        if (importedKeys.isPresent()) {
+            try (ResultSet rs = importedKeys.get()) {
+                extractConstraints(rs, "FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME",
+                        getExtractors(relations, (i, r) -> new ForeignKeyExtractor(i, r, metadataLookup)));
+            }
+        }
+        else {
+            for (NamedRelationDefinition r : relations.values())
+                insertForeignKeys(r, metadataLookup);
+        }
+    }
+
+    private static Map<RelationID, ConstraintExtractor> getExtractors(Map<RelationID, NamedRelationDefinition> relations,
+                                                                      BiFunction<RelationID, NamedRelationDefinition, ConstraintExtractor> constructor) {
+        Map<RelationID, ConstraintExtractor> extractors = new HashMap<>();
+        relations.forEach((i, r) -> extractors.put(i, constructor.apply(i, r)));
+        return extractors;
+    }
+
+    /**
+     * The rows of the relations not in the map are ignored
+     */
+    private void extractConstraints(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn,
+                                    Map<RelationID, ConstraintExtractor> extractors) throws MetadataExtractionException, SQLException {
+        while (rs.next()) {
+            ConstraintExtractor extractor = extractors.get(getRelationID(rs, catalogNameColumn, schemaNameColumn, tableNameColumn));
+            if (extractor != null)
+                extractor.add(rs);
+        }
+        for (ConstraintExtractor extractor : extractors.values())
+            extractor.build();
+    }
+
+    private void extractConstraints(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn,
+                                    RelationID id, String method, ConstraintExtractor extractor) throws MetadataExtractionException, SQLException {
+        while (rs.next()) {
+            RelationID extractedId = getRelationID(rs, catalogNameColumn, schemaNameColumn, tableNameColumn);
+            checkSameRelationID(extractedId, id, method);
+            extractor.add(rs);
+        }
+        extractor.build();
+    }
+
+    /**
+     * For the catalog queries of the bulk extraction: the statement is closed together with the result set
+     */
+    protected ResultSet executeQuery(String sql, String... parameters) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql);
+        try {
+            for (int i = 0; i < parameters.length; i++)
+                stmt.setString(i + 1, parameters[i]);
+            stmt.closeOnCompletion();
+            return stmt.executeQuery();
+        }
+        catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Consumes the result set rows of a single relation (in the order of the key columns)
+     */
+    private interface ConstraintExtractor {
+        void add(ResultSet rs) throws MetadataExtractionException, SQLException;
+
+        void build() throws MetadataExtractionException;
+    }
+
     protected boolean isPrimaryKeyDisabled(RelationID id, String primaryKeyId) { return false; }
 
     /**
@@ -246,26 +427,49 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         return metadata.getPrimaryKeys(catalog, schema, name);
     }
 
+    /**
+     * Same columns as {@link #getPrimaryKeysResultSet}, for all the relations of the schema.
+     * Empty if the dialect has no such catalog query (the primary keys are then retrieved relation by relation).
+     */
+    protected Optional<ResultSet> getSchemaPrimaryKeysResultSet(String catalog, String schema) throws SQLException {
+        return Optional.empty();
+    }
+
     private void insertPrimaryKey(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
         RelationID id = getCanonicalRelationId(relation.getID());
         // Retrieves a description of the given table's primary key columns. They are ordered by COLUMN_NAME (sic!)
         try (ResultSet rs = getPrimaryKeysResultSet(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            Map<Integer, QuotedID> primaryKeyAttributes = new HashMap<>();
-            String currentPkName = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
-                checkSameRelationID(extractedId, id, "getPrimaryKeys");
+            extractConstraints(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", id, "getPrimaryKeys",
+                    new PrimaryKeyExtractor(id, relation));
+        }
+    }
 
-                String pkName = rs.getString("PK_NAME"); // may be null
-                if (currentPkName != null && pkName != null && !currentPkName.equals(pkName))
-                    throw new MetadataExtractionException("Two primary keys for the same table " + id + ": " + currentPkName + " and " + pkName);
-                currentPkName = pkName;
-                QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                int seq = rs.getShort("KEY_SEQ");
-                QuotedID previous = primaryKeyAttributes.put(seq, attrId);
-                if (previous != null)
-                    throw new MetadataExtractionException("Duplicate attribute " + previous + " in the primary key " + currentPkName + " for " + id);
-            }
+    private class PrimaryKeyExtractor implements ConstraintExtractor {
+        private final RelationID id;
+        private final NamedRelationDefinition relation;
+        private final Map<Integer, QuotedID> primaryKeyAttributes = new HashMap<>();
+        private String currentPkName = null;
+
+        PrimaryKeyExtractor(RelationID id, NamedRelationDefinition relation) {
+            this.id = id;
+            this.relation = relation;
+        }
+
+        @Override
+        public void add(ResultSet rs) throws MetadataExtractionException, SQLException {
+            String pkName = rs.getString("PK_NAME"); // may be null
+            if (currentPkName != null && pkName != null && !currentPkName.equals(pkName))
+                throw new MetadataExtractionException("Two primary keys for the same table " + id + ": " + currentPkName + " and " + pkName);
+            currentPkName = pkName;
+            QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+            int seq = rs.getShort("KEY_SEQ");
+            QuotedID previous = primaryKeyAttributes.put(seq, attrId);
+            if (previous != null)
+                throw new MetadataExtractionException("Duplicate attribute " + previous + " in the primary key " + currentPkName + " for " + id);
+        }
+
+        @Override
+        public void build() throws MetadataExtractionException {
             if (!primaryKeyAttributes.isEmpty()) {
                 if (currentPkName != null && isPrimaryKeyDisabled(id, currentPkName))
                     LOGGER.error("WARNING: primary key {} in table {} is disabled and will not be used in optimizations.", currentPkName, id);
@@ -307,62 +511,86 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         return metadata.getIndexInfo(catalog, schema, name, true, true);
     }
 
+    /**
+     * Same columns as {@link #getIndexInfo}, for all the relations of the schema,
+     * ordered by TABLE_NAME, INDEX_NAME and ORDINAL_POSITION.
+     * Empty if the dialect has no such catalog query (the unique constraints are then retrieved relation by relation).
+     */
+    protected Optional<ResultSet> getSchemaIndexInfo(String catalog, String schema) throws SQLException {
+        return Optional.empty();
+    }
+
     private void insertUniqueAttributes(NamedRelationDefinition relation) throws MetadataExtractionException, SQLException {
         RelationID id = getCanonicalRelationId(relation.getID());
         // extracting unique
         try (ResultSet rs = getIndexInfo(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            UniqueConstraint.Builder builder = null;
-            List<String> columnsNotFound = new ArrayList<>();
-            String constraintId = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "TABLE_CAT", "TABLE_SCHEM","TABLE_NAME");
-                checkSameRelationID(extractedId, id, "getIndexInfo");
-
-                // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
-                //       tableIndexClustered - this is a clustered index
-                //       tableIndexHashed - this is a hashed index
-                //       tableIndexOther (all are static final int in DatabaseMetaData)
-                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
-                    createUniqueConstraint(id, builder, constraintId, columnsNotFound);
-                    builder = null;
-                    continue;
-                }
-                if (rs.getShort("ORDINAL_POSITION") == 1) {
-                    createUniqueConstraint(id, builder, constraintId, columnsNotFound);
+            extractConstraints(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", id, "getIndexInfo",
+                    new UniqueConstraintExtractor(id, relation));
+        }
+    }
 
-                    if (!rs.getBoolean("NON_UNIQUE")) {
-                        constraintId = rs.getString("INDEX_NAME");
-                        builder = UniqueConstraint.builder(relation, constraintId);
-                        columnsNotFound.clear();
-                    }
-                    else
-                        builder = null;
+    private class UniqueConstraintExtractor implements ConstraintExtractor {
+        private final RelationID id;
+        private final NamedRelationDefinition relation;
+        private final List<String> columnsNotFound = new ArrayList<>();
+        private UniqueConstraint.Builder builder = null;
+        private String constraintId = null;
+
+        UniqueConstraintExtractor(RelationID id, NamedRelationDefinition relation) {
+            this.id = id;
+            this.relation = relation;
+        }
+
+        @Override
+        public void add(ResultSet rs) throws SQLException {
+            // TYPE: tableIndexStatistic - this identifies table statistics that are returned in conjunction with a table's index descriptions
+            //       tableIndexClustered - this is a clustered index
+            //       tableIndexHashed - this is a hashed index
+            //       tableIndexOther (all are static final int in DatabaseMetaData)
+            if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                createUniqueConstraint(id, builder, constraintId, columnsNotFound);
+                builder = null;
+                return;
+            }
+            if (rs.getShort("ORDINAL_POSITION") == 1) {
+                createUniqueConstraint(id, builder, constraintId, columnsNotFound);
+
+                if (!rs.getBoolean("NON_UNIQUE")) {
+                    constraintId = rs.getString("INDEX_NAME");
+                    builder = UniqueConstraint.builder(relation, constraintId);
+                    columnsNotFound.clear();
                 }
+                else
+                    builder = null;
+            }
 
-                if (builder != null) {
-                    QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
-                    // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
-                    //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
-                    // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
-                    //                      otherwise, it is the number of unique values in the index.
-                    // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
-                    //                    otherwise it is the number of pages used for the current index.
-                    // FILTER_CONDITION String => Filter condition, if any. (may be null)
+            if (builder != null) {
+                QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME"));
+                // ASC_OR_DESC String => column sort sequence, "A" => ascending, "D" => descending,
+                //        may be null if sort sequence is not supported; null when TYPE is tableIndexStatistic
+                // CARDINALITY int => When TYPE is tableIndexStatistic, then this is the number of rows in the table;
+                //                      otherwise, it is the number of unique values in the index.
+                // PAGES int => When TYPE is tableIndexStatisic then this is the number of pages used for the table,
+                //                    otherwise it is the number of pages used for the current index.
+                // FILTER_CONDITION String => Filter condition, if any. (may be null)
+                try {
+                    builder.addDeterminant(attrId);
+                }
+                catch (AttributeNotFoundException e) {
                     try {
+                        // bug in PostgreSQL JBDC driver: it strips off the quotation marks
+                        attrId = rawIdFactory.createAttributeID("\"" + rs.getString("COLUMN_NAME") + "\"");
                         builder.addDeterminant(attrId);
                     }
-                    catch (AttributeNotFoundException e) {
-                        try {
-                            // bug in PostgreSQL JBDC driver: it strips off the quotation marks
-                            attrId = rawIdFactory.createAttributeID("\"" + rs.getString("COLUMN_NAME") + "\"");
-                            builder.addDeterminant(attrId);
-                        }
-                        catch (AttributeNotFoundException ex) {
-                            columnsNotFound.add(rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME")).getName());
-                        }
+                    catch (AttributeNotFoundException ex) {
+                        columnsNotFound.add(rawIdFactory.createAttributeID(rs.getString("COLUMN_NAME")).getName());
                     }
                 }
             }
+        }
+
+        @Override
+        public void build() {
             createUniqueConstraint(id, builder, constraintId, columnsNotFound);
         }
     }
@@ -404,43 +632,70 @@ public abstract class AbstractDBMetadataProvider implements DBMetadataProvider {
         return metadata.getImportedKeys(catalog, schema, name);
     }
 
+    /**
+     * Same columns as {@link #getImportedKeys}, for all the relations of the schema,
+     * ordered by FKTABLE_NAME, FK_NAME and KEY_SEQ.
+     * Empty if the dialect has no such catalog query (the foreign keys are then retrieved relation by relation).
+     */
+    protected Optional<ResultSet> getSchemaImportedKeys(String catalog, String schema) throws SQLException {
+        return Optional.empty();
+    }
+
     private void insertForeignKeys(NamedRelationDefinition relation, MetadataLookup dbMetadata) throws MetadataExtractionException, SQLException {
         RelationID id = getCanonicalRelationId(relation.getID());
         try (ResultSet rs = getImportedKeys(getRelationCatalog(id), getRelationSchema(id), getRelationName(id))) {
-            ForeignKeyConstraint.Builder builder = null;
-            String constraintId = null;
-            while (rs.next()) {
-                RelationID extractedId = getRelationID(rs, "FKTABLE_CAT", "FKTABLE_SCHEM","FKTABLE_NAME");
-                checkSameRelationID(extractedId, id, "getImportedKeys");
-                RelationID pkId = getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME");
+            extractConstraints(rs, "FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME", id, "getImportedKeys",
+                    new ForeignKeyExtractor(id, relation, dbMetadata));
+        }
+    }
 
-                try {
-                    int seq = rs.getShort("KEY_SEQ");
-                    if (seq == 1) {
-                        createForeignKeyConstraint(id, builder, constraintId);
+    private class ForeignKeyExtractor implements ConstraintExtractor {
+        private final RelationID id;
+        private final NamedRelationDefinition relation;
+        private final MetadataLookup dbMetadata;
+        private ForeignKeyConstraint.Builder builder = null;
+        private String constraintId = null;
+
+        ForeignKeyExtractor(RelationID id, NamedRelationDefinition relation, MetadataLookup dbMetadata) {
+            this.id = id;
+            this.relation = relation;
+            this.dbMetadata = dbMetadata;
+        }
 
-                        constraintId = rs.getString("FK_NAME"); // String => foreign key name (may be null)
+        @Override
+        public void add(ResultSet rs) throws SQLException {
+            RelationID pkId = getRelationID(rs, "PKTABLE_CAT", "PKTABLE_SCHEM","PKTABLE_NAME");
 
-                        NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
+            try {
+                int seq = rs.getShort("KEY_SEQ");
+                if (seq == 1) {
+                    createForeignKeyConstraint(id, builder, constraintId);
+
+                    constraintId = rs.getString("FK_NAME"); // String => foreign key name (may be null)
 
-                        builder = ForeignKeyConstraint.builder(constraintId, relation, ref);
+                    NamedRelationDefinition ref = dbMetadata.getRelation(pkId);
+
+                    builder = ForeignKeyConstraint.builder(constraintId, relation, ref);
+                }
+                if (builder != null) {
+                    try {
+                        QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("FKCOLUMN_NAME"));
+                        QuotedID refAttrId = rawIdFactory.createAttributeID(rs.getString("PKCOLUMN_NAME"));
+                        builder.add(attrId, refAttrId);
                     }
-                    if (builder != null) {
-                        try {
-                            QuotedID attrId = rawIdFactory.createAttributeID(rs.getString("FKCOLUMN_NAME"));
-                            QuotedID refAttrId = rawIdFactory.createAttributeID(rs.getString("PKCOLUMN_NAME"));
-                            builder.add(attrId, refAttrId);
-                        }
-                        catch (AttributeNotFoundException e) {
-                            throw new MetadataExtractionException(e);
-                        }
+                    catch (AttributeNotFoundException e) {
+                        throw new MetadataExtractionException(e);
                     }
                 }
-                catch (MetadataExtractionException e) {
-                    LOGGER.warn("Cannot find table {} for foreign key {}", pkId, constraintId);
-                    builder = null; // do not add this foreign key because there is no table it refers to
-                }
             }
+            catch (MetadataExtractionException e) {
+                LOGGER.warn("Cannot find table {} for foreign key {}", pkId, constraintId);
+                builder = null; // do not add this foreign key because there is no table it refers to
+            }
+        }
+
+        @Override
+        public void build() {
             createForeignKeyConstraint(id, builder, constraintId);
         }
     }
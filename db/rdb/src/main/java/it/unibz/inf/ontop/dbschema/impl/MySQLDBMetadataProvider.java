@@ -7,8 +7,10 @@ import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 public class MySQLDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
@@ -38,4 +40,37 @@ public class MySQLDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
     protected RelationID getRelationID(ResultSet rs, String catalogNameColumn, String schemaNameColumn, String tableNameColumn) throws SQLException {
         return rawIdFactory.createRelationID(rs.getString(catalogNameColumn), rs.getString(tableNameColumn));
     }
+
+    // https://dev.mysql.com/doc/refman/8.0/en/information-schema-key-column-usage-table.html
+    // the MySQL database is the JDBC catalog
+
+    @Override
+    protected Optional<ResultSet> getSchemaPrimaryKeysResultSet(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME AS TABLE_NAME, " +
+                "COLUMN_NAME AS COLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ, CONSTRAINT_NAME AS PK_NAME " +
+                "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE " +
+                "WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY' " +
+                "ORDER BY TABLE_NAME, ORDINAL_POSITION", catalog));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaIndexInfo(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME AS TABLE_NAME, " +
+                "NON_UNIQUE AS NON_UNIQUE, INDEX_NAME AS INDEX_NAME, " + DatabaseMetaData.tableIndexOther + " AS TYPE, " +
+                "SEQ_IN_INDEX AS ORDINAL_POSITION, COLUMN_NAME AS COLUMN_NAME " +
+                "FROM INFORMATION_SCHEMA.STATISTICS " +
+                "WHERE TABLE_SCHEMA = ? AND NON_UNIQUE = 0 " +
+                "ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX", catalog));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaImportedKeys(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, NULL AS PKTABLE_SCHEM, " +
+                "REFERENCED_TABLE_NAME AS PKTABLE_NAME, REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, " +
+                "TABLE_SCHEMA AS FKTABLE_CAT, NULL AS FKTABLE_SCHEM, TABLE_NAME AS FKTABLE_NAME, " +
+                "COLUMN_NAME AS FKCOLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ, CONSTRAINT_NAME AS FK_NAME " +
+                "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE " +
+                "WHERE TABLE_SCHEMA = ? AND REFERENCED_TABLE_NAME IS NOT NULL " +
+                "ORDER BY TABLE_NAME, CONSTRAINT_NAME, ORDINAL_POSITION", catalog));
+    }
 }
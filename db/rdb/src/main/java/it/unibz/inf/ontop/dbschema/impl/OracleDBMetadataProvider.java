@@ -10,6 +10,9 @@ import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
 import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import static it.unibz.inf.ontop.dbschema.RelationID.TABLE_INDEX;
 
@@ -17,6 +20,11 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
     private final RelationID sysDualId;
 
+    // bulk extraction: owner -> (table name, constraint name) of the disabled constraints
+    private final Map<String, ImmutableSet<ImmutableList<String>>> disabledConstraints = new HashMap<>();
+    // bulk extraction: owner -> (table name, index name) of the unusable indexes
+    private final Map<String, ImmutableSet<ImmutableList<String>>> unusableIndexes = new HashMap<>();
+
     @AssistedInject
     protected OracleDBMetadataProvider(@Assisted Connection connection, CoreSingletons coreSingletons) throws MetadataExtractionException {
         super(connection, metadata -> new SQLStandardQuotedIDFactory(), coreSingletons);
@@ -178,6 +186,11 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
 
     private boolean isConstraintDisabled(RelationID id, String constraintId) {
+        if (getSettings().isBulkMetadataExtractionEnabled())
+            return getSchemaObjects(disabledConstraints, getRelationSchema(id),
+                    "SELECT table_name, constraint_name FROM all_constraints WHERE owner = :1 AND status = 'DISABLED'")
+                    .contains(ImmutableList.of(getRelationName(id), constraintId));
+
         /*
             OWNER	VARCHAR2(30)	NOT NULL	Owner of the constraint definition
             CONSTRAINT_NAME	VARCHAR2(30)	NOT NULL	Name of the constraint definition
@@ -214,6 +227,11 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
     }
 
     private boolean isUniqueIndexDisabled(RelationID id, String indexId) {
+        if (getSettings().isBulkMetadataExtractionEnabled())
+            return getSchemaObjects(unusableIndexes, getRelationSchema(id),
+                    "SELECT table_name, index_name FROM all_indexes WHERE owner = :1 AND status <> 'VALID'")
+                    .contains(ImmutableList.of(getRelationName(id), indexId));
+
         /*
             OWNER VARCHAR2(128) NOT NULL Owner of the index
             INDEX_NAME VARCHAR2(128) NOT NULL Name of the index
@@ -242,5 +260,59 @@ public class OracleDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
             throw new MinorOntopInternalBugException("Error retrieving unique index " + indexId + " in " + id + " info: " + e.getMessage());
         }
     }
-}
 
+    private ImmutableSet<ImmutableList<String>> getSchemaObjects(Map<String, ImmutableSet<ImmutableList<String>>> cache,
+                                                                 String owner, String sql) {
+        return cache.computeIfAbsent(owner, o -> {
+            try (ResultSet rs = executeQuery(sql, o)) {
+                ImmutableSet.Builder<ImmutableList<String>> builder = ImmutableSet.builder();
+                while (rs.next())
+                    builder.add(ImmutableList.of(rs.getString(1), rs.getString(2)));
+                return builder.build();
+            }
+            catch (SQLException e) {
+                throw new MinorOntopInternalBugException("Error retrieving the status of the constraints in " + o + ": " + e.getMessage());
+            }
+        });
+    }
+
+    // https://docs.oracle.com/en/database/oracle/oracle-database/19/refrn/ALL_CONSTRAINTS.html
+
+    @Override
+    protected Optional<ResultSet> getSchemaPrimaryKeysResultSet(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS TABLE_CAT, c.owner AS TABLE_SCHEM, c.table_name AS TABLE_NAME, " +
+                "cc.column_name AS COLUMN_NAME, cc.position AS KEY_SEQ, c.constraint_name AS PK_NAME " +
+                "FROM all_constraints c " +
+                "JOIN all_cons_columns cc ON cc.owner = c.owner AND cc.constraint_name = c.constraint_name " +
+                "AND cc.table_name = c.table_name " +
+                "WHERE c.constraint_type = 'P' AND c.owner = :1 " +
+                "ORDER BY c.table_name, cc.position", schema));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaIndexInfo(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS TABLE_CAT, i.table_owner AS TABLE_SCHEM, i.table_name AS TABLE_NAME, " +
+                "0 AS NON_UNIQUE, i.index_name AS INDEX_NAME, " + DatabaseMetaData.tableIndexOther + " AS TYPE, " +
+                "ic.column_position AS ORDINAL_POSITION, ic.column_name AS COLUMN_NAME " +
+                "FROM all_indexes i " +
+                "JOIN all_ind_columns ic ON ic.index_owner = i.owner AND ic.index_name = i.index_name " +
+                "WHERE i.uniqueness = 'UNIQUE' AND i.table_owner = :1 " +
+                "ORDER BY i.table_name, i.index_name, ic.column_position", schema));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaImportedKeys(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS PKTABLE_CAT, p.owner AS PKTABLE_SCHEM, p.table_name AS PKTABLE_NAME, " +
+                "pc.column_name AS PKCOLUMN_NAME, " +
+                "NULL AS FKTABLE_CAT, f.owner AS FKTABLE_SCHEM, f.table_name AS FKTABLE_NAME, " +
+                "fc.column_name AS FKCOLUMN_NAME, fc.position AS KEY_SEQ, f.constraint_name AS FK_NAME " +
+                "FROM all_constraints f " +
+                "JOIN all_cons_columns fc ON fc.owner = f.owner AND fc.constraint_name = f.constraint_name " +
+                "AND fc.table_name = f.table_name " +
+                "JOIN all_constraints p ON p.owner = f.r_owner AND p.constraint_name = f.r_constraint_name " +
+                "JOIN all_cons_columns pc ON pc.owner = p.owner AND pc.constraint_name = p.constraint_name " +
+                "AND pc.table_name = p.table_name AND pc.position = fc.position " +
+                "WHERE f.constraint_type = 'R' AND f.owner = :1 " +
+                "ORDER BY f.table_name, f.constraint_name, fc.position", schema));
+    }
+}
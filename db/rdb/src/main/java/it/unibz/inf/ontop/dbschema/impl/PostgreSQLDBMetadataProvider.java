@@ -8,8 +8,10 @@ import it.unibz.inf.ontop.exception.MetadataExtractionException;
 import it.unibz.inf.ontop.injection.CoreSingletons;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Optional;
 
 public class PostgreSQLDBMetadataProvider extends DefaultSchemaDBMetadataProvider {
 
@@ -39,4 +41,56 @@ public class PostgreSQLDBMetadataProvider extends DefaultSchemaDBMetadataProvide
     protected boolean isRelationExcluded(RelationID id) {
         return IGNORED_SCHEMAS.contains(getRelationSchema(id));
     }
+
+    // https://www.postgresql.org/docs/current/catalog-pg-constraint.html
+
+    @Override
+    protected Optional<ResultSet> getSchemaPrimaryKeysResultSet(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, t.relname AS TABLE_NAME, " +
+                "a.attname AS COLUMN_NAME, k.ord AS KEY_SEQ, c.conname AS PK_NAME " +
+                "FROM pg_catalog.pg_constraint c " +
+                "JOIN pg_catalog.pg_class t ON t.oid = c.conrelid " +
+                "JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace " +
+                "CROSS JOIN LATERAL unnest(c.conkey) WITH ORDINALITY AS k(attnum, ord) " +
+                "JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum " +
+                "WHERE c.contype = 'p' AND n.nspname = ? " +
+                "ORDER BY t.relname, k.ord", schema));
+    }
+
+    /**
+     * As the JDBC driver, returns the index expression as the column name when the index is on an expression
+     */
+    @Override
+    protected Optional<ResultSet> getSchemaIndexInfo(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, t.relname AS TABLE_NAME, " +
+                "FALSE AS NON_UNIQUE, ci.relname AS INDEX_NAME, " + DatabaseMetaData.tableIndexOther + " AS TYPE, " +
+                "k.ord AS ORDINAL_POSITION, " +
+                "COALESCE(a.attname, pg_catalog.pg_get_indexdef(i.indexrelid, k.ord::int, false)) AS COLUMN_NAME " +
+                "FROM pg_catalog.pg_index i " +
+                "JOIN pg_catalog.pg_class t ON t.oid = i.indrelid " +
+                "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+                "JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace " +
+                "CROSS JOIN LATERAL unnest(i.indkey::smallint[]) WITH ORDINALITY AS k(attnum, ord) " +
+                "LEFT JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum " +
+                "WHERE i.indisunique AND n.nspname = ? " +
+                "ORDER BY t.relname, ci.relname, k.ord", schema));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaImportedKeys(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery("SELECT NULL AS PKTABLE_CAT, pn.nspname AS PKTABLE_SCHEM, pt.relname AS PKTABLE_NAME, " +
+                "pa.attname AS PKCOLUMN_NAME, " +
+                "NULL AS FKTABLE_CAT, fn.nspname AS FKTABLE_SCHEM, ft.relname AS FKTABLE_NAME, " +
+                "fa.attname AS FKCOLUMN_NAME, k.ord AS KEY_SEQ, c.conname AS FK_NAME " +
+                "FROM pg_catalog.pg_constraint c " +
+                "JOIN pg_catalog.pg_class ft ON ft.oid = c.conrelid " +
+                "JOIN pg_catalog.pg_namespace fn ON fn.oid = ft.relnamespace " +
+                "JOIN pg_catalog.pg_class pt ON pt.oid = c.confrelid " +
+                "JOIN pg_catalog.pg_namespace pn ON pn.oid = pt.relnamespace " +
+                "CROSS JOIN LATERAL unnest(c.conkey, c.confkey) WITH ORDINALITY AS k(fkattnum, pkattnum, ord) " +
+                "JOIN pg_catalog.pg_attribute fa ON fa.attrelid = c.conrelid AND fa.attnum = k.fkattnum " +
+                "JOIN pg_catalog.pg_attribute pa ON pa.attrelid = c.confrelid AND pa.attnum = k.pkattnum " +
+                "WHERE c.contype = 'f' AND fn.nspname = ? " +
+                "ORDER BY ft.relname, c.conname, k.ord", schema));
+    }
 }
@@ -11,6 +11,7 @@ import it.unibz.inf.ontop.injection.CoreSingletons;
 
 import javax.annotation.Nullable;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Optional;
@@ -107,6 +108,59 @@ public class SQLServerDBMetadataProvider extends AbstractDBMetadataProvider {
         return rawIdFactory.createRelationID(rs.getString(catalogNameColumn), rs.getString(schemaNameColumn), rs.getString(tableNameColumn));
     }
 
+    // https://learn.microsoft.com/en-us/sql/relational-databases/system-catalog-views/object-catalog-views-transact-sql
+    // the catalog views are qualified by the database (catalog)
+
+    private static String quoteCatalog(String catalog) {
+        return "[" + catalog.replace("]", "]]") + "]";
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaPrimaryKeysResultSet(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery(String.format("SELECT ? AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, " +
+                "c.name AS COLUMN_NAME, ic.key_ordinal AS KEY_SEQ, i.name AS PK_NAME " +
+                "FROM %1$s.sys.indexes i " +
+                "JOIN %1$s.sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+                "JOIN %1$s.sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+                "JOIN %1$s.sys.tables t ON t.object_id = i.object_id " +
+                "JOIN %1$s.sys.schemas s ON s.schema_id = t.schema_id " +
+                "WHERE i.is_primary_key = 1 AND s.name = ? " +
+                "ORDER BY t.name, ic.key_ordinal", quoteCatalog(catalog)), catalog, schema));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaIndexInfo(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery(String.format("SELECT ? AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, " +
+                "0 AS NON_UNIQUE, i.name AS INDEX_NAME, " + DatabaseMetaData.tableIndexOther + " AS TYPE, " +
+                "ic.key_ordinal AS ORDINAL_POSITION, c.name AS COLUMN_NAME " +
+                "FROM %1$s.sys.indexes i " +
+                "JOIN %1$s.sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id " +
+                "JOIN %1$s.sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id " +
+                "JOIN %1$s.sys.tables t ON t.object_id = i.object_id " +
+                "JOIN %1$s.sys.schemas s ON s.schema_id = t.schema_id " +
+                // included columns have no key ordinal
+                "WHERE i.is_unique = 1 AND ic.key_ordinal > 0 AND s.name = ? " +
+                "ORDER BY t.name, i.name, ic.key_ordinal", quoteCatalog(catalog)), catalog, schema));
+    }
+
+    @Override
+    protected Optional<ResultSet> getSchemaImportedKeys(String catalog, String schema) throws SQLException {
+        return Optional.of(executeQuery(String.format("SELECT ? AS PKTABLE_CAT, ps.name AS PKTABLE_SCHEM, pt.name AS PKTABLE_NAME, " +
+                "pc.name AS PKCOLUMN_NAME, " +
+                "? AS FKTABLE_CAT, fs.name AS FKTABLE_SCHEM, ft.name AS FKTABLE_NAME, fc.name AS FKCOLUMN_NAME, " +
+                "fkc.constraint_column_id AS KEY_SEQ, fk.name AS FK_NAME " +
+                "FROM %1$s.sys.foreign_keys fk " +
+                "JOIN %1$s.sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id " +
+                "JOIN %1$s.sys.tables ft ON ft.object_id = fk.parent_object_id " +
+                "JOIN %1$s.sys.schemas fs ON fs.schema_id = ft.schema_id " +
+                "JOIN %1$s.sys.columns fc ON fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id " +
+                "JOIN %1$s.sys.tables pt ON pt.object_id = fk.referenced_object_id " +
+                "JOIN %1$s.sys.schemas ps ON ps.schema_id = pt.schema_id " +
+                "JOIN %1$s.sys.columns pc ON pc.object_id = fkc.referenced_object_id AND pc.column_id = fkc.referenced_column_id " +
+                "WHERE fs.name = ? " +
+                "ORDER BY ft.name, fk.name, fkc.constraint_column_id", quoteCatalog(catalog)), catalog, catalog, schema));
+    }
+
     /*
                 "SELECT DB_NAME() AS TABLE_CAT, SCHEMA_NAME() AS TABLE_SCHEM");
         https://msdn.microsoft.com/en-us/library/ms175068.aspx
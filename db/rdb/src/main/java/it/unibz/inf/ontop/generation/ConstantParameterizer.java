@@ -0,0 +1,180 @@
+package it.unibz.inf.ontop.generation;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.FilterNode;
+import it.unibz.inf.ontop.iq.node.InnerJoinNode;
+import it.unibz.inf.ontop.iq.node.LeftJoinNode;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBAndFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBNotFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBOrFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.DBStrictEqFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.AbstractTypedDBFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces the constants compared by strict equality in the filtering conditions (filter, join and left join)
+ * by parameter placeholders.
+ *
+ * The placeholders are first serialized as markers that are unique to the query, and then replaced by "?"
+ * in their order of appearance in the query string. The order of the parameters therefore does not depend
+ * on how the SQL dialect arranges the conditions.
+ *
+ * Only string and integer constants are parameterized: binding them does not depend on the DB.
+ *
+ * Mutable: one instance per native query to generate
+ */
+class ConstantParameterizer {
+
+    private final IntermediateQueryFactory iqFactory;
+    private final TermFactory termFactory;
+
+    private final String markerPrefix = "/*" + UUID.randomUUID() + ":";
+    private final List<DBConstant> constants = new ArrayList<>();
+
+    ConstantParameterizer(IntermediateQueryFactory iqFactory, TermFactory termFactory) {
+        this.iqFactory = iqFactory;
+        this.termFactory = termFactory;
+    }
+
+    IQTree parameterize(IQTree tree) {
+        return tree.acceptTransformer(new Transformer());
+    }
+
+    /**
+     * Replaces the markers of the serialized query by "?", and returns the parameters
+     */
+    ParameterizedQuery resolve(String serializedQuery) {
+        Matcher matcher = Pattern.compile(Pattern.quote(markerPrefix) + "(\\d+)\\*/").matcher(serializedQuery);
+        ImmutableList.Builder<DBConstant> parameters = ImmutableList.builder();
+        StringBuilder sb = new StringBuilder();
+        while (matcher.find()) {
+            parameters.add(constants.get(Integer.parseInt(matcher.group(1))));
+            matcher.appendReplacement(sb, "?");
+        }
+        matcher.appendTail(sb);
+        return new ParameterizedQuery(sb.toString(), parameters.build());
+    }
+
+    private ImmutableExpression parameterizeExpression(ImmutableExpression expression) {
+        if (expression.getFunctionSymbol() instanceof DBStrictEqFunctionSymbol) {
+            if (expression.getTerms().stream().allMatch(t -> t instanceof Constant))
+                return expression;
+
+            return termFactory.getImmutableExpression(expression.getFunctionSymbol(), expression.getTerms().stream()
+                    .map(t -> isParameterizable(t) ? createPlaceholder((DBConstant) t) : t)
+                    .collect(ImmutableCollectors.toList()));
+        }
+        if (expression.getFunctionSymbol() instanceof DBAndFunctionSymbol
+                || expression.getFunctionSymbol() instanceof DBOrFunctionSymbol
+                || expression.getFunctionSymbol() instanceof DBNotFunctionSymbol) {
+            return termFactory.getImmutableExpression(expression.getFunctionSymbol(), expression.getTerms().stream()
+                    .map(t -> (t instanceof ImmutableExpression) ? parameterizeExpression((ImmutableExpression) t) : t)
+                    .collect(ImmutableCollectors.toList()));
+        }
+        return expression;
+    }
+
+    private static boolean isParameterizable(ImmutableTerm term) {
+        if (!(term instanceof DBConstant))
+            return false;
+        DBTermType.Category category = ((DBConstant) term).getType().getCategory();
+        return category == DBTermType.Category.STRING || category == DBTermType.Category.INTEGER;
+    }
+
+    private ImmutableFunctionalTerm createPlaceholder(DBConstant constant) {
+        String marker = markerPrefix + constants.size() + "*/";
+        constants.add(constant);
+        return termFactory.getImmutableFunctionalTerm(
+                new ParameterPlaceholderFunctionSymbol(marker, constant.getType()), ImmutableList.of());
+    }
+
+
+    private class Transformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+        Transformer() {
+            super(ConstantParameterizer.this.iqFactory);
+        }
+
+        @Override
+        public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+            return transformUnaryNode(tree,
+                    rootNode.changeFilterCondition(parameterizeExpression(rootNode.getFilterCondition())), child);
+        }
+
+        @Override
+        public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+            return transformNaryCommutativeNode(tree,
+                    rootNode.changeOptionalFilterCondition(rootNode.getOptionalFilterCondition()
+                            .map(ConstantParameterizer.this::parameterizeExpression)),
+                    children);
+        }
+
+        @Override
+        public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+            return transformBinaryNonCommutativeNode(tree,
+                    rootNode.changeOptionalFilterCondition(rootNode.getOptionalFilterCondition()
+                            .map(ConstantParameterizer.this::parameterizeExpression)),
+                    leftChild, rightChild);
+        }
+    }
+
+    /**
+     * Serialized as its marker. Only exists between the parameterization and the serialization.
+     */
+    private static class ParameterPlaceholderFunctionSymbol extends AbstractTypedDBFunctionSymbol {
+
+        private final String marker;
+
+        ParameterPlaceholderFunctionSymbol(String marker, DBTermType targetType) {
+            super("PARAMETER" + marker, ImmutableList.of(), targetType);
+            this.marker = marker;
+        }
+
+        @Override
+        public String getNativeDBString(ImmutableList<? extends ImmutableTerm> terms,
+                                        Function<ImmutableTerm, String> termConverter, TermFactory termFactory) {
+            return marker;
+        }
+
+        @Override
+        protected boolean isAlwaysInjectiveInTheAbsenceOfNonInjectiveFunctionalTerms() {
+            return false;
+        }
+
+        @Override
+        public boolean canBePostProcessed(ImmutableList<? extends ImmutableTerm> arguments) {
+            return false;
+        }
+    }
+
+
+    static class ParameterizedQuery {
+        private final String string;
+        private final ImmutableList<DBConstant> parameters;
+
+        private ParameterizedQuery(String string, ImmutableList<DBConstant> parameters) {
+            this.string = string;
+            this.parameters = parameters;
+        }
+
+        String getString() {
+            return string;
+        }
+
+        ImmutableList<DBConstant> getParameters() {
+            return parameters;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.node.NativeNode;
 import it.unibz.inf.ontop.iq.type.SingleTermTypeExtractor;
+import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.model.type.TypeFactory;
@@ -28,6 +29,7 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
     private final IQTree2SelectFromWhereConverter converter;
     private final IntermediateQueryFactory iqFactory;
     private final SingleTermTypeExtractor uniqueTermTypeExtractor;
+    private final TermFactory termFactory;
     private final DBTermType abstractRootDBType;
 
     @Inject
@@ -35,11 +37,13 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
                                                  IQTree2SelectFromWhereConverter converter,
                                                  IntermediateQueryFactory iqFactory,
                                                  SingleTermTypeExtractor uniqueTermTypeExtractor,
+                                                 TermFactory termFactory,
                                                  TypeFactory typeFactory) {
         this.serializer = serializer;
         this.converter = converter;
         this.iqFactory = iqFactory;
         this.uniqueTermTypeExtractor = uniqueTermTypeExtractor;
+        this.termFactory = termFactory;
         abstractRootDBType = typeFactory.getDBTypeFactory().getAbstractRootDBType();
     }
 
@@ -53,15 +57,43 @@ public class DefaultSQLIQTree2NativeNodeGenerator implements IQTree2NativeNodeGe
 
         ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
 
-        ImmutableMap<Variable, QuotedID> columnNames = serializedQuery.getColumnIDs().entrySet().stream()
-                .collect(ImmutableCollectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().getAttribute()));
+        ImmutableMap<Variable, QuotedID> columnNames = extractColumnNames(serializedQuery);
 
         return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
                 serializedQuery.getString(), iqTree.getVariableNullability());
     }
 
+    /**
+     * The constants compared by strict equality in the filtering conditions are parameterized
+     * (see {@link ConstantParameterizer}).
+     */
+    @Override
+    public NativeNode generateWithParameters(IQTree iqTree, DBParameters dbParameters, boolean tolerateUnknownTypes) {
+        ImmutableSortedSet<Variable> signature = ImmutableSortedSet.copyOf(iqTree.getVariables());
+
+        ConstantParameterizer parameterizer = new ConstantParameterizer(iqFactory, termFactory);
+        IQTree parameterizedTree = parameterizer.parameterize(iqTree);
+
+        SelectFromWhereWithModifiers selectFromWhere = converter.convert(parameterizedTree, signature);
+        SelectFromWhereSerializer.QuerySerialization serializedQuery = serializer.serialize(selectFromWhere, dbParameters);
+        ConstantParameterizer.ParameterizedQuery parameterizedQuery = parameterizer.resolve(serializedQuery.getString());
+
+        // From the initial tree (the placeholders only exist for the serialization)
+        ImmutableMap<Variable, DBTermType> variableTypeMap = extractVariableTypeMap(iqTree, tolerateUnknownTypes);
+
+        ImmutableMap<Variable, QuotedID> columnNames = extractColumnNames(serializedQuery);
+
+        return iqFactory.createNativeNode(signature, variableTypeMap, columnNames,
+                parameterizedQuery.getString(), parameterizedQuery.getParameters(), iqTree.getVariableNullability());
+    }
+
+    private ImmutableMap<Variable, QuotedID> extractColumnNames(SelectFromWhereSerializer.QuerySerialization serializedQuery) {
+        return serializedQuery.getColumnIDs().entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> e.getValue().getAttribute()));
+    }
+
     private ImmutableMap<Variable, DBTermType> extractVariableTypeMap(IQTree tree, boolean tolerateUnknownTypes) {
         return tree.getVariables().stream()
                 .collect(ImmutableCollectors.toMap(
@@ -172,6 +172,8 @@ public class IQTree2SelectFromWhereConverterImpl implements IQTree2SelectFromWhe
         QueryNode rootNode = tree.getRootNode();
         if (rootNode instanceof NativeNode) {
             NativeNode nativeNode = (NativeNode) rootNode;
+            if (!nativeNode.getParameters().isEmpty())
+                throw new MinorOntopInternalBugException("A parameterized native query cannot be nested\n" + nativeNode);
             String sqlQuery = nativeNode.getNativeQueryString();
             return sqlAlgebraFactory.createSQLSerializedQuery(sqlQuery, nativeNode.getColumnNames());
         }
@@ -4,12 +4,12 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.hash.Hashing;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.logging.impl.ClassAndPropertyExtractor.ClassesAndProperties;
-import it.unibz.inf.ontop.answering.logging.impl.QueryTemplateExtractor.QueryTemplateExtraction;
+import it.unibz.inf.ontop.answering.reformulation.impl.QueryTemplateExtractor;
+import it.unibz.inf.ontop.answering.reformulation.impl.QueryTemplateExtractor.QueryTemplateExtraction;
 import it.unibz.inf.ontop.evaluator.impl.QueryContextImpl;
 import it.unibz.inf.ontop.exception.OntopReformulationException;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
@@ -25,7 +25,6 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -253,12 +252,7 @@ public class QueryLoggerImpl implements QueryLogger {
             return;
         js.writeObjectFieldStart(QUERY_TEMPLATE_KEY);
 
-        // TODO: update Guava
-        @SuppressWarnings("UnstableApiUsage")
-        String iqHash = Hashing.sha256()
-                .hashString(queryTemplate.getIq().toString(), StandardCharsets.UTF_8)
-                .toString();
-        js.writeStringField(HASH_KEY, iqHash);
+        js.writeStringField(HASH_KEY, queryTemplate.getHash());
 
         js.writeObjectFieldStart(PARAMETERS_KEY);
         for (Map.Entry<GroundTerm, Variable> e : queryTemplate.getParameterMap().entrySet()) {
@@ -1,6 +1,6 @@
 package it.unibz.inf.ontop.answering.reformulation;
 
-
+import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.query.KGQuery;
@@ -20,6 +20,11 @@ public interface QueryReformulator {
      */
     String getRewritingRendering(KGQuery<?> query) throws OntopReformulationException;
 
+    /**
+     * Hit/miss/bind-failure counters of the query template cache, indexed by the hash of the template
+     */
+    ImmutableMap<String, QueryTemplateCache.Statistics> getQueryTemplateCacheStatistics();
+
     KGQueryFactory getInputQueryFactory();
 
     QueryLogger.Factory getQueryLoggerFactory();
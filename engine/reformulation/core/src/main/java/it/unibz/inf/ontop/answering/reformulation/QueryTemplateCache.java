@@ -0,0 +1,60 @@
+package it.unibz.inf.ontop.answering.reformulation;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+
+import java.util.Optional;
+
+/**
+ * Second-tier cache of queries, shared by the queries that only differ by their ground terms
+ * (e.g. the IRI or the literal of a FILTER equality).
+ *
+ * Stores planned queries (i.e. before the generation of the native query) and re-binds
+ * the constants at lookup time.
+ *
+ * Mutable class.
+ *
+ * See QueryTemplateCache.Factory for creating a new instance.
+ */
+public interface QueryTemplateCache {
+
+    /**
+     * Returns the planned query for the SPARQL IQ (i.e. after translation from the input query)
+     * when the constants of a cached template could be re-bound.
+     */
+    Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext);
+
+    void put(IQ sparqlIQ, QueryContext queryContext, IQ plannedQuery);
+
+    /**
+     * Indexed by the hash of the template (same hash as in the query log)
+     */
+    ImmutableMap<String, Statistics> getStatistics();
+
+    void clear();
+
+
+    interface Statistics {
+
+        /**
+         * Number of times the constants have been successfully re-bound
+         */
+        long getHits();
+
+        /**
+         * Number of times the template was not (yet) parameterized
+         */
+        long getMisses();
+
+        /**
+         * Number of times the constants could not be re-bound (e.g. the constant could have changed the plan)
+         */
+        long getBindFailures();
+    }
+
+    interface Factory {
+        QueryTemplateCache create(Mapping mapping);
+    }
+}
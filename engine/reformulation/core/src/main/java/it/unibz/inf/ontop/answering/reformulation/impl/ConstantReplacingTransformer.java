@@ -0,0 +1,131 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.*;
+import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransformer;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Applies a function to all the constants appearing in the nodes of a tree
+ * (substitutions, conditions, order comparators, values and arguments of extensional data nodes).
+ *
+ * The function is expected to return the constant itself for the constants that do not need to be replaced.
+ * It can also be used for collecting the constants.
+ */
+class ConstantReplacingTransformer extends DefaultRecursiveIQTreeVisitingTransformer {
+
+    private final Function<Constant, Constant> replacement;
+    private final TermFactory termFactory;
+
+    ConstantReplacingTransformer(Function<Constant, Constant> replacement, CoreSingletons coreSingletons) {
+        super(coreSingletons);
+        this.replacement = replacement;
+        this.termFactory = coreSingletons.getTermFactory();
+    }
+
+    IQ transform(IQ iq) {
+        IQTree newTree = iq.getTree().acceptTransformer(this);
+        return newTree.equals(iq.getTree())
+                ? iq
+                : iqFactory.createIQ(iq.getProjectionAtom(), newTree);
+    }
+
+    @Override
+    public IQTree transformExtensionalData(ExtensionalDataNode dataNode) {
+        ImmutableMap<Integer, ? extends VariableOrGroundTerm> argumentMap = dataNode.getArgumentMap();
+        ImmutableMap<Integer, VariableOrGroundTerm> newArgumentMap = argumentMap.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getKey,
+                        e -> (VariableOrGroundTerm) replace(e.getValue())));
+
+        return newArgumentMap.equals(argumentMap)
+                ? dataNode
+                : iqFactory.createExtensionalDataNode(dataNode.getRelationDefinition(), newArgumentMap);
+    }
+
+    @Override
+    public IQTree transformValues(ValuesNode node) {
+        ImmutableList<ImmutableList<Constant>> values = node.getValues();
+        ImmutableList<ImmutableList<Constant>> newValues = values.stream()
+                .map(r -> r.stream()
+                        .map(replacement)
+                        .collect(ImmutableCollectors.toList()))
+                .collect(ImmutableCollectors.toList());
+
+        return newValues.equals(values)
+                ? node
+                : iqFactory.createValuesNode(node.getOrderedVariables(), newValues);
+    }
+
+    @Override
+    public IQTree transformConstruction(IQTree tree, ConstructionNode rootNode, IQTree child) {
+        ConstructionNode newRootNode = iqFactory.createConstructionNode(rootNode.getVariables(),
+                rootNode.getSubstitution().transform(this::replace));
+        return transformUnaryNode(tree, newRootNode, child);
+    }
+
+    @Override
+    public IQTree transformAggregation(IQTree tree, AggregationNode rootNode, IQTree child) {
+        AggregationNode newRootNode = iqFactory.createAggregationNode(rootNode.getGroupingVariables(),
+                rootNode.getSubstitution().transform(t -> (ImmutableFunctionalTerm) replace(t)));
+        return transformUnaryNode(tree, newRootNode, child);
+    }
+
+    @Override
+    public IQTree transformFilter(IQTree tree, FilterNode rootNode, IQTree child) {
+        FilterNode newRootNode = rootNode.changeFilterCondition(replaceInExpression(rootNode.getFilterCondition()));
+        return transformUnaryNode(tree, newRootNode, child);
+    }
+
+    @Override
+    public IQTree transformOrderBy(IQTree tree, OrderByNode rootNode, IQTree child) {
+        OrderByNode newRootNode = iqFactory.createOrderByNode(rootNode.getComparators().stream()
+                .map(c -> iqFactory.createOrderComparator((NonGroundTerm) replace(c.getTerm()), c.isAscending()))
+                .collect(ImmutableCollectors.toList()));
+        return transformUnaryNode(tree, newRootNode, child);
+    }
+
+    @Override
+    public IQTree transformLeftJoin(IQTree tree, LeftJoinNode rootNode, IQTree leftChild, IQTree rightChild) {
+        LeftJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                rootNode.getOptionalFilterCondition().map(this::replaceInExpression));
+        return transformBinaryNonCommutativeNode(tree, newRootNode, leftChild, rightChild);
+    }
+
+    @Override
+    public IQTree transformInnerJoin(IQTree tree, InnerJoinNode rootNode, ImmutableList<IQTree> children) {
+        InnerJoinNode newRootNode = rootNode.changeOptionalFilterCondition(
+                rootNode.getOptionalFilterCondition().map(this::replaceInExpression));
+        return transformNaryCommutativeNode(tree, newRootNode, children);
+    }
+
+    private ImmutableExpression replaceInExpression(ImmutableExpression expression) {
+        return (ImmutableExpression) replace((ImmutableTerm) expression);
+    }
+
+    private ImmutableTerm replace(ImmutableTerm term) {
+        if (term instanceof Constant)
+            return replacement.apply((Constant) term);
+
+        if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            ImmutableList<? extends ImmutableTerm> terms = functionalTerm.getTerms();
+            ImmutableList<ImmutableTerm> newTerms = terms.stream()
+                    .map(this::replace)
+                    .collect(ImmutableCollectors.toList());
+
+            return newTerms.equals(terms)
+                    ? term
+                    : termFactory.getImmutableFunctionalTerm(functionalTerm.getFunctionSymbol(), newTerms);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,39 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+
+import java.util.Optional;
+
+/**
+ * Does not cache anything.
+ */
+public class DummyQueryTemplateCache implements QueryTemplateCache {
+
+    @AssistedInject
+    private DummyQueryTemplateCache(@Assisted Mapping mapping) {
+    }
+
+    @Override
+    public Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void put(IQ sparqlIQ, QueryContext queryContext, IQ plannedQuery) {
+    }
+
+    @Override
+    public ImmutableMap<String, Statistics> getStatistics() {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public void clear() {
+    }
+}
@@ -0,0 +1,525 @@
+package it.unibz.inf.ontop.answering.reformulation.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.assistedinject.AssistedInject;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.answering.reformulation.impl.QueryTemplateExtractor.QueryTemplateExtraction;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.injection.CoreSingletons;
+import it.unibz.inf.ontop.injection.OntopReformulationSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.iq.IQTree;
+import it.unibz.inf.ontop.iq.node.ConstructionNode;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
+import it.unibz.inf.ontop.model.template.Template;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.ObjectStringTemplateFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * The ground terms extracted by the QueryTemplateExtractor are the parameters of the template.
+ *
+ * The first planned query of a template is kept as reference. When a second query of the same template
+ * is planned with other constants, tries to explain the differences between the two planned queries
+ * by the values of the parameters, possibly after removing a fixed prefix and a fixed suffix (e.g. IRI templates).
+ * The template becomes parameterized only if re-binding the reference planned query with the second values
+ * reproduces exactly the second planned query.
+ *
+ * At lookup time, the re-binding is refused (bind failure) when a new constant is not compatible
+ * with the same IRI templates and the same constants of the mapping as the reference one,
+ * as it could then change the plan (e.g. by pruning an IRI template).
+ *
+ * See QueryTemplateCache.Factory for creating a new instance.
+ */
+public class QueryTemplateCacheImpl implements QueryTemplateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryTemplateCacheImpl.class);
+
+    /**
+     * Characters that are not escaped in IRI templates.
+     * Other characters (e.g. separators) could make the IRI match another IRI template.
+     */
+    private static final Pattern UNRESERVED_IRI_CHARACTERS = Pattern.compile("[A-Za-z0-9._~-]+");
+    private static final Pattern CANONICAL_INTEGER = Pattern.compile("0|-?[1-9][0-9]*");
+
+    private final Cache<TemplateKey, TemplateEntry> cache;
+    private final Mapping mapping;
+    private final QueryTemplateExtractor queryTemplateExtractor;
+    private final CoreSingletons coreSingletons;
+    private final TermFactory termFactory;
+
+    // LAZY
+    @Nullable
+    private MappingConstantIndex mappingConstantIndex;
+
+    /**
+     * See {@link QueryTemplateCache.Factory#create(Mapping)}
+     */
+    @AssistedInject
+    private QueryTemplateCacheImpl(@Assisted Mapping mapping, QueryTemplateExtractor queryTemplateExtractor,
+                                   CoreSingletons coreSingletons, OntopReformulationSettings settings) {
+        this.mapping = mapping;
+        this.queryTemplateExtractor = queryTemplateExtractor;
+        this.coreSingletons = coreSingletons;
+        this.termFactory = coreSingletons.getTermFactory();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(settings.getQueryTemplateCacheMaxSize())
+                .build();
+    }
+
+    @Override
+    public Optional<IQ> get(IQ sparqlIQ, QueryContext queryContext) {
+        Optional<QueryTemplateExtraction> extraction = queryTemplateExtractor.extract(sparqlIQ);
+        if (extraction.isEmpty())
+            return Optional.empty();
+
+        ImmutableMap<Variable, GroundTerm> values = extractValues(extraction.get());
+        TemplateEntry entry = cache.getIfPresent(new TemplateKey(extraction.get(), values, queryContext));
+        if (entry == null)
+            return Optional.empty();
+
+        Optional<IQ> plannedQuery = entry.bind(values);
+        plannedQuery.ifPresent(q -> LOGGER.debug("Query template {} re-bound with {}\n", entry.templateHash, values));
+        return plannedQuery;
+    }
+
+    @Override
+    public void put(IQ sparqlIQ, QueryContext queryContext, IQ plannedQuery) {
+        Optional<QueryTemplateExtraction> extraction = queryTemplateExtractor.extract(sparqlIQ);
+        if (extraction.isEmpty())
+            return;
+
+        ImmutableMap<Variable, GroundTerm> values = extractValues(extraction.get());
+        cache.asMap()
+                .computeIfAbsent(new TemplateKey(extraction.get(), values, queryContext),
+                        k -> new TemplateEntry(extraction.get().getHash(), values, plannedQuery))
+                .learn(values, plannedQuery);
+    }
+
+    @Override
+    public ImmutableMap<String, Statistics> getStatistics() {
+        // Entries of the same template may differ by the query context or by the types of the parameters
+        return cache.asMap().values().stream()
+                .collect(ImmutableCollectors.toMap(
+                        e -> e.templateHash,
+                        e -> (Statistics) new StatisticsSnapshot(e.hits.get(), e.misses.get(), e.bindFailures.get()),
+                        StatisticsSnapshot::merge));
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static ImmutableMap<Variable, GroundTerm> extractValues(QueryTemplateExtraction extraction) {
+        return extraction.getParameterMap().entrySet().stream()
+                .collect(ImmutableCollectors.toMap(
+                        Map.Entry::getValue,
+                        Map.Entry::getKey));
+    }
+
+    private static String getLexicalValue(GroundTerm term) {
+        return term instanceof Constant
+                ? ((Constant) term).getValue()
+                : term.toString();
+    }
+
+    private synchronized MappingConstantIndex getMappingConstantIndex() {
+        if (mappingConstantIndex == null)
+            mappingConstantIndex = new MappingConstantIndex(mapping);
+        return mappingConstantIndex;
+    }
+
+    private ImmutableSet<Constant> collectConstants(IQ iq) {
+        Set<Constant> constants = Sets.newHashSet();
+        new ConstantReplacingTransformer(c -> {
+            if ((c instanceof DBConstant) || (c instanceof RDFConstant))
+                constants.add(c);
+            return c;
+        }, coreSingletons).transform(iq);
+        return ImmutableSet.copyOf(constants);
+    }
+
+
+    /**
+     * Mutable: the reference planned query is parameterized when a second sample is available.
+     */
+    private class TemplateEntry {
+        private final String templateHash;
+        private final ImmutableMap<Variable, GroundTerm> referenceValues;
+        private final IQ referencePlannedQuery;
+
+        // Null as long as the template is not parameterized
+        @Nullable
+        private volatile ImmutableList<ConstantDerivation> derivations;
+        private boolean parameterizationFailed;
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong bindFailures = new AtomicLong();
+
+        TemplateEntry(String templateHash, ImmutableMap<Variable, GroundTerm> referenceValues, IQ referencePlannedQuery) {
+            this.templateHash = templateHash;
+            this.referenceValues = referenceValues;
+            this.referencePlannedQuery = referencePlannedQuery;
+        }
+
+        Optional<IQ> bind(ImmutableMap<Variable, GroundTerm> values) {
+            ImmutableList<ConstantDerivation> currentDerivations = derivations;
+            if (currentDerivations == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            Optional<IQ> plannedQuery = computeReplacement(currentDerivations, values)
+                    .filter(r -> areCompatibleWithMapping(currentDerivations, values))
+                    .map(r -> new ConstantReplacingTransformer(c -> r.getOrDefault(c, c), coreSingletons)
+                            .transform(referencePlannedQuery));
+
+            (plannedQuery.isPresent() ? hits : bindFailures).incrementAndGet();
+            return plannedQuery;
+        }
+
+        /**
+         * Tries to parameterize the reference planned query from another sample.
+         *
+         * Once parameterized, only re-learns from samples varying parameters not covered by the current derivations.
+         */
+        synchronized void learn(ImmutableMap<Variable, GroundTerm> values, IQ plannedQuery) {
+            if (parameterizationFailed)
+                return;
+
+            ImmutableSet<Variable> variedParameters = values.keySet().stream()
+                    .filter(v -> !values.get(v).equals(referenceValues.get(v)))
+                    .collect(ImmutableCollectors.toSet());
+            if (variedParameters.isEmpty())
+                return;
+
+            ImmutableList<ConstantDerivation> currentDerivations = derivations;
+            if (currentDerivations != null && currentDerivations.stream()
+                    .map(d -> d.parameter)
+                    .collect(ImmutableCollectors.toSet())
+                    .containsAll(variedParameters))
+                return;
+
+            Optional<ImmutableList<ConstantDerivation>> newDerivations = inferDerivations(variedParameters, values,
+                    plannedQuery);
+            if (newDerivations.isPresent()) {
+                LOGGER.debug("Query template {} parameterized by {}\n", templateHash, newDerivations.get());
+                derivations = newDerivations.get();
+            }
+            // Keeps the previous parameterization if any (the new values may have changed the plan)
+            else if (currentDerivations == null) {
+                LOGGER.debug("Query template {} could not be parameterized\n", templateHash);
+                parameterizationFailed = true;
+            }
+        }
+
+        private Optional<ImmutableList<ConstantDerivation>> inferDerivations(ImmutableSet<Variable> variedParameters,
+                                                                              ImmutableMap<Variable, GroundTerm> values,
+                                                                              IQ plannedQuery) {
+            ImmutableSet<Constant> referenceConstants = collectConstants(referencePlannedQuery);
+            ImmutableSet<Constant> constants = collectConstants(plannedQuery);
+
+            ImmutableList.Builder<ConstantDerivation> builder = ImmutableList.builder();
+            for (Variable parameter : variedParameters) {
+                GroundTerm referenceValue = referenceValues.get(parameter);
+                GroundTerm value = values.get(parameter);
+                if (!(referenceValue instanceof RDFConstant) || !(value instanceof RDFConstant))
+                    return Optional.empty();
+
+                ImmutableList<ConstantDerivation> parameterDerivations = referenceConstants.stream()
+                        .flatMap(c -> inferDerivation(parameter, (RDFConstant) referenceValue, c).stream())
+                        .filter(d -> d.derive((RDFConstant) value).filter(constants::contains).isPresent())
+                        .collect(ImmutableCollectors.toList());
+
+                if (parameterDerivations.isEmpty())
+                    return Optional.empty();
+                builder.addAll(parameterDerivations);
+            }
+            ImmutableList<ConstantDerivation> newDerivations = builder.build();
+
+            // Validation: must reproduce exactly the second planned query
+            return Optional.of(newDerivations)
+                    .filter(ds -> areCompatibleWithMapping(ds, values))
+                    .filter(ds -> computeReplacement(ds, values)
+                            .map(r -> new ConstantReplacingTransformer(c -> r.getOrDefault(c, c), coreSingletons)
+                                    .transform(referencePlannedQuery))
+                            .filter(plannedQuery::equals)
+                            .isPresent());
+        }
+
+        /**
+         * Considers the first occurrence of the lexical value of the constant in the reference value
+         */
+        private Optional<ConstantDerivation> inferDerivation(Variable parameter, RDFConstant referenceValue,
+                                                             Constant referenceConstant) {
+            String lexicalValue = referenceValue.getValue();
+            String constantValue = referenceConstant.getValue();
+            return IntStream.of(lexicalValue.indexOf(constantValue))
+                    .filter(i -> i >= 0 && !constantValue.isEmpty())
+                    .mapToObj(i -> new ConstantDerivation(parameter, lexicalValue.substring(0, i),
+                            lexicalValue.substring(i + constantValue.length()), referenceConstant))
+                    .filter(d -> d.derive(referenceValue).filter(referenceConstant::equals).isPresent())
+                    .findFirst();
+        }
+
+        /**
+         * Returns empty if some value cannot be bound
+         */
+        private Optional<ImmutableMap<Constant, Constant>> computeReplacement(
+                ImmutableList<ConstantDerivation> currentDerivations, ImmutableMap<Variable, GroundTerm> values) {
+
+            ImmutableSet<Variable> parameters = currentDerivations.stream()
+                    .map(d -> d.parameter)
+                    .collect(ImmutableCollectors.toSet());
+
+            // Other parameters are fixed
+            if (values.keySet().stream()
+                    .filter(v -> !parameters.contains(v))
+                    .anyMatch(v -> !values.get(v).equals(referenceValues.get(v))))
+                return Optional.empty();
+
+            Map<Constant, Constant> replacement = Maps.newHashMap();
+            for (ConstantDerivation derivation : currentDerivations) {
+                GroundTerm value = values.get(derivation.parameter);
+                if (!(value instanceof RDFConstant))
+                    return Optional.empty();
+
+                Optional<Constant> newConstant = derivation.derive((RDFConstant) value);
+                if (newConstant.isEmpty())
+                    return Optional.empty();
+
+                Constant previousConstant = replacement.put(derivation.referenceConstant, newConstant.get());
+                // Conflict: the same constant in the reference query derives from several parameters
+                if (previousConstant != null && !previousConstant.equals(newConstant.get()))
+                    return Optional.empty();
+            }
+            return Optional.of(ImmutableMap.copyOf(replacement));
+        }
+
+        private boolean areCompatibleWithMapping(ImmutableList<ConstantDerivation> currentDerivations,
+                                                 ImmutableMap<Variable, GroundTerm> values) {
+            MappingConstantIndex index = getMappingConstantIndex();
+            return currentDerivations.stream()
+                    .map(d -> d.parameter)
+                    .distinct()
+                    .allMatch(v -> index.getSignature(getLexicalValue(values.get(v)))
+                            .equals(index.getSignature(getLexicalValue(referenceValues.get(v)))));
+        }
+    }
+
+    /**
+     * The constant in the reference planned query is the value of the parameter stripped from a prefix and a suffix
+     */
+    private class ConstantDerivation {
+        private final Variable parameter;
+        private final String prefix;
+        private final String suffix;
+        private final Constant referenceConstant;
+
+        ConstantDerivation(Variable parameter, String prefix, String suffix, Constant referenceConstant) {
+            this.parameter = parameter;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.referenceConstant = referenceConstant;
+        }
+
+        /**
+         * Returns empty when the value may not be correctly bound
+         */
+        Optional<Constant> derive(RDFConstant value) {
+            String lexicalValue = value.getValue();
+            if ((!lexicalValue.startsWith(prefix)) || (!lexicalValue.endsWith(suffix))
+                    || lexicalValue.length() <= prefix.length() + suffix.length())
+                return Optional.empty();
+
+            String constantValue = lexicalValue.substring(prefix.length(), lexicalValue.length() - suffix.length());
+            boolean isStripped = !(prefix.isEmpty() && suffix.isEmpty());
+
+            if (isStripped && !UNRESERVED_IRI_CHARACTERS.matcher(constantValue).matches())
+                return Optional.empty();
+
+            if (referenceConstant instanceof RDFConstant) {
+                return isStripped
+                        ? Optional.empty()
+                        : Optional.<Constant>of(value)
+                            .filter(v -> value.getType().equals(((RDFConstant) referenceConstant).getType()));
+            }
+            if (referenceConstant instanceof DBConstant) {
+                DBTermType dbType = ((DBConstant) referenceConstant).getType();
+                switch (dbType.getCategory()) {
+                    case STRING:
+                        return Optional.of(termFactory.getDBConstant(constantValue, dbType));
+                    case INTEGER:
+                        return Optional.of(constantValue)
+                                .filter(c -> CANONICAL_INTEGER.matcher(c).matches())
+                                .map(c -> termFactory.getDBConstant(c, dbType));
+                    // Other lexical forms may be normalized during the reformulation
+                    default:
+                        return Optional.empty();
+                }
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public String toString() {
+            return parameter + " -> " + prefix + "[" + referenceConstant + "]" + suffix;
+        }
+    }
+
+    /**
+     * Constants and IRI template prefixes/suffixes appearing in the construction nodes of the mapping
+     */
+    private static class MappingConstantIndex {
+        private final ImmutableSet<String> constantValues;
+        private final ImmutableList<Map.Entry<String, String>> templateAffixes;
+
+        MappingConstantIndex(Mapping mapping) {
+            Set<String> constants = Sets.newHashSet();
+            Set<Map.Entry<String, String>> affixes = Sets.newLinkedHashSet();
+
+            mapping.getRDFAtomPredicates().stream()
+                    .flatMap(p -> mapping.getQueries(p).stream())
+                    .forEach(q -> collect(q.getTree(), constants, affixes));
+
+            this.constantValues = ImmutableSet.copyOf(constants);
+            this.templateAffixes = ImmutableList.copyOf(affixes);
+        }
+
+        private static void collect(IQTree tree, Set<String> constants, Set<Map.Entry<String, String>> affixes) {
+            if (tree.getRootNode() instanceof ConstructionNode)
+                ((ConstructionNode) tree.getRootNode()).getSubstitution().getRangeSet()
+                        .forEach(t -> collect(t, constants, affixes));
+
+            tree.getChildren().forEach(c -> collect(c, constants, affixes));
+        }
+
+        private static void collect(ImmutableTerm term, Set<String> constants, Set<Map.Entry<String, String>> affixes) {
+            if ((term instanceof DBConstant) || (term instanceof RDFConstant))
+                constants.add(((Constant) term).getValue());
+            else if (term instanceof ImmutableFunctionalTerm) {
+                ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+                if (functionalTerm.getFunctionSymbol() instanceof ObjectStringTemplateFunctionSymbol) {
+                    ImmutableList<Template.Component> components =
+                            ((ObjectStringTemplateFunctionSymbol) functionalTerm.getFunctionSymbol()).getTemplateComponents();
+                    Template.Component first = components.get(0);
+                    Template.Component last = components.get(components.size() - 1);
+                    affixes.add(Maps.immutableEntry(
+                            first.isColumnNameReference() ? "" : first.getComponent(),
+                            (last.isColumnNameReference() || components.size() == 1) ? "" : last.getComponent()));
+                }
+                functionalTerm.getTerms().forEach(t -> collect(t, constants, affixes));
+            }
+        }
+
+        /**
+         * Two lexical values with the same signature match the same IRI templates and constants of the mapping
+         */
+        ImmutableSet<Integer> getSignature(String lexicalValue) {
+            return IntStream.range(-1, templateAffixes.size())
+                    .filter(i -> i < 0
+                            ? constantValues.contains(lexicalValue)
+                            : matches(lexicalValue, templateAffixes.get(i)))
+                    .boxed()
+                    .collect(ImmutableCollectors.toSet());
+        }
+
+        private static boolean matches(String lexicalValue, Map.Entry<String, String> affixes) {
+            return lexicalValue.startsWith(affixes.getKey())
+                    && lexicalValue.endsWith(affixes.getValue())
+                    && lexicalValue.length() >= affixes.getKey().length() + affixes.getValue().length();
+        }
+    }
+
+
+    private static class TemplateKey {
+        private final DistinctVariableOnlyDataAtom projectionAtom;
+        private final IQTree templateTree;
+        // Constants of different types may lead to different plans
+        private final ImmutableList<Object> parameterTypes;
+        private final QueryContext queryContext;
+
+        TemplateKey(QueryTemplateExtraction extraction, ImmutableMap<Variable, GroundTerm> values,
+                    QueryContext queryContext) {
+            this.projectionAtom = extraction.getProjectionAtom();
+            this.templateTree = extraction.getTree();
+            this.parameterTypes = values.values().stream()
+                    .map(t -> t instanceof RDFConstant ? ((RDFConstant) t).getType() : t)
+                    .collect(ImmutableCollectors.toList());
+            this.queryContext = queryContext;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TemplateKey that = (TemplateKey) o;
+            return projectionAtom.equals(that.projectionAtom)
+                    && templateTree.equals(that.templateTree)
+                    && parameterTypes.equals(that.parameterTypes)
+                    && queryContext.equals(that.queryContext);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(projectionAtom, templateTree, parameterTypes, queryContext);
+        }
+    }
+
+
+    private static class StatisticsSnapshot implements Statistics {
+        private final long hits;
+        private final long misses;
+        private final long bindFailures;
+
+        StatisticsSnapshot(long hits, long misses, long bindFailures) {
+            this.hits = hits;
+            this.misses = misses;
+            this.bindFailures = bindFailures;
+        }
+
+        static Statistics merge(Statistics s1, Statistics s2) {
+            return new StatisticsSnapshot(s1.getHits() + s2.getHits(), s1.getMisses() + s2.getMisses(),
+                    s1.getBindFailures() + s2.getBindFailures());
+        }
+
+        @Override
+        public long getHits() {
+            return hits;
+        }
+
+        @Override
+        public long getMisses() {
+            return misses;
+        }
+
+        @Override
+        public long getBindFailures() {
+            return bindFailures;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hits + ", misses=" + misses + ", bindFailures=" + bindFailures;
+        }
+    }
+}
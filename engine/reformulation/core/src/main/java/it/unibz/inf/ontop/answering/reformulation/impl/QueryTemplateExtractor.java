@@ -1,13 +1,13 @@
-package it.unibz.inf.ontop.answering.logging.impl;
+package it.unibz.inf.ontop.answering.reformulation.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.injection.CoreSingletons;
-import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
 import it.unibz.inf.ontop.injection.OntopModelSettings;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.iq.IQTree;
@@ -19,6 +19,7 @@ import it.unibz.inf.ontop.iq.transform.impl.DefaultRecursiveIQTreeVisitingTransf
 import it.unibz.inf.ontop.model.atom.AtomFactory;
 import it.unibz.inf.ontop.model.atom.AtomPredicate;
 import it.unibz.inf.ontop.model.atom.DataAtom;
+import it.unibz.inf.ontop.model.atom.DistinctVariableOnlyDataAtom;
 import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
 import it.unibz.inf.ontop.model.term.*;
 import it.unibz.inf.ontop.model.term.functionsymbol.BooleanFunctionSymbol;
@@ -28,29 +29,30 @@ import it.unibz.inf.ontop.model.vocabulary.SPARQL;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.IntStream;
 
 
 /**
- * TODO: move it away from the query logging package if also used for other purposes
+ * Replaces the ground terms of the query by parameters.
+ *
+ * Used by the query logger and by the query template cache.
  */
 @Singleton
 public class QueryTemplateExtractor {
 
     private final CoreSingletons coreSingletons;
-    private final IntermediateQueryFactory iqFactory;
     private final OntopModelSettings settings;
 
     @Inject
     protected QueryTemplateExtractor(CoreSingletons coreSingletons, OntopModelSettings settings) {
         this.coreSingletons = coreSingletons;
-        iqFactory = coreSingletons.getIQFactory();
         this.settings = settings;
     }
 
-    Optional<QueryTemplateExtraction> extract(IQ iq) {
+    public Optional<QueryTemplateExtraction> extract(IQ iq) {
 
         IQTree initialIQTree = iq.getTree();
         QueryTemplateTransformer transformer = new QueryTemplateTransformer(coreSingletons,
@@ -62,9 +64,7 @@ public class QueryTemplateExtractor {
         if (parameterMap.isEmpty())
             return Optional.empty();
 
-        return Optional.of(new QueryTemplateExtraction(
-                iqFactory.createIQ(iq.getProjectionAtom(), newTree),
-                parameterMap));
+        return Optional.of(new QueryTemplateExtraction(iq.getProjectionAtom(), newTree, parameterMap));
     }
 
 
@@ -235,20 +235,42 @@ public class QueryTemplateExtractor {
 
     public static class QueryTemplateExtraction {
 
-        private final IQ iq;
+        private final DistinctVariableOnlyDataAtom projectionAtom;
+        private final IQTree tree;
         private final ImmutableMap<GroundTerm, Variable> parameterMap;
 
-        public QueryTemplateExtraction(IQ iq, ImmutableMap<GroundTerm, Variable> parameterMap) {
-            this.iq = iq;
+        /**
+         * NB: the tree and the projection atom do not form a valid IQ (the parameters are not projected)
+         */
+        public QueryTemplateExtraction(DistinctVariableOnlyDataAtom projectionAtom, IQTree tree,
+                                       ImmutableMap<GroundTerm, Variable> parameterMap) {
+            this.projectionAtom = projectionAtom;
+            this.tree = tree;
             this.parameterMap = parameterMap;
         }
 
-        public IQ getIq() {
-            return iq;
+        public DistinctVariableOnlyDataAtom getProjectionAtom() {
+            return projectionAtom;
+        }
+
+        public IQTree getTree() {
+            return tree;
         }
 
         public ImmutableMap<GroundTerm, Variable> getParameterMap() {
             return parameterMap;
         }
+
+        /**
+         * Identifies the template (e.g. in the query log)
+         */
+        public String getHash() {
+            // TODO: update Guava
+            @SuppressWarnings("UnstableApiUsage")
+            String hash = Hashing.sha256()
+                    .hashString(projectionAtom + "\n" + tree, StandardCharsets.UTF_8)
+                    .toString();
+            return hash;
+        }
     }
 }
@@ -1,9 +1,11 @@
 package it.unibz.inf.ontop.answering.reformulation.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.answering.reformulation.generation.NativeQueryGenerator;
@@ -22,6 +24,8 @@ import it.unibz.inf.ontop.spec.OBDASpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 /**
  * TODO: rename it QueryTranslatorImpl ?
  *
@@ -35,6 +39,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 	private final QueryRewriter rewriter;
 	protected final NativeQueryGenerator datasourceQueryGenerator;
 	private final QueryCache queryCache;
+	private final QueryTemplateCache queryTemplateCache;
 
 	private final QueryUnfolder queryUnfolder;
 
@@ -48,6 +53,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 	@AssistedInject
 	protected QuestQueryProcessor(@Assisted OBDASpecification obdaSpecification,
 								QueryCache queryCache,
+								QueryTemplateCache.Factory queryTemplateCacheFactory,
 								QueryUnfolder.Factory queryUnfolderFactory,
 								TranslationFactory translationFactory,
 								QueryRewriter queryRewriter,
@@ -70,6 +76,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 		this.inputQueryTranslator = inputQueryTranslator;
 		this.queryCache = queryCache;
+		this.queryTemplateCache = queryTemplateCacheFactory.create(obdaSpecification.getSaturatedMapping());
 
 		LOGGER.info("Ontop has completed the setup and it is ready for query answering!");
 	}
@@ -93,6 +100,18 @@ public class QuestQueryProcessor implements QueryReformulator {
 
 			queryLogger.setSparqlIQ(convertedIQ);
 
+			Optional<IQ> reboundQuery = queryTemplateCache.get(convertedIQ, queryContext);
+			if (reboundQuery.isPresent()) {
+				LOGGER.debug("Planned query (re-bound from a cached query template):\n{}\n", reboundQuery.get());
+				queryLogger.setPlannedQuery(reboundQuery.get());
+
+				IQ executableQuery = generateExecutableQuery(reboundQuery.get());
+				queryCache.put(inputQuery, queryContext, executableQuery);
+				queryLogger.declareReformulationFinishedAndSerialize(executableQuery, true);
+				LOGGER.debug("Reformulation time: {} ms\n", System.currentTimeMillis() - beginning);
+				return executableQuery;
+			}
+
             try {
                 LOGGER.debug("Start the rewriting process...");
 
@@ -114,6 +133,7 @@ public class QuestQueryProcessor implements QueryReformulator {
 				LOGGER.debug("Planned query:\n{}\n", plannedQuery);
 
 				queryLogger.setPlannedQuery(plannedQuery);
+				queryTemplateCache.put(convertedIQ, queryContext, plannedQuery);
 
 				IQ executableQuery = generateExecutableQuery(plannedQuery);
 				queryCache.put(inputQuery, queryContext, executableQuery);
@@ -183,6 +203,11 @@ public class QuestQueryProcessor implements QueryReformulator {
 		 }
 	}
 
+	@Override
+	public ImmutableMap<String, QueryTemplateCache.Statistics> getQueryTemplateCacheStatistics() {
+		return queryTemplateCache.getStatistics();
+	}
+
 	@Override
 	public KGQueryFactory getInputQueryFactory() {
 		return kgQueryFactory;
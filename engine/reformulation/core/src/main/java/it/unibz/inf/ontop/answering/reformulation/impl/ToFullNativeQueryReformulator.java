@@ -6,6 +6,7 @@ import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.answering.reformulation.QueryCache;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.answering.reformulation.rewriting.QueryRewriter;
 import it.unibz.inf.ontop.exception.MinorOntopInternalBugException;
@@ -54,6 +55,7 @@ public class ToFullNativeQueryReformulator extends QuestQueryProcessor {
     @AssistedInject
     private ToFullNativeQueryReformulator(@Assisted OBDASpecification obdaSpecification,
                                           QueryCache queryCache,
+                                          QueryTemplateCache.Factory queryTemplateCacheFactory,
                                           QueryUnfolder.Factory queryUnfolderFactory,
                                           TranslationFactory translationFactory,
                                           QueryRewriter queryRewriter,
@@ -66,7 +68,7 @@ public class ToFullNativeQueryReformulator extends QuestQueryProcessor {
                                           IntermediateQueryFactory iqFactory,
                                           TermFactory termFactory,
                                           SubstitutionFactory substitutionFactory) {
-        super(obdaSpecification, queryCache, queryUnfolderFactory, translationFactory, queryRewriter, kgQueryFactory,
+        super(obdaSpecification, queryCache, queryTemplateCacheFactory, queryUnfolderFactory, translationFactory, queryRewriter, kgQueryFactory,
                 inputQueryTranslator, generalOptimizer, queryPlanner, queryLoggerFactory, queryContextFactory);
         this.iqFactory = iqFactory;
         this.termFactory = termFactory;
@@ -136,7 +136,7 @@ public class DummyRewriter implements QueryRewriter {
                                         Function<T, DataAtom<RDFAtomPredicate>> translate,
                                         LinearInclusionDependencies.Builder<RDFAtomPredicate> builder) {
         for (Equivalences<T> node : dag)
-            for (Equivalences<T> subNode : dag.getSub(node))
+            dag.forEachSub(node, subNode -> {
                 for (T sub : subNode)
                     for (T e : node)
                         if (e != sub && filter.test(e)) {
@@ -144,6 +144,7 @@ public class DummyRewriter implements QueryRewriter {
                             DataAtom<RDFAtomPredicate> body = translate.apply(sub);
                             builder.add(head, body);
                         }
+            });
     }
 
 
@@ -30,22 +30,19 @@ public class TreeWitnessGenerator {
 	private final ObjectPropertyExpression property;
 //	private final OClass filler;
 
-	private final DownwardSaturatedImmutableSet<ClassExpression> concepts;
+	private final Equivalences<ClassExpression> concept;
+	private final EquivalencesDAG<ClassExpression> classDAG;
 	private final ImmutableSet<ClassExpression> maximalRepresentatives;
 
 
-	public TreeWitnessGenerator(ObjectPropertyExpression property/*, OClass filler*/, DownwardSaturatedImmutableSet<ClassExpression> concepts, ImmutableSet<ClassExpression> maximalRepresentatives) {
+	public TreeWitnessGenerator(ObjectPropertyExpression property/*, OClass filler*/, Equivalences<ClassExpression> concept, EquivalencesDAG<ClassExpression> classDAG, ImmutableSet<ClassExpression> maximalRepresentatives) {
 		this.property = property;
 //		this.filler = filler;
-		this.concepts = concepts;
+		this.concept = concept;
+		this.classDAG = classDAG;
 		this.maximalRepresentatives = maximalRepresentatives;
 	}
 
-
-	public DownwardSaturatedImmutableSet<ClassExpression> getGeneratorConcepts() {
-		return concepts;
-	}
-
 	public ImmutableSet<ClassExpression> getMaximalGeneratorRepresentatives() {
 		return maximalRepresentatives;
 	}
@@ -54,8 +51,17 @@ public class TreeWitnessGenerator {
 		return property;
 	}
 
+	/**
+	 * Subsumption checks in the DAG: the sub-concepts of the generators are not materialized.
+	 * As in endPointEntails, only the representative of the range is considered.
+	 */
 	public boolean endPointEntailsAny(Collection<TreeWitnessGenerator> twgs) {
-		return twgs.stream().anyMatch(twg -> this.endPointEntails(twg.getGeneratorConcepts()));
+		ClassExpression range = property.getRange();
+		Equivalences<ClassExpression> rangeVertex = classDAG.getVertex(range);
+		if (rangeVertex == null || !rangeVertex.getRepresentative().equals(range))
+			return false;
+
+		return twgs.stream().anyMatch(twg -> classDAG.isSubsumedBy(rangeVertex, twg.concept));
 	}
 
 	public boolean endPointEntails(DownwardSaturatedImmutableSet<ClassExpression> s) {
@@ -88,7 +88,7 @@ public class TreeWitnessRewriterReasoner {
             return Stream.of();
 
         return properties.stream()
-                .map(p -> new TreeWitnessGenerator(p, getSubConcepts(eq.getRepresentative()), maximalRepresentatives));
+                .map(p -> new TreeWitnessGenerator(p, eq, classifiedTBox.classesDAG(), maximalRepresentatives));
     }
 
     private Stream<ClassExpression> getNonTrivialEquivalents(Equivalences<ClassExpression> eq) {
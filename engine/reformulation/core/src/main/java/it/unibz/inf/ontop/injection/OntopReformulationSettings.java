@@ -30,6 +30,8 @@ public interface OntopReformulationSettings extends OntopKGQuerySettings {
 
     long getQueryCacheMaxSize();
 
+    long getQueryTemplateCacheMaxSize();
+
     String getApplicationName();
 
 
@@ -44,6 +46,9 @@ public interface OntopReformulationSettings extends OntopKGQuerySettings {
 
     String EXCLUDE_INVALID_TRIPLES_FROM_RESULT_SET = "ontop.excludeInvalidTriplesFromResultSet";
     String QUERY_CACHE_MAX_SIZE = "ontop.cache.query.size";
+    // Re-binds the constants of cached queries sharing the same template
+    String QUERY_TEMPLATE_CACHE = "ontop.cache.queryTemplate";
+    String QUERY_TEMPLATE_CACHE_MAX_SIZE = "ontop.cache.queryTemplate.size";
     String QUERY_LOGGING = "ontop.queryLogging";
     // Needed for logging
     String APPLICATION_NAME = "ontop.applicationName";
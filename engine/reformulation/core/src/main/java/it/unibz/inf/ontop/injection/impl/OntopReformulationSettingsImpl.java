@@ -2,6 +2,8 @@ package it.unibz.inf.ontop.injection.impl;
 
 import com.google.common.collect.ImmutableSet;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.answering.reformulation.impl.QueryTemplateCacheImpl;
 import it.unibz.inf.ontop.answering.reformulation.impl.ToFullNativeQueryReformulator;
 import it.unibz.inf.ontop.injection.OntopOBDASettings;
 import it.unibz.inf.ontop.injection.OntopReformulationSettings;
@@ -31,6 +33,10 @@ public class OntopReformulationSettingsImpl extends OntopKGQuerySettingsImpl imp
             && (!userProperties.contains(QueryReformulator.class.getCanonicalName())))
             properties.put(QueryReformulator.class.getCanonicalName(), ToFullNativeQueryReformulator.class.getCanonicalName());
 
+        if (Boolean.parseBoolean(userProperties.getProperty(QUERY_TEMPLATE_CACHE, "false"))
+            && (!userProperties.containsKey(QueryTemplateCache.class.getCanonicalName())))
+            properties.put(QueryTemplateCache.class.getCanonicalName(), QueryTemplateCacheImpl.class.getCanonicalName());
+
         return properties;
     }
 
@@ -104,6 +110,11 @@ public class OntopReformulationSettingsImpl extends OntopKGQuerySettingsImpl imp
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return getRequiredLong(QUERY_TEMPLATE_CACHE_MAX_SIZE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
@@ -201,6 +201,8 @@ public class SQLGeneratorImpl implements NativeQueryGenerator {
     }
 
     private NativeNode generateNativeNode(IQTree normalizedSubTree, boolean tolerateUnknownTypes) {
-        return defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, tolerateUnknownTypes);
+        return settings.areConstantsParameterized()
+                ? defaultIQTree2NativeNodeGenerator.generateWithParameters(normalizedSubTree, dbParameters, tolerateUnknownTypes)
+                : defaultIQTree2NativeNodeGenerator.generate(normalizedSubTree, dbParameters, tolerateUnknownTypes);
     }
 }
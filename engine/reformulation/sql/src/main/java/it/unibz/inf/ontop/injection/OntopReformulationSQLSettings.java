@@ -3,4 +3,16 @@ package it.unibz.inf.ontop.injection;
 
 public interface OntopReformulationSQLSettings extends OntopReformulationSettings, OntopSQLCoreSettings {
 
+    /**
+     * If true, the string and integer constants compared by equality in the filtering conditions
+     * of the SQL queries are replaced by parameter placeholders ("?"). The queries only differing
+     * by these constants then share the same SQL string (e.g. for reusing prepared statements).
+     */
+    boolean areConstantsParameterized();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String PARAMETERIZED_CONSTANTS = "ontop.parameterizedConstants";
 }
@@ -3,7 +3,9 @@ package it.unibz.inf.ontop.answering;
 
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 
 public interface OntopQueryEngine extends AutoCloseable {
 
@@ -23,4 +25,14 @@ public interface OntopQueryEngine extends AutoCloseable {
      * Not for regular usage
      */
     QueryReformulator getQueryReformulator();
+
+    /**
+     * Load of the query executor (shared by all the connections)
+     */
+    QueryExecutor.Statistics getQueryExecutorStatistics();
+
+    /**
+     * Wait and hold times of the native connections
+     */
+    DBConnector.Statistics getDBConnectorStatistics();
 }
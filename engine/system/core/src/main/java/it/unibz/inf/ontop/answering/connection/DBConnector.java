@@ -20,4 +20,33 @@ public interface DBConnector extends AutoCloseable {
      */
     OntopConnection getConnection() throws OntopConnectionException;
 
+    Statistics getStatistics();
+
+
+    /**
+     * Acquisition of native connections (e.g. from a connection pool)
+     */
+    interface Statistics {
+
+        long getAcquiredConnections();
+
+        /**
+         * Number of native connections acquired and not yet released
+         */
+        int getHeldConnections();
+
+        /**
+         * Cumulated time spent waiting for a native connection (in ms)
+         */
+        long getTotalWaitTime();
+
+        long getMaxWaitTime();
+
+        /**
+         * Cumulated time during which the released native connections have been held (in ms)
+         */
+        long getTotalHoldTime();
+
+        long getMaxHoldTime();
+    }
 }
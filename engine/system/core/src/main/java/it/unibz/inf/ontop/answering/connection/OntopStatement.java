@@ -3,13 +3,20 @@ package it.unibz.inf.ontop.answering.connection;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.query.ConstructTemplate;
+import it.unibz.inf.ontop.query.GraphSPARQLQuery;
 import it.unibz.inf.ontop.query.KGQuery;
+import it.unibz.inf.ontop.query.SelectQuery;
 import it.unibz.inf.ontop.query.resultset.BooleanResultSet;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
 import it.unibz.inf.ontop.query.resultset.OBDAResultSet;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
 
 /**
  * OBDAStatement specific to Ontop.
@@ -37,4 +44,31 @@ public interface OntopStatement extends OBDAStatement {
     BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger)
             throws OntopQueryEvaluationException;
 
+    /**
+     * Non-blocking counterpart of {@link #execute(KGQuery, ImmutableMultimap)}: the stage completes
+     * (in a thread of the query executor) once the result set is unblocked.
+     * For instance, for an ASK query, once the answer is known.
+     *
+     * Cancelling the stage (see {@link CompletionStage#toCompletableFuture()}) cancels the native query.
+     * The query timeout of the statement is applied.
+     */
+    <R extends OBDAResultSet> CompletionStage<R> executeAsync(KGQuery<R> inputQuery,
+                                                              ImmutableMultimap<String, String> httpHeaders);
+
+    /**
+     * Publishes the results of the query according to the demand of the subscriber:
+     * the rows are only fetched from the DB when requested.
+     *
+     * Cancelling the subscription cancels the native query and closes the result set.
+     * At most one subscriber.
+     */
+    Flow.Publisher<OntopBindingSet> publishSelectResults(SelectQuery inputQuery,
+                                                         ImmutableMultimap<String, String> httpHeaders);
+
+    /**
+     * Same as {@link #publishSelectResults(SelectQuery, ImmutableMultimap)}, for CONSTRUCT and DESCRIBE queries
+     */
+    Flow.Publisher<RDFFact> publishGraphResults(GraphSPARQLQuery inputQuery,
+                                                ImmutableMultimap<String, String> httpHeaders);
+
 }
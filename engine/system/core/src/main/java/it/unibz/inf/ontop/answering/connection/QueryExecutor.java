@@ -0,0 +1,42 @@
+package it.unibz.inf.ontop.answering.connection;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the evaluation of the queries (reformulation and execution of the native query,
+ * until the result set is unblocked) on behalf of the statements.
+ *
+ * Shared by all the statements: SINGLETON.
+ */
+public interface QueryExecutor {
+
+    /**
+     * Cancelling the returned future interrupts the evaluation.
+     */
+    <T> Future<T> submit(Callable<T> evaluation) throws RejectedExecutionException;
+
+    Statistics getStatistics();
+
+
+    interface Statistics {
+
+        /**
+         * Number of evaluations waiting for a thread
+         */
+        int getQueueDepth();
+
+        /**
+         * Number of evaluations currently running
+         */
+        int getActiveExecutions();
+
+        long getCompletedExecutions();
+
+        /**
+         * Number of evaluations rejected because the queue was full
+         */
+        long getRejectedExecutions();
+    }
+}
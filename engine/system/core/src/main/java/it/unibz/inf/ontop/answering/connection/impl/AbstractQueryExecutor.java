@@ -0,0 +1,105 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the queued and running evaluations on top of an executor service.
+ */
+public abstract class AbstractQueryExecutor implements QueryExecutor {
+
+    private final ExecutorService executorService;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    protected AbstractQueryExecutor(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> evaluation) throws RejectedExecutionException {
+        queued.incrementAndGet();
+        try {
+            return executorService.submit(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    return evaluation.call();
+                }
+                finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        return new StatisticsImpl(queued.get(), active.get(), completed.get(), rejected.get());
+    }
+
+    /**
+     * Daemon threads: idle executors must not prevent the JVM from exiting.
+     */
+    protected static ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+
+    private static class StatisticsImpl implements Statistics {
+        private final int queueDepth;
+        private final int activeExecutions;
+        private final long completedExecutions;
+        private final long rejectedExecutions;
+
+        private StatisticsImpl(int queueDepth, int activeExecutions, long completedExecutions, long rejectedExecutions) {
+            this.queueDepth = queueDepth;
+            this.activeExecutions = activeExecutions;
+            this.completedExecutions = completedExecutions;
+            this.rejectedExecutions = rejectedExecutions;
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        @Override
+        public int getActiveExecutions() {
+            return activeExecutions;
+        }
+
+        @Override
+        public long getCompletedExecutions() {
+            return completedExecutions;
+        }
+
+        @Override
+        public long getRejectedExecutions() {
+            return rejectedExecutions;
+        }
+
+        @Override
+        public String toString() {
+            return "queued=" + queueDepth + ", active=" + activeExecutions + ", completed=" + completedExecutions
+                    + ", rejected=" + rejectedExecutions;
+        }
+    }
+}
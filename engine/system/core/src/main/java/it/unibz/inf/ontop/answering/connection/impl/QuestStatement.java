@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.answering.connection.impl;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.evaluator.QueryContext;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -12,13 +13,17 @@ import it.unibz.inf.ontop.exception.*;
 import it.unibz.inf.ontop.iq.IQ;
 import it.unibz.inf.ontop.query.resultset.BooleanResultSet;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
+import it.unibz.inf.ontop.query.resultset.IterativeOBDAResultSet;
 import it.unibz.inf.ontop.query.resultset.OBDAResultSet;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CountDownLatch;
+import javax.annotation.Nullable;
+import java.util.concurrent.*;
 
 
 /**
@@ -31,91 +36,91 @@ public abstract class QuestStatement implements OntopStatement {
 	private final QueryLogger.Factory queryLoggerFactory;
 	private final QueryContext.Factory queryContextFactory;
 
-	private QueryExecutionThread<?,?> executionThread;
-	private boolean canceled = false;
+	private final QueryExecutor queryExecutor;
+
+	// Execution currently running (if any)
+	@Nullable
+	private volatile QueryExecution<?,?> currentExecution;
+	private volatile boolean canceled = false;
 
 
 	private static final Logger log = LoggerFactory.getLogger(QuestStatement.class);
+	private static final String CONCURRENT_EXECUTION_MESSAGE = "The statement is already evaluating a query";
 
 
-	public QuestStatement(QueryReformulator queryProcessor) {
+	public QuestStatement(QueryReformulator queryProcessor, QueryExecutor queryExecutor) {
 		this.engine = queryProcessor;
+		this.queryExecutor = queryExecutor;
 		this.queryLoggerFactory = queryProcessor.getQueryLoggerFactory();
 		this.queryContextFactory = queryProcessor.getQueryContextFactory();
 	}
 
 	/**
-	 * Execution thread
+	 * Evaluation submitted to the query executor.
+	 *
+	 * Once abandoned (cancelled or timed out), the result set it may still produce is closed.
 	 */
-	private class QueryExecutionThread<R extends OBDAResultSet, Q extends KGQuery<R>> extends Thread {
+	private static class QueryExecution<R extends OBDAResultSet, Q extends KGQuery<R>> implements Callable<R> {
 
 		private final Q inputQuery;
 		private final QueryLogger queryLogger;
 		private final QueryContext queryContext;
 		private final Evaluator<R, Q> evaluator;
-		private final CountDownLatch monitor;
 
-		private R resultSet;	  // only for SELECT and ASK queries
-		private Exception exception;
-		private boolean executingTargetQuery;
+		@Nullable
+		private Future<R> future;
+		private boolean completed;
+		private boolean abandoned;
+		// For the asynchronous API. Not completed if abandoned
+		private final CompletableFuture<R> result = new CompletableFuture<>();
 
-		QueryExecutionThread(Q inputQuery, QueryLogger queryLogger, QueryContext queryContext, Evaluator<R,Q> evaluator,
-						CountDownLatch monitor) {
+		QueryExecution(Q inputQuery, QueryLogger queryLogger, QueryContext queryContext, Evaluator<R,Q> evaluator) {
 			this.inputQuery = inputQuery;
 			this.queryLogger = queryLogger;
 			this.queryContext = queryContext;
 			this.evaluator = evaluator;
-			this.monitor = monitor;
-			this.exception = null;
-			this.executingTargetQuery = false;
-		}
-
-		public boolean errorStatus() {
-			return exception != null;
-		}
-
-		public Exception getException() {
-			return exception;
-		}
-
-		public R getResultSet() {
-			return resultSet;
-		}
-
-		public void cancel() throws OntopQueryEvaluationException {
-			canceled = true;
-			if (!executingTargetQuery) {
-				this.stop();
-			} else {
-				cancelExecution();
-			}
+			this.completed = false;
+			this.abandoned = false;
 		}
 
 		@Override
-		public void run() {
-			//                        FOR debugging H2 in-memory database
-//			try {
-//				org.h2.tools.Server.startWebServer(((QuestConnection)conn).getSQLConnection());
-//			} catch (SQLException e) {
-//				e.printStackTrace();
-//			}
+		public R call() throws Exception {
+			R resultSet;
 			try {
-				/*
-				 * Executes the target query.
-				 */
-				executingTargetQuery = true;
 				resultSet = evaluator.evaluate(inputQuery, queryContext, queryLogger);
 				// NB: finished if the result set is blocking!
 				log.debug("Result set unblocked.\n");
-				/*
-				 * TODO: re-handle the timeout exception.
-				 */
 			} catch (Exception e) {
-				exception = e;
 				log.error(e.getMessage(), e);
-			} finally {
-				monitor.countDown();
+				result.completeExceptionally(e);
+				throw e;
+			}
+
+			synchronized (this) {
+				if (!abandoned) {
+					completed = true;
+					result.complete(resultSet);
+					return resultSet;
+				}
 			}
+			resultSet.close();
+			throw new CancellationException();
+		}
+
+		synchronized void setFuture(Future<R> future) {
+			this.future = future;
+		}
+
+		/**
+		 * Returns false if the evaluation has already completed (i.e. the result set is available)
+		 */
+		synchronized boolean abandon() {
+			if (completed)
+				return false;
+			abandoned = true;
+			if (future != null)
+				future.cancel(true);
+			return true;
 		}
 	}
 
@@ -221,52 +226,276 @@ public abstract class QuestStatement implements OntopStatement {
 	}
 
 	/**
-	 * Internal method to start a new query execution thread type defines the
-	 * query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 * Internal method submitting the evaluation to the query executor and waiting for it.
+	 * Type defines the query type SELECT, ASK, CONSTRUCT, or DESCRIBE
+	 *
+	 * The query timeout (if any) is enforced on the whole evaluation, including the reformulation.
 	 */
 	private <R extends OBDAResultSet, Q extends KGQuery<R>> R executeInThread(Q inputQuery, ImmutableMultimap<String, String> httpHeaders,
 																			  Evaluator<R, Q> evaluator)
 			throws OntopReformulationException, OntopQueryEvaluationException {
 
+		int timeout = getQueryTimeoutForEvaluation();
+
+		QueryExecution<R, Q> execution = createExecution(inputQuery, httpHeaders, evaluator);
+		QueryLogger queryLogger = execution.queryLogger;
+		if (!reserve(execution))
+			throw new OntopQueryEvaluationException(CONCURRENT_EXECUTION_MESSAGE);
+		try {
+			Future<R> future = submit(execution);
+
+			try {
+				return timeout > 0
+						? future.get(timeout, TimeUnit.SECONDS)
+						: future.get();
+			} catch (TimeoutException e) {
+				if (!execution.abandon())
+					return getCompletedResultSet(future);
+				cancelExecutionQuietly(execution);
+				OntopQueryEvaluationException exception = new OntopQueryEvaluationException(
+						"Query execution timed out after " + timeout + " seconds", e);
+				queryLogger.declareEvaluationException(exception);
+				throw exception;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (!execution.abandon())
+					return getCompletedResultSet(future);
+				cancelExecutionQuietly(execution);
+				throw new OntopQueryEvaluationException("Query execution was interrupted", e);
+			} catch (CancellationException e) {
+				throw new OntopQueryEvaluationException("Query execution was cancelled");
+			} catch (ExecutionException e) {
+				Throwable cause = convertEvaluationException(e.getCause(), queryLogger);
+				if (cause instanceof OntopReformulationException)
+					throw (OntopReformulationException) cause;
+				else if (cause instanceof OntopQueryEvaluationException)
+					throw (OntopQueryEvaluationException) cause;
+				else
+					// Not an exception thrown by a callable
+					throw (Error) cause;
+			}
+		} finally {
+			release(execution);
+			canceled = false;
+		}
+	}
+
+	private int getQueryTimeoutForEvaluation() throws OntopQueryEvaluationException {
+		try {
+			return getQueryTimeout();
+		} catch (OntopConnectionException e) {
+			throw new OntopQueryEvaluationException(e);
+		}
+	}
+
+	private <R extends OBDAResultSet, Q extends KGQuery<R>> QueryExecution<R, Q> createExecution(
+			Q inputQuery, ImmutableMultimap<String, String> httpHeaders, Evaluator<R, Q> evaluator) {
 		ImmutableMap<String, String> normalizedHttpHeaders = normalizeHttpHeaders(httpHeaders);
 
 		QueryLogger queryLogger = queryLoggerFactory.create(normalizedHttpHeaders);
 		queryLogger.setSparqlQuery(inputQuery.getOriginalString());
 
 		QueryContext queryContext = queryContextFactory.create(normalizedHttpHeaders);
+		return new QueryExecution<>(inputQuery, queryLogger, queryContext, evaluator);
+	}
 
-		CountDownLatch monitor = new CountDownLatch(1);
+	private <R extends OBDAResultSet> Future<R> submit(QueryExecution<R, ?> execution) throws OntopQueryEvaluationException {
+		Future<R> future;
+		try {
+			future = queryExecutor.submit(execution);
+		} catch (RejectedExecutionException e) {
+			OntopQueryEvaluationException exception = new OntopQueryEvaluationException(
+					"Too many queries are waiting for being evaluated", e);
+			execution.queryLogger.declareEvaluationException(exception);
+			throw exception;
+		}
+		execution.setFuture(future);
+		return future;
+	}
 
-		QueryExecutionThread<R, Q> executionthread = new QueryExecutionThread<>(inputQuery, queryLogger, queryContext, evaluator,
-				monitor);
+	@Override
+	public <R extends OBDAResultSet> CompletionStage<R> executeAsync(KGQuery<R> inputQuery,
+																	  ImmutableMultimap<String, String> httpHeaders) {
+		QueryExecution<R, ?> execution;
+		try {
+			execution = createExecution(inputQuery, httpHeaders);
+		} catch (OntopUnsupportedInputQueryException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return executeAsync(execution, true);
+	}
 
-		this.executionThread = executionthread;
-		executionthread.start();
+	private <R extends OBDAResultSet> QueryExecution<R, ?> createExecution(KGQuery<R> inputQuery,
+																		   ImmutableMultimap<String, String> httpHeaders)
+			throws OntopUnsupportedInputQueryException {
+		if (inputQuery instanceof SelectQuery) {
+			return (QueryExecution<R, ?>) createExecution((SelectQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeSelectQuery(inputQuery1, queryContext, queryLogger));
+		}
+		else if (inputQuery instanceof AskQuery) {
+			return (QueryExecution<R, ?>) createExecution((AskQuery) inputQuery, httpHeaders, (inputQuery1, queryContext, queryLogger) -> executeBooleanQuery(inputQuery1, queryContext, queryLogger));
+		}
+		else if (inputQuery instanceof DescribeQuery) {
+			return (QueryExecution<R, ?>) createExecution((DescribeQuery) inputQuery, httpHeaders, (describeQuery, queryContext, queryLogger) -> executeDescribeQuery(describeQuery, queryContext, queryLogger));
+		}
+		else if (inputQuery instanceof ConstructQuery) {
+			return (QueryExecution<R, ?>) createExecution((ConstructQuery) inputQuery, httpHeaders, (constructQuery, queryContext, queryLogger) -> executeConstructQuery(constructQuery, queryContext, queryLogger));
+		}
+		else {
+			throw new OntopUnsupportedInputQueryException("Unsupported query type: " + inputQuery);
+		}
+	}
+
+	/**
+	 * Asynchronous counterpart of executeInThread: no thread waits for the evaluation.
+	 *
+	 * Cancelling the returned future (or the timeout) abandons the evaluation and cancels the native query.
+	 * A result set produced after the cancellation is closed.
+	 *
+	 * Fails if the statement is already evaluating a query. If isReleasedOnResultSet is false,
+	 * the statement remains reserved to the execution after the result set is produced, until released.
+	 */
+	private <R extends OBDAResultSet> CompletableFuture<R> executeAsync(QueryExecution<R, ?> execution,
+																		boolean isReleasedOnResultSet) {
+
+		CompletableFuture<R> stage = new CompletableFuture<>();
+		QueryLogger queryLogger = execution.queryLogger;
+		if (!reserve(execution)) {
+			stage.completeExceptionally(new OntopQueryEvaluationException(CONCURRENT_EXECUTION_MESSAGE));
+			return stage;
+		}
 		try {
-			monitor.await();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
+			int timeout = getQueryTimeoutForEvaluation();
+
+			// NB: released before completing the stage, so that the dependent stages can use the statement
+			execution.result.whenComplete((resultSet, e) -> {
+				if (e != null || isReleasedOnResultSet)
+					release(execution);
+				if (e == null) {
+					if (!stage.complete(resultSet))
+						closeQuietly(resultSet);
+				}
+				else
+					stage.completeExceptionally(convertEvaluationException(e, queryLogger));
+			});
+			stage.whenComplete((resultSet, e) -> {
+				if (stage.isCancelled() && execution.abandon())
+					cancelExecutionQuietly(execution);
+				if (e != null || isReleasedOnResultSet)
+					release(execution);
+			});
+
+			submit(execution);
+
+			if (timeout > 0)
+				CompletableFuture.delayedExecutor(timeout, TimeUnit.SECONDS).execute(() -> {
+					if (execution.abandon()) {
+						cancelExecutionQuietly(execution);
+						release(execution);
+						OntopQueryEvaluationException exception = new OntopQueryEvaluationException(
+								"Query execution timed out after " + timeout + " seconds");
+						queryLogger.declareEvaluationException(exception);
+						stage.completeExceptionally(exception);
+					}
+				});
+		} catch (OntopQueryEvaluationException e) {
+			release(execution);
+			stage.completeExceptionally(e);
 		}
-		if (executionthread.errorStatus()) {
-			Exception ex = executionthread.getException();
-			if (ex instanceof OntopReformulationException) {
-				throw (OntopReformulationException) ex;
-			}
-			else if (ex instanceof OntopQueryEvaluationException) {
-				queryLogger.declareEvaluationException(ex);
-				throw (OntopQueryEvaluationException) ex;
-			}
-			else {
-				queryLogger.declareEvaluationException(ex);
-				throw new OntopQueryEvaluationException(ex);
-			}
+		return stage;
+	}
+
+	/**
+	 * Into an OntopReformulationException or an OntopQueryEvaluationException (unless an error),
+	 * declared to the query logger
+	 */
+	private static Throwable convertEvaluationException(Throwable cause, QueryLogger queryLogger) {
+		if (cause instanceof OntopReformulationException)
+			return cause;
+		else if (cause instanceof OntopQueryEvaluationException) {
+			queryLogger.declareEvaluationException((Exception) cause);
+			return cause;
 		}
+		else if (cause instanceof Exception) {
+			queryLogger.declareEvaluationException((Exception) cause);
+			return new OntopQueryEvaluationException((Exception) cause);
+		}
+		else
+			return cause;
+	}
 
-		if (canceled) {
-			canceled = false;
-			throw new OntopQueryEvaluationException("Query execution was cancelled");
+	@Override
+	public Flow.Publisher<OntopBindingSet> publishSelectResults(SelectQuery inputQuery,
+																ImmutableMultimap<String, String> httpHeaders) {
+		return publish(inputQuery, httpHeaders);
+	}
+
+	@Override
+	public Flow.Publisher<RDFFact> publishGraphResults(GraphSPARQLQuery inputQuery,
+													   ImmutableMultimap<String, String> httpHeaders) {
+		return publish(inputQuery, httpHeaders);
+	}
+
+	/**
+	 * The statement remains reserved to the execution until the publication terminates
+	 */
+	private <E, R extends IterativeOBDAResultSet<E, ?>> Flow.Publisher<E> publish(KGQuery<R> inputQuery,
+																				   ImmutableMultimap<String, String> httpHeaders) {
+		QueryExecution<R, ?> execution;
+		try {
+			execution = createExecution(inputQuery, httpHeaders);
+		} catch (OntopUnsupportedInputQueryException e) {
+			return new ResultSetPublisher<>(CompletableFuture.<R>failedFuture(e), queryExecutor, () -> {}, () -> {});
+		}
+		return new ResultSetPublisher<>(executeAsync(execution, false), queryExecutor,
+				() -> cancelExecutionQuietly(execution), () -> release(execution));
+	}
+
+	/**
+	 * Returns false if the statement is already evaluating a query
+	 */
+	private synchronized boolean reserve(QueryExecution<?, ?> execution) {
+		if (currentExecution != null)
+			return false;
+		currentExecution = execution;
+		return true;
+	}
+
+	private synchronized void release(QueryExecution<?, ?> execution) {
+		if (currentExecution == execution)
+			currentExecution = null;
+	}
+
+	private static void closeQuietly(OBDAResultSet resultSet) {
+		try {
+			resultSet.close();
+		} catch (OntopConnectionException e) {
+			log.warn("Could not close an abandoned result set: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * The evaluation completed concurrently with its abandonment
+	 */
+	private static <R> R getCompletedResultSet(Future<R> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException | ExecutionException | CancellationException e) {
+			throw new MinorOntopInternalBugException("A completed evaluation was expected to return a result set");
+		}
+	}
+
+	/**
+	 * Only if the statement is still reserved to the execution
+	 * (otherwise, the native query of another execution would be cancelled)
+	 */
+	private synchronized void cancelExecutionQuietly(QueryExecution<?, ?> execution) {
+		if (currentExecution != execution)
+			return;
+		try {
+			cancelExecution();
+		} catch (OntopQueryEvaluationException e) {
+			log.warn("Could not cancel the execution of the native query: " + e.getMessage());
 		}
-		return executionthread.getResultSet();
 	}
 
 	/**
@@ -286,8 +515,13 @@ public abstract class QuestStatement implements OntopStatement {
 	@Override
 	public void cancel() throws OntopConnectionException {
 		canceled = true;
+		QueryExecution<?,?> execution = currentExecution;
+		if (execution == null)
+			return;
+
 		try {
-			executionThread.cancel();
+			if (execution.abandon())
+				cancelExecution();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -0,0 +1,210 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.exception.OntopConnectionException;
+import it.unibz.inf.ontop.query.resultset.IterativeOBDAResultSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the elements of an iterative result set once the latter is available.
+ *
+ * The elements are only pulled from the result set (and therefore from the DB) when requested by the subscriber,
+ * by tasks submitted to the query executor: no thread is held while there is no demand.
+ * The signals to the subscriber are serialized.
+ *
+ * Cancelling the subscription cancels the native query if elements are being fetched, and closes the result set.
+ * The termination callback is called once the result set is closed (or after a failure).
+ *
+ * At most one subscriber, as the result set can only be consumed once.
+ */
+class ResultSetPublisher<E> implements Flow.Publisher<E> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultSetPublisher.class);
+
+    private final CompletionStage<? extends IterativeOBDAResultSet<E, ?>> resultSetStage;
+    private final QueryExecutor queryExecutor;
+    private final Runnable nativeQueryCanceller;
+    private final Runnable terminationCallback;
+    private final AtomicBoolean isSubscribed = new AtomicBoolean(false);
+
+    ResultSetPublisher(CompletionStage<? extends IterativeOBDAResultSet<E, ?>> resultSetStage,
+                       QueryExecutor queryExecutor, Runnable nativeQueryCanceller, Runnable terminationCallback) {
+        this.resultSetStage = resultSetStage;
+        this.queryExecutor = queryExecutor;
+        this.nativeQueryCanceller = nativeQueryCanceller;
+        this.terminationCallback = terminationCallback;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super E> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!isSubscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The results can only be published to one subscriber"));
+            return;
+        }
+
+        ResultSetSubscription subscription = new ResultSetSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        resultSetStage.whenComplete(subscription::onResultSet);
+    }
+
+
+    private class ResultSetSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super E> subscriber;
+
+        private final AtomicLong demand = new AtomicLong(0);
+        // Number of pending drain requests (a drain is running if positive)
+        private final AtomicInteger drainRequests = new AtomicInteger(0);
+
+        @Nullable
+        private volatile IterativeOBDAResultSet<E, ?> resultSet;
+        @Nullable
+        private volatile Throwable failure;
+        private volatile boolean isCancelled = false;
+        // Only accessed by the drain
+        private boolean isTerminated = false;
+        private boolean isResultSetClosed = false;
+
+        ResultSetSubscription(Flow.Subscriber<? super E> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void onResultSet(@Nullable IterativeOBDAResultSet<E, ?> resultSet, @Nullable Throwable failure) {
+            if (failure == null)
+                this.resultSet = resultSet;
+            else if (this.failure == null)
+                this.failure = (failure instanceof CompletionException && failure.getCause() != null)
+                        ? failure.getCause()
+                        : failure;
+            scheduleDrain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive number of elements requested: " + n);
+                resultSetStage.toCompletableFuture().cancel(true);
+                scheduleDrain();
+                return;
+            }
+            demand.getAndAccumulate(n, (d, m) -> (d + m < 0) ? Long.MAX_VALUE : d + m);
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            isCancelled = true;
+            // Interrupts the evaluation of the query if the result set is not available yet
+            resultSetStage.toCompletableFuture().cancel(true);
+            // Elements are being fetched
+            if (drainRequests.get() > 0)
+                nativeQueryCanceller.run();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (drainRequests.getAndIncrement() != 0)
+                return;
+            try {
+                queryExecutor.submit(() -> {
+                    drain();
+                    return null;
+                });
+            }
+            catch (RejectedExecutionException e) {
+                failure = e;
+                drain();
+            }
+        }
+
+        private void drain() {
+            int requests = 1;
+            do {
+                drainOnce();
+                requests = drainRequests.addAndGet(-requests);
+            } while (requests != 0);
+        }
+
+        private void drainOnce() {
+            IterativeOBDAResultSet<E, ?> currentResultSet = resultSet;
+
+            if (isTerminated) {
+                // Result set available after the termination
+                closeResultSet(currentResultSet);
+                return;
+            }
+            // No signal after the cancellation
+            if (isCancelled) {
+                terminate(currentResultSet);
+                return;
+            }
+            Throwable currentFailure = failure;
+            if (currentFailure != null) {
+                terminate(currentResultSet);
+                subscriber.onError(currentFailure);
+                return;
+            }
+            if (currentResultSet == null)
+                return;
+
+            try {
+                while (demand.get() > 0 && !isCancelled) {
+                    if (!currentResultSet.hasNext()) {
+                        terminate(currentResultSet);
+                        subscriber.onComplete();
+                        return;
+                    }
+                    E element = currentResultSet.next();
+                    demand.decrementAndGet();
+                    subscriber.onNext(element);
+                }
+                if (isCancelled)
+                    terminate(currentResultSet);
+            }
+            catch (Exception e) {
+                terminate(currentResultSet);
+                if (!isCancelled)
+                    subscriber.onError(e);
+            }
+        }
+
+        private void terminate(@Nullable IterativeOBDAResultSet<E, ?> currentResultSet) {
+            isTerminated = true;
+            closeResultSet(currentResultSet);
+            terminationCallback.run();
+        }
+
+        private void closeResultSet(@Nullable IterativeOBDAResultSet<E, ?> currentResultSet) {
+            if (currentResultSet == null || isResultSetClosed)
+                return;
+            isResultSetClosed = true;
+            try {
+                currentResultSet.close();
+            }
+            catch (OntopConnectionException e) {
+                LOGGER.warn("Could not close the published result set: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopSystemSettings;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of platform threads.
+ *
+ * Evaluations wait in a bounded queue when all the threads are busy, and are rejected once the queue is full.
+ * Idle threads are released after a minute.
+ */
+@Singleton
+public class ThreadPoolQueryExecutor extends AbstractQueryExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    @Inject
+    private ThreadPoolQueryExecutor(OntopSystemSettings settings) {
+        super(createThreadPool(settings.getQueryExecutorMaxThreads(), settings.getQueryExecutorMaxQueueSize()));
+    }
+
+    private static ThreadPoolExecutor createThreadPool(int maxThreads, int maxQueueSize) {
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxThreads, maxThreads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxQueueSize),
+                createThreadFactory("ontop-query-"));
+        threadPool.allowCoreThreadTimeOut(true);
+        return threadPool;
+    }
+}
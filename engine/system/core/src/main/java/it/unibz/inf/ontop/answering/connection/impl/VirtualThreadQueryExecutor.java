@@ -0,0 +1,35 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One virtual thread per evaluation (JDK 21+). Nothing is queued.
+ *
+ * On older JDKs, falls back to an unbounded cache of platform threads.
+ */
+@Singleton
+public class VirtualThreadQueryExecutor extends AbstractQueryExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadQueryExecutor.class);
+
+    @Inject
+    private VirtualThreadQueryExecutor() {
+        super(createExecutorService());
+    }
+
+    private static ExecutorService createExecutorService() {
+        try {
+            // Looked up by reflection as the project still targets JDK 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads are not supported by this JVM (JDK 21+ required). Using platform threads instead.");
+            return Executors.newCachedThreadPool(createThreadFactory("ontop-query-"));
+        }
+    }
+}
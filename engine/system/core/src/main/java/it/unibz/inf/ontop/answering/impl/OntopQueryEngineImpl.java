@@ -10,17 +10,21 @@ import it.unibz.inf.ontop.injection.OntopSystemFactory;
 import it.unibz.inf.ontop.injection.ReformulationFactory;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.spec.OBDASpecification;
 
 public class OntopQueryEngineImpl implements OntopQueryEngine {
 
     private final DBConnector dbConnector;
     private final QueryReformulator queryReformulator;
+    private final QueryExecutor queryExecutor;
 
     @AssistedInject
     private OntopQueryEngineImpl(@Assisted OBDASpecification obdaSpecification,
                                  ReformulationFactory translationFactory,
-                                 OntopSystemFactory systemFactory) {
+                                 OntopSystemFactory systemFactory,
+                                 QueryExecutor queryExecutor) {
+        this.queryExecutor = queryExecutor;
         queryReformulator = translationFactory.create(obdaSpecification);
         dbConnector = systemFactory.create(queryReformulator);
     }
@@ -44,4 +48,14 @@ public class OntopQueryEngineImpl implements OntopQueryEngine {
     public QueryReformulator getQueryReformulator() {
         return queryReformulator;
     }
+
+    @Override
+    public QueryExecutor.Statistics getQueryExecutorStatistics() {
+        return queryExecutor.getStatistics();
+    }
+
+    @Override
+    public DBConnector.Statistics getDBConnectorStatistics() {
+        return dbConnector.getStatistics();
+    }
 }
@@ -21,12 +21,39 @@ public interface OntopSystemSettings extends OntopReformulationSettings {
     // HTTP Caching
     Optional<String> getHttpCacheControl();
 
+    /**
+     * Maximal number of queries evaluated concurrently by the thread pool of the query executor
+     */
+    int getQueryExecutorMaxThreads();
+
+    /**
+     * Maximal number of queries waiting for a thread of the query executor.
+     * Beyond, queries are rejected.
+     */
+    int getQueryExecutorMaxQueueSize();
+
+    /**
+     * Maximal number of parsed SPARQL queries shared by the connections of a repository.
+     * The cache is disabled if equal to 0.
+     */
+    long getSPARQLParsingCacheMaxSize();
+
+    /**
+     * In seconds. Parsed SPARQL queries not accessed during this period are evicted.
+     * Has no effect if equal to 0.
+     */
+    long getSPARQLParsingCacheExpireAfterAccess();
+
     //--------------------------
     // Keys
     //--------------------------
 
     String DEFAULT_QUERY_TIMEOUT = "ontop.query.defaultTimeout";
     String PERMANENT_DB_CONNECTION = "ontop.permanentConnection";
+    String QUERY_EXECUTOR_MAX_THREADS = "ontop.query.executor.maxThreads";
+    String QUERY_EXECUTOR_MAX_QUEUE_SIZE = "ontop.query.executor.maxQueueSize";
+    String SPARQL_PARSING_CACHE_MAX_SIZE = "ontop.cache.sparqlParsing.size";
+    String SPARQL_PARSING_CACHE_EXPIRE_AFTER_ACCESS = "ontop.cache.sparqlParsing.expireAfterAccess";
 
     // HTTP caching
     String HTTP_CACHE_CONTROL = "ontop.http.cacheControl";
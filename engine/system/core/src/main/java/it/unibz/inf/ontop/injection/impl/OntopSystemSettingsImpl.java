@@ -36,6 +36,26 @@ public class OntopSystemSettingsImpl extends OntopReformulationSettingsImpl impl
         return getRequiredBoolean(PERMANENT_DB_CONNECTION);
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return getRequiredInteger(QUERY_EXECUTOR_MAX_THREADS);
+    }
+
+    @Override
+    public int getQueryExecutorMaxQueueSize() {
+        return getRequiredInteger(QUERY_EXECUTOR_MAX_QUEUE_SIZE);
+    }
+
+    @Override
+    public long getSPARQLParsingCacheMaxSize() {
+        return getRequiredLong(SPARQL_PARSING_CACHE_MAX_SIZE);
+    }
+
+    @Override
+    public long getSPARQLParsingCacheExpireAfterAccess() {
+        return getRequiredLong(SPARQL_PARSING_CACHE_EXPIRE_AFTER_ACCESS);
+    }
+
     @Override
     public Optional<String> getHttpCacheControl() {
         String cacheControl = getProperty(HTTP_CACHE_CONTROL)
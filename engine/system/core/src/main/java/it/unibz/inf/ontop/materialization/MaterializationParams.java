@@ -16,6 +16,21 @@ public interface MaterializationParams {
      */
     boolean canMaterializationBeIncomplete();
 
+    /**
+     * Number of RDF properties/classes materialized concurrently, each one over its own connection.
+     *
+     * 1 by default (sequential materialization).
+     */
+    int getParallelism();
+
+    /**
+     * Maximal number of RDF facts produced by the concurrent materializations
+     * and not consumed yet.
+     *
+     * Only used when the parallelism is greater than 1.
+     */
+    int getBufferSize();
+
 
     static Builder<?> defaultBuilder() {
         return new MaterializationParamsImpl.DefaultBuilder();
@@ -25,6 +40,10 @@ public interface MaterializationParams {
 
         B enableIncompleteMaterialization(boolean enable);
 
+        B parallelism(int parallelism);
+
+        B bufferSize(int bufferSize);
+
         MaterializationParams build();
     }
 }
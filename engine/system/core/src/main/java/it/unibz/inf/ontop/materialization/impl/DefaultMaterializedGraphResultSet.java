@@ -155,10 +155,11 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
     /**
      * Builds (named) assertions out of (quad) results
      */
-    private RDFFact toAssertion(OntopBindingSet tuple) throws OntopResultConversionException {
+    static RDFFact toAssertion(OntopBindingSet tuple, VocabularyEntry predicate, IRIConstant predicateIRI,
+                               IRIConstant rdfTypeIRI) throws OntopResultConversionException {
         ObjectConstant s = (ObjectConstant) tuple.getConstant("s");
-        IRIConstant p = lastSeenPredicate.isClass() ? rdfTypeIRI : lastSeenPredicateIRI;
-        RDFConstant o = lastSeenPredicate.isClass() ? lastSeenPredicateIRI : tuple.getConstant("o");
+        IRIConstant p = predicate.isClass() ? rdfTypeIRI : predicateIRI;
+        RDFConstant o = predicate.isClass() ? predicateIRI : tuple.getConstant("o");
         ObjectConstant g = (ObjectConstant)tuple.getConstant("g");
 
         return (g == null)
@@ -173,7 +174,7 @@ class DefaultMaterializedGraphResultSet implements MaterializedGraphResultSet {
         OntopBindingSet resultTuple;
         try {
             resultTuple = tmpContextResultSet.next();
-            return toAssertion(resultTuple);
+            return toAssertion(resultTuple, lastSeenPredicate, lastSeenPredicateIRI, rdfTypeIRI);
         } catch (OntopConnectionException e) {
             try {
                 tmpContextResultSet.close();
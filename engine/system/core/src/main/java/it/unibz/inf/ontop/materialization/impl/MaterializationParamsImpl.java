@@ -5,9 +5,13 @@ import it.unibz.inf.ontop.materialization.MaterializationParams;
 public class MaterializationParamsImpl implements MaterializationParams {
 
     private final boolean enableIncompleteMaterialization;
+    private final int parallelism;
+    private final int bufferSize;
 
-    private MaterializationParamsImpl(boolean enableIncompleteMaterialization) {
+    private MaterializationParamsImpl(boolean enableIncompleteMaterialization, int parallelism, int bufferSize) {
         this.enableIncompleteMaterialization = enableIncompleteMaterialization;
+        this.parallelism = parallelism;
+        this.bufferSize = bufferSize;
     }
 
 
@@ -16,13 +20,29 @@ public class MaterializationParamsImpl implements MaterializationParams {
         return enableIncompleteMaterialization;
     }
 
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
 
     public static class DefaultBuilder implements Builder<DefaultBuilder> {
 
+        private static final int DEFAULT_BUFFER_SIZE = 10000;
+
         private boolean canMaterializationBeIncomplete;
+        private int parallelism;
+        private int bufferSize;
 
         public DefaultBuilder() {
             this.canMaterializationBeIncomplete = false;
+            this.parallelism = 1;
+            this.bufferSize = DEFAULT_BUFFER_SIZE;
         }
 
         @Override
@@ -31,9 +51,25 @@ public class MaterializationParamsImpl implements MaterializationParams {
             return this;
         }
 
+        @Override
+        public DefaultBuilder parallelism(int parallelism) {
+            if (parallelism < 1)
+                throw new IllegalArgumentException("The parallelism must be positive");
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        @Override
+        public DefaultBuilder bufferSize(int bufferSize) {
+            if (bufferSize < 1)
+                throw new IllegalArgumentException("The buffer size must be positive");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
         @Override
         public MaterializationParams build() {
-            return new MaterializationParamsImpl(canMaterializationBeIncomplete);
+            return new MaterializationParamsImpl(canMaterializationBeIncomplete, parallelism, bufferSize);
         }
     }
 
@@ -0,0 +1,309 @@
+package it.unibz.inf.ontop.materialization.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import it.unibz.inf.ontop.answering.OntopQueryEngine;
+import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
+import it.unibz.inf.ontop.exception.*;
+import it.unibz.inf.ontop.materialization.MaterializationParams;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.query.KGQueryFactory;
+import it.unibz.inf.ontop.query.SelectQuery;
+import it.unibz.inf.ontop.query.resultset.OntopCloseableIterator;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.query.resultset.impl.RDFFactCloseableIterator;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materializes several RDF properties/classes concurrently.
+ *
+ * Each worker thread takes the next property/class to materialize and evaluates its query over its own connection.
+ * The produced RDF facts are pushed into a bounded buffer, from which they are consumed by a single reader.
+ *
+ * The facts of the different properties/classes are therefore interleaved.
+ */
+class ParallelMaterializedGraphResultSet implements MaterializedGraphResultSet {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMaterializedGraphResultSet.class);
+
+    private final ImmutableMap<IRI, VocabularyEntry> vocabulary;
+    private final OntopQueryEngine queryEngine;
+    private final KGQueryFactory kgQueryFactory;
+    private final TermFactory termFactory;
+    private final boolean canBeIncomplete;
+    private final int parallelism;
+    private final IRIConstant rdfTypeIRI;
+
+    private final Queue<VocabularyEntry> remainingEntries;
+    private final BlockingQueue<Message> buffer;
+    private final Queue<IRI> possiblyIncompleteClassesAndProperties;
+    private final AtomicInteger completedEntryCount;
+    private final AtomicLong counter;
+    private final FactIterator iterator;
+
+    // Lately initiated
+    @Nullable
+    private ExecutorService executorService;
+    private int runningWorkers;
+    @Nullable
+    private RDFFact nextFact;
+    private volatile boolean isClosed;
+
+    ParallelMaterializedGraphResultSet(ImmutableMap<IRI, VocabularyEntry> vocabulary, MaterializationParams params,
+                                       OntopQueryEngine queryEngine, KGQueryFactory kgQueryFactory,
+                                       TermFactory termFactory) {
+        this.vocabulary = vocabulary;
+        this.queryEngine = queryEngine;
+        this.kgQueryFactory = kgQueryFactory;
+        this.termFactory = termFactory;
+        this.canBeIncomplete = params.canMaterializationBeIncomplete();
+        this.parallelism = params.getParallelism();
+        this.rdfTypeIRI = termFactory.getConstantIRI(RDF.TYPE.getIRIString());
+
+        this.remainingEntries = new ConcurrentLinkedQueue<>(vocabulary.values());
+        this.buffer = new ArrayBlockingQueue<>(params.getBufferSize());
+        this.possiblyIncompleteClassesAndProperties = new ConcurrentLinkedQueue<>();
+        this.completedEntryCount = new AtomicInteger();
+        this.counter = new AtomicLong();
+        this.iterator = new FactIterator();
+    }
+
+    @Override
+    public ImmutableSet<IRI> getSelectedVocabulary() {
+        return vocabulary.keySet();
+    }
+
+    @Override
+    public boolean hasNext() throws OntopQueryAnsweringException, OntopConnectionException {
+        if (nextFact != null)
+            return true;
+        if (isClosed)
+            return false;
+
+        if (executorService == null)
+            start();
+
+        while (runningWorkers > 0) {
+            Message message;
+            try {
+                message = buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new OntopConnectionException("Interrupted while waiting for the materialized facts", e);
+            }
+
+            if (message.fact != null) {
+                nextFact = message.fact;
+                return true;
+            }
+            else if (message.failure != null) {
+                close();
+                throw rethrow(message.failure);
+            }
+            else
+                runningWorkers--;
+        }
+        close();
+        return false;
+    }
+
+    @Override
+    public RDFFact next() {
+        if (nextFact == null)
+            throw new IllegalStateException("Make sure to call hasNext() before calling next()");
+        RDFFact fact = nextFact;
+        nextFact = null;
+        counter.incrementAndGet();
+        return fact;
+    }
+
+    private void start() {
+        int workerCount = Math.min(parallelism, vocabulary.size());
+        AtomicInteger threadCounter = new AtomicInteger();
+        executorService = Executors.newFixedThreadPool(Math.max(workerCount, 1), r -> {
+            Thread thread = new Thread(r, "ontop-materializer-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++)
+            executorService.execute(this::runWorker);
+        runningWorkers = workerCount;
+    }
+
+    private void runWorker() {
+        try (OntopConnection connection = queryEngine.getConnection()) {
+            VocabularyEntry entry;
+            while ((!isClosed) && (entry = remainingEntries.poll()) != null) {
+                materialize(entry, connection);
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            if (!publishQuietly(Message.failure(e)))
+                return;
+        }
+        publishQuietly(Message.END);
+    }
+
+    private void materialize(VocabularyEntry entry, OntopConnection connection)
+            throws InterruptedException, OntopQueryAnsweringException, OntopConnectionException {
+        long startTime = System.currentTimeMillis();
+        long tripleCount = 0;
+
+        try (OntopStatement statement = connection.createStatement()) {
+            SelectQuery query = kgQueryFactory.createSelectQuery(entry.getSelectQuery());
+            IRIConstant predicateIRI = termFactory.getConstantIRI(entry.getIRIString());
+
+            try (TupleResultSet resultSet = statement.execute(query)) {
+                while (resultSet.hasNext()) {
+                    RDFFact fact = DefaultMaterializedGraphResultSet.toAssertion(resultSet.next(), entry,
+                            predicateIRI, rdfTypeIRI);
+                    buffer.put(Message.fact(fact));
+                    tripleCount++;
+                }
+            }
+        } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+            if (isClosed)
+                return;
+            if (canBeIncomplete) {
+                LOGGER.warn("Possibly incomplete class/property " + entry + " (materialization problem).\n"
+                        + "Details: " + e);
+                possiblyIncompleteClassesAndProperties.add(entry.name);
+            } else {
+                LOGGER.error("Problem materializing the class/property " + entry);
+                throw e;
+            }
+        } catch (OntopInvalidKGQueryException e) {
+            throw new OntopInvalidInputQueryException(e.getMessage());
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        LOGGER.info("Materialized {} ({}/{}): {} triples in {} ms ({} triples/s)", entry,
+                completedEntryCount.incrementAndGet(), vocabulary.size(), tripleCount, duration,
+                duration == 0 ? tripleCount : tripleCount * 1000 / duration);
+    }
+
+    /**
+     * Returns false if interrupted (i.e. closed by the consumer)
+     */
+    private boolean publishQuietly(Message message) {
+        try {
+            buffer.put(message);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(Exception failure) throws OntopQueryAnsweringException,
+            OntopConnectionException {
+        if (failure instanceof OntopQueryAnsweringException)
+            throw (OntopQueryAnsweringException) failure;
+        if (failure instanceof OntopConnectionException)
+            throw (OntopConnectionException) failure;
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        throw new OntopConnectionException(failure);
+    }
+
+    /**
+     * Consumes the same buffer as hasNext() and next(): the two modes of consumption should not be mixed
+     */
+    @Override
+    public OntopCloseableIterator<RDFFact, OntopConnectionException> iterator() {
+        return iterator;
+    }
+
+    /**
+     * Stops the workers, which release their connections
+     */
+    @Override
+    public void close() {
+        if (isClosed)
+            return;
+        isClosed = true;
+        if (executorService != null) {
+            executorService.shutdownNow();
+            // Unblocks the workers waiting for space in the buffer
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public long getTripleCountSoFar() {
+        return counter.get();
+    }
+
+    @Override
+    public ImmutableList<IRI> getPossiblyIncompleteRDFPropertiesAndClassesSoFar() {
+        return ImmutableList.copyOf(possiblyIncompleteClassesAndProperties);
+    }
+
+
+    private class FactIterator extends RDFFactCloseableIterator {
+
+        @Override
+        public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
+            try {
+                return ParallelMaterializedGraphResultSet.this.hasNext();
+            }
+            catch (OntopResultConversionException e) {
+                throw e;
+            }
+            catch (OntopQueryAnsweringException e) {
+                throw new OntopResultConversionException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public RDFFact next() {
+            return ParallelMaterializedGraphResultSet.this.next();
+        }
+
+        @Override
+        protected void handleClose() {
+            ParallelMaterializedGraphResultSet.this.close();
+        }
+    }
+
+
+    private static class Message {
+        private static final Message END = new Message(null, null);
+
+        @Nullable
+        private final RDFFact fact;
+        @Nullable
+        private final Exception failure;
+
+        private Message(@Nullable RDFFact fact, @Nullable Exception failure) {
+            this.fact = fact;
+            this.failure = failure;
+        }
+
+        static Message fact(RDFFact fact) {
+            return new Message(fact, null);
+        }
+
+        static Message failure(Exception failure) {
+            return new Message(null, failure);
+        }
+    }
+}
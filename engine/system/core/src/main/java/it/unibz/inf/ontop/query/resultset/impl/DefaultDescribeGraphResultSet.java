@@ -15,6 +15,8 @@ import it.unibz.inf.ontop.spec.ontology.RDFFact;
 import org.apache.commons.rdf.api.IRI;
 
 import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class DefaultDescribeGraphResultSet implements GraphResultSet {
     private final ResultSetIterator iterator;
@@ -46,18 +48,21 @@ public class DefaultDescribeGraphResultSet implements GraphResultSet {
         try (TupleResultSet resultSet = selectQueryEvaluator.evaluate(inputQuery.getSelectQuery(), queryContext, selectQueryLogger)) {
             queryLogger.declareResultSetUnblockedAndSerialize();
 
-            ImmutableSet.Builder<IRI> iriSetBuilder = ImmutableSet.builder();
-            while (resultSet.hasNext()) {
+            int maxResources = inputQuery.getMaxResourcesToDescribe().orElse(Integer.MAX_VALUE);
+
+            // Insertion order is preserved
+            Set<IRI> iris = new LinkedHashSet<>();
+            while (resultSet.hasNext() && iris.size() < maxResources) {
                 final OntopBindingSet bindingSet = resultSet.next();
                 for (OntopBinding binding : bindingSet.getBindings()) {
                     RDFConstant value = binding.getValue();
                     // Ignores blank-nodes and literals
-                    if (value instanceof IRIConstant) {
-                        iriSetBuilder.add(((IRIConstant) value).getIRI());
+                    if ((value instanceof IRIConstant) && iris.size() < maxResources) {
+                        iris.add(((IRIConstant) value).getIRI());
                     }
                 }
             }
-            return iriSetBuilder.build();
+            return ImmutableSet.copyOf(iris);
             // Exception is re-cast because not due to the initial input query
         } catch (OntopInvalidInputQueryException e) {
             throw new OntopReformulationException(e);
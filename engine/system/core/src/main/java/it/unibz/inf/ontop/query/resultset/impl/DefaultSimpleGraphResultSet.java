@@ -1,5 +1,6 @@
 package it.unibz.inf.ontop.query.resultset.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopResultConversionException;
@@ -10,7 +11,7 @@ import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.vocabulary.XSD;
 import it.unibz.inf.ontop.query.ConstructTemplate;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
-import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
 import it.unibz.inf.ontop.query.resultset.OntopCloseableIterator;
 import it.unibz.inf.ontop.query.resultset.TupleResultSet;
 import it.unibz.inf.ontop.spec.ontology.RDFFact;
@@ -21,19 +22,28 @@ import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.algebra.*;
 
-import java.util.LinkedList;
+import javax.annotation.Nullable;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.UUID;
 
+/**
+ * Instantiates the CONSTRUCT template for each row of the tuple result set.
+ *
+ * The template is compiled once per query into triple templates, whose constants are built in advance
+ * and whose variables remember the position of their binding in the previous row.
+ */
 public class DefaultSimpleGraphResultSet implements GraphResultSet {
 
 	private final TupleResultSet resultSet;
-	private final ConstructTemplate constructTemplate;
-	private final TermFactory termFactory;
-	private final org.apache.commons.rdf.api.RDF rdfFactory;
 	private final boolean excludeInvalidTriples;
 
+	private final ImmutableList<TripleTemplate> tripleTemplates;
+	private final boolean hasBNodeTemplates;
+	// Makes the blank nodes of this result set distinct from the ones of the other result sets
+	private final String bNodeLabelSuffix;
+
 	private final OntopCloseableIterator<RDFFact, OntopConnectionException> iterator;
 
 	public DefaultSimpleGraphResultSet(
@@ -42,14 +52,72 @@ public class DefaultSimpleGraphResultSet implements GraphResultSet {
 			TermFactory termFactory,
 			RDF rdfFactory, boolean excludeInvalidTriples) {
 		this.resultSet = tupleResultSet;
-		this.constructTemplate = constructTemplate;
-		this.termFactory = termFactory;
-		this.rdfFactory = rdfFactory;
 		this.excludeInvalidTriples = excludeInvalidTriples;
 
+		this.tripleTemplates = compile(constructTemplate, termFactory, rdfFactory);
+		this.hasBNodeTemplates = tripleTemplates.stream()
+				.flatMap(t -> t.terms.stream())
+				.anyMatch(t -> t instanceof BNodeTermTemplate);
+		// Single call to the secure random generator
+		this.bNodeLabelSuffix = hasBNodeTemplates ? UUID.randomUUID().toString() : "";
+
 		this.iterator = new ResultSetIterator();
 	}
 
+	private static ImmutableList<TripleTemplate> compile(ConstructTemplate constructTemplate, TermFactory termFactory,
+														 RDF rdfFactory) {
+		Extension ex = constructTemplate.getExtension();
+		ImmutableMap<String, ValueExpr> extMap = ex != null
+				? ex.getElements().stream()
+						.collect(ImmutableCollectors.toMap(ExtensionElem::getName, ExtensionElem::getExpr))
+				: ImmutableMap.of();
+
+		ImmutableList.Builder<TripleTemplate> builder = ImmutableList.builder();
+		for (ProjectionElemList peList : constructTemplate.getProjectionElemList()) {
+			List<ProjectionElem> elements = peList.getElements();
+			int size = elements.size();
+			for (int i = 0; i < size / 3; i++) {
+				builder.add(new TripleTemplate(
+						compile(elements.get(i * 3), extMap, termFactory, rdfFactory),
+						compile(elements.get(i * 3 + 1), extMap, termFactory, rdfFactory),
+						compile(elements.get(i * 3 + 2), extMap, termFactory, rdfFactory)));
+			}
+		}
+		return builder.build();
+	}
+
+	private static TermTemplate compile(ProjectionElem node, ImmutableMap<String, ValueExpr> extMap,
+										TermFactory termFactory, RDF rdfFactory) {
+		String nodeName = node.getName();
+		ValueExpr ve = extMap.get(nodeName);
+
+		if (ve instanceof ValueConstant) {
+			ValueConstant vc = (ValueConstant) ve;
+			RDFConstant constant;
+			if (vc.getValue() instanceof IRI) {
+				constant = termFactory.getConstantIRI(rdfFactory.createIRI(vc.getValue().stringValue()));
+			} else if (vc.getValue() instanceof Literal) {
+				constant = termFactory.getRDFLiteralConstant(vc.getValue().stringValue(), XSD.STRING);
+			} else {
+				constant = termFactory.getConstantBNode(vc.getValue().stringValue());
+			}
+			return new ConstantTermTemplate(constant);
+		}
+		if (ve instanceof BNodeGenerator) {
+			// See https://www.w3.org/TR/sparql11-query/#tempatesWithBNodes
+			String labelPrefix = Optional.ofNullable(((BNodeGenerator) ve).getNodeIdExpr())
+					// If defined, we expected the b-node label to be constant
+					// (as appearing in the CONSTRUCT block)
+					.filter(e -> e instanceof ValueConstant)
+					.map(e -> (ValueConstant)e)
+					.map(ValueConstant::getValue)
+					.map(Value::stringValue)
+					.orElse(nodeName);
+			return new BNodeTermTemplate(labelPrefix, termFactory);
+		}
+		return new VariableTermTemplate(nodeName);
+	}
+
 	@Override
 	public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
 		return iterator.hasNext();
@@ -71,21 +139,16 @@ public class DefaultSimpleGraphResultSet implements GraphResultSet {
 	}
 
 	private class ResultSetIterator extends RDFFactCloseableIterator {
-		private final Queue<RDFFact> statementBuffer = new LinkedList<>();
-		private final ImmutableMap<String, ValueExpr> extMap;
-
-		private ResultSetIterator() {
-			Extension ex = constructTemplate.getExtension();
-			extMap = ex != null
-					? ex.getElements().stream()
-							.collect(ImmutableCollectors.toMap(ExtensionElem::getName, ExtensionElem::getExpr))
-					: null;
-		}
+		// Facts of the current row not consumed yet (reused from one row to the next)
+		private final RDFFact[] rowFacts = new RDFFact[tripleTemplates.size()];
+		private int rowFactCount = 0;
+		private int rowFactIndex = 0;
+		private long rowNumber = 0;
 
 		@Override
 		public boolean hasNext() throws OntopConnectionException, OntopResultConversionException {
 			addStatementFromResultSet();
-			boolean hasNext = !statementBuffer.isEmpty();
+			boolean hasNext = rowFactIndex < rowFactCount;
 			if (!hasNext) {
 				handleClose();
 			}
@@ -94,10 +157,13 @@ public class DefaultSimpleGraphResultSet implements GraphResultSet {
 
 		@Override
 		public RDFFact next() throws OntopConnectionException {
-			if (statementBuffer.isEmpty()) {
+			if (rowFactIndex >= rowFactCount) {
 				handleClose();
+				throw new NoSuchElementException();
 			}
-			return statementBuffer.remove();
+			RDFFact fact = rowFacts[rowFactIndex];
+			rowFacts[rowFactIndex++] = null;
+			return fact;
 		}
 
 		@Override
@@ -113,40 +179,31 @@ public class DefaultSimpleGraphResultSet implements GraphResultSet {
 		}
 
 		private void addStatementFromResultSet() throws OntopConnectionException, OntopResultConversionException {
-			while (statementBuffer.isEmpty()) {
+			while (rowFactIndex >= rowFactCount) {
 				if (!resultSet.isConnectionAlive() || !resultSet.hasNext())
 					return;
 
+				rowFactCount = 0;
+				rowFactIndex = 0;
 				try {
-					OntopBindingSet bindingSet = resultSet.next();
-					for (ProjectionElemList peList : constructTemplate.getProjectionElemList()) {
-						List<ProjectionElem> elements = peList.getElements();
-						int size = elements.size();
-						for (int i = 0; i < size / 3; i++) {
-							try {
-								RDFConstant subjectConstant = getConstant(elements.get(i * 3), bindingSet);
-								RDFConstant propertyConstant = getConstant(elements.get(i * 3 + 1), bindingSet);
-								RDFConstant objectConstant = getConstant(elements.get(i * 3 + 2), bindingSet);
-								if (subjectConstant instanceof ObjectConstant
-										&& propertyConstant instanceof IRIConstant
-										&& objectConstant != null) {
-									statementBuffer.add(
-											RDFFact.createTripleFact(
-													(ObjectConstant)subjectConstant,
-													(IRIConstant)propertyConstant,
-													objectConstant));
-								}
-								else {
-									// TODO: inform the query logger that a triple has been excluded
-								}
-							}
-							// OntopResultConversionException is never thrown by the implementation
-							//  of OntopBindingSet.getConstant
-							catch (OntopResultConversionException e) {
-								if (!excludeInvalidTriples)
-									throw e;
-								// TODO: inform the query logger that a triple has been excluded
-							}
+					OntopBinding[] bindings = resultSet.next().getBindings();
+					// Labels are only unique within the result set
+					String rowLabel = hasBNodeTemplates ? "r" + (rowNumber++) + "-" + bNodeLabelSuffix : null;
+
+					for (TripleTemplate template : tripleTemplates) {
+						RDFConstant subjectConstant = template.subject.instantiate(bindings, rowLabel);
+						RDFConstant propertyConstant = template.property.instantiate(bindings, rowLabel);
+						RDFConstant objectConstant = template.object.instantiate(bindings, rowLabel);
+						if (subjectConstant instanceof ObjectConstant
+								&& propertyConstant instanceof IRIConstant
+								&& objectConstant != null) {
+							rowFacts[rowFactCount++] = RDFFact.createTripleFact(
+									(ObjectConstant)subjectConstant,
+									(IRIConstant)propertyConstant,
+									objectConstant);
+						}
+						else {
+							// TODO: inform the query logger that a triple has been excluded
 						}
 					}
 				}
@@ -160,43 +217,85 @@ public class DefaultSimpleGraphResultSet implements GraphResultSet {
 				}
 			}
 		}
+	}
 
-		private RDFConstant getConstant(ProjectionElem node, OntopBindingSet bindingSet)
-				throws OntopResultConversionException {
-			String nodeName = node.getName();
-			ValueExpr ve = extMap != null
-					? extMap.get(nodeName)
-					: null;
 
-			RDFConstant constant;
-			if (ve instanceof ValueConstant) {
-				ValueConstant vc = (ValueConstant) ve;
-				if (vc.getValue() instanceof IRI) {
-					constant = termFactory.getConstantIRI(rdfFactory.createIRI(vc.getValue().stringValue()));
-				} else if (vc.getValue() instanceof Literal) {
-					constant = termFactory.getRDFLiteralConstant(vc.getValue().stringValue(), XSD.STRING);
-				} else {
-					constant = termFactory.getConstantBNode(vc.getValue().stringValue());
+	private static class TripleTemplate {
+		private final TermTemplate subject, property, object;
+		private final ImmutableList<TermTemplate> terms;
+
+		private TripleTemplate(TermTemplate subject, TermTemplate property, TermTemplate object) {
+			this.subject = subject;
+			this.property = property;
+			this.object = object;
+			this.terms = ImmutableList.of(subject, property, object);
+		}
+	}
+
+	private interface TermTemplate {
+		/**
+		 * Null if the variable is unbound
+		 */
+		@Nullable
+		RDFConstant instantiate(OntopBinding[] bindings, @Nullable String rowLabel);
+	}
+
+	private static class ConstantTermTemplate implements TermTemplate {
+		private final RDFConstant constant;
+
+		private ConstantTermTemplate(RDFConstant constant) {
+			this.constant = constant;
+		}
+
+		@Override
+		public RDFConstant instantiate(OntopBinding[] bindings, @Nullable String rowLabel) {
+			return constant;
+		}
+	}
+
+	/**
+	 * Fresh blank node for each row
+	 */
+	private static class BNodeTermTemplate implements TermTemplate {
+		private final String labelPrefix;
+		private final TermFactory termFactory;
+
+		private BNodeTermTemplate(String labelPrefix, TermFactory termFactory) {
+			this.labelPrefix = labelPrefix;
+			this.termFactory = termFactory;
+		}
+
+		@Override
+		public RDFConstant instantiate(OntopBinding[] bindings, @Nullable String rowLabel) {
+			return termFactory.getConstantBNode(labelPrefix + rowLabel);
+		}
+	}
+
+	/**
+	 * The bindings are usually at the same position in all the rows, so the position in the previous row
+	 * is tried first. Not thread-safe (as the iterator).
+	 */
+	private static class VariableTermTemplate implements TermTemplate {
+		private final String name;
+		private int slot = 0;
+
+		private VariableTermTemplate(String name) {
+			this.name = name;
+		}
+
+		@Nullable
+		@Override
+		public RDFConstant instantiate(OntopBinding[] bindings, @Nullable String rowLabel) {
+			if (slot < bindings.length && bindings[slot].getName().equals(name))
+				return bindings[slot].getValue();
+
+			for (int i = 0; i < bindings.length; i++) {
+				if (bindings[i].getName().equals(name)) {
+					slot = i;
+					return bindings[i].getValue();
 				}
-			} else if (ve instanceof BNodeGenerator) {
-				// See https://www.w3.org/TR/sparql11-query/#tempatesWithBNodes
-				String rowId = bindingSet.getRowUUIDStr();
-
-				String label = Optional.ofNullable(((BNodeGenerator) ve).getNodeIdExpr())
-								// If defined, we expected the b-node label to be constant
-								// (as appearing in the CONSTRUCT block)
-								.filter(e -> e instanceof ValueConstant)
-								.map(e -> (ValueConstant)e)
-								.map(ValueConstant::getValue)
-								.map(Value::stringValue)
-								.map(s -> s + rowId)
-								.orElseGet(() -> nodeName + rowId);
-
-				constant = termFactory.getConstantBNode(label);
-			} else {
-				constant = bindingSet.getConstant(nodeName); // the actual implementation never throws OntopResultConversionException
 			}
-			return constant;
+			return null;
 		}
 	}
 }
@@ -0,0 +1,378 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.answering.logging.QueryLogger;
+import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
+import it.unibz.inf.ontop.answering.reformulation.QueryTemplateCache;
+import it.unibz.inf.ontop.evaluator.QueryContext;
+import it.unibz.inf.ontop.exception.OntopQueryEvaluationException;
+import it.unibz.inf.ontop.exception.OntopReformulationException;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.query.ConstructTemplate;
+import it.unibz.inf.ontop.query.KGQuery;
+import it.unibz.inf.ontop.query.KGQueryFactory;
+import it.unibz.inf.ontop.query.SelectQuery;
+import it.unibz.inf.ontop.query.resultset.BooleanResultSet;
+import it.unibz.inf.ontop.query.resultset.GraphResultSet;
+import it.unibz.inf.ontop.query.resultset.OBDAResultSet;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.query.translation.KGQueryTranslator;
+import it.unibz.inf.ontop.spec.ontology.InconsistentOntologyException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * The evaluation of the query blocks until released by the test, and ignores the interruptions
+ * (like a native query that is not cancelled in time)
+ */
+public class QuestStatementAsyncTest {
+
+    private static final QueryExecutor QUERY_EXECUTOR = new AbstractQueryExecutor(Executors.newCachedThreadPool()) {};
+    private static final SelectQuery QUERY = new SelectQuery() {
+        @Override
+        public String getOriginalString() {
+            return "SELECT * WHERE { ?s ?p ?o }";
+        }
+
+        @Override
+        public IQ translate(KGQueryTranslator translator) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void testResultSet() throws Exception {
+        TestStatement statement = new TestStatement();
+        CompletableFuture<TupleResultSet> stage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+        statement.awaitEvaluation();
+        assertFalse(stage.isDone());
+
+        statement.unblockEvaluation();
+        assertSame(statement.resultSet, stage.get(5, TimeUnit.SECONDS));
+        assertFalse(statement.resultSet.isClosed());
+    }
+
+    @Test
+    public void testCancelBeforeResultSet() throws Exception {
+        TestStatement statement = new TestStatement();
+        CompletableFuture<TupleResultSet> stage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+        statement.awaitEvaluation();
+
+        stage.cancel(true);
+        assertEquals(1, statement.cancellations.get());
+
+        // Produced after the cancellation
+        statement.unblockEvaluation();
+        assertTrue(statement.resultSet.awaitClosing());
+    }
+
+    @Test
+    public void testCancelAfterResultSet() throws Exception {
+        TestStatement statement = new TestStatement();
+        CompletableFuture<TupleResultSet> stage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+        statement.unblockEvaluation();
+        stage.get(5, TimeUnit.SECONDS);
+
+        assertFalse(stage.cancel(true));
+        assertEquals(0, statement.cancellations.get());
+        assertFalse(statement.resultSet.isClosed());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        TestStatement statement = new TestStatement();
+        statement.setQueryTimeout(1);
+        CompletableFuture<TupleResultSet> stage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+
+        try {
+            stage.get(5, TimeUnit.SECONDS);
+            fail("The evaluation was expected to time out");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof OntopQueryEvaluationException);
+        }
+        assertEquals(1, statement.cancellations.get());
+
+        statement.unblockEvaluation();
+        assertTrue(statement.resultSet.awaitClosing());
+    }
+
+    @Test
+    public void testConcurrentExecutionRejected() throws Exception {
+        TestStatement statement = new TestStatement();
+        CompletableFuture<TupleResultSet> stage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+        statement.awaitEvaluation();
+
+        CompletableFuture<TupleResultSet> concurrentStage = statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture();
+        assertTrue(concurrentStage.isCompletedExceptionally());
+        assertThrows(OntopQueryEvaluationException.class, () -> statement.execute(QUERY));
+
+        // Does not affect the running execution
+        assertEquals(0, statement.cancellations.get());
+        statement.unblockEvaluation();
+        stage.get(5, TimeUnit.SECONDS);
+
+        assertNotNull(statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * The statement remains reserved until the publication terminates
+     */
+    @Test
+    public void testPublication() throws Exception {
+        TestStatement statement = new TestStatement();
+        statement.unblockEvaluation();
+        Flow.Publisher<OntopBindingSet> publisher = statement.publishSelectResults(QUERY, ImmutableMultimap.of());
+
+        BlockingQueue<Flow.Subscription> subscriptions = new LinkedBlockingQueue<>();
+        CountDownLatch completion = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<OntopBindingSet>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriptions.add(subscription);
+            }
+
+            @Override
+            public void onNext(OntopBindingSet item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completion.countDown();
+            }
+        });
+        Flow.Subscription subscription = subscriptions.take();
+
+        assertTrue(statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture().isCompletedExceptionally());
+
+        subscription.request(1);
+        assertTrue(completion.await(5, TimeUnit.SECONDS));
+        assertTrue(statement.resultSet.isClosed());
+        assertEquals(0, statement.cancellations.get());
+
+        statement.resultSet = new FakeTupleResultSet();
+        assertNotNull(statement.executeAsync(QUERY, ImmutableMultimap.of()).toCompletableFuture().get(5, TimeUnit.SECONDS));
+    }
+
+
+    private static class TestStatement extends QuestStatement {
+        private final CountDownLatch evaluationStarted = new CountDownLatch(1);
+        private final CountDownLatch evaluationReleased = new CountDownLatch(1);
+        private final AtomicInteger cancellations = new AtomicInteger();
+        private volatile FakeTupleResultSet resultSet = new FakeTupleResultSet();
+        private volatile int queryTimeout = 0;
+
+        TestStatement() {
+            super(new StubQueryReformulator(), QUERY_EXECUTOR);
+        }
+
+        void awaitEvaluation() throws InterruptedException {
+            assertTrue(evaluationStarted.await(5, TimeUnit.SECONDS));
+        }
+
+        void unblockEvaluation() {
+            evaluationReleased.countDown();
+        }
+
+        @Override
+        protected TupleResultSet executeSelectQuery(IQ executableQuery, QueryLogger queryLogger,
+                                                    boolean shouldAlsoCloseStatement) {
+            evaluationStarted.countDown();
+            Uninterruptibles.awaitUninterruptibly(evaluationReleased);
+            return resultSet;
+        }
+
+        @Override
+        protected GraphResultSet executeConstructQuery(ConstructTemplate constructTemplate, IQ executableQuery,
+                                                       QueryLogger queryLogger, boolean shouldAlsoCloseStatement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void cancelExecution() {
+            cancellations.incrementAndGet();
+        }
+
+        @Override
+        public <R extends OBDAResultSet> int getTupleCount(KGQuery<R> inputQuery,
+                                                           ImmutableMultimap<String, String> httpHeaders) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public int getMaxRows() {
+            return 0;
+        }
+
+        @Override
+        public void getMoreResults() {
+        }
+
+        @Override
+        public int getQueryTimeout() {
+            return queryTimeout;
+        }
+
+        @Override
+        public void setMaxRows(int max) {
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void setQueryTimeout(int seconds) {
+            queryTimeout = seconds;
+        }
+    }
+
+    private static class FakeTupleResultSet implements TupleResultSet {
+        private final CountDownLatch closing = new CountDownLatch(1);
+
+        boolean isClosed() {
+            return closing.getCount() == 0;
+        }
+
+        boolean awaitClosing() throws InterruptedException {
+            return closing.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 0;
+        }
+
+        @Override
+        public List<String> getSignature() {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public boolean isConnectionAlive() {
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+
+        @Override
+        public OntopBindingSet next() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void close() {
+            closing.countDown();
+        }
+    }
+
+    /**
+     * No reformulation: the native query is not used by the test statement
+     */
+    private static class StubQueryReformulator implements QueryReformulator {
+
+        @Override
+        public IQ reformulateIntoNativeQuery(KGQuery<?> inputQuery, QueryContext queryContext, QueryLogger queryLogger) {
+            return null;
+        }
+
+        @Override
+        public String getRewritingRendering(KGQuery<?> query) throws OntopReformulationException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ImmutableMap<String, QueryTemplateCache.Statistics> getQueryTemplateCacheStatistics() {
+            return ImmutableMap.of();
+        }
+
+        @Override
+        public KGQueryFactory getInputQueryFactory() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryLogger.Factory getQueryLoggerFactory() {
+            return httpHeaders -> new NoOpQueryLogger();
+        }
+
+        @Override
+        public QueryContext.Factory getQueryContextFactory() {
+            return httpHeaders -> null;
+        }
+    }
+
+    private static class NoOpQueryLogger implements QueryLogger {
+
+        @Override
+        public void declareReformulationFinishedAndSerialize(IQ reformulatedQuery, boolean wasCached) {
+        }
+
+        @Override
+        public void declareResultSetUnblockedAndSerialize() {
+        }
+
+        @Override
+        public void declareLastResultRetrievedAndSerialize(long rowCount) {
+        }
+
+        @Override
+        public void declareReformulationException(OntopReformulationException e) {
+        }
+
+        @Override
+        public void declareEvaluationException(Exception e) {
+        }
+
+        @Override
+        public void declareConnectionException(Exception e) {
+        }
+
+        @Override
+        public void declareConversionException(InconsistentOntologyException e) {
+        }
+
+        @Override
+        public void setSparqlQuery(String sparqlQuery) {
+        }
+
+        @Override
+        public void setSparqlIQ(IQ sparqlIQ) {
+        }
+
+        @Override
+        public void setPlannedQuery(IQ plannedQuery) {
+        }
+
+        @Override
+        public void setPredefinedQuery(String queryId, ImmutableMap<String, String> bindings) {
+        }
+    }
+}
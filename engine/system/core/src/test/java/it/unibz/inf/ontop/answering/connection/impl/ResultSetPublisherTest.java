@@ -0,0 +1,255 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
+import it.unibz.inf.ontop.exception.OntopResultConversionException;
+import it.unibz.inf.ontop.query.resultset.IterativeOBDAResultSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * The drains run synchronously in the thread signalling the demand
+ */
+public class ResultSetPublisherTest {
+
+    private static final QueryExecutor SYNCHRONOUS_EXECUTOR = new QueryExecutor() {
+        @Override
+        public <T> Future<T> submit(Callable<T> evaluation) {
+            FutureTask<T> task = new FutureTask<>(evaluation);
+            task.run();
+            return task;
+        }
+
+        @Override
+        public Statistics getStatistics() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final AtomicInteger nativeQueryCancellations = new AtomicInteger();
+    private final AtomicInteger terminations = new AtomicInteger();
+
+    @Test
+    public void testNoFetchBeforeRequest() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2, 3);
+        RecordingSubscriber subscriber = subscribe(CompletableFuture.completedFuture(resultSet));
+
+        assertEquals(0, resultSet.fetched);
+        assertTrue(subscriber.elements.isEmpty());
+
+        subscriber.subscription.request(2);
+        assertEquals(2, resultSet.fetched);
+        assertEquals(ImmutableList.of(1, 2), subscriber.elements);
+        assertFalse(subscriber.isCompleted);
+
+        subscriber.subscription.request(5);
+        assertEquals(ImmutableList.of(1, 2, 3), subscriber.elements);
+        assertTrue(subscriber.isCompleted);
+        assertTrue(resultSet.isClosed);
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    public void testRequestBeforeResultSet() {
+        CompletableFuture<FakeResultSet> stage = new CompletableFuture<>();
+        RecordingSubscriber subscriber = subscribe(stage);
+        subscriber.subscription.request(1);
+
+        FakeResultSet resultSet = new FakeResultSet(1, 2);
+        stage.complete(resultSet);
+        assertEquals(1, resultSet.fetched);
+        assertEquals(ImmutableList.of(1), subscriber.elements);
+    }
+
+    @Test
+    public void testCancelBeforeResultSet() {
+        CompletableFuture<FakeResultSet> stage = new CompletableFuture<>();
+        RecordingSubscriber subscriber = subscribe(stage);
+
+        subscriber.subscription.cancel();
+        assertTrue(stage.isCancelled());
+        assertEquals(0, nativeQueryCancellations.get());
+        assertEquals(1, terminations.get());
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.elements.isEmpty());
+        assertFalse(subscriber.isCompleted);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testCancelAfterResultSet() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2, 3);
+        RecordingSubscriber subscriber = subscribe(CompletableFuture.completedFuture(resultSet));
+        subscriber.subscription.request(1);
+
+        subscriber.subscription.cancel();
+        assertTrue(resultSet.isClosed);
+        assertEquals(1, terminations.get());
+
+        subscriber.subscription.request(2);
+        assertEquals(ImmutableList.of(1), subscriber.elements);
+        assertEquals(1, resultSet.fetched);
+        assertFalse(subscriber.isCompleted);
+        assertNull(subscriber.error);
+    }
+
+    /**
+     * Cancelled by the subscriber while an element is being delivered
+     */
+    @Test
+    public void testCancelWhileFetching() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2, 3);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onNext(Integer item) {
+                super.onNext(item);
+                subscription.cancel();
+            }
+        };
+        createPublisher(CompletableFuture.completedFuture(resultSet)).subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        assertEquals(ImmutableList.of(1), subscriber.elements);
+        assertEquals(1, nativeQueryCancellations.get());
+        assertTrue(resultSet.isClosed);
+    }
+
+    @Test
+    public void testNonPositiveRequest() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2, 3);
+        RecordingSubscriber subscriber = subscribe(CompletableFuture.completedFuture(resultSet));
+
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, resultSet.fetched);
+        assertTrue(resultSet.isClosed);
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    public void testNonPositiveRequestBeforeResultSet() {
+        CompletableFuture<FakeResultSet> stage = new CompletableFuture<>();
+        RecordingSubscriber subscriber = subscribe(stage);
+
+        subscriber.subscription.request(-1);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(stage.isCancelled());
+    }
+
+    @Test
+    public void testSecondSubscriber() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2);
+        ResultSetPublisher<Integer> publisher = createPublisher(CompletableFuture.completedFuture(resultSet));
+        RecordingSubscriber subscriber1 = new RecordingSubscriber();
+        publisher.subscribe(subscriber1);
+        RecordingSubscriber subscriber2 = new RecordingSubscriber();
+        publisher.subscribe(subscriber2);
+
+        assertTrue(subscriber2.error instanceof IllegalStateException);
+        assertNull(subscriber1.error);
+
+        subscriber1.subscription.request(Long.MAX_VALUE);
+        assertEquals(ImmutableList.of(1, 2), subscriber1.elements);
+        assertTrue(subscriber1.isCompleted);
+    }
+
+    @Test
+    public void testFailedEvaluation() {
+        CompletableFuture<FakeResultSet> stage = new CompletableFuture<>();
+        RecordingSubscriber subscriber = subscribe(stage);
+
+        Exception exception = new Exception("DB error");
+        stage.completeExceptionally(new CompletionException(exception));
+        assertSame(exception, subscriber.error);
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    public void testFailedFetch() {
+        FakeResultSet resultSet = new FakeResultSet(1, 2) {
+            @Override
+            public Integer next() {
+                throw new IllegalStateException("Connection lost");
+            }
+        };
+        RecordingSubscriber subscriber = subscribe(CompletableFuture.completedFuture(resultSet));
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.error instanceof IllegalStateException);
+        assertTrue(resultSet.isClosed);
+    }
+
+    private RecordingSubscriber subscribe(CompletionStage<FakeResultSet> stage) {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        createPublisher(stage).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private ResultSetPublisher<Integer> createPublisher(CompletionStage<FakeResultSet> stage) {
+        return new ResultSetPublisher<>(stage, SYNCHRONOUS_EXECUTOR, nativeQueryCancellations::incrementAndGet,
+                terminations::incrementAndGet);
+    }
+
+
+    private static class FakeResultSet implements IterativeOBDAResultSet<Integer, OntopResultConversionException> {
+        private final Iterator<Integer> iterator;
+        int fetched = 0;
+        boolean isClosed = false;
+
+        FakeResultSet(Integer... elements) {
+            this.iterator = ImmutableList.copyOf(elements).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer next() throws NoSuchElementException {
+            fetched++;
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        final List<Integer> elements = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean isCompleted = false;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            elements.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            isCompleted = true;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package it.unibz.inf.ontop.query.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.BNode;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.RDFConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.query.ConstructTemplate;
+import it.unibz.inf.ontop.query.resultset.GraphResultSet;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.query.resultset.OntopBindingSet;
+import it.unibz.inf.ontop.query.resultset.TupleResultSet;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import org.apache.commons.rdf.api.RDF;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.algebra.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * The templates are given as produced by the RDF4J SPARQL parser: constants and blank nodes
+ * are extension elements referred to by the projection elements.
+ */
+public class DefaultSimpleGraphResultSetTest {
+
+    private static final OntopModelConfiguration CONFIGURATION = OntopModelConfiguration.defaultBuilder().build();
+    private static final TermFactory TERM_FACTORY = CONFIGURATION.getTermFactory();
+    private static final RDF RDF_FACTORY = CONFIGURATION.getRdfFactory();
+    private static final ValueFactory VALUE_FACTORY = SimpleValueFactory.getInstance();
+
+    private static final String EX = "http://example.org/";
+
+    private static final IRIConstant A = TERM_FACTORY.getConstantIRI(EX + "a");
+    private static final IRIConstant B = TERM_FACTORY.getConstantIRI(EX + "b");
+    private static final IRIConstant C = TERM_FACTORY.getConstantIRI(EX + "c");
+    private static final IRIConstant P = TERM_FACTORY.getConstantIRI(EX + "p");
+    private static final IRIConstant Q = TERM_FACTORY.getConstantIRI(EX + "q");
+
+    @Test
+    public void testConstantTriples() throws Exception {
+        // CONSTRUCT { :a :p :b . :a :q "label" } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of(
+                        "_const_a", new ValueConstant(VALUE_FACTORY.createIRI(EX + "a")),
+                        "_const_b", new ValueConstant(VALUE_FACTORY.createIRI(EX + "b")),
+                        "_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p")),
+                        "_const_q", new ValueConstant(VALUE_FACTORY.createIRI(EX + "q")),
+                        "_const_label", new ValueConstant(VALUE_FACTORY.createLiteral("label"))),
+                triple("_const_a", "_const_p", "_const_b"),
+                triple("_const_a", "_const_q", "_const_label"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(row(), row()));
+
+        RDFFact f1 = RDFFact.createTripleFact(A, P, B);
+        RDFFact f2 = RDFFact.createTripleFact(A, Q, TERM_FACTORY.getRDFLiteralConstant("label", XSD.STRING));
+        assertEquals(ImmutableList.of(f1, f2, f1, f2), facts);
+    }
+
+    @Test
+    public void testUnboundVariables() throws Exception {
+        // CONSTRUCT { ?s :p ?o } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of("_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p"))),
+                triple("s", "_const_p", "o"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(
+                row("s", A, "o", B),
+                row("s", A),
+                row("o", B),
+                row(),
+                row("s", B, "o", C)));
+
+        assertEquals(ImmutableList.of(
+                RDFFact.createTripleFact(A, P, B),
+                RDFFact.createTripleFact(B, P, C)), facts);
+    }
+
+    /**
+     * A literal cannot be the subject and a blank node cannot be the property
+     */
+    @Test
+    public void testInvalidPositions() throws Exception {
+        ConstructTemplate template = template(
+                ImmutableMap.of(),
+                triple("s", "p", "o"));
+
+        RDFConstant literal = TERM_FACTORY.getRDFLiteralConstant("literal", XSD.STRING);
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(
+                row("s", literal, "p", P, "o", A),
+                row("s", A, "p", TERM_FACTORY.getConstantBNode("b0"), "o", B),
+                row("s", A, "p", P, "o", literal)));
+
+        assertEquals(ImmutableList.of(RDFFact.createTripleFact(A, P, literal)), facts);
+    }
+
+    @Test
+    public void testMultiTripleTemplate() throws Exception {
+        // CONSTRUCT { ?s :p ?o . ?o :q ?s . ?s ?p2 ?o } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of(
+                        "_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p")),
+                        "_const_q", new ValueConstant(VALUE_FACTORY.createIRI(EX + "q"))),
+                triple("s", "_const_p", "o"),
+                triple("o", "_const_q", "s"),
+                triple("s", "p2", "o"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(
+                row("s", A, "o", B, "p2", Q),
+                row("s", B, "o", C)));
+
+        assertEquals(ImmutableList.of(
+                RDFFact.createTripleFact(A, P, B),
+                RDFFact.createTripleFact(B, Q, A),
+                RDFFact.createTripleFact(A, Q, B),
+                RDFFact.createTripleFact(B, P, C),
+                RDFFact.createTripleFact(C, Q, B)), facts);
+    }
+
+    /**
+     * The bindings do not have to be at the same position in all the rows
+     */
+    @Test
+    public void testBindingPositions() throws Exception {
+        ConstructTemplate template = template(
+                ImmutableMap.of("_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p"))),
+                triple("s", "_const_p", "o"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(
+                row("s", A, "o", B),
+                row("o", C, "s", B),
+                row("x", A, "s", C, "o", A)));
+
+        assertEquals(ImmutableList.of(
+                RDFFact.createTripleFact(A, P, B),
+                RDFFact.createTripleFact(B, P, C),
+                RDFFact.createTripleFact(C, P, A)), facts);
+    }
+
+    @Test
+    public void testBNodes() throws Exception {
+        // CONSTRUCT { _:b :p ?o . _:b :q _:c } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of(
+                        "_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p")),
+                        "_const_q", new ValueConstant(VALUE_FACTORY.createIRI(EX + "q")),
+                        "_anon_b", new BNodeGenerator(new ValueConstant(VALUE_FACTORY.createLiteral("b"))),
+                        "_anon_c", new BNodeGenerator(new ValueConstant(VALUE_FACTORY.createLiteral("c")))),
+                triple("_anon_b", "_const_p", "o"),
+                triple("_anon_b", "_const_q", "_anon_c"));
+
+        ImmutableList<OntopBindingSet> rows = ImmutableList.of(row("o", A), row("o", B));
+        List<RDFFact> facts = evaluate(template, rows);
+        assertEquals(4, facts.size());
+
+        // Same label within a row
+        assertEquals(facts.get(0).getSubject(), facts.get(1).getSubject());
+        assertEquals(facts.get(2).getSubject(), facts.get(3).getSubject());
+        assertNotEquals(facts.get(0).getSubject(), facts.get(1).getObject());
+
+        // Different labels across rows
+        assertNotEquals(facts.get(0).getSubject(), facts.get(2).getSubject());
+        assertNotEquals(facts.get(1).getObject(), facts.get(3).getObject());
+
+        // Different labels across result sets
+        List<RDFFact> otherFacts = evaluate(template, rows);
+        assertNotEquals(facts.get(0).getSubject(), otherFacts.get(0).getSubject());
+        assertNotEquals(facts.get(1).getObject(), otherFacts.get(1).getObject());
+
+        for (RDFFact fact : facts) {
+            assertTrue(fact.getSubject() instanceof BNode);
+            assertEquals(P.equals(fact.getProperty()), !(fact.getObject() instanceof BNode));
+        }
+    }
+
+    /**
+     * No label given in the CONSTRUCT block
+     */
+    @Test
+    public void testAnonymousBNodes() throws Exception {
+        // CONSTRUCT { [] :p ?o } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of(
+                        "_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p")),
+                        "_anon_1", new BNodeGenerator()),
+                triple("_anon_1", "_const_p", "o"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(row("o", A), row("o", B)));
+        assertEquals(2, facts.size());
+        assertTrue(facts.get(0).getSubject() instanceof BNode);
+        assertNotEquals(facts.get(0).getSubject(), facts.get(1).getSubject());
+    }
+
+    /**
+     * The facts of a row must not be emitted again for the next rows, even when they produce fewer facts
+     */
+    @Test
+    public void testNoFactFromPreviousRow() throws Exception {
+        // CONSTRUCT { ?s :p ?o . ?s :q ?o2 } WHERE { ... }
+        ConstructTemplate template = template(
+                ImmutableMap.of(
+                        "_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p")),
+                        "_const_q", new ValueConstant(VALUE_FACTORY.createIRI(EX + "q"))),
+                triple("s", "_const_p", "o"),
+                triple("s", "_const_q", "o2"));
+
+        List<RDFFact> facts = evaluate(template, ImmutableList.of(
+                row("s", A, "o", B, "o2", C),
+                row("s", B, "o2", A),
+                row("s", C),
+                row("s", C, "o", A)));
+
+        assertEquals(ImmutableList.of(
+                RDFFact.createTripleFact(A, P, B),
+                RDFFact.createTripleFact(A, Q, C),
+                RDFFact.createTripleFact(B, Q, A),
+                RDFFact.createTripleFact(C, P, A)), facts);
+    }
+
+    /**
+     * Consuming the facts one by one: hasNext() does not skip or repeat a fact
+     */
+    @Test
+    public void testIteration() throws Exception {
+        ConstructTemplate template = template(
+                ImmutableMap.of("_const_p", new ValueConstant(VALUE_FACTORY.createIRI(EX + "p"))),
+                triple("s", "_const_p", "o"),
+                triple("o", "_const_p", "s"));
+
+        TestTupleResultSet tupleResultSet = new TestTupleResultSet(ImmutableList.of(
+                row("s", A, "o", B),
+                row("s", B)));
+        GraphResultSet resultSet = new DefaultSimpleGraphResultSet(tupleResultSet, template, TERM_FACTORY,
+                RDF_FACTORY, false);
+
+        assertTrue(resultSet.hasNext());
+        assertTrue(resultSet.hasNext());
+        assertEquals(RDFFact.createTripleFact(A, P, B), resultSet.next());
+        assertEquals(RDFFact.createTripleFact(B, P, A), resultSet.next());
+        assertFalse(resultSet.hasNext());
+        assertTrue(tupleResultSet.isClosed);
+    }
+
+    private static List<RDFFact> evaluate(ConstructTemplate template, ImmutableList<OntopBindingSet> rows)
+            throws Exception {
+        TestTupleResultSet tupleResultSet = new TestTupleResultSet(rows);
+        GraphResultSet resultSet = new DefaultSimpleGraphResultSet(tupleResultSet, template, TERM_FACTORY,
+                RDF_FACTORY, false);
+        List<RDFFact> facts = new ArrayList<>();
+        while (resultSet.hasNext())
+            facts.add(resultSet.next());
+        assertTrue(tupleResultSet.isClosed);
+        return facts;
+    }
+
+    private static ConstructTemplate template(ImmutableMap<String, ValueExpr> extensionElements,
+                                              ProjectionElemList... triples) {
+        Extension extension = new Extension(new SingletonSet());
+        for (Map.Entry<String, ValueExpr> e : extensionElements.entrySet())
+            extension.addElement(new ExtensionElem(e.getValue(), e.getKey()));
+
+        return new ConstructTemplate() {
+            @Override
+            public ImmutableList<ProjectionElemList> getProjectionElemList() {
+                return ImmutableList.copyOf(triples);
+            }
+
+            @Override
+            public Extension getExtension() {
+                return extension;
+            }
+        };
+    }
+
+    private static ProjectionElemList triple(String subject, String property, String object) {
+        return new ProjectionElemList(
+                new ProjectionElem(subject, "subject"),
+                new ProjectionElem(property, "predicate"),
+                new ProjectionElem(object, "object"));
+    }
+
+    /**
+     * Variable names and values, alternated
+     */
+    private static OntopBindingSet row(Object... namesAndValues) {
+        OntopBinding[] bindings = new OntopBinding[namesAndValues.length / 2];
+        for (int i = 0; i < bindings.length; i++)
+            bindings[i] = new OntopBindingImpl(TERM_FACTORY.getVariable((String) namesAndValues[2 * i]),
+                    (RDFConstant) namesAndValues[2 * i + 1]);
+        return new TestBindingSet(bindings);
+    }
+
+
+    private static class TestBindingSet extends AbstractOntopBindingSet {
+        TestBindingSet(OntopBinding[] bindings) {
+            super(bindings);
+        }
+
+        @Override
+        public String getRowUUIDStr() {
+            throw new UnsupportedOperationException("The labels of the blank nodes must not depend on the row UUID");
+        }
+    }
+
+    private static class TestTupleResultSet implements TupleResultSet {
+        private final Iterator<OntopBindingSet> iterator;
+        boolean isClosed = false;
+
+        TestTupleResultSet(ImmutableList<OntopBindingSet> rows) {
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        public int getColumnCount() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> getSignature() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isConnectionAlive() {
+            return !isClosed;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public OntopBindingSet next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package it.unibz.inf.ontop.answering.connection;
 
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.model.term.DBConstant;
+import it.unibz.inf.ontop.model.type.DBTermType;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -8,4 +15,47 @@ public interface JDBCStatementInitializer extends JDBCStatementFinalizer {
 
     Statement createAndInitStatement(Connection connection) throws SQLException;
 
+    /**
+     * Opt-in, per JDBC driver. If true, native queries are executed through prepared statements,
+     * which are reused by the connection for identical native queries (so that the DB can reuse its query plans).
+     *
+     * The native queries are identical for queries only differing by their parameterized constants.
+     */
+    default boolean isPreparedStatementReuseEnabled() {
+        return false;
+    }
+
+    /**
+     * Called if prepared statement reuse is enabled or if the native query has parameters
+     */
+    default PreparedStatement prepareAndInitStatement(Connection connection, String nativeQuery) throws SQLException {
+        return connection.prepareStatement(nativeQuery, java.sql.ResultSet.TYPE_FORWARD_ONLY,
+                java.sql.ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /**
+     * Called once the results of an execution of the prepared statement have been consumed,
+     * before the statement is reused or closed.
+     */
+    default void endPreparedStatementExecution(PreparedStatement statement) throws SQLException {
+    }
+
+    /**
+     * Binds the parameters of the native query (string and integer constants), in their order of appearance
+     */
+    default void setParameters(PreparedStatement statement, ImmutableList<DBConstant> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            DBConstant parameter = parameters.get(i);
+            DBTermType.Category category = parameter.getType().getCategory();
+            if (category == DBTermType.Category.INTEGER) {
+                BigInteger value = new BigInteger(parameter.getValue());
+                if (value.bitLength() < Long.SIZE)
+                    statement.setLong(i + 1, value.longValue());
+                else
+                    statement.setBigDecimal(i + 1, new BigDecimal(value));
+            }
+            else
+                statement.setString(i + 1, parameter.getValue());
+        }
+    }
 }
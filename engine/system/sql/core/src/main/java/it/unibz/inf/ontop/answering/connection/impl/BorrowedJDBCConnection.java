@@ -0,0 +1,44 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JDBC connection borrowed from the connection pool. Closing it gives it back to the pool.
+ *
+ * See {@link JDBCConnector#borrowConnection()}.
+ */
+class BorrowedJDBCConnection implements AutoCloseable {
+
+    private final Connection connection;
+    private final JDBCConnectionStatistics statistics;
+    private final long acquisitionTime;
+    private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+    BorrowedJDBCConnection(Connection connection, JDBCConnectionStatistics statistics) {
+        this.connection = connection;
+        this.statistics = statistics;
+        this.acquisitionTime = System.nanoTime();
+        statistics.recordAcquisition();
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Idempotent
+     */
+    @Override
+    public void close() throws SQLException {
+        if (isReleased.compareAndSet(false, true)) {
+            try {
+                connection.close();
+            }
+            finally {
+                statistics.recordRelease(System.nanoTime() - acquisitionTime);
+            }
+        }
+    }
+}
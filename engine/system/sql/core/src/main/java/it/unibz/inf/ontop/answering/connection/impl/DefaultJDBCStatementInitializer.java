@@ -5,6 +5,7 @@ import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -27,6 +28,14 @@ public class DefaultJDBCStatementInitializer implements JDBCStatementInitializer
         statement.close();
     }
 
+    @Override
+    public PreparedStatement prepareAndInitStatement(Connection connection, String nativeQuery) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(nativeQuery,
+                java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
+        init(statement);
+        return statement;
+    }
+
     protected Statement create(Connection connection) throws SQLException {
         return connection.createStatement(java.sql.ResultSet.TYPE_FORWARD_ONLY, java.sql.ResultSet.CONCUR_READ_ONLY);
     }
@@ -0,0 +1,19 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
+
+@Singleton
+public class H2JDBCStatementInitializer extends DefaultJDBCStatementInitializer {
+
+    @Inject
+    protected H2JDBCStatementInitializer(OntopSystemSQLSettings settings) {
+        super(settings);
+    }
+
+    @Override
+    public boolean isPreparedStatementReuseEnabled() {
+        return settings.getPreparedStatementCacheSize() > 0;
+    }
+}
@@ -0,0 +1,109 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.DBConnector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Wait and hold times of the JDBC connections borrowed from the pool.
+ *
+ * Thread-safe.
+ */
+class JDBCConnectionStatistics {
+
+    private final LongAdder acquired = new LongAdder();
+    private final AtomicInteger held = new AtomicInteger();
+    private final LongAdder totalWaitTime = new LongAdder();
+    private final LongAccumulator maxWaitTime = new LongAccumulator(Long::max, 0);
+    private final LongAdder totalHoldTime = new LongAdder();
+    private final LongAccumulator maxHoldTime = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Also called when no connection could be obtained (e.g. timeout)
+     */
+    void recordWait(long nanos) {
+        totalWaitTime.add(nanos);
+        maxWaitTime.accumulate(nanos);
+    }
+
+    void recordAcquisition() {
+        acquired.increment();
+        held.incrementAndGet();
+    }
+
+    void recordRelease(long holdNanos) {
+        held.decrementAndGet();
+        totalHoldTime.add(holdNanos);
+        maxHoldTime.accumulate(holdNanos);
+    }
+
+    DBConnector.Statistics getStatistics() {
+        return new StatisticsImpl(acquired.sum(), held.get(),
+                toMillis(totalWaitTime.sum()), toMillis(maxWaitTime.get()),
+                toMillis(totalHoldTime.sum()), toMillis(maxHoldTime.get()));
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+
+    private static class StatisticsImpl implements DBConnector.Statistics {
+        private final long acquiredConnections;
+        private final int heldConnections;
+        private final long totalWaitTime;
+        private final long maxWaitTime;
+        private final long totalHoldTime;
+        private final long maxHoldTime;
+
+        private StatisticsImpl(long acquiredConnections, int heldConnections, long totalWaitTime, long maxWaitTime,
+                               long totalHoldTime, long maxHoldTime) {
+            this.acquiredConnections = acquiredConnections;
+            this.heldConnections = heldConnections;
+            this.totalWaitTime = totalWaitTime;
+            this.maxWaitTime = maxWaitTime;
+            this.totalHoldTime = totalHoldTime;
+            this.maxHoldTime = maxHoldTime;
+        }
+
+        @Override
+        public long getAcquiredConnections() {
+            return acquiredConnections;
+        }
+
+        @Override
+        public int getHeldConnections() {
+            return heldConnections;
+        }
+
+        @Override
+        public long getTotalWaitTime() {
+            return totalWaitTime;
+        }
+
+        @Override
+        public long getMaxWaitTime() {
+            return maxWaitTime;
+        }
+
+        @Override
+        public long getTotalHoldTime() {
+            return totalHoldTime;
+        }
+
+        @Override
+        public long getMaxHoldTime() {
+            return maxHoldTime;
+        }
+
+        @Override
+        public String toString() {
+            return "acquired=" + acquiredConnections + ", held=" + heldConnections
+                    + ", totalWaitTime=" + totalWaitTime + "ms, maxWaitTime=" + maxWaitTime
+                    + "ms, totalHoldTime=" + totalHoldTime + "ms, maxHoldTime=" + maxHoldTime + "ms";
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.google.inject.assistedinject.AssistedInject;
 import it.unibz.inf.ontop.answering.connection.DBConnector;
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -25,6 +26,7 @@ import java.sql.*;
 public class JDBCConnector implements DBConnector {
 
     private final QueryReformulator queryReformulator;
+    private final QueryExecutor queryExecutor;
 
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
@@ -34,6 +36,7 @@ public class JDBCConnector implements DBConnector {
 
     private final Logger log = LoggerFactory.getLogger(JDBCConnector.class);
     private final JDBCConnectionPool connectionPool;
+    private final JDBCConnectionStatistics connectionStatistics = new JDBCConnectionStatistics();
 
     private final TermFactory termFactory;
     private final RDF rdfFactory;
@@ -41,6 +44,7 @@ public class JDBCConnector implements DBConnector {
 
     @AssistedInject
     private JDBCConnector(@Assisted QueryReformulator queryReformulator,
+                          QueryExecutor queryExecutor,
                           JDBCConnectionPool connectionPool,
                           TermFactory termFactory,
                           SubstitutionFactory substitutionFactory,
@@ -48,6 +52,7 @@ public class JDBCConnector implements DBConnector {
                           JDBCStatementInitializer statementInitializer,
                           OntopSystemSQLSettings settings) {
         this.queryReformulator = queryReformulator;
+        this.queryExecutor = queryExecutor;
         this.termFactory = termFactory;
         this.substitutionFactory = substitutionFactory;
         this.settings = settings;
@@ -89,11 +94,18 @@ public class JDBCConnector implements DBConnector {
         connectionPool.close();
     }
 
-    public synchronized Connection getSQLPoolConnection() throws OntopConnectionException {
+    /**
+     * Not synchronized: the connection pools are thread-safe, and a caller waiting
+     * for a connection must not block the other ones.
+     */
+    BorrowedJDBCConnection borrowConnection() throws OntopConnectionException {
+        long start = System.nanoTime();
         try {
-            return connectionPool.getConnection();
+            return new BorrowedJDBCConnection(connectionPool.getConnection(), connectionStatistics);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
+        } finally {
+            connectionStatistics.recordWait(System.nanoTime() - start);
         }
     }
 
@@ -109,14 +121,23 @@ public class JDBCConnector implements DBConnector {
      * connection, with will just release it back to the pool.
      * <p>
      * to close all connections you must call DBConnector.close().
+     * <p>
+     * With late connection binding, no JDBC connection is borrowed here: each query execution
+     * borrows one and releases it once its results have been consumed.
      *
      */
     @Override
     public OntopConnection getConnection() throws OntopConnectionException {
 
-        return new SQLConnection(this, queryReformulator, getSQLPoolConnection(),
+        return new SQLConnection(this, queryReformulator, queryExecutor,
+                settings.isLateConnectionBindingEnabled() ? null : borrowConnection(),
                 termFactory, rdfFactory, substitutionFactory, statementInitializer, settings);
     }
 
+    @Override
+    public Statistics getStatistics() {
+        return connectionStatistics.getStatistics();
+    }
+
 
 }
@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import it.unibz.inf.ontop.injection.OntopSystemSQLSettings;
 
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -25,6 +26,20 @@ public class PostgresJDBCStatementInitializer extends DefaultJDBCStatementInitia
         return statement;
     }
 
+    @Override
+    public boolean isPreparedStatementReuseEnabled() {
+        return settings.getPreparedStatementCacheSize() > 0;
+    }
+
+    /**
+     * Query methods taking a query string cannot be used on a prepared statement
+     */
+    @Override
+    public void endPreparedStatementExecution(PreparedStatement statement) throws SQLException {
+        if (settings.getFetchSize() > 0 && !statement.isClosed())
+            statement.getConnection().commit();
+    }
+
     @Override
     public void closeStatement(Statement statement) throws SQLException {
         if (!statement.isClosed()) {
@@ -0,0 +1,129 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Prepared statements of a JDBC connection, reused for identical native queries
+ * so that the DB can reuse its query plans.
+ *
+ * A statement is removed from the cache while it is being executed (it has at most one open result set),
+ * so concurrent executions of the same query use distinct statements.
+ * Beyond the maximal size, the least recently used idle statements are closed.
+ *
+ * Thread-safe.
+ */
+class PreparedStatementCache implements AutoCloseable {
+
+    private final Connection connection;
+    private final JDBCStatementInitializer statementInitializer;
+    private final int maxSize;
+
+    // Access-ordered
+    private final LinkedHashMap<String, PreparedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean isClosed = false;
+    // Statistics
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    PreparedStatementCache(Connection connection, JDBCStatementInitializer statementInitializer, int maxSize) {
+        this.connection = connection;
+        this.statementInitializer = statementInitializer;
+        this.maxSize = maxSize;
+    }
+
+    PreparedStatement acquire(String nativeQuery) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idleStatements.remove(nativeQuery);
+        }
+        boolean isHit = statement != null && !statement.isClosed();
+        synchronized (this) {
+            if (isHit)
+                hitCount++;
+            else
+                missCount++;
+        }
+        return isHit
+                ? statement
+                : statementInitializer.prepareAndInitStatement(connection, nativeQuery);
+    }
+
+    /**
+     * Number of executions that reused an idle prepared statement
+     */
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of executions that had to prepare a new statement
+     */
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    synchronized int getIdleStatementCount() {
+        return idleStatements.size();
+    }
+
+    /**
+     * Once the results have been consumed
+     */
+    void release(String nativeQuery, PreparedStatement statement) throws SQLException {
+        List<PreparedStatement> statementsToClose = new ArrayList<>();
+        try {
+            statementInitializer.endPreparedStatementExecution(statement);
+        }
+        finally {
+            synchronized (this) {
+                if (isClosed || statement.isClosed() || idleStatements.containsKey(nativeQuery))
+                    statementsToClose.add(statement);
+                else {
+                    idleStatements.put(nativeQuery, statement);
+                    Iterator<PreparedStatement> iterator = idleStatements.values().iterator();
+                    while (idleStatements.size() > maxSize) {
+                        statementsToClose.add(iterator.next());
+                        iterator.remove();
+                    }
+                }
+            }
+            closeAll(statementsToClose);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        List<PreparedStatement> statementsToClose;
+        synchronized (this) {
+            isClosed = true;
+            statementsToClose = new ArrayList<>(idleStatements.values());
+            idleStatements.clear();
+        }
+        closeAll(statementsToClose);
+    }
+
+    private static void closeAll(List<PreparedStatement> statements) throws SQLException {
+        SQLException exception = null;
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            }
+            catch (SQLException e) {
+                if (exception == null)
+                    exception = e;
+                else
+                    exception.addSuppressed(e);
+            }
+        }
+        if (exception != null)
+            throw exception;
+    }
+}
@@ -1,10 +1,11 @@
 package it.unibz.inf.ontop.answering.connection.impl;
 
-import java.sql.Connection;
+import javax.annotation.Nullable;
 
 import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
 import it.unibz.inf.ontop.answering.connection.OntopConnection;
 import it.unibz.inf.ontop.answering.connection.OntopStatement;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.query.KGQueryFactory;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.answering.reformulation.QueryReformulator;
@@ -20,6 +21,9 @@ import org.apache.commons.rdf.api.RDF;
  *
  * SQL-specific implementation (specific to the JDBCConnector)!
  *
+ * With late connection binding, no JDBC connection is wrapped: each statement execution borrows one
+ * from the pool (see SQLQuestStatement). Transactions are then not supported (read-only access).
+ *
  * TODO: rename it SQLQuestConnection
  *
  * @author mariano
@@ -28,51 +32,98 @@ import org.apache.commons.rdf.api.RDF;
 public class SQLConnection implements OntopConnection {
 
 	private final QueryReformulator queryProcessor;
-	private Connection conn;
+	private final QueryExecutor queryExecutor;
+	// Null with late connection binding
+	@Nullable
+	private BorrowedJDBCConnection conn;
+	// Null if prepared statements are not reused (or with late connection binding)
+	@Nullable
+	private PreparedStatementCache preparedStatementCache;
 	private final TermFactory termFactory;
 	private final SubstitutionFactory substitutionFactory;
 	private final OntopSystemSQLSettings settings;
 
 	private final JDBCConnector jdbcConnector;
 	private boolean isClosed;
+	// Only used with late connection binding
+	private boolean autoCommit;
 	private final RDF rdfFactory;
 	private final JDBCStatementInitializer statementInitializer;
 
 
-	public SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, Connection connection,
-						 TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
-						 JDBCStatementInitializer statementInitializer,
-						 OntopSystemSQLSettings settings) {
+	SQLConnection(JDBCConnector jdbcConnector, QueryReformulator queryProcessor, QueryExecutor queryExecutor,
+				  @Nullable BorrowedJDBCConnection connection,
+				  TermFactory termFactory, RDF rdfFactory, SubstitutionFactory substitutionFactory,
+				  JDBCStatementInitializer statementInitializer,
+				  OntopSystemSQLSettings settings) {
 		this.jdbcConnector = jdbcConnector;
 		this.queryProcessor = queryProcessor;
+		this.queryExecutor = queryExecutor;
 		this.conn = connection;
+		this.preparedStatementCache = createPreparedStatementCache(connection, statementInitializer, settings);
 		this.termFactory = termFactory;
 		this.substitutionFactory = substitutionFactory;
 		this.statementInitializer = statementInitializer;
 		this.settings = settings;
 		this.rdfFactory = rdfFactory;
 		this.isClosed = false;
+		this.autoCommit = true;
 	}
 
 	@Override
 	public void close() throws OntopConnectionException {
+		isClosed = true;
+		if (conn == null)
+			return;
 		try {
-			conn.close();
+			try {
+				if (preparedStatementCache != null)
+					preparedStatementCache.close();
+			} finally {
+				conn.close();
+			}
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
 	}
 
+	@Nullable
+	private static PreparedStatementCache createPreparedStatementCache(@Nullable BorrowedJDBCConnection connection,
+																	   JDBCStatementInitializer statementInitializer,
+																	   OntopSystemSQLSettings settings) {
+		return (connection != null && statementInitializer.isPreparedStatementReuseEnabled())
+				? new PreparedStatementCache(connection.getConnection(), statementInitializer,
+						settings.getPreparedStatementCacheSize())
+				: null;
+	}
+
 	@Override
 	public OntopStatement createStatement() throws OntopConnectionException {
+		if (conn == null) {
+			if (isClosed)
+				throw new OntopConnectionException("The connection is closed");
+			return new SQLQuestStatement(
+					this.queryProcessor,
+					this.queryExecutor,
+					jdbcConnector,
+					statementInitializer,
+					termFactory, rdfFactory, substitutionFactory, settings);
+		}
+
 		try {
-			if (conn.isClosed()) {
+			if (conn.getConnection().isClosed()) {
 				// Sometimes it gets dropped, reconnect
-				conn = jdbcConnector.getSQLPoolConnection();
+				if (preparedStatementCache != null)
+					preparedStatementCache.close();
+				conn.close();
+				conn = jdbcConnector.borrowConnection();
+				preparedStatementCache = createPreparedStatementCache(conn, statementInitializer, settings);
 			}
 			return new SQLQuestStatement(
 					this.queryProcessor,
-					statementInitializer.createAndInitStatement(conn),
+					this.queryExecutor,
+					statementInitializer.createAndInitStatement(conn.getConnection()),
+					preparedStatementCache,
 					statementInitializer,
 					termFactory, rdfFactory, substitutionFactory, settings);
 		} catch (Exception e) {
@@ -87,8 +138,10 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public void commit() throws OntopConnectionException {
+		if (conn == null)
+			return;
 		try {
-			conn.commit();
+			conn.getConnection().commit();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -96,8 +149,12 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public void setAutoCommit(boolean autocommit) throws OntopConnectionException {
+		if (conn == null) {
+			this.autoCommit = autocommit;
+			return;
+		}
 		try {
-			conn.setAutoCommit(autocommit);
+			conn.getConnection().setAutoCommit(autocommit);
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -106,8 +163,10 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public boolean getAutoCommit() throws OntopConnectionException {
+		if (conn == null)
+			return autoCommit;
 		try {
-			return conn.getAutoCommit();
+			return conn.getConnection().getAutoCommit();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -115,8 +174,10 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public boolean isClosed() throws OntopConnectionException {
+		if (conn == null)
+			return isClosed;
 		try {
-			isClosed = conn.isClosed();
+			isClosed = conn.getConnection().isClosed();
 			return isClosed;
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
@@ -125,8 +186,10 @@ public class SQLConnection implements OntopConnection {
 
 	@Override
 	public void rollBack() throws OntopConnectionException {
+		if (conn == null)
+			return;
 		try {
-			conn.rollback();
+			conn.getConnection().rollback();
 		} catch (Exception e) {
 			throw new OntopConnectionException(e);
 		}
@@ -2,10 +2,12 @@ package it.unibz.inf.ontop.answering.connection.impl;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSortedSet;
-import it.unibz.inf.ontop.answering.connection.JDBCStatementFinalizer;
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import it.unibz.inf.ontop.answering.connection.QueryExecutor;
 import it.unibz.inf.ontop.answering.logging.QueryLogger;
 import it.unibz.inf.ontop.query.*;
 import it.unibz.inf.ontop.query.resultset.GraphResultSet;
@@ -23,12 +25,14 @@ import it.unibz.inf.ontop.iq.UnaryIQTree;
 import it.unibz.inf.ontop.iq.exception.EmptyQueryException;
 import it.unibz.inf.ontop.iq.node.ConstructionNode;
 import it.unibz.inf.ontop.iq.node.NativeNode;
+import it.unibz.inf.ontop.model.term.DBConstant;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.term.Variable;
 import it.unibz.inf.ontop.model.type.DBTermType;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import org.apache.commons.rdf.api.RDF;
 
+import javax.annotation.Nullable;
 import java.sql.*;
 
 /**
@@ -37,20 +41,56 @@ import java.sql.*;
  */
 public class SQLQuestStatement extends QuestStatement {
 
+    // Null with late connection binding: a JDBC connection and statement are then created for each execution
+    @Nullable
     private final Statement sqlStatement;
-    private final JDBCStatementFinalizer statementFinalizer;
+    // Null if prepared statements are not reused (or with late connection binding)
+    @Nullable
+    private final PreparedStatementCache preparedStatementCache;
+    @Nullable
+    private final JDBCConnector jdbcConnector;
+    private final JDBCStatementInitializer statementInitializer;
     private final TermFactory termFactory;
     private final RDF rdfFactory;
     private final SubstitutionFactory substitutionFactory;
     private final OntopSystemSQLSettings settings;
 
-    public SQLQuestStatement(QueryReformulator queryProcessor, Statement sqlStatement,
-                             JDBCStatementFinalizer statementFinalizer, TermFactory termFactory,
-                             RDF rdfFactory, SubstitutionFactory substitutionFactory,
-                             OntopSystemSQLSettings settings) {
-        super(queryProcessor);
+    // Only used with late connection binding
+    private volatile int maxRows = 0;
+    private volatile int queryTimeout = 0;
+    private volatile boolean isClosed = false;
+    // Not on the shared sqlStatement
+    @Nullable
+    private volatile Execution currentExecution;
+
+    SQLQuestStatement(QueryReformulator queryProcessor, QueryExecutor queryExecutor, Statement sqlStatement,
+                      @Nullable PreparedStatementCache preparedStatementCache,
+                      JDBCStatementInitializer statementInitializer, TermFactory termFactory,
+                      RDF rdfFactory, SubstitutionFactory substitutionFactory,
+                      OntopSystemSQLSettings settings) {
+        super(queryProcessor, queryExecutor);
         this.sqlStatement = sqlStatement;
-        this.statementFinalizer = statementFinalizer;
+        this.preparedStatementCache = preparedStatementCache;
+        this.jdbcConnector = null;
+        this.statementInitializer = statementInitializer;
+        this.termFactory = termFactory;
+        this.rdfFactory = rdfFactory;
+        this.substitutionFactory = substitutionFactory;
+        this.settings = settings;
+    }
+
+    /**
+     * Late connection binding
+     */
+    SQLQuestStatement(QueryReformulator queryProcessor, QueryExecutor queryExecutor, JDBCConnector jdbcConnector,
+                      JDBCStatementInitializer statementInitializer, TermFactory termFactory,
+                      RDF rdfFactory, SubstitutionFactory substitutionFactory,
+                      OntopSystemSQLSettings settings) {
+        super(queryProcessor, queryExecutor);
+        this.sqlStatement = null;
+        this.preparedStatementCache = null;
+        this.jdbcConnector = jdbcConnector;
+        this.statementInitializer = statementInitializer;
         this.termFactory = termFactory;
         this.rdfFactory = rdfFactory;
         this.substitutionFactory = substitutionFactory;
@@ -59,6 +99,8 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public int getMaxRows() throws OntopConnectionException {
+        if (sqlStatement == null)
+            return maxRows;
         try {
             return sqlStatement.getMaxRows();
         } catch (SQLException e) {
@@ -69,8 +111,13 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public void getMoreResults() throws OntopConnectionException {
+        Statement statement = Optional.ofNullable(currentExecution)
+                .map(e -> e.statement)
+                .orElse(sqlStatement);
+        if (statement == null)
+            return;
         try {
-            sqlStatement.getMoreResults();
+            statement.getMoreResults();
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
@@ -79,6 +126,10 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public void setMaxRows(int max) throws OntopConnectionException {
+        if (sqlStatement == null) {
+            maxRows = max;
+            return;
+        }
         try {
             sqlStatement.setMaxRows(max);
         } catch (SQLException e) {
@@ -89,6 +140,10 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public void setQueryTimeout(int seconds) throws OntopConnectionException {
+        if (sqlStatement == null) {
+            queryTimeout = seconds;
+            return;
+        }
         try {
             sqlStatement.setQueryTimeout(seconds);
         } catch (SQLException e) {
@@ -98,6 +153,8 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public int getQueryTimeout() throws OntopConnectionException {
+        if (sqlStatement == null)
+            return queryTimeout;
         try {
             return sqlStatement.getQueryTimeout();
         } catch (SQLException e) {
@@ -107,6 +164,8 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public boolean isClosed() throws OntopConnectionException {
+        if (sqlStatement == null)
+            return isClosed;
         try {
             return sqlStatement.isClosed();
         } catch (SQLException e) {
@@ -124,9 +183,10 @@ public class SQLQuestStatement extends QuestStatement {
             String sql = extractSQLQuery(targetQuery);
             String newsql = "SELECT count(*) FROM (" + sql + ") t1";
             if (!isCanceled()) {
+                Execution execution = startExecution(newsql, extractNativeNode(targetQuery).getParameters(), false);
                 try {
 
-                    java.sql.ResultSet set = sqlStatement.executeQuery(newsql);
+                    java.sql.ResultSet set = execution.executeQuery();
                     if (set.next()) {
                         return set.getInt(1);
                     } else {
@@ -135,6 +195,8 @@ public class SQLQuestStatement extends QuestStatement {
                     }
                 } catch (SQLException e) {
                     throw new OntopQueryEvaluationException(e);
+                } finally {
+                    execution.releaseQuietly();
                 }
             } else {
                 throw new OntopQueryEvaluationException("Action canceled.");
@@ -146,32 +208,114 @@ public class SQLQuestStatement extends QuestStatement {
 
     @Override
     public void close() throws OntopConnectionException {
+        if (sqlStatement == null) {
+            isClosed = true;
+            return;
+        }
         try {
-            if (sqlStatement != null)
-                statementFinalizer.closeStatement(sqlStatement);
+            statementInitializer.closeStatement(sqlStatement);
         } catch (SQLException e) {
             throw new OntopConnectionException(e);
         }
     }
 
     protected void cancelExecution() throws OntopQueryEvaluationException {
+        Statement statement = Optional.ofNullable(currentExecution)
+                .map(e -> e.statement)
+                .orElse(sqlStatement);
+        if (statement == null)
+            return;
         try {
-            sqlStatement.cancel();
+            statement.cancel();
         } catch (SQLException e) {
             throw new OntopQueryEvaluationException(e);
         }
     }
 
+    /**
+     * With late connection binding, borrows a JDBC connection, which is given back to the pool
+     * when the result set is closed.
+     *
+     * If prepared statements are reused, the statement is taken from the cache of the connection
+     * and given back when the result set is closed. The cache is keyed by the native query, in which
+     * the parameters (if any) are placeholders.
+     *
+     * Otherwise, native queries with parameters are executed through a prepared statement
+     * that is closed when the result set is closed.
+     */
+    private Execution startExecution(String nativeQuery, ImmutableList<DBConstant> parameters,
+                                     boolean shouldAlsoCloseStatement)
+            throws OntopQueryEvaluationException {
+        OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
+        try {
+            if (sqlStatement != null) {
+                if (preparedStatementCache == null && parameters.isEmpty())
+                    return new Execution(sqlStatement, nativeQuery, statementClosingCB);
+
+                PreparedStatement statement;
+                Execution execution;
+                if (preparedStatementCache == null) {
+                    statement = statementInitializer.prepareAndInitStatement(sqlStatement.getConnection(), nativeQuery);
+                    execution = new SingleUsePreparedExecution(statement, nativeQuery, statementClosingCB);
+                }
+                else {
+                    statement = preparedStatementCache.acquire(nativeQuery);
+                    execution = new PreparedExecution(statement, nativeQuery, statementClosingCB);
+                }
+                try {
+                    statement.setMaxRows(sqlStatement.getMaxRows());
+                    statement.setQueryTimeout(sqlStatement.getQueryTimeout());
+                    statementInitializer.setParameters(statement, parameters);
+                }
+                catch (SQLException e) {
+                    execution.releaseQuietly();
+                    throw e;
+                }
+                currentExecution = execution;
+                return execution;
+            }
+
+            if (isClosed)
+                throw new OntopQueryEvaluationException("The statement is closed");
+
+            BorrowedJDBCConnection connection = jdbcConnector.borrowConnection();
+            boolean isPrepared = statementInitializer.isPreparedStatementReuseEnabled() || !parameters.isEmpty();
+            Statement statement;
+            try {
+                statement = isPrepared
+                        ? statementInitializer.prepareAndInitStatement(connection.getConnection(), nativeQuery)
+                        : statementInitializer.createAndInitStatement(connection.getConnection());
+                statement.setMaxRows(maxRows);
+                statement.setQueryTimeout(queryTimeout);
+                if (isPrepared)
+                    statementInitializer.setParameters((PreparedStatement) statement, parameters);
+            }
+            catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            LateExecution execution = new LateExecution(connection, statement, nativeQuery, isPrepared,
+                    statementClosingCB);
+            currentExecution = execution;
+            return execution;
+        }
+        catch (OntopConnectionException | SQLException e) {
+            throw new OntopQueryEvaluationException(e);
+        }
+    }
+
     @Override
     public BooleanResultSet executeBooleanQuery(IQ executableQuery, QueryLogger queryLogger)
             throws OntopQueryEvaluationException {
         try {
             String sqlQuery = extractSQLQuery(executableQuery);
+            Execution execution = startExecution(sqlQuery, extractNativeNode(executableQuery).getParameters(), true);
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = execution.executeQuery();
                 queryLogger.declareResultSetUnblockedAndSerialize();
-                return new SQLBooleanResultSet(set, queryLogger, this::close);
+                return new SQLBooleanResultSet(set, queryLogger, execution::release);
             } catch (SQLException e) {
+                execution.releaseQuietly();
                 throw new OntopQueryEvaluationException(e.getMessage());
             }
         } catch (EmptyQueryException e) {
@@ -191,14 +335,14 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> signature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> typeMap = nativeNode.getTypeMap();
 
-            OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
-
+            Execution execution = startExecution(sqlQuery, nativeNode.getParameters(), shouldAlsoCloseStatement);
             try {
-                java.sql.ResultSet set = sqlStatement.executeQuery(sqlQuery);
+                java.sql.ResultSet set = execution.executeQuery();
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 return new JDBCTupleResultSet(set, signature, typeMap, constructionNode, executableQuery.getProjectionAtom(),
-                            queryLogger, statementClosingCB, termFactory, substitutionFactory);
+                            queryLogger, execution.getClosingCallback(), termFactory, substitutionFactory);
             } catch (SQLException e) {
+                execution.releaseQuietly();
                 throw new OntopQueryEvaluationException(e);
             }
         } catch (EmptyQueryException e) {
@@ -222,14 +366,14 @@ public class SQLQuestStatement extends QuestStatement {
             ImmutableSortedSet<Variable> SQLSignature = nativeNode.getVariables();
             ImmutableMap<Variable, DBTermType> SQLTypeMap = nativeNode.getTypeMap();
 
-            OntopConnectionCloseable statementClosingCB = shouldAlsoCloseStatement ? this::close : null;
-
+            Execution execution = startExecution(sqlQuery, nativeNode.getParameters(), shouldAlsoCloseStatement);
             try {
-                ResultSet rs = sqlStatement.executeQuery(sqlQuery);
+                ResultSet rs = execution.executeQuery();
                 queryLogger.declareResultSetUnblockedAndSerialize();
                 tuples = new JDBCTupleResultSet(rs, SQLSignature, SQLTypeMap, constructionNode,
-                        executableQuery.getProjectionAtom(), queryLogger, statementClosingCB, termFactory, substitutionFactory);
+                        executableQuery.getProjectionAtom(), queryLogger, execution.getClosingCallback(), termFactory, substitutionFactory);
             } catch (SQLException e) {
+                execution.releaseQuietly();
                 throw new OntopQueryEvaluationException(e.getMessage());
             }
         } catch (EmptyQueryException e) {
@@ -285,4 +429,185 @@ public class SQLQuestStatement extends QuestStatement {
                 .orElseThrow(() -> new MinorOntopInternalBugException(
                         "The \"executable\" query is not starting with a construction node\n" + executableQuery));
     }
+
+
+    /**
+     * Execution on the statement shared by all the queries of the SQLQuestStatement
+     */
+    private static class Execution {
+        final Statement statement;
+        final String nativeQuery;
+        @Nullable
+        private final OntopConnectionCloseable statementClosingCB;
+
+        private Execution(Statement statement, String nativeQuery,
+                          @Nullable OntopConnectionCloseable statementClosingCB) {
+            this.statement = statement;
+            this.nativeQuery = nativeQuery;
+            this.statementClosingCB = statementClosingCB;
+        }
+
+        ResultSet executeQuery() throws SQLException {
+            return statement.executeQuery(nativeQuery);
+        }
+
+        /**
+         * Called when the result set is closed
+         */
+        void release() throws OntopConnectionException {
+            if (statementClosingCB != null)
+                statementClosingCB.close();
+        }
+
+        void releaseQuietly() {
+            try {
+                release();
+            } catch (OntopConnectionException e) {
+                // Already failing
+            }
+        }
+
+        @Nullable
+        OntopConnectionCloseable getClosingCallback() {
+            return statementClosingCB == null ? null : this::release;
+        }
+    }
+
+    /**
+     * Execution on a prepared statement taken from the cache of the connection
+     */
+    private class PreparedExecution extends Execution {
+
+        private PreparedExecution(PreparedStatement statement, String nativeQuery,
+                                  @Nullable OntopConnectionCloseable statementClosingCB) {
+            super(statement, nativeQuery, statementClosingCB);
+        }
+
+        @Override
+        ResultSet executeQuery() throws SQLException {
+            return ((PreparedStatement) statement).executeQuery();
+        }
+
+        @Override
+        void release() throws OntopConnectionException {
+            if (currentExecution == this)
+                currentExecution = null;
+            try {
+                preparedStatementCache.release(nativeQuery, (PreparedStatement) statement);
+            } catch (SQLException e) {
+                throw new OntopConnectionException(e);
+            } finally {
+                super.release();
+            }
+        }
+
+        /**
+         * The prepared statement must be given back to the cache even when the result set is not closed by the statement
+         */
+        @Override
+        OntopConnectionCloseable getClosingCallback() {
+            return this::release;
+        }
+    }
+
+    /**
+     * Execution of a native query with parameters on its own prepared statement,
+     * closed once the results have been consumed
+     */
+    private class SingleUsePreparedExecution extends Execution {
+
+        private SingleUsePreparedExecution(PreparedStatement statement, String nativeQuery,
+                                           @Nullable OntopConnectionCloseable statementClosingCB) {
+            super(statement, nativeQuery, statementClosingCB);
+        }
+
+        @Override
+        ResultSet executeQuery() throws SQLException {
+            return ((PreparedStatement) statement).executeQuery();
+        }
+
+        @Override
+        void release() throws OntopConnectionException {
+            if (currentExecution == this)
+                currentExecution = null;
+            try {
+                try {
+                    statementInitializer.endPreparedStatementExecution((PreparedStatement) statement);
+                } finally {
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                throw new OntopConnectionException(e);
+            } finally {
+                super.release();
+            }
+        }
+
+        /**
+         * The statement must be closed even when the result set is not closed by the statement
+         */
+        @Override
+        OntopConnectionCloseable getClosingCallback() {
+            return this::release;
+        }
+    }
+
+    /**
+     * Execution on its own JDBC statement and borrowed connection (late connection binding)
+     */
+    private class LateExecution extends Execution {
+        private final BorrowedJDBCConnection connection;
+        private final boolean isPrepared;
+
+        private LateExecution(BorrowedJDBCConnection connection, Statement statement, String nativeQuery,
+                              boolean isPrepared, @Nullable OntopConnectionCloseable statementClosingCB) {
+            super(statement, nativeQuery, statementClosingCB);
+            this.connection = connection;
+            this.isPrepared = isPrepared;
+        }
+
+        @Override
+        ResultSet executeQuery() throws SQLException {
+            return isPrepared
+                    ? ((PreparedStatement) statement).executeQuery()
+                    : super.executeQuery();
+        }
+
+        /**
+         * Prepared statements are not kept after giving the connection back to the pool:
+         * their reuse then relies on the statement cache of the JDBC driver (if any).
+         */
+        @Override
+        void release() throws OntopConnectionException {
+            if (currentExecution == this)
+                currentExecution = null;
+            try {
+                try {
+                    if (isPrepared) {
+                        try {
+                            statementInitializer.endPreparedStatementExecution((PreparedStatement) statement);
+                        } finally {
+                            statement.close();
+                        }
+                    }
+                    else
+                        statementInitializer.closeStatement(statement);
+                } finally {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                throw new OntopConnectionException(e);
+            } finally {
+                super.release();
+            }
+        }
+
+        /**
+         * The connection must be given back to the pool even when the result set is not closed by the statement
+         */
+        @Override
+        OntopConnectionCloseable getClosingCallback() {
+            return this::release;
+        }
+    }
 }
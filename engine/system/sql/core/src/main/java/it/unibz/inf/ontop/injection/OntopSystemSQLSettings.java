@@ -16,6 +16,19 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
 
     int getFetchSize();
 
+    /**
+     * If true, the JDBC connection is only borrowed from the pool for executing the native query
+     * and fetching its results, not for the whole lifetime of the OntopConnection.
+     */
+    boolean isLateConnectionBindingEnabled();
+
+    /**
+     * Maximal number of idle prepared statements kept per JDBC connection.
+     * If 0, or if the statement initializer of the JDBC driver does not enable their reuse,
+     * prepared statements are only used for native queries with parameters, and are not reused.
+     */
+    int getPreparedStatementCacheSize();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -31,4 +44,7 @@ public interface OntopSystemSQLSettings extends OntopSystemSettings, OntopReform
      * If <= 0, the fetch size is ignored
      */
     String FETCH_SIZE = "jdbc.fetchSize";
+
+    String LATE_CONNECTION_BINDING = "jdbc.lateConnectionBinding";
+    String PREPARED_STATEMENT_CACHE_SIZE = "jdbc.preparedStatementCacheSize";
 }
@@ -88,6 +88,16 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredBoolean(INCLUDE_FIXED_OBJECT_POSITION_IN_DESCRIBE);
     }
 
+    @Override
+    public int getDescribeBatchSize() {
+        return getRequiredInteger(DESCRIBE_BATCH_SIZE);
+    }
+
+    @Override
+    public Optional<Integer> getMaxDescribedResources() {
+        return getInteger(MAX_DESCRIBED_RESOURCES);
+    }
+
     @Override
     public boolean isCustomSPARQLFunctionRegistrationEnabled() {
         return getRequiredBoolean(REGISTER_CUSTON_SPARQL_AGGREGATE_FUNCTIONS);
@@ -98,6 +108,11 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return getRequiredLong(QUERY_CACHE_MAX_SIZE);
     }
 
+    @Override
+    public long getQueryTemplateCacheMaxSize() {
+        return getRequiredLong(QUERY_TEMPLATE_CACHE_MAX_SIZE);
+    }
+
     @Override
     public String getApplicationName() {
         return getRequiredProperty(APPLICATION_NAME);
@@ -143,11 +158,46 @@ public class OntopStandaloneSQLSettingsImpl extends OntopMappingSQLAllSettingsIm
         return systemSettings.getFetchSize();
     }
 
+    @Override
+    public boolean isLateConnectionBindingEnabled() {
+        return systemSettings.isLateConnectionBindingEnabled();
+    }
+
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return systemSettings.getPreparedStatementCacheSize();
+    }
+
+    @Override
+    public boolean areConstantsParameterized() {
+        return systemSettings.areConstantsParameterized();
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorMaxQueueSize() {
+        return systemSettings.getQueryExecutorMaxQueueSize();
+    }
+
+    @Override
+    public long getSPARQLParsingCacheMaxSize() {
+        return systemSettings.getSPARQLParsingCacheMaxSize();
+    }
+
+    @Override
+    public long getSPARQLParsingCacheExpireAfterAccess() {
+        return systemSettings.getSPARQLParsingCacheExpireAfterAccess();
+    }
+
     @Override
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
@@ -79,11 +79,41 @@ public class OntopSystemSQLSettingsImpl extends OntopReformulationSQLSettingsImp
         return getRequiredInteger(FETCH_SIZE);
     }
 
+    @Override
+    public boolean isLateConnectionBindingEnabled() {
+        return getRequiredBoolean(LATE_CONNECTION_BINDING);
+    }
+
+    @Override
+    public int getPreparedStatementCacheSize() {
+        return getRequiredInteger(PREPARED_STATEMENT_CACHE_SIZE);
+    }
+
     @Override
     public Optional<Integer> getDefaultQueryTimeout() {
         return getInteger(DEFAULT_QUERY_TIMEOUT);
     }
 
+    @Override
+    public int getQueryExecutorMaxThreads() {
+        return systemSettings.getQueryExecutorMaxThreads();
+    }
+
+    @Override
+    public int getQueryExecutorMaxQueueSize() {
+        return systemSettings.getQueryExecutorMaxQueueSize();
+    }
+
+    @Override
+    public long getSPARQLParsingCacheMaxSize() {
+        return systemSettings.getSPARQLParsingCacheMaxSize();
+    }
+
+    @Override
+    public long getSPARQLParsingCacheExpireAfterAccess() {
+        return systemSettings.getSPARQLParsingCacheExpireAfterAccess();
+    }
+
     @Override
     public boolean isPermanentDBConnectionEnabled() {
         return systemSettings.isPermanentDBConnectionEnabled();
@@ -0,0 +1,246 @@
+package it.unibz.inf.ontop.query.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.term.functionsymbol.FunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.RDFTermTypeFunctionSymbol;
+import it.unibz.inf.ontop.model.term.functionsymbol.db.impl.DefaultSimpleDBCastFunctionSymbol;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.RDFTermType;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.substitution.Substitution;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+
+import javax.annotation.Nullable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Converts the rows of a JDBC result set into bindings.
+ *
+ * Compiled once per executable query out of the substitution of its top construction node.
+ * The most common terms, namely RDF terms whose lexical value is a column (possibly cast into a string)
+ * and whose type is either a constant or given by a column, are directly evaluated on the column values.
+ *
+ * The other terms, as well as the unexpected cases (e.g. the lexical value is null but not the type),
+ * are evaluated by applying the substitution and simplifying the resulting term.
+ */
+class JDBCRowDecoder {
+
+    private final ImmutableList<Variable> signature;
+    private final ImmutableMap<Integer, Variable> indexedSqlSignature;
+    private final ImmutableList<Variable> sqlVariables;
+    private final ImmutableMap<Variable, Integer> sqlColumnIndexes;
+    private final ImmutableMap<Variable, DBTermType> sqlTypeMap;
+    private final TermFactory termFactory;
+    private final SubstitutionFactory substitutionFactory;
+
+    private final ImmutableList<TermDecoder> decoders;
+
+    JDBCRowDecoder(ImmutableList<Variable> signature, ImmutableMap<Integer, Variable> indexedSqlSignature,
+                   ImmutableMap<Variable, DBTermType> sqlTypeMap, Substitution<ImmutableTerm> sparqlVar2Term,
+                   TermFactory termFactory, SubstitutionFactory substitutionFactory) {
+        this.signature = signature;
+        this.indexedSqlSignature = indexedSqlSignature;
+        this.sqlVariables = ImmutableList.copyOf(indexedSqlSignature.values());
+        this.sqlColumnIndexes = indexedSqlSignature.entrySet().stream()
+                .collect(ImmutableCollectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+        this.sqlTypeMap = sqlTypeMap;
+        this.termFactory = termFactory;
+        this.substitutionFactory = substitutionFactory;
+
+        this.decoders = signature.stream()
+                .map(v -> compile(sparqlVar2Term.apply(v)))
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Values indexed by the column index (starting at 1)
+     */
+    String[] readRow(ResultSet rs) throws SQLException {
+        int columnCount = sqlVariables.size();
+        String[] row = new String[columnCount + 1];
+        for (int index = 1; index <= columnCount; index++)
+            row[index] = rs.getString(index);
+        return row;
+    }
+
+    OntopBinding[] decode(String[] values) {
+        Row row = new Row(values);
+        List<OntopBinding> bindings = new ArrayList<>(signature.size());
+        for (int i = 0; i < decoders.size(); i++) {
+            RDFConstant constant = decoders.get(i).decode(row);
+            if (constant != null)
+                bindings.add(new OntopBindingImpl(signature.get(i), constant));
+        }
+        return bindings.toArray(new OntopBinding[0]);
+    }
+
+    private TermDecoder compile(ImmutableTerm term) {
+        if (term instanceof RDFConstant) {
+            RDFConstant constant = (RDFConstant) term;
+            return row -> constant;
+        }
+        if (term.isNull())
+            return row -> null;
+
+        return compileRDFTerm(term)
+                .orElseGet(() -> row -> evaluate(term, row));
+    }
+
+    private Optional<TermDecoder> compileRDFTerm(ImmutableTerm term) {
+        if (!(term instanceof ImmutableFunctionalTerm)
+                || !(((ImmutableFunctionalTerm) term).getFunctionSymbol() instanceof RDFTermFunctionSymbol))
+            return Optional.empty();
+
+        ImmutableFunctionalTerm rdfTerm = (ImmutableFunctionalTerm) term;
+        Optional<LexicalDecoder> optionalLexicalDecoder = compileLexicalTerm(rdfTerm.getTerm(0));
+        if (!optionalLexicalDecoder.isPresent())
+            return Optional.empty();
+        LexicalDecoder lexicalDecoder = optionalLexicalDecoder.get();
+
+        ImmutableTerm typeTerm = rdfTerm.getTerm(1);
+        if (typeTerm instanceof RDFTermTypeConstant) {
+            RDFTermType type = ((RDFTermTypeConstant) typeTerm).getRDFTermType();
+            if (type.isAbstract())
+                return Optional.empty();
+
+            return Optional.of(row -> {
+                String lexicalValue = lexicalDecoder.decode(row);
+                return lexicalValue == null
+                        // Invalid (reported by the generic evaluation)
+                        ? evaluate(term, row)
+                        : termFactory.getRDFConstant(lexicalValue, type);
+            });
+        }
+
+        if ((typeTerm instanceof ImmutableFunctionalTerm)
+                && ((ImmutableFunctionalTerm) typeTerm).getFunctionSymbol() instanceof RDFTermTypeFunctionSymbol) {
+            ImmutableFunctionalTerm typeFunctionalTerm = (ImmutableFunctionalTerm) typeTerm;
+            RDFTermTypeFunctionSymbol typeFunctionSymbol = (RDFTermTypeFunctionSymbol) typeFunctionalTerm.getFunctionSymbol();
+            ImmutableTerm typeColumn = typeFunctionalTerm.getTerm(0);
+
+            if (!typeFunctionSymbol.canBePostProcessed(typeFunctionalTerm.getTerms())
+                    || !(typeColumn instanceof Variable)
+                    || !sqlColumnIndexes.containsKey(typeColumn))
+                return Optional.empty();
+
+            int typeIndex = sqlColumnIndexes.get(typeColumn);
+            DBTermType typeColumnType = sqlTypeMap.get(typeColumn);
+            // Same DB constants as built by the generic evaluation
+            ImmutableMap<String, RDFTermType> typeMap = typeFunctionSymbol.getConversionMap().entrySet().stream()
+                    .filter(e -> e.getKey().getType().equals(typeColumnType))
+                    .filter(e -> !e.getValue().getRDFTermType().isAbstract())
+                    .collect(ImmutableCollectors.toMap(
+                            e -> e.getKey().getValue(),
+                            e -> e.getValue().getRDFTermType()));
+
+            return Optional.of(row -> {
+                String lexicalValue = lexicalDecoder.decode(row);
+                String typeValue = row.get(typeIndex);
+                if (lexicalValue == null && typeValue == null)
+                    return null;
+
+                RDFTermType type = typeValue == null ? null : typeMap.get(typeValue);
+                return (lexicalValue == null || type == null)
+                        ? evaluate(term, row)
+                        : termFactory.getRDFConstant(lexicalValue, type);
+            });
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Only for terms preserving the string value of the column
+     */
+    private Optional<LexicalDecoder> compileLexicalTerm(ImmutableTerm term) {
+        if (term instanceof Variable) {
+            Integer index = sqlColumnIndexes.get(term);
+            if (index == null)
+                return Optional.empty();
+            return Optional.of(row -> row.get(index));
+        }
+        if (term instanceof DBConstant) {
+            String value = ((DBConstant) term).getValue();
+            return Optional.of(row -> value);
+        }
+        if (term instanceof ImmutableFunctionalTerm) {
+            ImmutableFunctionalTerm functionalTerm = (ImmutableFunctionalTerm) term;
+            FunctionSymbol functionSymbol = functionalTerm.getFunctionSymbol();
+            // Exact class: sub-classes may normalize the value
+            if (functionSymbol.getClass().equals(DefaultSimpleDBCastFunctionSymbol.class))
+                return compileLexicalTerm(functionalTerm.getTerm(0));
+        }
+        return Optional.empty();
+    }
+
+    @Nullable
+    private RDFConstant evaluate(ImmutableTerm term, Row row) {
+        ImmutableTerm simplifiedTerm = row.getSubstitution().applyToTerm(term).simplify();
+        if (simplifiedTerm instanceof RDFConstant) {
+            return (RDFConstant) simplifiedTerm;
+        }
+        else if (simplifiedTerm.isNull()) {
+            return null;
+        }
+        else if (simplifiedTerm instanceof DBConstant) {
+            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException(
+                    simplifiedTerm + " is a DB constant. But a binding cannot have a DB constant as value");
+        }
+        else if (simplifiedTerm instanceof Constant) {
+            throw new SQLOntopBindingSet.InvalidConstantTypeInResultException("Unexpected constant type for " + simplifiedTerm);
+        }
+        throw new SQLOntopBindingSet.InvalidTermAsResultException(simplifiedTerm);
+    }
+
+    private Constant convertToConstant(@Nullable String jdbcValue, DBTermType termType) {
+        if (jdbcValue == null)
+            return termFactory.getNullConstant();
+        return termFactory.getDBConstant(jdbcValue, termType);
+    }
+
+
+    @FunctionalInterface
+    private interface TermDecoder {
+        /**
+         * Returns null when the variable is not bound
+         */
+        @Nullable
+        RDFConstant decode(Row row);
+    }
+
+    @FunctionalInterface
+    private interface LexicalDecoder {
+        @Nullable
+        String decode(Row row);
+    }
+
+    private class Row {
+        private final String[] values;
+        // Lazy (only needed by the generic evaluation)
+        @Nullable
+        private Substitution<Constant> substitution;
+
+        private Row(String[] values) {
+            this.values = values;
+        }
+
+        @Nullable
+        String get(int index) {
+            return values[index];
+        }
+
+        Substitution<Constant> getSubstitution() {
+            if (substitution == null)
+                substitution = substitutionFactory.getSubstitution(sqlVariables,
+                        indexedSqlSignature.entrySet().stream()
+                                .map(e -> convertToConstant(values[e.getKey()], sqlTypeMap.get(e.getValue())))
+                                .collect(ImmutableCollectors.toList()));
+            return substitution;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package it.unibz.inf.ontop.answering.connection.impl;
+
+import it.unibz.inf.ontop.answering.connection.JDBCStatementInitializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.*;
+
+import static org.junit.Assert.*;
+
+public class PreparedStatementCacheTest {
+
+    private static final String QUERY_1 = "SELECT ID FROM T WHERE ID = 1";
+    private static final String QUERY_2 = "SELECT ID FROM T WHERE ID = 2";
+    private static final String QUERY_3 = "SELECT ID FROM T WHERE ID = 3";
+
+    private static final JDBCStatementInitializer STATEMENT_INITIALIZER = new JDBCStatementInitializer() {
+        @Override
+        public Statement createAndInitStatement(Connection connection) throws SQLException {
+            return connection.createStatement();
+        }
+
+        @Override
+        public void closeStatement(Statement statement) throws SQLException {
+            statement.close();
+        }
+    };
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:prepared-statement-cache", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE T (ID INT PRIMARY KEY)");
+            statement.executeUpdate("INSERT INTO T VALUES (1), (2), (3)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void testReuse() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, STATEMENT_INITIALIZER, 2);
+
+        PreparedStatement statement1 = execute(cache, QUERY_1, 1);
+        PreparedStatement statement2 = execute(cache, QUERY_1, 1);
+        PreparedStatement statement3 = execute(cache, QUERY_1, 1);
+
+        assertSame(statement1, statement2);
+        assertSame(statement1, statement3);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        cache.close();
+        assertTrue(statement1.isClosed());
+    }
+
+    @Test
+    public void testConcurrentExecutionsUseDistinctStatements() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, STATEMENT_INITIALIZER, 2);
+
+        PreparedStatement statement1 = cache.acquire(QUERY_1);
+        PreparedStatement statement2 = cache.acquire(QUERY_1);
+        assertNotSame(statement1, statement2);
+        assertEquals(0, cache.getHitCount());
+
+        cache.release(QUERY_1, statement1);
+        cache.release(QUERY_1, statement2);
+        // Only one idle statement is kept per query
+        assertEquals(1, cache.getIdleStatementCount());
+        assertTrue(statement2.isClosed());
+        cache.close();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(connection, STATEMENT_INITIALIZER, 2);
+
+        PreparedStatement statement1 = execute(cache, QUERY_1, 1);
+        PreparedStatement statement2 = execute(cache, QUERY_2, 2);
+        execute(cache, QUERY_1, 1);
+        PreparedStatement statement3 = execute(cache, QUERY_3, 3);
+
+        assertEquals(2, cache.getIdleStatementCount());
+        assertTrue(statement2.isClosed());
+        assertFalse(statement1.isClosed());
+        assertFalse(statement3.isClosed());
+
+        assertNotSame(statement2, execute(cache, QUERY_2, 2));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        cache.close();
+    }
+
+    private static PreparedStatement execute(PreparedStatementCache cache, String query, int expectedId)
+            throws SQLException {
+        PreparedStatement statement = cache.acquire(query);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            assertTrue(resultSet.next());
+            assertEquals(expectedId, resultSet.getInt(1));
+            assertFalse(resultSet.next());
+        }
+        cache.release(query, statement);
+        return statement;
+    }
+}
@@ -0,0 +1,168 @@
+package it.unibz.inf.ontop.dbschema.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.dbschema.*;
+import it.unibz.inf.ontop.exception.MetadataExtractionException;
+import it.unibz.inf.ontop.injection.OntopOBDASettings;
+import it.unibz.inf.ontop.injection.OntopSQLCoreConfiguration;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * H2 has no bulk catalog queries for the integrity constraints: in the bulk mode,
+ * the columns are retrieved schema by schema and the constraints relation by relation.
+ */
+public class BulkMetadataExtractionH2Test {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:bulk-metadata-extraction";
+    private static final String SCHEMA = "BULK";
+
+    private static Connection CONNECTION;
+
+    @BeforeClass
+    public static void setUp() throws SQLException {
+        CONNECTION = DriverManager.getConnection(JDBC_URL, "sa", "");
+        try (Statement st = CONNECTION.createStatement()) {
+            st.executeUpdate("CREATE SCHEMA BULK");
+            st.executeUpdate("CREATE TABLE BULK.WRITER (ID INT PRIMARY KEY, NAME VARCHAR(100) NOT NULL, " +
+                    "EMAIL VARCHAR(100) UNIQUE)");
+            st.executeUpdate("CREATE TABLE BULK.BOOK (ID INT PRIMARY KEY, TITLE VARCHAR(100), PRICE DECIMAL(10, 2))");
+            st.executeUpdate("CREATE TABLE BULK.BOOKWRITER (BOOK_ID INT NOT NULL REFERENCES BULK.BOOK(ID), " +
+                    "WRITER_ID INT NOT NULL REFERENCES BULK.WRITER(ID), PRIMARY KEY (BOOK_ID, WRITER_ID))");
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        CONNECTION.close();
+    }
+
+    @Test
+    public void testSameMetadata() throws Exception {
+        AtomicInteger relationCount = new AtomicInteger();
+        AtomicInteger bulkCount = new AtomicInteger();
+
+        ImmutableMap<String, String> relations = extract(false, relationCount);
+        ImmutableMap<String, String> bulkRelations = extract(true, bulkCount);
+
+        assertEquals(3, relations.size());
+        assertEquals(relations, bulkRelations);
+        // One getColumns call per relation, against one for the whole schema
+        assertEquals(3, relationCount.get());
+        assertEquals(1, bulkCount.get());
+    }
+
+    @Test
+    public void testConstraints() throws Exception {
+        ImmutableMap<String, String> bulkRelations = extract(true, new AtomicInteger());
+
+        assertTrue(bulkRelations.get("WRITER").endsWith("; PK [ID]; UC [EMAIL]; "));
+        assertTrue(bulkRelations.get("BOOK").endsWith("; PK [ID]; "));
+        assertTrue(bulkRelations.get("BOOKWRITER").endsWith("; PK [BOOK_ID, WRITER_ID]; " +
+                "FK [BOOK_ID] -> BOOK [ID]; FK [WRITER_ID] -> WRITER [ID]"));
+    }
+
+    /**
+     * Relations in the schema BULK, indexed by their names
+     */
+    private static ImmutableMap<String, String> extract(boolean isBulk, AtomicInteger getColumnsCount)
+            throws MetadataExtractionException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopOBDASettings.BULK_METADATA_EXTRACTION, String.valueOf(isBulk));
+
+        OntopSQLCoreConfiguration configuration = OntopSQLCoreConfiguration.defaultBuilder()
+                .jdbcUrl(JDBC_URL)
+                .jdbcDriver("org.h2.Driver")
+                .properties(properties)
+                .build();
+        JDBCMetadataProviderFactory metadataProviderFactory = configuration.getInjector()
+                .getInstance(JDBCMetadataProviderFactory.class);
+
+        MetadataProvider provider = new DelegatingMetadataProvider(
+                metadataProviderFactory.getMetadataProvider(countGetColumns(CONNECTION, getColumnsCount))) {
+            @Override
+            public ImmutableList<RelationID> getRelationIDs() throws MetadataExtractionException {
+                return provider.getRelationIDs().stream()
+                        .filter(id -> id.getComponents().size() > 1
+                                && id.getComponents().get(1).getName().equals(SCHEMA))
+                        .collect(ImmutableCollectors.toList());
+            }
+        };
+
+        return ImmutableMetadata.extractImmutableMetadata(provider).getAllRelations().stream()
+                .collect(ImmutableCollectors.toMap(
+                        BulkMetadataExtractionH2Test::getName,
+                        BulkMetadataExtractionH2Test::describe));
+    }
+
+    private static String getName(NamedRelationDefinition relation) {
+        return relation.getID().getComponents().get(RelationID.TABLE_INDEX).getName();
+    }
+
+    private static String describe(NamedRelationDefinition relation) {
+        return relation.getAttributes().stream()
+                    .map(a -> a.getID().getName() + " " + a.getTermType().getName() + " " + a.isNullable())
+                    .collect(Collectors.joining(", ")) + "; "
+                + relation.getUniqueConstraints().stream()
+                    .map(uc -> (uc.isPrimaryKey() ? "PK " : "UC ") + getNames(uc.getAttributes()))
+                    .sorted()
+                    .collect(Collectors.joining("; ")) + "; "
+                + relation.getForeignKeys().stream()
+                    .map(fk -> "FK " + getNames(fk.getComponents().stream()
+                            .map(ForeignKeyConstraint.Component::getAttribute)
+                            .collect(ImmutableCollectors.toList()))
+                            + " -> " + getName(fk.getReferencedRelation()) + " "
+                            + getNames(fk.getComponents().stream()
+                            .map(ForeignKeyConstraint.Component::getReferencedAttribute)
+                            .collect(ImmutableCollectors.toList())))
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+    }
+
+    private static String getNames(ImmutableList<Attribute> attributes) {
+        return attributes.stream()
+                .map(a -> a.getID().getName())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static Connection countGetColumns(Connection connection, AtomicInteger count) throws SQLException {
+        DatabaseMetaData metadata = connection.getMetaData();
+        DatabaseMetaData countingMetadata = (DatabaseMetaData) Proxy.newProxyInstance(
+                BulkMetadataExtractionH2Test.class.getClassLoader(),
+                new Class<?>[] { DatabaseMetaData.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getColumns"))
+                        count.incrementAndGet();
+                    return invoke(metadata, method, args);
+                });
+
+        return (Connection) Proxy.newProxyInstance(
+                BulkMetadataExtractionH2Test.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> method.getName().equals("getMetaData")
+                        ? countingMetadata
+                        : invoke(connection, method, args));
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package it.unibz.inf.ontop.query.resultset.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Injector;
+import it.unibz.inf.ontop.injection.OntopModelConfiguration;
+import it.unibz.inf.ontop.model.term.*;
+import it.unibz.inf.ontop.model.type.DBTermType;
+import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.query.resultset.OntopBinding;
+import it.unibz.inf.ontop.substitution.SubstitutionFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class JDBCRowDecoderTest {
+
+    private static final TermFactory TERM_FACTORY;
+    private static final TypeFactory TYPE_FACTORY;
+    private static final SubstitutionFactory SUBSTITUTION_FACTORY;
+
+    static {
+        Injector injector = OntopModelConfiguration.defaultBuilder().build().getInjector();
+        TERM_FACTORY = injector.getInstance(TermFactory.class);
+        TYPE_FACTORY = injector.getInstance(TypeFactory.class);
+        SUBSTITUTION_FACTORY = injector.getInstance(SubstitutionFactory.class);
+    }
+
+    private static final Variable X = TERM_FACTORY.getVariable("x");
+    private static final Variable Y = TERM_FACTORY.getVariable("y");
+    private static final Variable Z = TERM_FACTORY.getVariable("z");
+    private static final Variable W = TERM_FACTORY.getVariable("w");
+    private static final Variable V1 = TERM_FACTORY.getVariable("v1");
+    private static final Variable V2 = TERM_FACTORY.getVariable("v2");
+    private static final Variable V3 = TERM_FACTORY.getVariable("v3");
+
+    private static final DBTermType DB_STRING = TYPE_FACTORY.getDBTypeFactory().getDBStringType();
+    private static final DBTermType DB_INTEGER = TYPE_FACTORY.getDBTypeFactory().getDBLargeIntegerType();
+
+    /**
+     * x: IRI from a column, y: string literal from a column, z: integer literal from a cast column,
+     * w: constant IRI
+     */
+    private static final JDBCRowDecoder DECODER = new JDBCRowDecoder(
+            ImmutableList.of(X, Y, Z, W),
+            ImmutableMap.of(1, V1, 2, V2, 3, V3),
+            ImmutableMap.of(V1, DB_STRING, V2, DB_STRING, V3, DB_INTEGER),
+            SUBSTITUTION_FACTORY.getSubstitution(
+                    X, TERM_FACTORY.getRDFFunctionalTerm(V1,
+                            TERM_FACTORY.getRDFTermTypeConstant(TYPE_FACTORY.getIRITermType())),
+                    Y, TERM_FACTORY.getRDFFunctionalTerm(V2,
+                            TERM_FACTORY.getRDFTermTypeConstant(TYPE_FACTORY.getXsdStringDatatype())),
+                    Z, TERM_FACTORY.getRDFFunctionalTerm(TERM_FACTORY.getDBCastFunctionalTerm(DB_INTEGER, DB_STRING, V3),
+                            TERM_FACTORY.getRDFTermTypeConstant(TYPE_FACTORY.getXsdIntegerDatatype())),
+                    W, TERM_FACTORY.getConstantIRI("http://example.org/w")),
+            TERM_FACTORY, SUBSTITUTION_FACTORY);
+
+    @Test
+    public void testAllBound() {
+        Map<String, RDFConstant> bindings = decode("http://example.org/a", "abc", "42");
+
+        assertEquals(4, bindings.size());
+        assertEquals(TERM_FACTORY.getConstantIRI("http://example.org/a"), bindings.get("x"));
+        assertEquals(TERM_FACTORY.getRDFLiteralConstant("abc", TYPE_FACTORY.getXsdStringDatatype()), bindings.get("y"));
+        assertEquals(TERM_FACTORY.getRDFLiteralConstant("42", TYPE_FACTORY.getXsdIntegerDatatype()), bindings.get("z"));
+        assertEquals(TERM_FACTORY.getConstantIRI("http://example.org/w"), bindings.get("w"));
+    }
+
+    @Test
+    public void testNullColumnsAreUnbound() {
+        Map<String, RDFConstant> bindings = decode(null, "abc", null);
+
+        assertEquals(2, bindings.size());
+        assertFalse(bindings.containsKey("x"));
+        assertFalse(bindings.containsKey("z"));
+        assertEquals(TERM_FACTORY.getRDFLiteralConstant("abc", TYPE_FACTORY.getXsdStringDatatype()), bindings.get("y"));
+    }
+
+    @Test
+    public void testBindingOrder() {
+        OntopBinding[] bindings = DECODER.decode(new String[] { null, "http://example.org/a", "abc", "42" });
+
+        assertEquals(ImmutableList.of("x", "y", "z", "w"), Arrays.stream(bindings)
+                .map(OntopBinding::getName)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testEmptyString() {
+        Map<String, RDFConstant> bindings = decode("http://example.org/a", "", "0");
+
+        assertEquals(TERM_FACTORY.getRDFLiteralConstant("", TYPE_FACTORY.getXsdStringDatatype()), bindings.get("y"));
+        assertEquals(TERM_FACTORY.getRDFLiteralConstant("0", TYPE_FACTORY.getXsdIntegerDatatype()), bindings.get("z"));
+    }
+
+    /**
+     * The values are indexed by column index (starting at 1)
+     */
+    private static Map<String, RDFConstant> decode(String v1, String v2, String v3) {
+        return Arrays.stream(DECODER.decode(new String[] { null, v1, v2, v3 }))
+                .collect(Collectors.toMap(OntopBinding::getName, OntopBinding::getValue));
+    }
+}
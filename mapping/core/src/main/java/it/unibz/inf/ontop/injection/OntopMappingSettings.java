@@ -48,6 +48,12 @@ public interface OntopMappingSettings extends OntopKGQuerySettings {
 
     boolean isValuesNodesWrapInLensesInMappingEnabled();
 
+    /**
+     * Number of threads transforming the mapping assertions at startup (saturation, optimizations, etc.).
+     * If 0, uses all the available processors. If 1, the assertions are processed sequentially.
+     */
+    int getMappingProcessingParallelism();
+
     //--------------------------
     // Keys
     //--------------------------
@@ -59,6 +65,7 @@ public interface OntopMappingSettings extends OntopKGQuerySettings {
     String ENABLE_FACT_EXTRACTION_WITH_TBOX = "ontop.enableFactExtractionWithTBox";
     String INFER_SUPER_CLASSES_OF_DOMAIN_RANGE = "ontop.querySuperClassesOfDomainRange";
     String WRAP_MAPPING_VALUES_NODES_IN_LENSES = "ontop.wrapMappingValuesNodesInLenses";
+    String MAPPING_PROCESSING_PARALLELISM = "ontop.mapping.parallelism";
 
     /**
      * Options to specify base IRI.
@@ -137,7 +137,7 @@ public class FactExtractorWithSaturatedTBox extends AbstractFactExtractor {
                                                                  ImmutableMap<DescriptionBT, ObjectConstant> expressionIdMap) {
         return dag.stream()
                     .flatMap(supEq -> supEq.getMembers().stream()
-                            .flatMap(sup -> dag.getSub(supEq).stream()
+                            .flatMap(sup -> getSub(dag, supEq)
                                     .flatMap(subEq -> subEq.getMembers().stream()
                                             // Necessary to remove dag elements whose corresponding value from the
                                             // expressionIdMap were BNodes. ExpressionIdMap was filtered.
@@ -149,6 +149,21 @@ public class FactExtractorWithSaturatedTBox extends AbstractFactExtractor {
                                                     expressionIdMap.get(sup))))));
     }
 
+    /**
+     * Iterates over the index of the DAG instead of materializing the set of sub-descriptions
+     */
+    private static <T> Stream<Equivalences<T>> getSub(EquivalencesDAG<T> dag, Equivalences<T> v) {
+        Stream.Builder<Equivalences<T>> builder = Stream.builder();
+        dag.forEachSub(v, builder);
+        return builder.build();
+    }
+
+    private static <T> Stream<Equivalences<T>> getSuper(EquivalencesDAG<T> dag, Equivalences<T> v) {
+        Stream.Builder<Equivalences<T>> builder = Stream.builder();
+        dag.forEachSuper(v, builder);
+        return builder.build();
+    }
+
     /**
      * Everything except subClassOf
      */
@@ -213,7 +228,7 @@ public class FactExtractorWithSaturatedTBox extends AbstractFactExtractor {
         Equivalences<ClassExpression> eq = classDag.getVertex(classExpression);
 
         if (settings.areSuperClassesOfDomainRangeInferred()) {
-            return classDag.getSuper(eq).stream()
+            return getSuper(classDag, eq)
                     .flatMap(supEq -> supEq.stream()
                             .filter(sup -> sup instanceof OClass)
                             .map(sup -> RDFFact.createTripleFact(propertyId, rangeOrDomainProperty, expressionIdMap.get(sup))));
@@ -265,7 +280,7 @@ public class FactExtractorWithSaturatedTBox extends AbstractFactExtractor {
             Stream<RDFFact> restriction = Stream.of(RDFFact.createTripleFact(newBNode, rdfType, owlRestriction));
             Stream<RDFFact> restrictionOnProperty = Stream.of(RDFFact.createTripleFact(newBNode, onProperty, propertyId));
             Stream<RDFFact> restrictionSomeValuesFrom = classDag.getDirectSub(eq).stream()
-                    .flatMap(sup -> classDag.getSuper(sup).stream()
+                    .flatMap(sup -> getSuper(classDag, sup)
                             .flatMap(supEq2 -> supEq2.stream()
                                     .filter(sup2 -> sup2 instanceof OClass)
                                     .map(sup3 -> RDFFact.createTripleFact(newBNode, someValuesFrom, expressionIdMap.get(sup3)))
@@ -276,7 +291,7 @@ public class FactExtractorWithSaturatedTBox extends AbstractFactExtractor {
                     RDFFact.createTripleFact(newBNode, rdfType, rdfsClass),
                     RDFFact.createTripleFact(newBNode, rdfType, owlClass));
 
-            Stream<RDFFact> restrictionSubClasses = classDag.getSub(eq).stream()
+            Stream<RDFFact> restrictionSubClasses = getSub(classDag, eq)
                     .flatMap(supEq -> supEq.stream()
                             .filter(sup -> sup instanceof OClass)
                             .map(sup -> RDFFact.createTripleFact(expressionIdMap.get(sup), subClassOf, newBNode)));
@@ -43,6 +43,7 @@ public class DefaultMappingTransformer implements MappingTransformer {
     private final RuleExecutor ruleExecutor;
 
     private final DisjunctionOfEqualitiesMergingSimplifier disjunctionOfEqualitiesMergingSimplifier;
+    private final MappingStageExecutor stageExecutor;
 
 
     @Inject
@@ -56,7 +57,8 @@ public class DefaultMappingTransformer implements MappingTransformer {
                                       MappingDistinctTransformer mappingDistinctTransformer,
                                       MappingValuesWrapper mappingValuesWrapper,
                                       DisjunctionOfEqualitiesMergingSimplifier disjunctionOfEqualitiesMergingSimplifier,
-                                      TermFactory termFactory, RuleExecutor ruleExecutor) {
+                                      TermFactory termFactory, RuleExecutor ruleExecutor,
+                                      MappingStageExecutor stageExecutor) {
         this.mappingVariableNameNormalizer = mappingVariableNameNormalizer;
         this.mappingSaturator = mappingSaturator;
         this.factConverter = inserter;
@@ -69,6 +71,7 @@ public class DefaultMappingTransformer implements MappingTransformer {
         this.disjunctionOfEqualitiesMergingSimplifier = disjunctionOfEqualitiesMergingSimplifier;
         this.termFactory = termFactory;
         this.ruleExecutor = ruleExecutor;
+        this.stageExecutor = stageExecutor;
     }
 
     @Override
@@ -82,22 +85,30 @@ public class DefaultMappingTransformer implements MappingTransformer {
 
         Ontology ontology = optionalOntology.orElseGet(() -> OntologyBuilderImpl.builder(rdfFactory, termFactory).build());
 
-        ImmutableList<MappingAssertion> sameAsRewrittenMapping = sameAsInverseRewriter.rewrite(mappingWithFacts);
-        ImmutableList<MappingAssertion> saturatedMapping = mappingSaturator.saturate(sameAsRewrittenMapping, ontology.tbox());
+        MappingStageExecutor.StageTimings timings = stageExecutor.newTimings("Mapping transformation");
 
-        ImmutableList<MappingAssertion> simplifiedBooleanExpressionsMapping = saturatedMapping.stream()
-                .map(m -> m.copyOf(disjunctionOfEqualitiesMergingSimplifier.optimize(m.getQuery())))
-                .collect(ImmutableCollectors.toList());
+        ImmutableList<MappingAssertion> sameAsRewrittenMapping = timings.run("sameAs rewriting",
+                () -> sameAsInverseRewriter.rewrite(mappingWithFacts));
+        ImmutableList<MappingAssertion> saturatedMapping = timings.run("saturation",
+                () -> mappingSaturator.saturate(sameAsRewrittenMapping, ontology.tbox()));
 
-        ImmutableList<MappingAssertion> mappingAfterApplyingRules = ruleExecutor.apply(simplifiedBooleanExpressionsMapping, rules);
-        ImmutableList<MappingAssertion> mappingWithNormalizedVarNames = mappingVariableNameNormalizer.normalize(mappingAfterApplyingRules);
+        ImmutableList<MappingAssertion> simplifiedBooleanExpressionsMapping = timings.run("disjunction of equalities merging",
+                () -> stageExecutor.map(saturatedMapping,
+                        m -> m.copyOf(disjunctionOfEqualitiesMergingSimplifier.optimize(m.getQuery()))));
+
+        ImmutableList<MappingAssertion> mappingAfterApplyingRules = timings.run("rules",
+                () -> ruleExecutor.apply(simplifiedBooleanExpressionsMapping, rules));
+        ImmutableList<MappingAssertion> mappingWithNormalizedVarNames = timings.run("variable name normalization",
+                () -> mappingVariableNameNormalizer.normalize(mappingAfterApplyingRules));
 
         // Don't insert the distinct if the cardinality preservation is set to LOOSE
         ImmutableList<MappingAssertion> mappingWithRightCardinality = settings.getCardinalityPreservationMode() == LOOSE
                 ? mappingWithNormalizedVarNames
-                : mappingDistinctTransformer.addDistinct(mappingWithNormalizedVarNames);
+                : timings.run("distinct insertion", () -> mappingDistinctTransformer.addDistinct(mappingWithNormalizedVarNames));
 
-        ImmutableList<MappingAssertion> finalMapping = mappingValuesWrapper.normalize(mappingWithRightCardinality, dbParameters);
+        ImmutableList<MappingAssertion> finalMapping = timings.run("values wrapping",
+                () -> mappingValuesWrapper.normalize(mappingWithRightCardinality, dbParameters));
+        timings.log();
 
         return specificationFactory.createSpecification(getMapping(finalMapping), dbParameters, ontology.tbox());
     }
@@ -10,7 +10,6 @@ import it.unibz.inf.ontop.iq.node.DistinctNode;
 import it.unibz.inf.ontop.iq.node.UnionNode;
 import it.unibz.inf.ontop.spec.mapping.MappingAssertion;
 import it.unibz.inf.ontop.spec.mapping.transformer.MappingDistinctTransformer;
-import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.VariableGenerator;
 
 import java.util.Optional;
@@ -18,16 +17,16 @@ import java.util.Optional;
 public class MappingDistinctTransformerImpl implements MappingDistinctTransformer {
 
     private final IntermediateQueryFactory iqFactory;
+    private final MappingStageExecutor stageExecutor;
 
     @Inject
-    private MappingDistinctTransformerImpl(IntermediateQueryFactory iqFactory){
+    private MappingDistinctTransformerImpl(IntermediateQueryFactory iqFactory, MappingStageExecutor stageExecutor){
         this.iqFactory = iqFactory;
+        this.stageExecutor = stageExecutor;
     }
 
     public ImmutableList<MappingAssertion> addDistinct(ImmutableList<MappingAssertion> mapping){
-        return mapping.stream()
-                .map(this::updateQuery)
-                .collect(ImmutableCollectors.toList());
+        return stageExecutor.map(mapping, this::updateQuery);
     }
 
     /**
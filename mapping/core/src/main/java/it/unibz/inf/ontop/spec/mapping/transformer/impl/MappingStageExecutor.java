@@ -0,0 +1,115 @@
+package it.unibz.inf.ontop.spec.mapping.transformer.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the per-assertion stages of the mapping transformation (at startup),
+ * on a fork-join pool when the parallelism (see {@link OntopMappingSettings#getMappingProcessingParallelism()})
+ * is greater than 1.
+ *
+ * The results are in the same order as the input, so the resulting mapping does not depend on the parallelism.
+ * The functions must therefore be independent of each other.
+ */
+@Singleton
+public class MappingStageExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappingStageExecutor.class);
+
+    /**
+     * Shared by all the configurations with the same parallelism, so that no pool needs to be shut down.
+     * Idle worker threads are terminated by the pool, and they are daemon threads.
+     */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    // Null if sequential
+    @Nullable
+    private final ForkJoinPool pool;
+
+    @Inject
+    private MappingStageExecutor(OntopMappingSettings settings) {
+        int parallelism = settings.getMappingProcessingParallelism() > 0
+                ? settings.getMappingProcessingParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = parallelism > 1 ? POOLS.computeIfAbsent(parallelism, MappingStageExecutor::createPool) : null;
+    }
+
+    private static ForkJoinPool createPool(int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ForkJoinPool(parallelism,
+                p -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("ontop-mapping-" + parallelism + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                null, false);
+    }
+
+    /**
+     * Order-preserving
+     */
+    public <T, R> ImmutableList<R> map(ImmutableList<T> elements, Function<? super T, ? extends R> function) {
+        return (pool == null || elements.size() < 2)
+                ? elements.stream()
+                    .map(function)
+                    .collect(ImmutableCollectors.toList())
+                // The parallel stream runs in the pool of the task that triggers it
+                : pool.submit(() -> elements.parallelStream()
+                        .map(function)
+                        .collect(ImmutableCollectors.<R>toList()))
+                    .join();
+    }
+
+    /**
+     * To be created for each transformation
+     */
+    public StageTimings newTimings(String name) {
+        return new StageTimings(name);
+    }
+
+
+    /**
+     * Durations of the successive stages of a transformation, reported in the startup log
+     */
+    public static class StageTimings {
+        private final String name;
+        private final Map<String, Long> durations = new LinkedHashMap<>();
+
+        private StageTimings(String name) {
+            this.name = name;
+        }
+
+        public <R> R run(String stage, Supplier<R> supplier) {
+            long start = System.nanoTime();
+            R result = supplier.get();
+            durations.merge(stage, System.nanoTime() - start, Long::sum);
+            return result;
+        }
+
+        public void log() {
+            LOGGER.info("{} completed in {} ms ({})", name,
+                    TimeUnit.NANOSECONDS.toMillis(durations.values().stream().mapToLong(d -> d).sum()),
+                    durations.entrySet().stream()
+                            .map(e -> e.getKey() + ": " + TimeUnit.NANOSECONDS.toMillis(e.getValue()) + " ms")
+                            .collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -14,7 +14,7 @@ import it.unibz.inf.ontop.substitution.InjectiveSubstitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 
 @Singleton
@@ -23,22 +23,27 @@ public class MappingVariableNameNormalizerImpl implements MappingVariableNameNor
     private final QueryTransformerFactory transformerFactory;
     private final SubstitutionFactory substitutionFactory;
     private final TermFactory termFactory;
+    private final MappingStageExecutor stageExecutor;
 
     @Inject
     private MappingVariableNameNormalizerImpl(QueryTransformerFactory transformerFactory,
                                               SubstitutionFactory substitutionFactory,
-                                              TermFactory termFactory) {
+                                              TermFactory termFactory,
+                                              MappingStageExecutor stageExecutor) {
         this.transformerFactory = transformerFactory;
         this.substitutionFactory = substitutionFactory;
         this.termFactory = termFactory;
+        this.stageExecutor = stageExecutor;
     }
 
     @Override
     public ImmutableList<MappingAssertion> normalize(ImmutableList<MappingAssertion> mapping) {
-        AtomicInteger i = new AtomicInteger(0);
-        return mapping.stream()
-                .map(a -> a.copyOf(appendSuffixToVariableNames(a.getQuery(), i.incrementAndGet())))
+        // the suffix only depends on the position of the assertion
+        ImmutableList<Integer> positions = IntStream.range(0, mapping.size())
+                .boxed()
                 .collect(ImmutableCollectors.toList());
+        return stageExecutor.map(positions,
+                i -> mapping.get(i).copyOf(appendSuffixToVariableNames(mapping.get(i).getQuery(), i + 1)));
     }
 
     private IQ appendSuffixToVariableNames(IQ query, int suffix) {
@@ -51,6 +51,7 @@ import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 @Singleton
@@ -65,12 +66,14 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
     private final CoreSingletons coreSingletons;
     private final IntermediateQueryFactory iqFactory;
     private final SubstitutionFactory substitutionFactory;
+    private final MappingStageExecutor stageExecutor;
 
     @Inject
 	private TMappingSaturatorImpl(TMappingExclusionConfig tMappingExclusionConfig,
                                   MappingCQCOptimizer mappingCqcOptimizer,
                                   UnionBasedQueryMerger queryMerger,
-                                  CoreSingletons coreSingletons) {
+                                  CoreSingletons coreSingletons,
+                                  MappingStageExecutor stageExecutor) {
         this.tMappingExclusionConfig = tMappingExclusionConfig;
 		this.termFactory = coreSingletons.getTermFactory();
         this.mappingCqcOptimizer = mappingCqcOptimizer;
@@ -78,59 +81,76 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
         this.coreSingletons = coreSingletons;
         this.substitutionFactory = coreSingletons.getSubstitutionFactory();
         this.iqFactory = coreSingletons.getIQFactory();
+        this.stageExecutor = stageExecutor;
     }
 
     @Override
     public ImmutableList<MappingAssertion> saturate(ImmutableList<MappingAssertion> mapping, ClassifiedTBox reasoner) {
 
         ExtensionalDataNodeListContainmentCheck cqc = new ExtensionalDataNodeListContainmentCheck(coreSingletons.getHomomorphismFactory(), coreSingletons.getCoreUtilsFactory());
+        MappingStageExecutor.StageTimings timings = stageExecutor.newTimings("T-mapping saturation");
 
 	    // index mapping assertions by the predicate type
         //     same IRI can be a class name and a property name
         //     but the same IRI cannot be an object and a data or annotation property name at the same time
         // see https://www.w3.org/TR/owl2-new-features/#F12:_Punning
 
-        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> original = mapping.stream()
-                .map(m -> optimize(cqc, m))
-                .collect(ImmutableCollectors.toMultimap(MappingAssertion::getIndex, m -> m));
+        ImmutableMultimap<MappingAssertionIndex, MappingAssertion> original = timings.run("normalization and CQC optimization",
+                () -> stageExecutor.map(mapping, m -> optimize(cqc, m)).stream()
+                        .collect(ImmutableCollectors.toMultimap(MappingAssertion::getIndex, m -> m)));
 
-        ImmutableMap<MappingAssertionIndex, MappingAssertion> saturated = original.keySet().stream()
+        // one task per predicate type and DAG node, independent of each other
+        ImmutableList<SaturationTask> tasks = original.keySet().stream()
                 .map(MappingAssertionIndex::getPredicate)
                 .distinct()
                 .map(MappingAssertionConstructionNodeTransformerProvider::new)
                 .flatMap(provider -> Stream.concat(Stream.concat(
                     reasoner.objectPropertiesDAG().stream()
                             .filter(node -> !node.getRepresentative().isInverse() && !tMappingExclusionConfig.contains(node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.objectPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> (SaturationTask) () -> saturate(node.getRepresentative(), getSubsumees(reasoner.objectPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
                                     .flatMap(ma -> node.getMembers().stream()
                                             .filter(d -> !d.isInverse() || d.getInverse() != node.getRepresentative())
                                             .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma)))),
 
                     reasoner.dataPropertiesDAG().stream()
                             .filter(node -> !tMappingExclusionConfig.contains(node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.dataPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> (SaturationTask) () -> saturate(node.getRepresentative(), getSubsumees(reasoner.dataPropertiesDAG(), node), original, provider::getTransformer, cqc).stream()
                                     .flatMap(ma -> node.getMembers().stream()
                                             .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))))),
 
                     reasoner.classesDAG().stream()
                             .filter(node -> (node.getRepresentative() instanceof OClass) && !tMappingExclusionConfig.contains((OClass)node.getRepresentative()))
-                            .flatMap(node -> saturate(node.getRepresentative(), getSubsumees(reasoner.classesDAG(), node), original, provider::getTransformer, cqc).stream()
+                            .map(node -> (SaturationTask) () -> saturate(node.getRepresentative(), getSubsumees(reasoner.classesDAG(), node), original, provider::getTransformer, cqc).stream()
                                     .flatMap(ma -> node.getMembers().stream()
                                             .filter(d -> d instanceof OClass)
                                             .map(d -> Maps.immutableEntry(provider.getTransformer(node.getRepresentative(), d), ma))))))
+                .collect(ImmutableCollectors.toList());
+
+        ImmutableMap<MappingAssertionIndex, MappingAssertion> saturated = timings.run("saturation",
+                () -> stageExecutor.map(tasks, t -> t.get()
+                                .map(e -> Maps.immutableEntry(
+                                        e.getKey().getToIndex(), e.getKey().updateConstructionNodeIri(e.getValue())))
+                                .collect(ImmutableCollectors.toList()))
+                        .stream()
+                        .flatMap(Collection::stream)
+                        .collect(ImmutableCollectors.toMap()));
 
-                .map(e -> Maps.immutableEntry(
-                        e.getKey().getToIndex(), e.getKey().updateConstructionNodeIri(e.getValue())))
-                .collect(ImmutableCollectors.toMap());
-
-        return Stream.concat(
-                saturated.values().stream(),
-                original.asMap().entrySet().stream()
-                        .filter(e -> !saturated.containsKey(e.getKey()))
-                        .map(e -> e.getValue().stream()
-                                        .collect(MappingAssertionUnion.toMappingAssertion(cqc, coreSingletons, queryMerger)))
-                        .map(Optional::get))
+        ImmutableList<Collection<MappingAssertion>> nonSaturated = original.asMap().entrySet().stream()
+                .filter(e -> !saturated.containsKey(e.getKey()))
+                .map(Map.Entry::getValue)
                 .collect(ImmutableCollectors.toList());
+
+        ImmutableList<MappingAssertion> result = timings.run("union of the other assertions",
+                () -> Stream.concat(
+                        saturated.values().stream(),
+                        stageExecutor.map(nonSaturated, c -> c.stream()
+                                        .collect(MappingAssertionUnion.toMappingAssertion(cqc, coreSingletons, queryMerger))
+                                        .get())
+                                .stream())
+                        .collect(ImmutableCollectors.toList()));
+
+        timings.log();
+        return result;
     }
 
     private MappingAssertion optimize(ExtensionalDataNodeListContainmentCheck cqc, MappingAssertion m) {
@@ -153,8 +173,16 @@ public class TMappingSaturatorImpl implements MappingSaturator  {
     }
 
     private static <T> Stream<T> getSubsumees(EquivalencesDAG<T> dag, Equivalences<T> node) {
-        return dag.getSub(node).stream()
-                .flatMap(n -> n.getMembers().stream());
+        Stream.Builder<T> builder = Stream.builder();
+        dag.forEachSub(node, n -> n.getMembers().forEach(builder));
+        return builder.build();
+    }
+
+    /**
+     * Saturated mapping assertion of a DAG node (for a given predicate type), with its transformers to the node members
+     */
+    private interface SaturationTask
+            extends Supplier<Stream<Map.Entry<MappingAssertionConstructionNodeTransformer, MappingAssertion>>> {
     }
 
     private class MappingAssertionConstructionNodeTransformer {
@@ -1,6 +1,35 @@
 package it.unibz.inf.ontop.injection;
 
 
+import java.util.Optional;
+
 public interface OntopMappingSQLSettings extends OntopMappingSettings, OntopSQLCredentialSettings {
 
+    /**
+     * Maximum number of meta-mapping expansion queries run concurrently at startup (each on its own connection).
+     * If 0, uses all the available processors.
+     *
+     * 1 by default: the additional connections are opened directly (not taken from a pool), so running
+     * the queries concurrently has to be enabled for the DBs that accept them.
+     */
+    int getMetaMappingExpansionParallelism();
+
+    /**
+     * File where the values obtained by the meta-mapping expansion queries are persisted,
+     * for skipping these queries at the next startups
+     */
+    Optional<String> getMetaMappingExpansionCacheFile();
+
+    /**
+     * If true, the expansion queries are run even if their values are in the cache file (which is then updated)
+     */
+    boolean isMetaMappingExpansionCacheRefreshRequested();
+
+    //--------------------------
+    // Keys
+    //--------------------------
+
+    String META_MAPPING_EXPANSION_PARALLELISM = "ontop.metaMappingExpansion.parallelism";
+    String META_MAPPING_EXPANSION_CACHE_FILE = "ontop.metaMappingExpansion.cacheFile";
+    String REFRESH_META_MAPPING_EXPANSION_CACHE = "ontop.metaMappingExpansion.refreshCache";
 }
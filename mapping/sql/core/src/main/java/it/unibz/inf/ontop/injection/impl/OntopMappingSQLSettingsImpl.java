@@ -54,4 +54,19 @@ public class OntopMappingSQLSettingsImpl extends OntopMappingSettingsImpl implem
     public String getJdbcDriver() {
         return sqlSettings.getJdbcDriver();
     }
+
+    @Override
+    public int getMetaMappingExpansionParallelism() {
+        return getRequiredInteger(OntopMappingSQLSettings.META_MAPPING_EXPANSION_PARALLELISM);
+    }
+
+    @Override
+    public Optional<String> getMetaMappingExpansionCacheFile() {
+        return getProperty(OntopMappingSQLSettings.META_MAPPING_EXPANSION_CACHE_FILE);
+    }
+
+    @Override
+    public boolean isMetaMappingExpansionCacheRefreshRequested() {
+        return getRequiredBoolean(OntopMappingSQLSettings.REFRESH_META_MAPPING_EXPANSION_CACHE);
+    }
 }
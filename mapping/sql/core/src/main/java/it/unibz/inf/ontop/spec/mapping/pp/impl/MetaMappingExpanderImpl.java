@@ -5,7 +5,7 @@ import com.google.inject.Inject;
 import it.unibz.inf.ontop.dbschema.DBParameters;
 import it.unibz.inf.ontop.exception.MetaMappingExpansionException;
 import it.unibz.inf.ontop.injection.IntermediateQueryFactory;
-import it.unibz.inf.ontop.injection.OntopSQLCredentialSettings;
+import it.unibz.inf.ontop.injection.OntopMappingSQLSettings;
 import it.unibz.inf.ontop.iq.IQTree;
 import it.unibz.inf.ontop.iq.node.NativeNode;
 import it.unibz.inf.ontop.iq.transform.IQTree2NativeNodeGenerator;
@@ -19,22 +19,33 @@ import it.unibz.inf.ontop.substitution.Substitution;
 import it.unibz.inf.ontop.substitution.SubstitutionFactory;
 import it.unibz.inf.ontop.utils.ImmutableCollectors;
 import it.unibz.inf.ontop.utils.LocalJDBCConnectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
 
+/**
+ * The expansion queries (one per meta-mapping assertion) are run concurrently, each worker having its own connection.
+ * Their values can be persisted (see {@link OntopMappingSQLSettings#getMetaMappingExpansionCacheFile()}).
+ */
 public class MetaMappingExpanderImpl implements MetaMappingExpander {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetaMappingExpanderImpl.class);
+
     private final SubstitutionFactory substitutionFactory;
     private final IntermediateQueryFactory iqFactory;
     private final TermFactory termFactory;
     private final NotYetTypedEqualityTransformer mappingEqualityTransformer;
     private final NotYetTypedBinaryMathOperationTransformer mappingBinaryMathOperationTransformer;
     private final IQTree2NativeNodeGenerator nativeNodeGenerator;
-    private final OntopSQLCredentialSettings settings;
+    private final OntopMappingSQLSettings settings;
 
     @Inject
     private MetaMappingExpanderImpl(SubstitutionFactory substitutionFactory,
@@ -43,7 +54,7 @@ public class MetaMappingExpanderImpl implements MetaMappingExpander {
                                     NotYetTypedEqualityTransformer mappingEqualityTransformer,
                                     NotYetTypedBinaryMathOperationTransformer mappingBinaryMathOperationTransformer,
                                     IQTree2NativeNodeGenerator nativeNodeGenerator,
-                                    OntopSQLCredentialSettings settings) {
+                                    OntopMappingSQLSettings settings) {
         this.substitutionFactory = substitutionFactory;
         this.iqFactory = iqFactory;
         this.termFactory = termFactory;
@@ -71,28 +82,181 @@ public class MetaMappingExpanderImpl implements MetaMappingExpander {
         if (positions.isEmpty())
             return mapping;
 
-        try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
-            for (ExpansionPosition position : positions) {
-                NativeNode nativeNode = position.getDatabaseQuery(dbParameters);
-                try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(nativeNode.getNativeQueryString())) {
-                    while (rs.next()) {
-                        Substitution<ImmutableTerm> sub = substitutionFactory.getSubstitutionThrowsExceptions(
-                                nativeNode.getVariables(),
-                                v -> v,
-                                v -> termFactory.getDBConstant(
-                                        rs.getString(nativeNode.getColumnNames().get(v).getName()),
-                                        nativeNode.getTypeMap().get(v)));
-
-                        resultBuilder.add(position.createExpansion(sub));
-                    }
-                }
+        long start = System.currentTimeMillis();
+        ImmutableList<ExpansionQuery> queries = positions.stream()
+                .map(p -> new ExpansionQuery(p, dbParameters))
+                .collect(ImmutableCollectors.toList());
+
+        Optional<MetaMappingExpansionCache> cache = settings.getMetaMappingExpansionCacheFile()
+                .map(f -> new MetaMappingExpansionCache(Paths.get(f), settings.isMetaMappingExpansionCacheRefreshRequested()));
+
+        // Indexed like the queries
+        List<ImmutableList<ImmutableList<String>>> values = new ArrayList<>(Collections.nCopies(queries.size(), null));
+        ImmutableList.Builder<Integer> queriesToRunBuilder = ImmutableList.builder();
+        for (int i = 0; i < queries.size(); i++) {
+            Optional<ImmutableList<ImmutableList<String>>> cachedValues = cache.flatMap(queries.get(i)::getCachedValues);
+            if (cachedValues.isPresent())
+                values.set(i, cachedValues.get());
+            else
+                queriesToRunBuilder.add(i);
+        }
+        ImmutableList<Integer> queriesToRun = queriesToRunBuilder.build();
+
+        ImmutableList<ImmutableList<ImmutableList<String>>> results = run(queriesToRun.stream()
+                .map(queries::get)
+                .collect(ImmutableCollectors.toList()));
+        for (int i = 0; i < queriesToRun.size(); i++) {
+            ExpansionQuery query = queries.get(queriesToRun.get(i));
+            ImmutableList<ImmutableList<String>> result = results.get(i);
+            values.set(queriesToRun.get(i), result);
+            cache.ifPresent(c -> query.cacheValues(c, result));
+        }
+        cache.ifPresent(MetaMappingExpansionCache::save);
+
+        // In the order of the mapping, whatever the order of completion of the queries
+        for (int i = 0; i < queries.size(); i++) {
+            ExpansionQuery query = queries.get(i);
+            for (ImmutableList<String> row : values.get(i))
+                resultBuilder.add(query.position.createExpansion(query.toSubstitution(row)));
+        }
+        LOGGER.info("Meta-mapping expansion completed in {} ms ({} queries run, {} read from the cache)",
+                System.currentTimeMillis() - start, queriesToRun.size(), queries.size() - queriesToRun.size());
+
+        return resultBuilder.build();
+    }
+
+    /**
+     * Results in the same order as the queries
+     */
+    private ImmutableList<ImmutableList<ImmutableList<String>>> run(ImmutableList<ExpansionQuery> queries)
+            throws MetaMappingExpansionException {
+        if (queries.isEmpty())
+            return ImmutableList.of();
+
+        int parallelism = Math.min(queries.size(), settings.getMetaMappingExpansionParallelism() > 0
+                ? settings.getMetaMappingExpansionParallelism()
+                : Runtime.getRuntime().availableProcessors());
+
+        if (parallelism == 1) {
+            try (Connection connection = LocalJDBCConnectionUtils.createConnection(settings)) {
+                ImmutableList.Builder<ImmutableList<ImmutableList<String>>> builder = ImmutableList.builder();
+                for (ExpansionQuery query : queries)
+                    builder.add(query.run(connection));
+                return builder.build();
+            }
+            catch (SQLException e) {
+                throw new MetaMappingExpansionException(e);
             }
         }
+
+        // The connections are taken from the queue by the tasks, and closed at the end
+        BlockingQueue<Connection> connections = new ArrayBlockingQueue<>(parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "meta-mapping-expansion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < parallelism; i++)
+                connections.add(LocalJDBCConnectionUtils.createConnection(settings));
+
+            ImmutableList<Future<ImmutableList<ImmutableList<String>>>> futures = queries.stream()
+                    .map(q -> executor.submit(() -> {
+                        Connection connection = connections.take();
+                        try {
+                            return q.run(connection);
+                        }
+                        finally {
+                            connections.put(connection);
+                        }
+                    }))
+                    .collect(ImmutableCollectors.toList());
+
+            ImmutableList.Builder<ImmutableList<ImmutableList<String>>> builder = ImmutableList.builder();
+            for (Future<ImmutableList<ImmutableList<String>>> future : futures)
+                builder.add(getResult(future));
+            return builder.build();
+        }
         catch (SQLException e) {
             throw new MetaMappingExpansionException(e);
         }
+        finally {
+            executor.shutdownNow();
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                }
+                catch (SQLException e) {
+                    LOGGER.warn("Could not close a meta-mapping expansion connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
 
-        return resultBuilder.build();
+    private static <T> T getResult(Future<T> future) throws SQLException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted during the meta-mapping expansion", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException)
+                throw (SQLException) e.getCause();
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    /**
+     * The values are the strings returned by the DB, ordered by variable name
+     */
+    private final class ExpansionQuery {
+        private final ExpansionPosition position;
+        private final NativeNode nativeNode;
+        private final ImmutableList<Variable> variables;
+
+        ExpansionQuery(ExpansionPosition position, DBParameters dbParameters) {
+            this.position = position;
+            this.nativeNode = position.getDatabaseQuery(dbParameters);
+            this.variables = nativeNode.getVariables().stream()
+                    .sorted(Comparator.comparing(Variable::getName))
+                    .collect(ImmutableCollectors.toList());
+        }
+
+        ImmutableList<ImmutableList<String>> run(Connection connection) throws SQLException {
+            ImmutableList.Builder<ImmutableList<String>> builder = ImmutableList.builder();
+            try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery(nativeNode.getNativeQueryString())) {
+                while (rs.next()) {
+                    ImmutableList.Builder<String> rowBuilder = ImmutableList.builder();
+                    for (Variable v : variables)
+                        rowBuilder.add(rs.getString(nativeNode.getColumnNames().get(v).getName()));
+                    builder.add(rowBuilder.build());
+                }
+            }
+            return builder.build();
+        }
+
+        Substitution<ImmutableTerm> toSubstitution(ImmutableList<String> row) {
+            return IntStream.range(0, variables.size())
+                    .boxed()
+                    .collect(substitutionFactory.toSubstitution(
+                            variables::get,
+                            i -> termFactory.getDBConstant(row.get(i), nativeNode.getTypeMap().get(variables.get(i)))));
+        }
+
+        private String getFingerprint() {
+            return MetaMappingExpansionCache.getFingerprint(settings.getJdbcUrl(), settings.getJdbcUser(),
+                    nativeNode.getNativeQueryString());
+        }
+
+        Optional<ImmutableList<ImmutableList<String>>> getCachedValues(MetaMappingExpansionCache cache) {
+            return cache.get(getFingerprint());
+        }
+
+        void cacheValues(MetaMappingExpansionCache cache, ImmutableList<ImmutableList<String>> values) {
+            cache.put(getFingerprint(), values);
+        }
     }
 
     private final class ExpansionPosition {
@@ -0,0 +1,104 @@
+package it.unibz.inf.ontop.spec.mapping.pp.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Values of the meta-mapping expansion queries persisted in a JSON file.
+ *
+ * The values of a query are stored under a fingerprint of the query and of the JDBC URL and user:
+ * they are reused as long as the query and the DB are unchanged (the DB content is not checked, a refresh
+ * must be requested when it has changed).
+ *
+ * The cache is optional: IO errors are reported as warnings. Not thread-safe.
+ */
+class MetaMappingExpansionCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetaMappingExpansionCache.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    // Values of the queries of this expansion (the entries of the queries no longer in the mapping are dropped)
+    private final Map<String, List<List<String>>> newEntries = new TreeMap<>();
+    private final Map<String, List<List<String>>> previousEntries;
+    private boolean isModified = false;
+
+    /**
+     * @param ignorePreviousEntries when a refresh is requested
+     */
+    MetaMappingExpansionCache(Path file, boolean ignorePreviousEntries) {
+        this.file = file;
+        this.previousEntries = ignorePreviousEntries ? new HashMap<>() : load(file);
+    }
+
+    private static Map<String, List<List<String>>> load(Path file) {
+        if (!Files.exists(file))
+            return new HashMap<>();
+
+        try {
+            return OBJECT_MAPPER.readValue(file.toFile(), new TypeReference<HashMap<String, List<List<String>>>>() {});
+        }
+        catch (IOException e) {
+            LOGGER.warn("Could not read the meta-mapping expansion cache {}: {}", file, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    static String getFingerprint(String jdbcUrl, Optional<String> jdbcUser, String nativeQuery) {
+        return Hashing.sha256()
+                .hashString(jdbcUrl + "\n" + jdbcUser.orElse("") + "\n" + nativeQuery, StandardCharsets.UTF_8)
+                .toString();
+    }
+
+    Optional<ImmutableList<ImmutableList<String>>> get(String fingerprint) {
+        List<List<String>> rows = previousEntries.get(fingerprint);
+        if (rows == null)
+            return Optional.empty();
+
+        newEntries.put(fingerprint, rows);
+        return Optional.of(rows.stream()
+                .map(ImmutableList::copyOf)
+                .collect(ImmutableCollectors.toList()));
+    }
+
+    void put(String fingerprint, ImmutableList<ImmutableList<String>> rows) {
+        newEntries.put(fingerprint, ImmutableList.<List<String>>copyOf(rows));
+        isModified = true;
+    }
+
+    /**
+     * Written if some values have been obtained from the DB or some entries have been dropped
+     */
+    void save() {
+        if (!isModified && newEntries.size() == previousEntries.size())
+            return;
+
+        try {
+            Path absoluteFile = file.toAbsolutePath();
+            Files.createDirectories(absoluteFile.getParent());
+            // Written atomically (the file may be read by another instance)
+            Path tmpFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                OBJECT_MAPPER.writeValue(out, newEntries);
+            }
+            Files.move(tmpFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            LOGGER.warn("Could not write the meta-mapping expansion cache {}: {}", file, e.getMessage());
+        }
+    }
+}
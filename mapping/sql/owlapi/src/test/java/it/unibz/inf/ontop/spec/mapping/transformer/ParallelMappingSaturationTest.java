@@ -0,0 +1,96 @@
+package it.unibz.inf.ontop.spec.mapping.transformer;
+
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.exception.OBDASpecificationException;
+import it.unibz.inf.ontop.injection.OntopMappingSQLAllOWLAPIConfiguration;
+import it.unibz.inf.ontop.injection.OntopMappingSettings;
+import it.unibz.inf.ontop.iq.IQ;
+import it.unibz.inf.ontop.model.atom.RDFAtomPredicate;
+import it.unibz.inf.ontop.spec.mapping.Mapping;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The saturated mapping (including the variable names) must not depend on the parallelism
+ */
+public class ParallelMappingSaturationTest {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:parallel-mapping-saturation";
+    private static final String DB_USER = "sa";
+    private static final String DB_PASSWORD = "";
+    private static final String CREATE_SCRIPT = "src/test/resources/datatype-inference/create-db.sql";
+    private static final String OBDA_FILE = "src/test/resources/parallel-mapping/marriage.obda";
+    private static final String OWL_FILE = "src/test/resources/datatype-inference/marriage.ttl";
+
+    private static Connection CONNECTION;
+
+    @BeforeAll
+    public static void setUp() throws IOException, SQLException {
+        CONNECTION = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD);
+        try (Statement st = CONNECTION.createStatement()) {
+            st.executeUpdate(Files.readString(Paths.get(CREATE_SCRIPT)));
+        }
+        CONNECTION.commit();
+    }
+
+    @AfterAll
+    public static void tearDown() throws SQLException {
+        CONNECTION.close();
+    }
+
+    @Test
+    public void testSameSaturatedMapping() throws OBDASpecificationException {
+        ImmutableMap<String, IQ> sequentialDefinitions = getDefinitions(loadSaturatedMapping(1));
+        assertFalse(sequentialDefinitions.isEmpty());
+
+        assertEquals(sequentialDefinitions, getDefinitions(loadSaturatedMapping(4)));
+        // The pool is shared between the configurations
+        assertEquals(sequentialDefinitions, getDefinitions(loadSaturatedMapping(4)));
+    }
+
+    private static Mapping loadSaturatedMapping(int parallelism) throws OBDASpecificationException {
+        Properties properties = new Properties();
+        properties.setProperty(OntopMappingSettings.MAPPING_PROCESSING_PARALLELISM, String.valueOf(parallelism));
+
+        return OntopMappingSQLAllOWLAPIConfiguration.defaultBuilder()
+                .nativeOntopMappingFile(OBDA_FILE)
+                .ontologyFile(OWL_FILE)
+                .jdbcUrl(JDBC_URL)
+                .jdbcUser(DB_USER)
+                .jdbcPassword(DB_PASSWORD)
+                .properties(properties)
+                .enableTestMode()
+                .build()
+                .loadSpecification()
+                .getSaturatedMapping();
+    }
+
+    /**
+     * Indexed by class or property, compared with equals() (variable names included)
+     */
+    private static ImmutableMap<String, IQ> getDefinitions(Mapping mapping) {
+        ImmutableMap.Builder<String, IQ> builder = ImmutableMap.builder();
+        for (RDFAtomPredicate predicate : mapping.getRDFAtomPredicates()) {
+            mapping.getRDFProperties(predicate)
+                    .forEach(p -> builder.put(predicate + " " + p,
+                            mapping.getRDFPropertyDefinition(predicate, p).get()));
+            mapping.getRDFClasses(predicate)
+                    .forEach(c -> builder.put(predicate + " a " + c,
+                            mapping.getRDFClassDefinition(predicate, c).get()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.docker.lightweight.mssql;
+
+import it.unibz.inf.ontop.docker.lightweight.AbstractConstraintTest;
+import it.unibz.inf.ontop.docker.lightweight.MSSQLLightweightTest;
+
+/**
+ * Same constraints as {@link ConstraintSQLServerTest}, extracted schema by schema
+ */
+@MSSQLLightweightTest
+public class BulkConstraintSQLServerTest extends AbstractConstraintTest {
+
+    private static final String PROPERTIES_FILE = "/dbconstraints/dbconstraints-mssql-bulk.properties";
+
+    public BulkConstraintSQLServerTest(String method) {
+        super(method, PROPERTIES_FILE);
+    }
+}
@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.docker.lightweight.mysql;
+
+import it.unibz.inf.ontop.docker.lightweight.AbstractConstraintTest;
+import it.unibz.inf.ontop.docker.lightweight.MySQLLightweightTest;
+
+/**
+ * Same constraints as {@link ConstraintMySQLTest}, extracted schema by schema
+ */
+@MySQLLightweightTest
+public class BulkConstraintMySQLTest extends AbstractConstraintTest {
+
+    private static final String PROPERTIES_FILE = "/dbconstraints/dbconstraints-mysql-bulk.properties";
+
+    public BulkConstraintMySQLTest(String method) {
+        super(method, PROPERTIES_FILE);
+    }
+}
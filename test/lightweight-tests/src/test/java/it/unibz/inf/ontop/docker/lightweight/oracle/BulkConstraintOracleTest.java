@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.docker.lightweight.oracle;
+
+import it.unibz.inf.ontop.docker.lightweight.AbstractConstraintTest;
+import it.unibz.inf.ontop.docker.lightweight.OracleLightweightTest;
+
+/**
+ * Same constraints as {@link ConstraintOracleTest}, extracted schema by schema
+ */
+@OracleLightweightTest
+public class BulkConstraintOracleTest extends AbstractConstraintTest {
+
+    private static final String PROPERTIES_FILE = "/dbconstraints/dbconstraints-oracle-bulk.properties";
+
+    public BulkConstraintOracleTest(String method) {
+        super(method, PROPERTIES_FILE);
+    }
+}
@@ -0,0 +1,17 @@
+package it.unibz.inf.ontop.docker.lightweight.postgresql;
+
+import it.unibz.inf.ontop.docker.lightweight.AbstractConstraintTest;
+import it.unibz.inf.ontop.docker.lightweight.PostgreSQLLightweightTest;
+
+/**
+ * Same constraints as {@link ConstraintPostgreSQLTest}, extracted schema by schema
+ */
+@PostgreSQLLightweightTest
+public class BulkConstraintPostgreSQLTest extends AbstractConstraintTest {
+
+    private static final String PROPERTIES_FILE = "/dbconstraints/dbconstraints-postgresql-bulk.properties";
+
+    public BulkConstraintPostgreSQLTest(String method) {
+        super(method, PROPERTIES_FILE);
+    }
+}
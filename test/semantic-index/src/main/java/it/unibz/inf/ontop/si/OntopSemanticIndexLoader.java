@@ -19,6 +19,11 @@ import java.util.Properties;
  */
 public interface OntopSemanticIndexLoader extends AutoCloseable {
 
+    /**
+     * Number of threads inserting the facts into the in-memory DB (0 for the number of available processors).
+     * To be given in the properties of the loading methods.
+     */
+    String LOADING_PARALLELISM = "ontop.si.loadingParallelism";
 
     OntopSQLOWLAPIConfiguration getConfiguration();
 
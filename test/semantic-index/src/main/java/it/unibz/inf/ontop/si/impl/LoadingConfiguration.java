@@ -7,9 +7,11 @@ import it.unibz.inf.ontop.spec.mapping.SQLPPSourceQueryFactory;
 import it.unibz.inf.ontop.spec.mapping.TargetAtomFactory;
 import it.unibz.inf.ontop.model.term.TermFactory;
 import it.unibz.inf.ontop.model.type.TypeFactory;
+import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import it.unibz.inf.ontop.spec.ontology.owlapi.OWLAPITranslatorOWL2QL;
 import org.apache.commons.rdf.api.RDF;
 
+import java.util.Properties;
 import java.util.UUID;
 
 /**
@@ -73,4 +75,12 @@ public class LoadingConfiguration {
     public RDF getRdfFactory() {
         return rdfFactory;
     }
+
+    /**
+     * All the available processors by default
+     */
+    public static int getLoadingParallelism(Properties properties) {
+        int parallelism = Integer.parseInt(properties.getProperty(OntopSemanticIndexLoader.LOADING_PARALLELISM, "0"));
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
 }
@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.si.impl;
 
 import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import it.unibz.inf.ontop.si.SemanticIndexException;
+import it.unibz.inf.ontop.si.repository.impl.ParallelABoxLoader;
 import it.unibz.inf.ontop.si.repository.impl.SemanticIndexRepository;
 import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
 import it.unibz.inf.ontop.spec.ontology.Ontology;
@@ -53,7 +54,12 @@ public class OWLAPIABoxLoading {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .iterator();
-            int count = repo.insertData(connection, aBoxIter);
+            int count;
+            try (ParallelABoxLoader loader = repo.createParallelLoader(connection,
+                    LoadingConfiguration.getLoadingParallelism(properties))) {
+                loader.addAll(aBoxIter);
+                count = loader.finish();
+            }
             LOG.debug("Inserted {} triples from the ontology.", count);
 
             return new OntopSemanticIndexLoaderImpl(repo, connection, properties,
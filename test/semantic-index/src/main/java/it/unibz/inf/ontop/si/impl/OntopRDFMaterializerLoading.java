@@ -3,6 +3,7 @@ package it.unibz.inf.ontop.si.impl;
 import it.unibz.inf.ontop.exception.OntopConnectionException;
 import it.unibz.inf.ontop.exception.OntopQueryAnsweringException;
 import it.unibz.inf.ontop.injection.OntopSQLOWLAPIConfiguration;
+import it.unibz.inf.ontop.si.repository.impl.ParallelABoxLoader;
 import it.unibz.inf.ontop.si.repository.impl.SemanticIndexRepository;
 import it.unibz.inf.ontop.materialization.MaterializationParams;
 import it.unibz.inf.ontop.answering.resultset.MaterializedGraphResultSet;
@@ -49,26 +50,30 @@ public class OntopRDFMaterializerLoading {
             try (MaterializedGraphResultSet graphResultSet = materializer.materialize()) {
 
                 Connection connection = repo.createConnection();
-                int count = repo.insertData(connection,
-                        new Iterator<>() {
-                            @Override
-                            public boolean hasNext() {
-                                try {
-                                    return graphResultSet.hasNext();
-                                } catch (OntopConnectionException | OntopQueryAnsweringException e) {
-                                    throw new RuntimeException(e);
-                                }
+                int count;
+                try (ParallelABoxLoader loader = repo.createParallelLoader(connection,
+                        LoadingConfiguration.getLoadingParallelism(properties))) {
+                    loader.addAll(new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            try {
+                                return graphResultSet.hasNext();
+                            } catch (OntopConnectionException | OntopQueryAnsweringException e) {
+                                throw new RuntimeException(e);
                             }
+                        }
 
-                            @Override
-                            public RDFFact next() {
-                                try {
-                                    return graphResultSet.next();
-                                } catch (OntopQueryAnsweringException | OntopConnectionException e) {
-                                    throw new RuntimeException(e);
-                                }
+                        @Override
+                        public RDFFact next() {
+                            try {
+                                return graphResultSet.next();
+                            } catch (OntopQueryAnsweringException | OntopConnectionException e) {
+                                throw new RuntimeException(e);
                             }
-                        });
+                        }
+                    });
+                    count = loader.finish();
+                }
                 LOG.debug("Inserted {} triples from the mappings.", count);
                 return new OntopSemanticIndexLoaderImpl(repo, connection, properties,
                         Optional.of(extractTBox(inputOntology)));
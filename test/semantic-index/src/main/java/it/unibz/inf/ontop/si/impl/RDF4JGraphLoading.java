@@ -8,6 +8,7 @@ import it.unibz.inf.ontop.model.type.RDFDatatype;
 import it.unibz.inf.ontop.model.type.TypeFactory;
 import it.unibz.inf.ontop.si.OntopSemanticIndexLoader;
 import it.unibz.inf.ontop.si.SemanticIndexException;
+import it.unibz.inf.ontop.si.repository.impl.ParallelABoxLoader;
 import it.unibz.inf.ontop.si.repository.impl.SemanticIndexRepository;
 import it.unibz.inf.ontop.spec.ontology.*;
 import it.unibz.inf.ontop.spec.ontology.impl.OntologyBuilderImpl;
@@ -24,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
 
 public class RDF4JGraphLoading {
@@ -53,14 +55,20 @@ public class RDF4JGraphLoading {
         Connection connection = repo.createConnection();
 
         //  Load the data
-        SemanticIndexRDFHandler insertData = new SemanticIndexRDFHandler(repo, connection,
-                loadingConfiguration.getTypeFactory(), loadingConfiguration.getTermFactory(),
-                rdfFactory);
-
-        for (IRI graphURL : graphURLs) {
-            processRDF(insertData, graphURL);
+        try (ParallelABoxLoader loader = repo.createParallelLoader(connection,
+                LoadingConfiguration.getLoadingParallelism(properties))) {
+            SemanticIndexRDFHandler insertData = new SemanticIndexRDFHandler(loader,
+                    loadingConfiguration.getTypeFactory(), loadingConfiguration.getTermFactory(),
+                    rdfFactory);
+
+            for (IRI graphURL : graphURLs) {
+                processRDF(insertData, graphURL);
+            }
+            LOG.info("Inserted {} triples", loader.finish());
+        }
+        catch (SQLException e) {
+            throw new SemanticIndexException(e.getMessage());
         }
-        LOG.info("Inserted {} triples", insertData.count);
 
         return new OntopSemanticIndexLoaderImpl(repo, connection, properties, Optional.empty() /* no tbox */);
     }
@@ -93,48 +101,24 @@ public class RDF4JGraphLoading {
 
     private static final class SemanticIndexRDFHandler extends AbstractRDFHandler {
 
-        private final SemanticIndexRepository repository;
-        private final Connection connection;
+        private final ParallelABoxLoader loader;
         private final TypeFactory typeFactory;
         private final TermFactory termFactory;
-
-        private static final int MAX_BUFFER_SIZE = 5000;
-
-        private final List<Statement> buffer = new ArrayList<>(MAX_BUFFER_SIZE);
-        private int count = 0;
         private final RDF rdfFactory;
 
-        public SemanticIndexRDFHandler(SemanticIndexRepository repository, Connection connection,
+        public SemanticIndexRDFHandler(ParallelABoxLoader loader,
                                        TypeFactory typeFactory, TermFactory termFactory,
                                        RDF rdfFactory) {
-            this.repository = repository;
+            this.loader = loader;
             this.typeFactory = typeFactory;
             this.termFactory = termFactory;
-            this.connection = connection;
             this.rdfFactory = rdfFactory;
         }
 
-        @Override
-        public void endRDF() throws RDFHandlerException {
-            loadBuffer();
-        }
-
         @Override
         public void handleStatement(Statement st) throws RDFHandlerException {
-            // Add statement to buffer
-            buffer.add(st);
-            if (buffer.size() == MAX_BUFFER_SIZE) {
-                loadBuffer();
-            }
-        }
-
-        private void loadBuffer() throws RDFHandlerException {
             try {
-                Iterator<RDFFact> assertionIterator = buffer.stream()
-                        .map(this::constructAssertion)
-                        .iterator();
-                count += repository.insertData(connection, assertionIterator);
-                buffer.clear();
+                loader.add(constructAssertion(st));
             }
             catch (Exception e) {
                 throw new RDFHandlerException(e);
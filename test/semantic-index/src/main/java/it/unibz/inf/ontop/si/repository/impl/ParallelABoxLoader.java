@@ -0,0 +1,221 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import com.google.common.collect.ImmutableList;
+import it.unibz.inf.ontop.si.repository.impl.SemanticIndexRepository.SliceRow;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import it.unibz.inf.ontop.utils.ImmutableCollectors;
+import org.apache.commons.rdf.api.IRI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts facts into the semantic index with several workers, each with its own connection to the DB.
+ *
+ * The facts are converted in the calling thread and partitioned by table slice:
+ * all the rows of a slice are inserted in batches by the same worker.
+ * The indexes are created after the facts have been inserted.
+ *
+ * Facts must be added by a single thread.
+ */
+public class ParallelABoxLoader implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelABoxLoader.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int COMMIT_SIZE = 5000;
+    // Batches waiting for a worker (bounds the memory when the workers are slower than the input)
+    private static final int QUEUE_CAPACITY = 16;
+    private static final long OFFER_TIMEOUT_MS = 100;
+    // End of the input
+    private static final List<SliceRow> END = Collections.emptyList();
+
+    private final SemanticIndexRepository repository;
+    private final Connection connection;
+    private final ImmutableList<Worker> workers;
+    private final ExecutorService executor;
+    private final ImmutableList<Future<Void>> workerFutures;
+
+    private final Map<RepositoryTableSlice, Worker> sliceWorkers = new HashMap<>();
+    private final Map<RepositoryTableSlice, List<SliceRow>> pendingRows = new HashMap<>();
+
+    private final long start = System.currentTimeMillis();
+    private int success = 0;
+    private final Map<IRI, Integer> failures = new HashMap<>();
+    private boolean isFinished = false;
+
+    /**
+     * @param connection used for creating the indexes (the workers open their own connections)
+     */
+    ParallelABoxLoader(SemanticIndexRepository repository, Connection connection, int parallelism) {
+        this.repository = repository;
+        this.connection = connection;
+        this.workers = IntStream.range(0, parallelism)
+                .mapToObj(i -> new Worker())
+                .collect(ImmutableCollectors.toList());
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "si-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workerFutures = workers.stream()
+                .map(executor::submit)
+                .collect(ImmutableCollectors.toList());
+    }
+
+    /**
+     * Facts that cannot be converted (e.g. with an unknown property) are counted as failures and ignored.
+     *
+     * Throws an exception if a worker has failed.
+     */
+    public void add(RDFFact fact) throws SQLException {
+        SliceRow row;
+        try {
+            row = repository.toRow(fact);
+        }
+        catch (Exception e) {
+            SemanticIndexRepository.registerFailure(fact, e, failures);
+            return;
+        }
+        success++;
+
+        RepositoryTableSlice slice = row.getSlice();
+        List<SliceRow> rows = pendingRows.computeIfAbsent(slice, s -> new ArrayList<>(BATCH_SIZE));
+        rows.add(row);
+        if (rows.size() == BATCH_SIZE) {
+            pendingRows.remove(slice);
+            send(getWorker(slice), rows);
+        }
+    }
+
+    public void addAll(Iterator<RDFFact> facts) throws SQLException {
+        while (facts.hasNext())
+            add(facts.next());
+    }
+
+    /**
+     * Round-robin assignment of the slices, in the order in which they appear
+     */
+    private Worker getWorker(RepositoryTableSlice slice) {
+        return sliceWorkers.computeIfAbsent(slice, s -> workers.get(sliceWorkers.size() % workers.size()));
+    }
+
+    private void send(Worker worker, List<SliceRow> rows) throws SQLException {
+        try {
+            while (!worker.queue.offer(rows, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS))
+                checkWorkers();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading the ABox", e);
+        }
+    }
+
+    /**
+     * Fails fast if a worker has stopped (its queue would not be consumed anymore)
+     */
+    private void checkWorkers() throws SQLException {
+        for (Future<Void> future : workerFutures) {
+            if (future.isDone())
+                getResult(future);
+        }
+    }
+
+    /**
+     * Inserts the remaining facts, waits for the workers and creates the indexes.
+     *
+     * Returns the number of facts inserted
+     */
+    public int finish() throws SQLException {
+        for (Map.Entry<RepositoryTableSlice, List<SliceRow>> e : pendingRows.entrySet())
+            send(getWorker(e.getKey()), e.getValue());
+        pendingRows.clear();
+
+        for (Worker worker : workers)
+            send(worker, END);
+        for (Future<Void> future : workerFutures)
+            getResult(future);
+        isFinished = true;
+        executor.shutdown();
+
+        long loadingEnd = System.currentTimeMillis();
+        repository.createIndexes(connection);
+        long end = System.currentTimeMillis();
+
+        SemanticIndexRepository.logInsertions(success, failures);
+        LOGGER.info("Loaded {} triples with {} workers in {} ms ({} triples/s), indexes created in {} ms",
+                success, workers.size(), loadingEnd - start,
+                success * 1000L / Math.max(1, loadingEnd - start), end - loadingEnd);
+        return success;
+    }
+
+    private static void getResult(Future<Void> future) throws SQLException {
+        try {
+            future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading the ABox", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException)
+                throw (SQLException) e.getCause();
+            throw new SQLException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops the workers if the loading has not been finished (the rows committed so far remain in the DB)
+     */
+    @Override
+    public void close() {
+        if (!isFinished)
+            executor.shutdownNow();
+    }
+
+
+    private final class Worker implements Callable<Void> {
+        private final BlockingQueue<List<SliceRow>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        @Override
+        public Void call() throws SQLException, InterruptedException {
+            try (Connection workerConnection = repository.connect()) {
+                workerConnection.setAutoCommit(false);
+                Map<RepositoryTableSlice, PreparedStatement> statements = new HashMap<>();
+                try {
+                    int uncommitted = 0;
+                    for (List<SliceRow> rows = queue.take(); rows != END; rows = queue.take()) {
+                        RepositoryTableSlice slice = rows.get(0).getSlice();
+                        PreparedStatement stm = statements.get(slice);
+                        if (stm == null) {
+                            stm = workerConnection.prepareStatement(slice.getINSERT());
+                            statements.put(slice, stm);
+                        }
+                        for (SliceRow row : rows)
+                            row.addBatch(stm);
+                        stm.executeBatch();
+                        stm.clearBatch();
+
+                        uncommitted += rows.size();
+                        if (uncommitted >= COMMIT_SIZE) {
+                            workerConnection.commit();
+                            uncommitted = 0;
+                        }
+                    }
+                    workerConnection.commit();
+                }
+                finally {
+                    for (PreparedStatement stm : statements.values())
+                        stm.close();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -54,5 +54,10 @@ public class RepositoryTable {
 
     String getCREATE() { return createCommand; }
 
+    String getCREATE_INDEX() {
+        return String.format("CREATE INDEX IF NOT EXISTS %s_IDX ON %s (%s, %s)", tableName, tableName,
+                RepositoryTableManager.IDX_COLUMN, RepositoryTableManager.URI_COLUMN);
+    }
+
     String getEXISTS() { return String.format("SELECT 1 FROM %s WHERE 1=0", tableName); }
 }
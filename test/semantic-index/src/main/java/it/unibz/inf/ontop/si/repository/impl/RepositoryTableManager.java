@@ -139,6 +139,11 @@ public class RepositoryTableManager {
 			st.addBatch(table.getCREATE());
 	}
 
+	public void createIndexes(Statement st) throws SQLException {
+		for (RepositoryTable table : ABOX_TABLES)
+			st.addBatch(table.getCREATE_INDEX());
+	}
+
 	public boolean isDBSchemaDefined(Connection conn)  {
 
 		try (Statement st = conn.createStatement()) {
@@ -67,7 +67,7 @@ public class SemanticIndexRepository {
     public Connection createConnection() throws SemanticIndexException {
 
         try {
-            Connection localConnection = DriverManager.getConnection(getJdbcUrl(), getUser(), getPassword());
+            Connection localConnection = connect();
             // Creating the ABox repository
             if (views.isDBSchemaDefined(localConnection)) {
                 LOGGER.debug("Schema already exists. Skipping creation");
@@ -87,6 +87,33 @@ public class SemanticIndexRepository {
         }
     }
 
+    /**
+     * Without creating the schema
+     */
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(getJdbcUrl(), getUser(), getPassword());
+    }
+
+    /**
+     * Creates the indexes of the ABox tables (if they do not exist yet).
+     * Cheaper once the data has been inserted.
+     */
+    public void createIndexes(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            views.createIndexes(st);
+            st.executeBatch();
+        }
+    }
+
+    /**
+     * Loader using several connections to the DB (see {@link ParallelABoxLoader})
+     *
+     * @param parallelism number of workers (and connections)
+     */
+    public ParallelABoxLoader createParallelLoader(Connection connection, int parallelism) {
+        return new ParallelABoxLoader(this, connection, parallelism);
+    }
+
     public SQLPPMapping createMappings() {
 
         OntopMappingConfiguration defaultConfiguration = OntopMappingConfiguration.defaultBuilder()
@@ -128,14 +155,7 @@ public class SemanticIndexRepository {
                     success++;
                 }
                 catch (Exception e) {
-                    IRI iri = Optional.of(ax.getClassOrProperty())
-                            .filter(c -> c instanceof IRIConstant)
-                            .map(c -> (IRIConstant) c)
-                            .orElseGet(ax::getProperty)
-                            .getIRI();
-                    int counter = failures.getOrDefault(iri, 0);
-                    failures.put(iri, counter + 1);
-                    System.out.println("INSERT FAILURE: " + ax + " " + e);
+                    registerFailure(ax, e, failures);
                 }
 
                 // Check if the batch count is already in the batch limit
@@ -159,6 +179,22 @@ public class SemanticIndexRepository {
 
         conn.setAutoCommit(oldAutoCommit);
 
+        logInsertions(success, failures);
+        return success;
+    }
+
+    static void registerFailure(RDFFact ax, Exception e, Map<IRI, Integer> failures) {
+        IRI iri = Optional.of(ax.getClassOrProperty())
+                .filter(c -> c instanceof IRIConstant)
+                .map(c -> (IRIConstant) c)
+                .orElseGet(ax::getProperty)
+                .getIRI();
+        int counter = failures.getOrDefault(iri, 0);
+        failures.put(iri, counter + 1);
+        System.out.println("INSERT FAILURE: " + ax + " " + e);
+    }
+
+    static void logInsertions(int success, Map<IRI, Integer> failures) {
         LOGGER.debug("Total successful insertions: " + success + ".");
         int totalFailures = 0;
         for (Map.Entry<IRI, Integer> entry : failures.entrySet()) {
@@ -167,98 +203,140 @@ public class SemanticIndexRepository {
         }
         if (totalFailures > 0)
             LOGGER.warn("Total failed insertions: " + totalFailures + ". (REASON: datatype mismatch between the ontology and database).");
-
-        return success;
     }
 
-
-    private final class BatchProcessor implements AutoCloseable {
-        private final Connection conn;
-        private final Map<ImmutableList<RDFTermType>, PreparedStatement> stmMap;
-
-        BatchProcessor(Connection conn) {
-            this.conn = conn;
-            stmMap = new HashMap<>();
+    /**
+     * Converts the fact into a row of a table slice (with the canonical representative of its class or property)
+     * and registers the non-emptiness of the slice for the semantic index of the latter.
+     *
+     * Not thread-safe.
+     */
+    SliceRow toRow(RDFFact ax) {
+        if (ax.isClassAssertion() && (ax.getObject() instanceof IRIConstant)) {
+            IRI classIRI = ((IRIConstant) ax.getObject()).getIRI();
+            OClass cls0 = tbox.classes().get(classIRI);
+            // replace concept by the canonical representative (which must be a concept name)
+            OClass cls = (OClass) tbox.classesDAG().getCanonicalForm(cls0);
+            return toRow(cls, ax.getSubject());
         }
-
-        void process(RDFFact ax) throws SQLException {
-            if (ax.isClassAssertion() && (ax.getObject() instanceof IRIConstant)) {
-                IRI classIRI = ((IRIConstant) ax.getObject()).getIRI();
-                OClass cls0 = tbox.classes().get(classIRI);
-                // replace concept by the canonical representative (which must be a concept name)
-                OClass cls = (OClass) tbox.classesDAG().getCanonicalForm(cls0);
-                process(cls, ax.getSubject());
+        else {
+            RDFConstant object = ax.getObject();
+            IRI propertyIri = ax.getProperty().getIRI();
+
+            if (object instanceof ObjectConstant) {
+                ObjectPropertyExpression ope0 = tbox.objectProperties().get(propertyIri);
+                if (ope0.isInverse())
+                    throw new RuntimeException("INVERSE PROPERTIES ARE NOT SUPPORTED IN ABOX:" + ax);
+                ObjectPropertyExpression ope = tbox.objectPropertiesDAG().getCanonicalForm(ope0);
+                if (ope.isInverse())
+                    return toRow(ope.getInverse(), (ObjectConstant) object, ax.getSubject());
+                else
+                    return toRow(ope, ax.getSubject(), (ObjectConstant) object);
             }
-            else {
-                RDFConstant object = ax.getObject();
-                IRI propertyIri = ax.getProperty().getIRI();
-
-                if (object instanceof ObjectConstant) {
-                    ObjectPropertyExpression ope0 = tbox.objectProperties().get(propertyIri);
-                    if (ope0.isInverse())
-                        throw new RuntimeException("INVERSE PROPERTIES ARE NOT SUPPORTED IN ABOX:" + ax);
-                    ObjectPropertyExpression ope = tbox.objectPropertiesDAG().getCanonicalForm(ope0);
-                    if (ope.isInverse())
-                        process(ope.getInverse(), (ObjectConstant) object, ax.getSubject());
-                    else
-                        process(ope, ax.getSubject(), (ObjectConstant) object);
-                }
-                else if (object instanceof RDFLiteralConstant) {
-                    DataPropertyExpression dpe0 = tbox.dataProperties().get(propertyIri);
-                    // replace the property by its canonical representative
-                    DataPropertyExpression dpe = tbox.dataPropertiesDAG().getCanonicalForm(dpe0);
-                    process(dpe, ax.getSubject(), (RDFLiteralConstant) ax.getObject());
-                }
+            else if (object instanceof RDFLiteralConstant) {
+                DataPropertyExpression dpe0 = tbox.dataProperties().get(propertyIri);
+                // replace the property by its canonical representative
+                DataPropertyExpression dpe = tbox.dataPropertiesDAG().getCanonicalForm(dpe0);
+                return toRow(dpe, ax.getSubject(), (RDFLiteralConstant) ax.getObject());
             }
+            else
+                throw new RuntimeException("UNSUPPORTED OBJECT IN ABOX:" + ax);
         }
+    }
 
-        void process(OClass cls, ObjectConstant c1) throws SQLException {
-            int idx = semanticIndex.getRange(cls).getIndex();
+    private SliceRow toRow(OClass cls, ObjectConstant c1) {
+        int idx = semanticIndex.getRange(cls).getIndex();
 
-            String uri = getObjectConstantUri(c1);
+        String uri = getObjectConstantUri(c1);
 
-            RepositoryTableSlice view =  views.getView(c1.getType());
-            PreparedStatement stm = getPreparedStatement(view);
+        RepositoryTableSlice view = views.getView(c1.getType());
+        // Register non emptiness
+        view.addIndex(idx);
+
+        return new SliceRow(view, stm -> {
             stm.setInt(1, idx);
             stm.setString(2, uri);
-            stm.addBatch();
+        });
+    }
 
-            // Register non emptiness
-            view.addIndex(idx);
-        }
+    private SliceRow toRow(ObjectPropertyExpression ope, ObjectConstant subject, ObjectConstant object) {
+        int	idx = semanticIndex.getRange(ope).getIndex();
 
-        void process(ObjectPropertyExpression ope, ObjectConstant subject, ObjectConstant object) throws SQLException {
-            int	idx = semanticIndex.getRange(ope).getIndex();
+        String uri1 = getObjectConstantUri(subject);
+        String uri2 = getObjectConstantUri(object);
 
-            String uri1 = getObjectConstantUri(subject);
-            String uri2 = getObjectConstantUri(object);
+        RepositoryTableSlice view = views.getView(subject.getType(), object.getType());
+        // Register non emptiness
+        view.addIndex(idx);
 
-            RepositoryTableSlice view = views.getView(subject.getType(), object.getType());
-            PreparedStatement stm = getPreparedStatement(view);
+        return new SliceRow(view, stm -> {
             stm.setInt(1, idx);
             stm.setString(2, uri1);
             stm.setString(3, uri2);
-            stm.addBatch();
-
-            // Register non emptiness
-            view.addIndex(idx);
-        }
+        });
+    }
 
+    private SliceRow toRow(DataPropertyExpression dpe, ObjectConstant subject, RDFLiteralConstant object) {
+        int idx = semanticIndex.getRange(dpe).getIndex();
 
-        void process(DataPropertyExpression dpe, ObjectConstant subject, RDFLiteralConstant object) throws SQLException {
-            int idx = semanticIndex.getRange(dpe).getIndex();
+        String uri = getObjectConstantUri(subject);
 
-            String uri = getObjectConstantUri(subject);
+        RepositoryTableSlice view = views.getView(subject.getType(), object.getType());
+        // register non-emptiness
+        view.addIndex(idx);
 
-            RepositoryTableSlice view =  views.getView(subject.getType(), object.getType());
-            PreparedStatement stm = getPreparedStatement(view);
+        return new SliceRow(view, stm -> {
             stm.setInt(1, idx);
             stm.setString(2, uri);
             view.getInsertAction().setValue(stm, object);
+        });
+    }
+
+    private static String getObjectConstantUri(ObjectConstant c)  {
+        return (c instanceof BNode) ? ((BNode) c).getLabel() : ((IRIConstant) c).getIRI().getIRIString();
+    }
+
+
+    @FunctionalInterface
+    interface ParameterSetter {
+        void setParameters(PreparedStatement stm) throws SQLException;
+    }
+
+    /**
+     * Row to be inserted with the INSERT statement of the slice
+     */
+    static final class SliceRow {
+        private final RepositoryTableSlice slice;
+        private final ParameterSetter parameterSetter;
+
+        private SliceRow(RepositoryTableSlice slice, ParameterSetter parameterSetter) {
+            this.slice = slice;
+            this.parameterSetter = parameterSetter;
+        }
+
+        RepositoryTableSlice getSlice() {
+            return slice;
+        }
+
+        void addBatch(PreparedStatement stm) throws SQLException {
+            parameterSetter.setParameters(stm);
             stm.addBatch();
+        }
+    }
+
+
+    private final class BatchProcessor implements AutoCloseable {
+        private final Connection conn;
+        private final Map<ImmutableList<RDFTermType>, PreparedStatement> stmMap;
 
-            // register non-emptiness
-            view.addIndex(idx);
+        BatchProcessor(Connection conn) {
+            this.conn = conn;
+            stmMap = new HashMap<>();
+        }
+
+        void process(RDFFact ax) throws SQLException {
+            SliceRow row = toRow(ax);
+            row.addBatch(getPreparedStatement(row.getSlice()));
         }
 
         PreparedStatement getPreparedStatement(RepositoryTableSlice view) throws SQLException {
@@ -270,10 +348,6 @@ public class SemanticIndexRepository {
             return stm;
         }
 
-        String getObjectConstantUri(ObjectConstant c)  {
-            return (c instanceof BNode) ? ((BNode) c).getLabel() : ((IRIConstant) c).getIRI().getIRIString();
-        }
-
         void execute() throws SQLException {
             for (PreparedStatement stm : stmMap.values()) {
                 stm.executeBatch();
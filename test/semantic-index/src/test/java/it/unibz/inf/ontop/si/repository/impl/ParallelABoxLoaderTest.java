@@ -0,0 +1,221 @@
+package it.unibz.inf.ontop.si.repository.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unibz.inf.ontop.model.term.IRIConstant;
+import it.unibz.inf.ontop.model.term.ObjectConstant;
+import it.unibz.inf.ontop.model.term.TermFactory;
+import it.unibz.inf.ontop.model.vocabulary.RDF;
+import it.unibz.inf.ontop.model.vocabulary.XSD;
+import it.unibz.inf.ontop.si.impl.LoadingConfiguration;
+import it.unibz.inf.ontop.spec.ontology.ClassifiedTBox;
+import it.unibz.inf.ontop.spec.ontology.RDFFact;
+import org.junit.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Each load is done in a fresh in-memory DB
+ */
+public class ParallelABoxLoaderTest {
+
+    private static final String EX = "http://example.org/";
+    private static final ImmutableList<String> TABLES = ImmutableList.of(
+            "QUEST_CLASS_ASSERTION",
+            "QUEST_OBJECT_PROPERTY_ASSERTION",
+            "QUEST_DATA_PROPERTY_LITERAL_ASSERTION",
+            "QUEST_DATA_PROPERTY_DEFAULT_TYPE_ASSERTION");
+
+    // Several batches per slice
+    private static final int SIZE = 3000;
+
+    @Test
+    public void testSameContentsAsSequentialLoading() throws Exception {
+        TestLoad sequential = new TestLoad();
+        int sequentialCount = sequential.repository.insertData(sequential.connection,
+                sequential.createFacts(SIZE).iterator());
+        ImmutableMap<String, List<String>> expected = sequential.getTableContents();
+        sequential.close();
+
+        assertEquals(5 * SIZE, sequentialCount);
+        assertEquals(5 * SIZE, expected.values().stream().mapToInt(List::size).sum());
+
+        for (int parallelism : new int[] { 1, 4 }) {
+            TestLoad load = new TestLoad();
+            int count;
+            try (ParallelABoxLoader loader = load.repository.createParallelLoader(load.connection, parallelism)) {
+                loader.addAll(load.createFacts(SIZE).iterator());
+                count = loader.finish();
+            }
+            assertEquals("Parallelism " + parallelism, sequentialCount, count);
+            assertEquals("Parallelism " + parallelism, expected, load.getTableContents());
+            load.close();
+        }
+    }
+
+    /**
+     * Facts that cannot be converted are not counted
+     */
+    @Test
+    public void testUnknownProperty() throws Exception {
+        TestLoad load = new TestLoad();
+        List<RDFFact> facts = new ArrayList<>(load.createFacts(10));
+        facts.add(RDFFact.createTripleFact(load.individual(0), load.iri("unknown"), load.individual(1)));
+
+        int count;
+        try (ParallelABoxLoader loader = load.repository.createParallelLoader(load.connection, 2)) {
+            loader.addAll(facts.iterator());
+            count = loader.finish();
+        }
+        assertEquals(50, count);
+        assertEquals(50, load.getTableContents().values().stream().mapToInt(List::size).sum());
+        load.close();
+    }
+
+    /**
+     * The worker fails once its queue has been consumed: reported by finish()
+     */
+    @Test(timeout = 60000)
+    public void testWorkerFailureReportedByFinish() throws Exception {
+        TestLoad load = new TestLoad();
+        load.dropClassTable();
+
+        try (ParallelABoxLoader loader = load.repository.createParallelLoader(load.connection, 2)) {
+            loader.addAll(load.createFacts(10).iterator());
+            assertThrows(SQLException.class, loader::finish);
+        }
+        load.close();
+    }
+
+    /**
+     * The queue of the failed worker is not consumed anymore: the loading must stop instead of waiting
+     * for free space in the queue
+     */
+    @Test(timeout = 60000)
+    public void testWorkerFailureReportedWhileAdding() throws Exception {
+        TestLoad load = new TestLoad();
+        load.dropClassTable();
+
+        List<RDFFact> facts = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++)
+            facts.add(RDFFact.createTripleFact(load.individual(i), load.rdfType, load.iri("A")));
+
+        try (ParallelABoxLoader loader = load.repository.createParallelLoader(load.connection, 2)) {
+            assertThrows(SQLException.class, () -> loader.addAll(facts.iterator()));
+        }
+        load.close();
+    }
+
+
+    private static class TestLoad {
+        private final TermFactory termFactory;
+        private final SemanticIndexRepository repository;
+        private final Connection connection;
+        private final IRIConstant rdfType;
+
+        TestLoad() throws Exception {
+            LoadingConfiguration loadingConfiguration = new LoadingConfiguration();
+            termFactory = loadingConfiguration.getTermFactory();
+            ClassifiedTBox tbox = loadingConfiguration.getTranslatorOWL2QL()
+                    .translateAndClassify(createOntology())
+                    .tbox();
+            repository = new SemanticIndexRepository(tbox, loadingConfiguration);
+            connection = repository.createConnection();
+            rdfType = termFactory.getConstantIRI(RDF.TYPE);
+        }
+
+        /**
+         * B is a subclass of A and q a subproperty of p
+         */
+        private static OWLOntology createOntology() throws OWLOntologyCreationException {
+            OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+            OWLDataFactory factory = manager.getOWLDataFactory();
+            OWLOntology ontology = manager.createOntology();
+
+            OWLClass a = factory.getOWLClass(IRI.create(EX + "A"));
+            OWLClass b = factory.getOWLClass(IRI.create(EX + "B"));
+            OWLObjectProperty p = factory.getOWLObjectProperty(IRI.create(EX + "p"));
+            OWLObjectProperty q = factory.getOWLObjectProperty(IRI.create(EX + "q"));
+            OWLDataProperty d = factory.getOWLDataProperty(IRI.create(EX + "d"));
+
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(a));
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(b));
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(p));
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(q));
+            manager.addAxiom(ontology, factory.getOWLDeclarationAxiom(d));
+            manager.addAxiom(ontology, factory.getOWLSubClassOfAxiom(b, a));
+            manager.addAxiom(ontology, factory.getOWLSubObjectPropertyOfAxiom(q, p));
+            return ontology;
+        }
+
+        /**
+         * 5 facts per individual, in 8 table slices (blank nodes and IRIs are in different slices)
+         */
+        List<RDFFact> createFacts(int size) {
+            List<RDFFact> facts = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                ObjectConstant subject = (i % 3 == 0) ? termFactory.getConstantBNode("b" + i) : individual(i);
+                facts.add(RDFFact.createTripleFact(subject, rdfType, iri(i % 2 == 0 ? "A" : "B")));
+                facts.add(RDFFact.createTripleFact(subject, iri("p"), individual(i + 1)));
+                facts.add(RDFFact.createTripleFact(individual(i), iri("q"), termFactory.getConstantBNode("b" + i)));
+                facts.add(RDFFact.createTripleFact(subject, iri("d"),
+                        termFactory.getRDFLiteralConstant("value " + i, XSD.STRING)));
+                facts.add(RDFFact.createTripleFact(individual(i), iri("d"),
+                        termFactory.getRDFLiteralConstant("value " + i, "en")));
+            }
+            return facts;
+        }
+
+        IRIConstant iri(String localName) {
+            return termFactory.getConstantIRI(EX + localName);
+        }
+
+        IRIConstant individual(int i) {
+            return iri("individual/" + i);
+        }
+
+        void dropClassTable() throws SQLException {
+            try (Statement st = connection.createStatement()) {
+                st.executeUpdate("DROP TABLE QUEST_CLASS_ASSERTION");
+            }
+        }
+
+        /**
+         * Sorted rows of each ABox table
+         */
+        ImmutableMap<String, List<String>> getTableContents() throws SQLException {
+            ImmutableMap.Builder<String, List<String>> builder = ImmutableMap.builder();
+            try (Statement st = connection.createStatement()) {
+                for (String table : TABLES) {
+                    List<String> rows = new ArrayList<>();
+                    try (ResultSet rs = st.executeQuery("SELECT * FROM " + table)) {
+                        int columnCount = rs.getMetaData().getColumnCount();
+                        while (rs.next()) {
+                            StringBuilder row = new StringBuilder();
+                            for (int i = 1; i <= columnCount; i++)
+                                row.append(rs.getString(i)).append('|');
+                            rows.add(row.toString());
+                        }
+                    }
+                    Collections.sort(rows);
+                    builder.put(table, rows);
+                }
+            }
+            return builder.build();
+        }
+
+        void close() throws SQLException {
+            connection.close();
+        }
+    }
+}